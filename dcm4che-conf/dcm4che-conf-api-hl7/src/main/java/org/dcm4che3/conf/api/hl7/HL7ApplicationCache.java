@@ -41,6 +41,7 @@ package org.dcm4che3.conf.api.hl7;
 import org.dcm4che3.conf.api.ConfigurationCache;
 import org.dcm4che3.conf.api.ConfigurationException;
 import org.dcm4che3.conf.api.ConfigurationNotFoundException;
+import org.dcm4che3.net.Device;
 import org.dcm4che3.net.hl7.HL7Application;
 
 
@@ -60,6 +61,12 @@ public class HL7ApplicationCache
         return conf.findHL7Application(name);
     }
 
+    @Override
+    protected String deviceNameOf(HL7Application value) {
+        Device device = value.getDevice();
+        return device != null ? device.getDeviceName() : null;
+    }
+
     public HL7Application findHL7Application(String name)
             throws ConfigurationException {
         HL7Application ae = get(name);
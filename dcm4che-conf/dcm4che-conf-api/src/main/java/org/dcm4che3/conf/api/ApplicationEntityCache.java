@@ -39,6 +39,7 @@
 package org.dcm4che3.conf.api;
 
 import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -56,6 +57,12 @@ public class ApplicationEntityCache
         return conf.findApplicationEntity(key);
     }
 
+    @Override
+    protected String deviceNameOf(ApplicationEntity value) {
+        Device device = value.getDevice();
+        return device != null ? device.getDeviceName() : null;
+    }
+
     @Override
     public ApplicationEntity findApplicationEntity(String aet)
             throws ConfigurationException {
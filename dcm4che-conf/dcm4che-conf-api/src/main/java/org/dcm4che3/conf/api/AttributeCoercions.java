@@ -42,9 +42,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Predicate;
 
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.TransferCapability.Role;
+import org.dcm4che3.util.ConditionIndex;
 
 
 /**
@@ -58,6 +60,8 @@ public class AttributeCoercions
     private final ArrayList<AttributeCoercion> list =
             new ArrayList<AttributeCoercion>();
 
+    private transient volatile ConditionIndex<AttributeCoercion> index;
+
     public void add(AttributeCoercion ac) {
         if (findByCommonName(ac.getCommonName()) != null)
             throw new IllegalStateException("AttributeCoercion with cn: '"
@@ -66,6 +70,7 @@ public class AttributeCoercions
         if (index < 0)
             index = -(index+1);
         list.add(index, ac);
+        this.index = null;
     }
 
     public void add(AttributeCoercions acs) {
@@ -74,10 +79,12 @@ public class AttributeCoercions
     }
 
     public boolean remove(AttributeCoercion ac) {
+        index = null;
         return list.remove(ac);
     }
 
     public void clear() {
+        index = null;
         list.clear();
     }
 
@@ -88,14 +95,36 @@ public class AttributeCoercions
         return null;
     }
 
-    public AttributeCoercion findAttributeCoercion(String sopClass, Dimse dimse,
-            Role role, String aeTitle) {
-        for (AttributeCoercion ac : list)
-            if (ac.matchesCondition(sopClass, dimse, role, aeTitle))
-                return ac;
-        return null;
+    public AttributeCoercion findAttributeCoercion(final String sopClass, final Dimse dimse,
+            final Role role, final String aeTitle) {
+        return index().find(aeTitle, sopClass, new Predicate<AttributeCoercion>() {
+            @Override
+            public boolean test(AttributeCoercion ac) {
+                return ac.matchesCondition(sopClass, dimse, role, aeTitle);
+            }
+        });
     }
 
+    private ConditionIndex<AttributeCoercion> index() {
+        ConditionIndex<AttributeCoercion> index = this.index;
+        if (index == null)
+            this.index = index = new ConditionIndex<>(list, CONDITIONS);
+        return index;
+    }
+
+    private static final ConditionIndex.Conditions<AttributeCoercion> CONDITIONS =
+            new ConditionIndex.Conditions<AttributeCoercion>() {
+                @Override
+                public String[] values1(AttributeCoercion ac) {
+                    return ac.getAETitles();
+                }
+
+                @Override
+                public String[] values2(AttributeCoercion ac) {
+                    return ac.getSOPClasses();
+                }
+            };
+
     @Override
     public Iterator<AttributeCoercion> iterator() {
         return list.iterator();
@@ -38,12 +38,34 @@
 
 package org.dcm4che3.conf.api;
 
-import java.util.HashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Thread-safe cache of configuration objects.
+ * <p>
+ * Concurrent requests for the same missing or stale entry are served by one invocation of
+ * {@link #find(Object, String)}; the other callers wait for its result. If an {@link Executor} and a
+ * {@link #setRefreshAheadTime refresh ahead time} are set, entries are reloaded in background before they become
+ * stale, so callers are not blocked by the lookup. If the reload of a previously found object fails, the previous
+ * value continues to be served until the next reload. Results of unsuccessful lookups are cached for the
+ * {@link #setNegativeTimeout negative timeout}, which defaults to the stale timeout.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
-public abstract class ConfigurationCache<C,T> {
+public abstract class ConfigurationCache<C,T> implements ConfigurationChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigurationCache.class);
 
     private static final class CacheEntry<T> {
         final T value;
@@ -54,10 +76,20 @@ public abstract class ConfigurationCache<C,T> {
         }
     }
 
-    private final HashMap<String, CacheEntry<T>> cache =
-            new HashMap<String, CacheEntry<T>>();
+    private final ConcurrentHashMap<String, CacheEntry<T>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FutureTask<CacheEntry<T>>> loading = new ConcurrentHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong loadErrorCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
     private final C conf;
-    private long staleTimeout;
+    private volatile long staleTimeout;
+    private volatile long negativeTimeout;
+    private volatile long refreshAheadTime;
+    private volatile Executor executor;
 
     public ConfigurationCache(C conf) {
         if (conf == null)
@@ -73,28 +105,278 @@ public abstract class ConfigurationCache<C,T> {
         this.staleTimeout = staleTimeout * 1000L;
     }
 
+    public int getNegativeTimeout() {
+        return (int) (negativeTimeout / 1000);
+    }
+
+    /**
+     * Set timeout in s after which an unsuccessful lookup is repeated. {@code 0} (= default) applies the
+     * stale timeout also to unsuccessful lookups.
+     *
+     * @param negativeTimeout timeout in s or {@code 0}
+     */
+    public void setNegativeTimeout(int negativeTimeout) {
+        if (negativeTimeout < 0)
+            throw new IllegalArgumentException("negativeTimeout: " + negativeTimeout);
+        this.negativeTimeout = negativeTimeout * 1000L;
+    }
+
+    public int getRefreshAheadTime() {
+        return (int) (refreshAheadTime / 1000);
+    }
+
+    /**
+     * Set time in s before the expiration of the stale timeout from which on accessed entries are reloaded
+     * in background. Only effective if an {@link #setExecutor Executor} is set. {@code 0} (= default) disables
+     * reloading in background.
+     *
+     * @param refreshAheadTime time in s or {@code 0}
+     */
+    public void setRefreshAheadTime(int refreshAheadTime) {
+        if (refreshAheadTime < 0)
+            throw new IllegalArgumentException("refreshAheadTime: " + refreshAheadTime);
+        this.refreshAheadTime = refreshAheadTime * 1000L;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     public void clear() {
+        generation.incrementAndGet();
         cache.clear();
     }
 
+    /**
+     * Remove cached object with the specified key. A load of that key in progress does not publish its result.
+     *
+     * @param key key of the cached object
+     */
+    public void remove(String key) {
+        loading.remove(key);
+        cache.remove(key);
+    }
+
+    /**
+     * Remove cached objects of the specified Device and all cached results of unsuccessful lookups.
+     * Clears the whole cache, if the cached objects does not provide the name of their Device.
+     *
+     * @param deviceName name of the Device
+     */
+    public void invalidate(String deviceName) {
+        generation.incrementAndGet();
+        for (Iterator<CacheEntry<T>> iter = cache.values().iterator(); iter.hasNext();) {
+            T value = iter.next().value;
+            if (value == null) {
+                iter.remove();
+            } else {
+                String name = deviceNameOf(value);
+                if (name == null) {
+                    cache.clear();
+                    return;
+                }
+                if (name.equals(deviceName))
+                    iter.remove();
+            }
+        }
+    }
+
+    @Override
+    public void onConfigurationChanges(String deviceName, ConfigurationChanges changes) {
+        if (deviceName != null)
+            invalidate(deviceName);
+        else
+            clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    public long getLoadErrorCount() {
+        return loadErrorCount.get();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * Returns the accumulated time in ms spent in {@link #find(Object, String)}.
+     *
+     * @return accumulated load time in ms
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get() / 1000000L;
+    }
+
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        loadCount.set(0);
+        loadErrorCount.set(0);
+        refreshCount.set(0);
+        totalLoadTime.set(0);
+    }
 
     public T get(String key) throws ConfigurationException {
         long now = System.currentTimeMillis();
         CacheEntry<T> entry = cache.get(key);
-        if (entry == null 
-                || (staleTimeout != 0 && now > entry.fetchTime + staleTimeout)) {
-            T value = null;
+        if (entry != null) {
+            long timeout = entry.value == null && negativeTimeout != 0 ? negativeTimeout : staleTimeout;
+            if (timeout == 0 || now <= entry.fetchTime + timeout) {
+                hitCount.incrementAndGet();
+                if (entry.value != null && timeout != 0 && refreshAheadTime != 0
+                        && now > entry.fetchTime + timeout - refreshAheadTime)
+                    refreshAhead(key, entry);
+                return entry.value;
+            }
+        }
+        missCount.incrementAndGet();
+        return load(key, entry);
+    }
+
+    private T load(String key, CacheEntry<T> prev) throws ConfigurationException {
+        FutureTask<CacheEntry<T>> task = newLoadTask(key, prev);
+        FutureTask<CacheEntry<T>> running = loading.putIfAbsent(key, task);
+        if (running == null) {
             try {
-                value = find(conf, key);
-            } catch (ConfigurationNotFoundException e) {
+                task.run();
+            } finally {
+                loading.remove(key, task);
             }
-            entry = new CacheEntry<T>(value, now);
-            cache.put(key, entry);
+            running = task;
         }
-        return entry.value;
+        try {
+            return running.get().value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConfigurationException)
+                throw (ConfigurationException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ConfigurationException(cause);
+        }
+    }
+
+    private void refreshAhead(final String key, CacheEntry<T> prev) {
+        Executor executor = this.executor;
+        if (executor == null)
+            return;
+
+        final FutureTask<CacheEntry<T>> task = newLoadTask(key, prev);
+        if (loading.putIfAbsent(key, task) != null)
+            return;
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        loading.remove(key, task);
+                    }
+                }
+            });
+            refreshCount.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, task);
+            LOG.info("Failed to schedule refresh of {}:", key, e);
+        }
+    }
+
+    private FutureTask<CacheEntry<T>> newLoadTask(String key, CacheEntry<T> prev) {
+        LoadCall call = new LoadCall(key, prev);
+        return call.task = new FutureTask<>(call);
+    }
+
+    /**
+     * Fetches the object and publishes it in the cache, as long as the load was not invalidated by
+     * {@link #clear()}, {@link #invalidate(String)} - which increment the generation - or by
+     * {@link #remove(String)} of the key - which unregisters the load task. The entry is put first and removed
+     * again if an invalidation is detected afterwards, so an invalidation concurrent to the put is never lost.
+     */
+    private final class LoadCall implements Callable<CacheEntry<T>> {
+        final String key;
+        final CacheEntry<T> prev;
+        final int gen = generation.get();
+        FutureTask<CacheEntry<T>> task;
+
+        LoadCall(String key, CacheEntry<T> prev) {
+            this.key = key;
+            this.prev = prev;
+        }
+
+        @Override
+        public CacheEntry<T> call() throws Exception {
+            CacheEntry<T> entry = fetch(key, prev);
+            if (isValid()) {
+                cache.put(key, entry);
+                if (!isValid())
+                    cache.remove(key, entry);
+            }
+            return entry;
+        }
+
+        private boolean isValid() {
+            return generation.get() == gen && loading.get(key) == task;
+        }
+    }
+
+    private CacheEntry<T> fetch(String key, CacheEntry<T> prev) throws ConfigurationException {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        T value = null;
+        try {
+            value = find(conf, key);
+        } catch (ConfigurationNotFoundException e) {
+        } catch (ConfigurationException | RuntimeException e) {
+            loadErrorCount.incrementAndGet();
+            if (prev == null || prev.value == null)
+                throw e;
+
+            LOG.warn("Failed to reload {} - continue to use previous loaded value:", key, e);
+            value = prev.value;
+        } finally {
+            loadCount.incrementAndGet();
+            totalLoadTime.addAndGet(System.nanoTime() - start);
+        }
+        return new CacheEntry<T>(value, now);
     }
 
     protected abstract T find(C conf, String key)
             throws ConfigurationException;
 
+    /**
+     * Returns the name of the Device of the cached object or {@code null}, if unknown.
+     *
+     * @param value cached object
+     * @return name of the Device or {@code null}
+     */
+    protected String deviceNameOf(T value) {
+        return null;
+    }
+
 }
@@ -57,6 +57,11 @@ public class DeviceCache extends ConfigurationCache<DicomConfiguration,Device> i
         return conf.findDevice(key);
     }
 
+    @Override
+    protected String deviceNameOf(Device value) {
+        return value.getDeviceName();
+    }
+
     @Override
     public Device findDevice(String deviceName) throws ConfigurationException {
         Device device = get(deviceName);
@@ -40,7 +40,9 @@ package org.dcm4che3.conf.api;
 
 import java.io.Closeable;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.stream.Stream;
 
 import org.dcm4che3.net.*;
 
@@ -100,6 +102,46 @@ public interface DicomConfiguration extends Closeable {
      */
     ApplicationEntityInfo[] listAETInfos(ApplicationEntityInfo keys) throws ConfigurationException;
 
+    /**
+     * Query for Devices with specified attributes. Implementations may fetch matching Devices from the
+     * backend in pages of the specified size while the returned stream is consumed. The returned stream
+     * shall be closed to release resources allocated by the query. Errors occurring while the stream is
+     * consumed are thrown as {@link UncheckedConfigurationException}.
+     *
+     * @param keys
+     *            Device attributes which shall match or <code>null</code> to
+     *            get information for all configured Devices
+     * @param pageSize
+     *            maximal number of Devices fetched from the backend at once or <code>0</code> for no limit
+     * @return stream of <code>DeviceInfo</code> objects for configured Devices
+     *         with matching attributes
+     * @throws ConfigurationException
+     */
+    default Stream<DeviceInfo> streamDeviceInfos(DeviceInfo keys, int pageSize) throws ConfigurationException {
+        return Arrays.stream(listDeviceInfos(keys));
+    }
+
+    /**
+     * Query for Application Entities with specified attributes. Implementations may fetch matching
+     * Application Entities from the backend in pages of the specified size while the returned stream is
+     * consumed. The returned stream shall be closed to release resources allocated by the query. Errors
+     * occurring while the stream is consumed are thrown as {@link UncheckedConfigurationException}.
+     *
+     * @param keys
+     *            Application Entity attributes which shall match or <code>null</code> to
+     *            get information for all configured Application Entities
+     * @param pageSize
+     *            maximal number of Application Entities fetched from the backend at once or <code>0</code>
+     *            for no limit
+     * @return stream of <code>ApplicationEntityInfo</code> objects for configured Application Entity
+     *         with matching attributes
+     * @throws ConfigurationException
+     */
+    default Stream<ApplicationEntityInfo> streamAETInfos(ApplicationEntityInfo keys, int pageSize)
+            throws ConfigurationException {
+        return Arrays.stream(listAETInfos(keys));
+    }
+
     String[] listDeviceNames() throws ConfigurationException;
 
     String[] listRegisteredAETitles() throws ConfigurationException;
@@ -128,5 +170,28 @@ public interface DicomConfiguration extends Closeable {
 
     void sync() throws ConfigurationException;
 
+    /**
+     * Register listener for modifications of the configuration. Implementations notify about modifications
+     * performed through this instance, and - if supported by the backend - about modifications performed by
+     * other processes.
+     *
+     * @param listener listener to register
+     * @throws UnsupportedOperationException if the implementation does not support change notifications
+     */
+    default void addConfigurationChangeListener(ConfigurationChangeListener listener) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Unregister listener for modifications of the configuration.
+     *
+     * @param listener listener to unregister
+     * @return {@code true} if the listener was registered
+     * @throws UnsupportedOperationException if the implementation does not support change notifications
+     */
+    default boolean removeConfigurationChangeListener(ConfigurationChangeListener listener) {
+        throw new UnsupportedOperationException();
+    }
+
     <T> T getDicomConfigurationExtension(Class<T> clazz);
 }
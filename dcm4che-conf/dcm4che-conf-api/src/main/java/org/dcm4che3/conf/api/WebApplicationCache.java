@@ -41,6 +41,7 @@
 
 package org.dcm4che3.conf.api;
 
+import org.dcm4che3.net.Device;
 import org.dcm4che3.net.WebApplication;
 
 /**
@@ -58,6 +59,12 @@ public class WebApplicationCache
         return conf.findWebApplication(key);
     }
 
+    @Override
+    protected String deviceNameOf(WebApplication value) {
+        Device device = value.getDevice();
+        return device != null ? device.getDeviceName() : null;
+    }
+
     @Override
     public WebApplication findWebApplication(String name) throws ConfigurationException {
         WebApplication webApp = get(name);
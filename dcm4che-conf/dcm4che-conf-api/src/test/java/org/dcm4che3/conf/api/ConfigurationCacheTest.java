@@ -0,0 +1,311 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class ConfigurationCacheTest {
+
+    private static class Backend {
+        final AtomicInteger lookups = new AtomicInteger();
+        volatile CountDownLatch block;
+        volatile boolean fail;
+
+        String find(String key) throws ConfigurationException {
+            lookups.incrementAndGet();
+            CountDownLatch block = this.block;
+            if (block != null)
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new ConfigurationException(e);
+                }
+            if (fail)
+                throw new ConfigurationException("backend unavailable");
+            if (key.startsWith("unknown"))
+                throw new ConfigurationNotFoundException(key);
+            return key + '#' + lookups.get();
+        }
+    }
+
+    private static class Cache extends ConfigurationCache<Backend,String> {
+        Cache(Backend backend) {
+            super(backend);
+        }
+
+        @Override
+        protected String find(Backend backend, String key) throws ConfigurationException {
+            return backend.find(key);
+        }
+
+        @Override
+        protected String deviceNameOf(String value) {
+            return value.substring(0, value.indexOf('#'));
+        }
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        final Backend backend = new Backend();
+        backend.block = new CountDownLatch(1);
+        final Cache cache = new Cache(backend);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return cache.get("AET");
+                    }
+                }));
+            Thread.sleep(100);
+            backend.block.countDown();
+            for (Future<String> future : futures)
+                assertEquals("AET#1", future.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, backend.lookups.get());
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(8, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void testServeStaleOnError() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        cache.setStaleTimeout(1);
+        assertEquals("AET#1", cache.get("AET"));
+        Thread.sleep(1100);
+        backend.fail = true;
+        assertEquals("AET#1", cache.get("AET"));
+        assertEquals(1, cache.getLoadErrorCount());
+        try {
+            cache.get("OTHER");
+            fail("ConfigurationException expected");
+        } catch (ConfigurationException expected) {
+        }
+    }
+
+    @Test
+    public void testNegativeTimeout() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        cache.setStaleTimeout(60);
+        cache.setNegativeTimeout(1);
+        assertNull(cache.get("unknown"));
+        assertNull(cache.get("unknown"));
+        assertEquals(1, backend.lookups.get());
+        Thread.sleep(1100);
+        assertNull(cache.get("unknown"));
+        assertEquals(2, backend.lookups.get());
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            cache.setExecutor(executor);
+            cache.setStaleTimeout(2);
+            cache.setRefreshAheadTime(1);
+            assertEquals("AET#1", cache.get("AET"));
+            assertEquals("AET#1", cache.get("AET"));
+            Thread.sleep(1100);
+            assertEquals("AET#1", cache.get("AET"));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals("AET#2", cache.get("AET"));
+            assertEquals(1, cache.getRefreshCount());
+            assertEquals(1, cache.getMissCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidateOnConfigurationChanges() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        assertEquals("DEV1#1", cache.get("DEV1"));
+        assertEquals("DEV2#2", cache.get("DEV2"));
+        assertNull(cache.get("unknown"));
+        cache.onConfigurationChanges("DEV1", new ConfigurationChanges(false));
+        assertEquals(1, cache.size());
+        assertEquals("DEV2#2", cache.get("DEV2"));
+        assertEquals("DEV1#4", cache.get("DEV1"));
+        cache.onConfigurationChanges(null, new ConfigurationChanges(false));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRemoveDuringLoad() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        Future<String> loading = startBlockedLoad(backend, cache, "AET");
+        try {
+            cache.remove("AET");
+            backend.block.countDown();
+            assertEquals("AET#1", loading.get());
+        } finally {
+            backend.block.countDown();
+        }
+        assertEquals(0, cache.size());
+        assertEquals("AET#2", cache.get("AET"));
+    }
+
+    @Test
+    public void testInvalidateDuringLoad() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        Future<String> loading = startBlockedLoad(backend, cache, "DEV1");
+        try {
+            cache.invalidate("DEV1");
+            backend.block.countDown();
+            assertEquals("DEV1#1", loading.get());
+        } finally {
+            backend.block.countDown();
+        }
+        assertEquals(0, cache.size());
+        assertEquals("DEV1#2", cache.get("DEV1"));
+    }
+
+    @Test
+    public void testRemoveOtherKeyDuringLoad() throws Exception {
+        Backend backend = new Backend();
+        Cache cache = new Cache(backend);
+        Future<String> loading = startBlockedLoad(backend, cache, "AET");
+        try {
+            cache.remove("OTHER");
+            backend.block.countDown();
+            assertEquals("AET#1", loading.get());
+        } finally {
+            backend.block.countDown();
+        }
+        assertEquals("AET#1", cache.get("AET"));
+        assertEquals(1, backend.lookups.get());
+    }
+
+    @Test
+    public void testConcurrentInvalidateAndLoad() throws Exception {
+        final AtomicInteger version = new AtomicInteger();
+        final ConfigurationCache<AtomicInteger,String> cache = new ConfigurationCache<AtomicInteger,String>(version) {
+            @Override
+            protected String find(AtomicInteger version, String key) {
+                String value = key + '#' + version.get();
+                Thread.yield();
+                return value;
+            }
+
+            @Override
+            protected String deviceNameOf(String value) {
+                return value.substring(0, value.indexOf('#'));
+            }
+        };
+        final AtomicInteger running = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                readers.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        while (running.get() != 0)
+                            cache.get("DEV1");
+                        return null;
+                    }
+                }));
+            for (int i = 0; i < 10000; i++) {
+                version.incrementAndGet();
+                if ((i & 1) == 0)
+                    cache.invalidate("DEV1");
+                else
+                    cache.remove("DEV1");
+            }
+            running.set(0);
+            for (Future<Void> reader : readers)
+                reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("DEV1#" + version.get(), cache.get("DEV1"));
+    }
+
+    private static Future<String> startBlockedLoad(Backend backend, final Cache cache, final String key)
+            throws InterruptedException {
+        backend.block = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> future = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return cache.get(key);
+                }
+            });
+            for (int i = 0; i < 100 && backend.lookups.get() == 0; i++)
+                Thread.sleep(10);
+            assertEquals(1, backend.lookups.get());
+            return future;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.json;
+
+import org.dcm4che3.conf.api.ConfigurationChangeListener;
+import org.dcm4che3.conf.api.ConfigurationChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Watches a directory containing the JSON configuration of Devices in files named {@code <device-name>.json},
+ * and notifies registered {@link ConfigurationChangeListener}s about created, modified and deleted files.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class DeviceFileWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceFileWatcher.class);
+    private static final String SUFFIX = ".json";
+
+    private final Path dir;
+    private final WatchService watchService;
+    private final List<ConfigurationChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public DeviceFileWatcher(Path dir) throws IOException {
+        this.dir = dir;
+        this.watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public Path getDeviceFile(String deviceName) {
+        return dir.resolve(deviceName + SUFFIX);
+    }
+
+    public void addConfigurationChangeListener(ConfigurationChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean removeConfigurationChangeListener(ConfigurationChangeListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Start watching the directory by a task executed by the specified executor, which runs until
+     * {@link #close()} is invoked.
+     *
+     * @param executor executor used to run the watching task
+     */
+    public void start(Executor executor) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        });
+    }
+
+    private void watch() {
+        LOG.info("Start watching {} for modified Device configurations", dir);
+        try {
+            for (;;) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents())
+                    onEvent(event);
+                if (!key.reset()) {
+                    LOG.warn("{} no longer accessible - stop watching", dir);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.info("Stop watching {} for modified Device configurations", dir);
+    }
+
+    private void onEvent(WatchEvent<?> event) {
+        WatchEvent.Kind<?> kind = event.kind();
+        if (kind == StandardWatchEventKinds.OVERFLOW) {
+            fireConfigurationChanges(null, new ConfigurationChanges(false));
+            return;
+        }
+
+        String fileName = event.context().toString();
+        if (!fileName.endsWith(SUFFIX))
+            return;
+
+        ConfigurationChanges changes = new ConfigurationChanges(false);
+        ConfigurationChanges.addModifiedObject(changes, dir.resolve(fileName).toString(),
+                kind == StandardWatchEventKinds.ENTRY_CREATE ? ConfigurationChanges.ChangeType.C
+                        : kind == StandardWatchEventKinds.ENTRY_DELETE ? ConfigurationChanges.ChangeType.D
+                        : ConfigurationChanges.ChangeType.U);
+        fireConfigurationChanges(fileName.substring(0, fileName.length() - SUFFIX.length()), changes);
+    }
+
+    private void fireConfigurationChanges(String deviceName, ConfigurationChanges changes) {
+        for (ConfigurationChangeListener listener : listeners)
+            try {
+                listener.onConfigurationChanges(deviceName, changes);
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to notify {} about configuration changes:", listener, e);
+            }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
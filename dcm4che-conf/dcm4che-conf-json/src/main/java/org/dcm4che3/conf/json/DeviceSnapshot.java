@@ -0,0 +1,273 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.conf.json;
+
+import org.dcm4che3.conf.api.ConfigurationException;
+import org.dcm4che3.net.Device;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.Json;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads a Device from its JSON configuration file, using a binary snapshot of the previously loaded Device,
+ * if the snapshot was created from a JSON configuration file with the same content. The snapshot is the Java
+ * serialization of the Device, preceded by the SHA-256 digest of the JSON configuration, of the snapshot format
+ * version and of the names and implementation versions of the registered {@link JsonConfigurationExtension}s
+ * and of the dcm4che network library, so snapshots written by a different release are ignored.
+ * <p>
+ * Only classes of dcm4che and JDK value and collection classes are accepted on deserialization of the snapshot.
+ * <p>
+ * Devices referenced by the loaded Device and fetched by the {@link ConfigurationDelegate} are included in the
+ * snapshot, but their configuration is not covered by the digest. Modifications of referenced Devices require to
+ * delete the snapshot.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class DeviceSnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceSnapshot.class);
+    private static final int MAGIC = 0x44455653; // DEVS
+    private static final int VERSION = 1;
+    private static final String ACCEPTED_PACKAGE = "org.dcm4che3.";
+    private static final Set<String> ACCEPTED_JDK_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.Boolean",
+            "java.lang.Byte",
+            "java.lang.Character",
+            "java.lang.Double",
+            "java.lang.Enum",
+            "java.lang.Float",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Number",
+            "java.lang.Short",
+            "java.lang.String",
+            "java.io.File",
+            "java.security.cert.Certificate$CertificateRep",
+            "java.util.ArrayList",
+            "java.util.Arrays$ArrayList",
+            "java.util.Collections$EmptyList",
+            "java.util.Collections$EmptyMap",
+            "java.util.Collections$EmptySet",
+            "java.util.Collections$UnmodifiableCollection",
+            "java.util.Collections$UnmodifiableList",
+            "java.util.Collections$UnmodifiableMap",
+            "java.util.Collections$UnmodifiableRandomAccessList",
+            "java.util.Collections$UnmodifiableSet",
+            "java.util.Date",
+            "java.util.EnumMap",
+            "java.util.EnumSet$SerializationProxy",
+            "java.util.HashMap",
+            "java.util.HashSet",
+            "java.util.LinkedHashMap",
+            "java.util.LinkedHashSet",
+            "java.util.LinkedList",
+            "java.util.SimpleTimeZone",
+            "java.util.TimeZone",
+            "java.util.TreeMap",
+            "java.util.TreeSet",
+            "java.util.concurrent.ConcurrentHashMap",
+            "java.util.concurrent.ConcurrentHashMap$Segment",
+            "java.util.concurrent.CopyOnWriteArrayList",
+            "java.util.concurrent.CopyOnWriteArraySet",
+            "java.util.concurrent.atomic.AtomicBoolean",
+            "java.util.concurrent.atomic.AtomicInteger",
+            "java.util.concurrent.atomic.AtomicIntegerArray",
+            "java.util.concurrent.atomic.AtomicLong",
+            "sun.util.calendar.ZoneInfo"));
+
+    private final JsonConfiguration config;
+
+    public DeviceSnapshot(JsonConfiguration config) {
+        if (config == null)
+            throw new NullPointerException("config");
+        this.config = config;
+    }
+
+    /**
+     * Load Device from JSON configuration file or from snapshot file, if it was created from the same JSON
+     * configuration. Creates or replaces the snapshot file, if the Device was loaded from the JSON configuration.
+     *
+     * @param jsonFile JSON configuration file
+     * @param snapshotFile snapshot file
+     * @param delegate used to fetch referenced Devices or {@code null}
+     * @return loaded Device
+     */
+    public Device loadDevice(Path jsonFile, Path snapshotFile, ConfigurationDelegate delegate)
+            throws IOException, ConfigurationException {
+        byte[] json = Files.readAllBytes(jsonFile);
+        byte[] digest = digest(json);
+        Device device = readSnapshot(snapshotFile, digest);
+        if (device != null) {
+            LOG.debug("Loaded Device {} from snapshot {}", device.getDeviceName(), snapshotFile);
+            return device;
+        }
+
+        try (InputStream in = new ByteArrayInputStream(json)) {
+            device = config.loadDeviceFrom(Json.createParser(in), delegate);
+        }
+        try {
+            writeSnapshot(snapshotFile, digest, device);
+            LOG.debug("Created snapshot {} of Device {}", snapshotFile, device.getDeviceName());
+        } catch (IOException e) {
+            LOG.warn("Failed to create snapshot {} of Device {}:", snapshotFile, device.getDeviceName(), e);
+        }
+        return device;
+    }
+
+    private byte[] digest(byte[] json) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        md.update(json);
+        md.update((byte) VERSION);
+        update(md, Device.class);
+        for (JsonConfigurationExtension ext : config.getJsonConfigurationExtensions())
+            update(md, ext.getClass());
+        return md.digest();
+    }
+
+    private static void update(MessageDigest md, Class<?> clazz) {
+        md.update(clazz.getName().getBytes(StandardCharsets.UTF_8));
+        Package pkg = clazz.getPackage();
+        String version = pkg != null ? pkg.getImplementationVersion() : null;
+        if (version != null)
+            md.update(version.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Device readSnapshot(Path snapshotFile, byte[] digest) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOG.info("Ignore snapshot {} with unsupported format", snapshotFile);
+                return null;
+            }
+            byte[] snapshotDigest = new byte[in.readUnsignedByte()];
+            in.readFully(snapshotDigest);
+            if (!Arrays.equals(digest, snapshotDigest)) {
+                LOG.info("Ignore outdated snapshot {}", snapshotFile);
+                return null;
+            }
+            return (Device) new SnapshotInputStream(in).readObject();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOG.info("Failed to read snapshot {}:", snapshotFile, e);
+            return null;
+        }
+    }
+
+    private static void writeSnapshot(Path snapshotFile, byte[] digest, Device device) throws IOException {
+        Path tmpFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+            DataOutputStream dout = new DataOutputStream(out);
+            dout.writeInt(MAGIC);
+            dout.writeInt(VERSION);
+            dout.writeByte(digest.length);
+            dout.write(digest);
+            ObjectOutputStream oout = new ObjectOutputStream(dout);
+            oout.writeObject(device);
+            oout.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpFile);
+            throw e;
+        }
+        try {
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean isAccepted(String className) {
+        int dims = 0;
+        while (className.charAt(dims) == '[')
+            dims++;
+        if (dims > 0) {
+            if (className.charAt(dims) != 'L')
+                return true; // array of primitives
+            className = className.substring(dims + 1, className.length() - 1);
+        }
+        return className.startsWith(ACCEPTED_PACKAGE) || ACCEPTED_JDK_CLASSES.contains(className);
+    }
+
+    private static final class SnapshotInputStream extends ObjectInputStream {
+
+        SnapshotInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAccepted(desc.getName()))
+                throw new InvalidClassException(desc.getName(), "Not accepted in Device snapshot");
+            return super.resolveClass(desc);
+        }
+    }
+}
@@ -49,6 +49,7 @@ import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParsingException;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -72,6 +73,10 @@ public class JsonConfiguration {
         return true;
     }
 
+    public List<JsonConfigurationExtension> getJsonConfigurationExtensions() {
+        return Collections.unmodifiableList(extensions);
+    }
+
     public <T extends JsonConfigurationExtension> T getJsonConfigurationExtension(Class<T> clazz) {
         for (JsonConfigurationExtension extension : extensions) {
             if (clazz.isAssignableFrom(extension.getClass()))
@@ -97,6 +102,22 @@ public class JsonConfiguration {
         gen.writeEnd();
     }
 
+    /**
+     * Write Device Infos as JSON array, one element at a time, without collecting them in memory.
+     *
+     * @param deviceInfos stream of Device Infos, e.g. returned by
+     *                    {@link org.dcm4che3.conf.api.DicomConfiguration#streamDeviceInfos}
+     * @param gen         JSON generator
+     */
+    public void writeDeviceInfosTo(Stream<DeviceInfo> deviceInfos, JsonGenerator gen) {
+        gen.writeStartArray();
+        try (Stream<DeviceInfo> s = deviceInfos) {
+            for (Iterator<DeviceInfo> iter = s.iterator(); iter.hasNext();)
+                writeTo(iter.next(), gen);
+        }
+        gen.writeEnd();
+    }
+
     public void writeTo(ApplicationEntityInfo aetInfo, JsonGenerator gen) {
         JsonWriter writer = new JsonWriter(gen);
         gen.writeStartObject();
@@ -113,6 +134,22 @@ public class JsonConfiguration {
         gen.writeEnd();
     }
 
+    /**
+     * Write Application Entity Infos as JSON array, one element at a time, without collecting them in memory.
+     *
+     * @param aetInfos stream of Application Entity Infos, e.g. returned by
+     *                 {@link org.dcm4che3.conf.api.DicomConfiguration#streamAETInfos}
+     * @param gen      JSON generator
+     */
+    public void writeAETInfosTo(Stream<ApplicationEntityInfo> aetInfos, JsonGenerator gen) {
+        gen.writeStartArray();
+        try (Stream<ApplicationEntityInfo> s = aetInfos) {
+            for (Iterator<ApplicationEntityInfo> iter = s.iterator(); iter.hasNext();)
+                writeTo(iter.next(), gen);
+        }
+        gen.writeEnd();
+    }
+
     public void writeTo(WebApplicationInfo webappInfo, JsonGenerator gen) {
         writeTo(webappInfo, gen, webappInfo.getKeycloakClientID());
     }
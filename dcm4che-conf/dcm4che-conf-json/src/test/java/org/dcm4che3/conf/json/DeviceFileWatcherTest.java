@@ -0,0 +1,179 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.conf.json;
+
+import org.dcm4che3.conf.api.ConfigurationChangeListener;
+import org.dcm4che3.conf.api.ConfigurationChanges;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class DeviceFileWatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final BlockingQueue<Object[]> notifications = new LinkedBlockingQueue<>();
+    private final ConfigurationChangeListener listener = new ConfigurationChangeListener() {
+        @Override
+        public void onConfigurationChanges(String deviceName, ConfigurationChanges changes) {
+            notifications.add(new Object[] { deviceName, changes });
+        }
+    };
+
+    private ExecutorService executor;
+    private DeviceFileWatcher watcher;
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = tmp.getRoot().toPath();
+        executor = Executors.newSingleThreadExecutor();
+        watcher = new DeviceFileWatcher(dir);
+        watcher.addConfigurationChangeListener(listener);
+        watcher.start(executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watcher.close();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testGetDeviceFile() {
+        assertEquals(dir.resolve("STORESCP.json"), watcher.getDeviceFile("STORESCP"));
+    }
+
+    @Test
+    public void testCreateModifyDelete() throws Exception {
+        Path file = watcher.getDeviceFile("STORESCP");
+        write(file, "{}");
+        awaitChange("STORESCP", file, ConfigurationChanges.ChangeType.C);
+        write(file, "{ }");
+        awaitChange("STORESCP", file, ConfigurationChanges.ChangeType.U);
+        Files.delete(file);
+        awaitChange("STORESCP", file, ConfigurationChanges.ChangeType.D);
+    }
+
+    @Test
+    public void testIgnoreOtherFiles() throws Exception {
+        write(dir.resolve("STORESCP.txt"), "{}");
+        Path file = watcher.getDeviceFile("STORESCP");
+        write(file, "{}");
+        Object[] notification = poll();
+        assertEquals("STORESCP", notification[0]);
+        assertEquals(file.toString(), modifiedObject(notification).dn());
+    }
+
+    @Test
+    public void testFailingListener() throws Exception {
+        watcher.removeConfigurationChangeListener(listener);
+        watcher.addConfigurationChangeListener(new ConfigurationChangeListener() {
+            @Override
+            public void onConfigurationChanges(String deviceName, ConfigurationChanges changes) {
+                throw new IllegalStateException();
+            }
+        });
+        watcher.addConfigurationChangeListener(listener);
+        write(watcher.getDeviceFile("STORESCP"), "{}");
+        assertEquals("STORESCP", poll()[0]);
+    }
+
+    @Test
+    public void testRemoveConfigurationChangeListener() throws Exception {
+        assertTrue(watcher.removeConfigurationChangeListener(listener));
+        assertFalse(watcher.removeConfigurationChangeListener(listener));
+        write(watcher.getDeviceFile("STORESCP"), "{}");
+        assertNull(notifications.poll(1, TimeUnit.SECONDS));
+    }
+
+    private void awaitChange(String deviceName, Path file, ConfigurationChanges.ChangeType changeType)
+            throws InterruptedException {
+        for (;;) {
+            Object[] notification = poll();
+            assertEquals(deviceName, notification[0]);
+            ConfigurationChanges.ModifiedObject obj = modifiedObject(notification);
+            assertEquals(file.toString(), obj.dn());
+            // writing a file may be reported as creation and modification
+            if (obj.changeType() == changeType)
+                return;
+        }
+    }
+
+    private Object[] poll() throws InterruptedException {
+        Object[] notification = notifications.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no notification received", notification);
+        return notification;
+    }
+
+    private static ConfigurationChanges.ModifiedObject modifiedObject(Object[] notification) {
+        ConfigurationChanges changes = (ConfigurationChanges) notification[1];
+        assertEquals(1, changes.modifiedObjects().size());
+        return changes.modifiedObjects().get(0);
+    }
+
+    private static void write(Path file, String s) throws IOException {
+        Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -73,9 +73,11 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -211,6 +213,36 @@ public class JsonConfigurationTest {
 
     };
 
+    @Test
+    public void testLoadDeviceSnapshot() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.addJsonConfigurationExtension(new JsonAuditRecordRepositoryConfiguration());
+        DeviceSnapshot snapshot = new DeviceSnapshot(config);
+        Path dir = Files.createTempDirectory("snapshot");
+        Path jsonFile = dir.resolve("arrdevice.json");
+        Path snapshotFile = dir.resolve("arrdevice.ser");
+        try {
+            Files.copy(Paths.get("src/test/data/arrdevice.json"), jsonFile);
+            Device device = snapshot.loadDevice(jsonFile, snapshotFile, null);
+            assertTrue(Files.exists(snapshotFile));
+            FileTime snapshotTime = Files.getLastModifiedTime(snapshotFile);
+            Device fromSnapshot = snapshot.loadDevice(jsonFile, snapshotFile, null);
+            assertNotSame(device, fromSnapshot);
+            assertEquals(device.getDeviceName(), fromSnapshot.getDeviceName());
+            assertEquals(2, fromSnapshot.getDeviceExtension(AuditRecordRepository.class).getConnections().size());
+            assertEquals(snapshotTime, Files.getLastModifiedTime(snapshotFile));
+            Files.write(jsonFile, new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8)
+                    .replace("TestAuditRecordRepository", "ModifiedAuditRecordRepository")
+                    .getBytes(StandardCharsets.UTF_8));
+            assertEquals("ModifiedAuditRecordRepository",
+                    snapshot.loadDevice(jsonFile, snapshotFile, null).getDeviceName());
+        } finally {
+            Files.deleteIfExists(jsonFile);
+            Files.deleteIfExists(snapshotFile);
+            Files.delete(dir);
+        }
+    }
+
     @Test
     public void testLoadDevice() throws Exception {
         Device device = null;
@@ -0,0 +1,354 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.ldap;
+
+import javax.naming.InvalidNameException;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.LdapName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Snapshot of all LDAP entries of one Device subtree, fetched by a single subtree search, which serves the
+ * one level searches and attribute lookups issued while the Device and its extensions are loaded.
+ * <p>
+ * Only filters composed of {@code (objectclass=<value>)} assertions, combined by {@code &}, {@code |} and
+ * {@code !}, are evaluated locally; for any other filter, and for names outside of the subtree,
+ * {@code null} is returned and the caller has to query the LDAP server.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class DeviceSubtree {
+
+    private final LdapName baseName;
+    private final Map<LdapName, Attributes> entries = new HashMap<>();
+    private final Map<LdapName, List<SearchResult>> childs = new HashMap<>();
+
+    DeviceSubtree(String baseDN, Collection<SearchResult> results) throws InvalidNameException {
+        this.baseName = new LdapName(baseDN);
+        for (SearchResult sr : results) {
+            LdapName name = new LdapName(sr.getNameInNamespace());
+            entries.put(name, sr.getAttributes());
+            if (name.size() > baseName.size()) {
+                LdapName parent = (LdapName) name.getPrefix(name.size() - 1);
+                List<SearchResult> list = childs.get(parent);
+                if (list == null)
+                    childs.put(parent, list = new ArrayList<>());
+                SearchResult child = new SearchResult(
+                        name.getRdn(name.size() - 1).toString(), null, sr.getAttributes());
+                child.setNameInNamespace(sr.getNameInNamespace());
+                list.add(child);
+            }
+        }
+    }
+
+    static DeviceSubtree load(ReconnectDirContext ctx, String deviceDN) throws NamingException {
+        SearchControls ctls = new SearchControls();
+        ctls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        ctls.setReturningObjFlag(false);
+        List<SearchResult> results = new ArrayList<>();
+        NamingEnumeration<SearchResult> ne = ctx.search(deviceDN, "(objectclass=*)", ctls);
+        try {
+            while (ne.hasMore())
+                results.add(ne.next());
+        } finally {
+            LdapUtils.safeClose(ne);
+        }
+        return new DeviceSubtree(deviceDN, results);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the attributes of the entry with the specified name or {@code null}, if the name is not within
+     * this subtree or if one of the attribute IDs specifies an attribute option, like {@code ;binary}.
+     *
+     * @throws NameNotFoundException if the name is within this subtree, but there is no such entry
+     */
+    Attributes getAttributes(String name, String[] attrIds) throws NamingException {
+        if (attrIds != null)
+            for (String attrId : attrIds)
+                if (attrId.indexOf(';') >= 0)
+                    return null;
+
+        LdapName ldapName = toNameWithin(name);
+        if (ldapName == null)
+            return null;
+
+        Attributes attrs = entries.get(ldapName);
+        if (attrs == null)
+            throw new NameNotFoundException(name);
+
+        return select(attrs, attrIds);
+    }
+
+    /**
+     * Returns the one level search result for the entries with the specified parent or {@code null}, if
+     * the parent is not within this subtree or if the filter cannot be evaluated locally.
+     *
+     * @throws NameNotFoundException if the parent is within this subtree, but there is no such entry
+     */
+    NamingEnumeration<SearchResult> search(String dn, String filter, String[] attrIds) throws NamingException {
+        LdapName parent = toNameWithin(dn);
+        if (parent == null)
+            return null;
+
+        Filter f = Filter.parse(filter);
+        if (f == null)
+            return null;
+
+        if (!entries.containsKey(parent))
+            throw new NameNotFoundException(dn);
+
+        List<SearchResult> list = childs.get(parent);
+        if (list == null)
+            return new SearchResults(Collections.<SearchResult>emptyList());
+
+        List<SearchResult> matches = new ArrayList<>(list.size());
+        for (SearchResult sr : list)
+            if (f.match(sr.getAttributes())) {
+                SearchResult match = new SearchResult(sr.getName(), null, select(sr.getAttributes(), attrIds));
+                match.setNameInNamespace(sr.getNameInNamespace());
+                matches.add(match);
+            }
+        return new SearchResults(matches);
+    }
+
+    private LdapName toNameWithin(String dn) {
+        try {
+            LdapName name = new LdapName(dn);
+            return name.startsWith(baseName) ? name : null;
+        } catch (InvalidNameException e) {
+            return null;
+        }
+    }
+
+    private static Attributes select(Attributes attrs, String[] attrIds) {
+        if (attrIds == null)
+            return (Attributes) attrs.clone();
+
+        Attributes selected = new BasicAttributes(true);
+        for (String attrId : attrIds) {
+            Attribute attr = attrs.get(attrId);
+            if (attr != null)
+                selected.put((Attribute) attr.clone());
+        }
+        return selected;
+    }
+
+    static abstract class Filter {
+
+        abstract boolean match(Attributes attrs) throws NamingException;
+
+        static Filter parse(String s) {
+            try {
+                int[] pos = { 0 };
+                Filter f = parse(s, pos);
+                return pos[0] == s.length() ? f : null;
+            } catch (IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+
+        private static Filter parse(String s, int[] pos) {
+            if (s.charAt(pos[0]++) != '(')
+                return null;
+
+            Filter f;
+            switch (s.charAt(pos[0])) {
+                case '&':
+                case '|':
+                    boolean and = s.charAt(pos[0]++) == '&';
+                    List<Filter> operands = new ArrayList<>();
+                    while (s.charAt(pos[0]) == '(') {
+                        Filter operand = parse(s, pos);
+                        if (operand == null)
+                            return null;
+                        operands.add(operand);
+                    }
+                    f = and ? new And(operands) : new Or(operands);
+                    break;
+                case '!':
+                    pos[0]++;
+                    Filter operand = parse(s, pos);
+                    if (operand == null)
+                        return null;
+                    f = new Not(operand);
+                    break;
+                default:
+                    int end = s.indexOf(')', pos[0]);
+                    String item = s.substring(pos[0], end);
+                    pos[0] = end;
+                    f = ObjectClass.valueOf(item);
+                    if (f == null)
+                        return null;
+            }
+            return s.charAt(pos[0]++) == ')' ? f : null;
+        }
+    }
+
+    private static final class ObjectClass extends Filter {
+        private final String value;
+
+        private ObjectClass(String value) {
+            this.value = value;
+        }
+
+        static ObjectClass valueOf(String item) {
+            int eq = item.indexOf('=');
+            if (eq <= 0 || !item.substring(0, eq).equalsIgnoreCase("objectclass"))
+                return null;
+
+            String value = item.substring(eq + 1);
+            return value.isEmpty() || value.indexOf('*') >= 0 || value.indexOf('\\') >= 0
+                    || value.indexOf('(') >= 0 || "<>~:".indexOf(item.charAt(eq - 1)) >= 0
+                    ? null
+                    : new ObjectClass(value);
+        }
+
+        @Override
+        boolean match(Attributes attrs) throws NamingException {
+            Attribute attr = attrs.get("objectclass");
+            if (attr != null)
+                for (int i = 0, n = attr.size(); i < n; i++)
+                    if (value.equalsIgnoreCase((String) attr.get(i)))
+                        return true;
+            return false;
+        }
+    }
+
+    private static final class And extends Filter {
+        private final List<Filter> operands;
+
+        And(List<Filter> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean match(Attributes attrs) throws NamingException {
+            for (Filter operand : operands)
+                if (!operand.match(attrs))
+                    return false;
+            return true;
+        }
+    }
+
+    private static final class Or extends Filter {
+        private final List<Filter> operands;
+
+        Or(List<Filter> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        boolean match(Attributes attrs) throws NamingException {
+            for (Filter operand : operands)
+                if (operand.match(attrs))
+                    return true;
+            return false;
+        }
+    }
+
+    private static final class Not extends Filter {
+        private final Filter operand;
+
+        Not(Filter operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean match(Attributes attrs) throws NamingException {
+            return !operand.match(attrs);
+        }
+    }
+
+    static final class SearchResults implements NamingEnumeration<SearchResult> {
+        private final Iterator<SearchResult> iter;
+
+        SearchResults(List<SearchResult> list) {
+            this.iter = list.iterator();
+        }
+
+        @Override
+        public SearchResult next() {
+            return nextElement();
+        }
+
+        @Override
+        public boolean hasMore() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+            if (!iter.hasNext())
+                throw new NoSuchElementException();
+            return iter.next();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.ldap;
+
+import javax.naming.NamingException;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of {@link ReconnectDirContext}s. Contexts are created on demand, up to the maximal pool size;
+ * {@link #borrow(long)} blocks up to the specified timeout if all contexts are in use. The initial context is only closed on {@link #close()}.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class DirContextPool implements Closeable {
+
+    private final Hashtable<?,?> env;
+    private final ReconnectDirContext initial;
+    private final ArrayDeque<ReconnectDirContext> idle = new ArrayDeque<>();
+    private int maxSize = 1;
+    private int size;
+    private boolean closed;
+
+    DirContextPool(Hashtable<?,?> env, ReconnectDirContext initial) {
+        this.env = env;
+        this.initial = initial;
+        this.idle.add(initial);
+        this.size = 1;
+    }
+
+    synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+
+        this.maxSize = maxSize;
+        for (Iterator<ReconnectDirContext> iter = idle.descendingIterator(); size > maxSize && iter.hasNext();) {
+            ReconnectDirContext ctx = iter.next();
+            if (ctx != initial) {
+                iter.remove();
+                ctx.close();
+                size--;
+            }
+        }
+        notifyAll();
+    }
+
+    synchronized int getSize() {
+        return size;
+    }
+
+    synchronized int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Borrows a context from the pool, waiting up to the specified timeout if all contexts are in use.
+     *
+     * @param timeout maximal wait time in ms
+     * @return borrowed context or {@code null}, if no context became available within the timeout
+     */
+    ReconnectDirContext borrow(long timeout) throws NamingException, InterruptedException {
+        synchronized (this) {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            long deadline = System.nanoTime() + nanos;
+            while (idle.isEmpty() && size >= maxSize) {
+                checkNotClosed();
+                if (nanos <= 0L)
+                    return null;
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+                nanos = deadline - System.nanoTime();
+            }
+            checkNotClosed();
+            ReconnectDirContext ctx = idle.pollFirst();
+            if (ctx != null)
+                return ctx;
+            size++;
+        }
+        boolean created = false;
+        try {
+            ReconnectDirContext ctx = new ReconnectDirContext(env);
+            created = true;
+            return ctx;
+        } finally {
+            if (!created)
+                synchronized (this) {
+                    size--;
+                    notify();
+                }
+        }
+    }
+
+    synchronized void release(ReconnectDirContext ctx) {
+        if (closed || size > maxSize && ctx != initial) {
+            ctx.close();
+            size--;
+        } else {
+            idle.addFirst(ctx);
+        }
+        notify();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        while (!idle.isEmpty()) {
+            idle.pollFirst().close();
+            size--;
+        }
+        notifyAll();
+    }
+
+    private void checkNotClosed() {
+        if (closed)
+            throw new IllegalStateException("closed");
+    }
+}
@@ -44,6 +44,10 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.naming.*;
 import javax.naming.directory.Attribute;
@@ -81,20 +85,27 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     private static final String PKI_USER = "pkiUser";
     private static final String USER_CERTIFICATE_BINARY = "userCertificate;binary";
     private static final X509Certificate[] EMPTY_X509_CERTIFICATES = {};
+    private static final int DEF_CONTEXT_POOL_TIMEOUT = 60000;
 
-    private final ReconnectDirContext ctx;
+    private final Hashtable<String,String> env;
+    private final DirContextPool pool;
     private final String baseDN;
-    private String configurationDN;
-    private String devicesDN;
-    private String aetsRegistryDN;
-    private String webAppsRegistryDN;
+    private volatile String configurationDN;
+    private volatile String devicesDN;
+    private volatile String aetsRegistryDN;
+    private volatile String webAppsRegistryDN;
     private String configurationCN = DICOM_CONFIGURATION;
     private String configurationRoot = DICOM_CONFIGURATION_ROOT;
     private String pkiUser = PKI_USER;
     private String userCertificate = USER_CERTIFICATE_BINARY;
     private boolean extended = true;
+    private volatile boolean prefetchDeviceSubtree;
+    private volatile int contextPoolTimeout = DEF_CONTEXT_POOL_TIMEOUT;
+    private boolean persistentSearch;
+    private PersistentSearch persistentSearchListener;
 
     private final List<LdapDicomConfigurationExtension> extensions = new ArrayList<>();
+    private final List<ConfigurationChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Needed for avoiding infinite loops when dealing with extensions containing circular references
@@ -103,6 +114,31 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
      */
     private ThreadLocal<Map<String,Device>> currentlyLoadedDevicesLocal = new ThreadLocal<>();
 
+    /**
+     * Context borrowed from the pool by the outermost public method invoked by the current thread.
+     * See leaseContext.
+     */
+    private final ThreadLocal<ReconnectDirContext> leasedContextLocal = new ThreadLocal<>();
+
+    /**
+     * Prefetched entries of the device currently loaded by the current thread. See loadDevice.
+     */
+    private final ThreadLocal<DeviceSubtree> deviceSubtreeLocal = new ThreadLocal<>();
+
+    private static final String[] DEVICE_INFO_ATTRS = {
+            "dicomDeviceName",
+            "dicomDescription",
+            "dicomManufacturer",
+            "dicomManufacturerModelName",
+            "dicomSoftwareVersion",
+            "dicomStationName",
+            "dicomInstitutionName",
+            "dicomInstitutionDepartmentName",
+            "dicomPrimaryDeviceType",
+            "dicomInstalled",
+            "objectClass"
+    };
+
     static final String[] AE_ATTRS = {
             "dicomDeviceName",
             "dicomAETitle",
@@ -142,13 +178,14 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
             map.put((String) entry.getKey(),
                     StringUtils.replaceSystemProperties((String) entry.getValue()));
 
+        this.env = map;
         try {
             // split baseDN from LDAP URL
             String s = map.get(Context.PROVIDER_URL);
             int end = s.lastIndexOf('/');
             map.put(Context.PROVIDER_URL, s.substring(0, end));
             this.baseDN = s.substring(end+1);
-            this.ctx = new ReconnectDirContext(map);
+            this.pool = new DirContextPool(map, new ReconnectDirContext(map));
         } catch (Exception e) {
             throw new ConfigurationException(e);
         }
@@ -162,6 +199,134 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         this.extended = extended;
     }
 
+    public int getMaxContextPoolSize() {
+        return pool.getMaxSize();
+    }
+
+    /**
+     * Set maximal number of LDAP contexts used concurrently. With the default of {@code 1}, all operations
+     * are serialized on one context - as before the introduction of the pool. With a greater value, lookups and
+     * queries invoked by different threads are executed concurrently on separate contexts, created on demand.
+     * Modifications of the configuration are still serialized.
+     * <p>
+     * Each stream returned by {@link #streamDeviceInfos} or {@link #streamAETInfos} holds one context until it is
+     * exhausted or closed. Configuration methods invoked from operations of the stream pipeline reuse that
+     * context, but other threads - and the consuming thread outside of the stream pipeline, e.g. while iterating
+     * over {@link Stream#iterator()} - have to wait for another context. So the maximal pool size shall exceed
+     * the number of concurrently open streams.
+     *
+     * @param maxContextPoolSize maximal number of LDAP contexts
+     */
+    public void setMaxContextPoolSize(int maxContextPoolSize) {
+        pool.setMaxSize(maxContextPoolSize);
+    }
+
+    public int getContextPoolTimeout() {
+        return contextPoolTimeout;
+    }
+
+    /**
+     * Set maximal time to wait for an available LDAP context, if all contexts of the pool are in use.
+     *
+     * @param contextPoolTimeout timeout in ms
+     *
+     * @see #setMaxContextPoolSize(int)
+     */
+    public void setContextPoolTimeout(int contextPoolTimeout) {
+        if (contextPoolTimeout <= 0)
+            throw new IllegalArgumentException("contextPoolTimeout: " + contextPoolTimeout);
+
+        this.contextPoolTimeout = contextPoolTimeout;
+    }
+
+    public boolean isPrefetchDeviceSubtree() {
+        return prefetchDeviceSubtree;
+    }
+
+    /**
+     * Fetch all entries of a device by one subtree search on loading the device, instead of searching the
+     * child entries of each object separately.
+     *
+     * @param prefetchDeviceSubtree {@code true} to load devices by one subtree search
+     */
+    public void setPrefetchDeviceSubtree(boolean prefetchDeviceSubtree) {
+        this.prefetchDeviceSubtree = prefetchDeviceSubtree;
+    }
+
+    public synchronized boolean isPersistentSearch() {
+        return persistentSearch;
+    }
+
+    /**
+     * Listen for modifications of Devices performed by other processes by a Persistent Search, if there are
+     * registered {@link ConfigurationChangeListener}s. Requires LDAP server support of the Persistent Search
+     * control.
+     *
+     * @param persistentSearch {@code true} to listen for modifications by other processes
+     */
+    public synchronized void setPersistentSearch(boolean persistentSearch) {
+        this.persistentSearch = persistentSearch;
+        updatePersistentSearch();
+    }
+
+    @Override
+    public synchronized void addConfigurationChangeListener(ConfigurationChangeListener listener) {
+        changeListeners.add(listener);
+        updatePersistentSearch();
+    }
+
+    @Override
+    public synchronized boolean removeConfigurationChangeListener(ConfigurationChangeListener listener) {
+        boolean removed = changeListeners.remove(listener);
+        updatePersistentSearch();
+        return removed;
+    }
+
+    private void updatePersistentSearch() {
+        if (persistentSearch && !changeListeners.isEmpty()) {
+            if (persistentSearchListener == null)
+                try {
+                    if (configurationExists())
+                        persistentSearchListener = new PersistentSearch(env, devicesDN,
+                                new PersistentSearch.Callback() {
+                                    @Override
+                                    public void onChange(String deviceName, ConfigurationChanges changes) {
+                                        fireConfigurationChanges(deviceName, changes);
+                                    }
+                                });
+                    else
+                        LOG.info("No DICOM Configuration found - not listen for modifications by other processes");
+                } catch (Exception e) {
+                    LOG.warn("Failed to start persistent search - not listen for modifications by other processes:",
+                            e);
+                }
+        } else if (persistentSearchListener != null) {
+            persistentSearchListener.close();
+            persistentSearchListener = null;
+        }
+    }
+
+    private void fireConfigurationChanges(String deviceName, ConfigurationChanges changes) {
+        for (ConfigurationChangeListener listener : changeListeners)
+            try {
+                listener.onConfigurationChanges(deviceName, changes);
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to notify {} about configuration changes:", listener, e);
+            }
+    }
+
+    private void fireConfigurationChanges(String deviceName, ConfigurationChanges diffs,
+            String dn, ConfigurationChanges.ChangeType changeType) {
+        if (changeListeners.isEmpty() || diffs != null && diffs.isEmpty())
+            return;
+
+        if (diffs == null) {
+            diffs = new ConfigurationChanges(false);
+            ConfigurationChanges.addModifiedObject(diffs, dn, changeType);
+        }
+        fireConfigurationChanges(deviceName, diffs);
+    }
+
     public final void setConfigurationCN(String configurationCN) {
         this.configurationCN = configurationCN;
     }
@@ -221,57 +386,147 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     @Override
     public synchronized void close() {
-        ctx.close();
+        if (persistentSearchListener != null) {
+            persistentSearchListener.close();
+            persistentSearchListener = null;
+        }
+        pool.close();
+    }
+
+    private ReconnectDirContext ctx() {
+        ReconnectDirContext leased = leasedContextLocal.get();
+        if (leased == null)
+            throw new IllegalStateException("No LDAP context leased by current thread");
+        return leased;
+    }
+
+    private ReconnectDirContext leaseContext() throws ConfigurationException {
+        try {
+            return borrowContext();
+        } catch (NamingException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Borrows a context from the pool for the current thread, if it does not already hold one.
+     *
+     * @return the borrowed context, which has to be passed to {@link #releaseContext}, or {@code null}, if
+     *         the current thread already holds a context
+     */
+    private ReconnectDirContext borrowContext() throws NamingException {
+        if (leasedContextLocal.get() != null)
+            return null;
+
+        try {
+            ReconnectDirContext leased = pool.borrow(contextPoolTimeout);
+            if (leased == null)
+                throw new NamingException("No LDAP context available within " + contextPoolTimeout + " ms");
+            leasedContextLocal.set(leased);
+            return leased;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedNamingException ine = new InterruptedNamingException(e.getMessage());
+            ine.setRootCause(e);
+            throw ine;
+        }
+    }
+
+    /**
+     * Copies search results, so they can be accessed after the context was returned to the pool.
+     */
+    private static NamingEnumeration<SearchResult> detach(NamingEnumeration<SearchResult> ne)
+            throws NamingException {
+        try {
+            List<SearchResult> list = new ArrayList<>();
+            while (ne.hasMore())
+                list.add(ne.next());
+            return new DeviceSubtree.SearchResults(list);
+        } finally {
+            LdapUtils.safeClose(ne);
+        }
+    }
+
+    private void releaseContext(ReconnectDirContext leased) {
+        if (leased != null) {
+            leasedContextLocal.remove();
+            pool.release(leased);
+        }
     }
 
     @Override
-    public synchronized boolean configurationExists() throws ConfigurationException {
-        return configurationDN != null || findConfiguration();
+    public boolean configurationExists() throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            return configurationDN != null || findConfiguration();
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     public boolean exists(String dn) throws NamingException {
+        ReconnectDirContext leased = borrowContext();
         try {
-            ctx.getAttributes(dn);
+            ctx().getAttributes(dn);
             return true;
         } catch (NameNotFoundException e) {
             return false;
+        } finally {
+            releaseContext(leased);
         }
     }
 
     @Override
     public synchronized boolean purgeConfiguration() throws ConfigurationException {
-        if (!configurationExists())
-            return false;
-
+        ReconnectDirContext leased = leaseContext();
         try {
-            destroySubcontextWithChilds(configurationDN);
-            LOG.info("Purge DICOM Configuration at {}", configurationDN);
-            clearConfigurationDN();
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            if (!configurationExists())
+                return false;
+
+            String dn = configurationDN;
+            try {
+                destroySubcontextWithChilds(dn);
+                LOG.info("Purge DICOM Configuration at {}", dn);
+                clearConfigurationDN();
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            }
+            fireConfigurationChanges(null, null, dn, ConfigurationChanges.ChangeType.D);
+            return true;
+        } finally {
+            releaseContext(leased);
         }
-        return true;
     }
 
     @Override
     public synchronized boolean registerAETitle(String aet) throws ConfigurationException {
-        ensureConfigurationExists();
+        ReconnectDirContext leased = leaseContext();
         try {
-            registerAET(aet);
-            return true;
-        } catch (AETitleAlreadyExistsException e) {
-            return false;
+            ensureConfigurationExists();
+            try {
+                registerAET(aet);
+                return true;
+            } catch (AETitleAlreadyExistsException e) {
+                return false;
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
     @Override
     public synchronized boolean registerWebAppName(String webAppName) throws ConfigurationException {
-        ensureConfigurationExists();
+        ReconnectDirContext leased = leaseContext();
         try {
-            registerWebApp(webAppName);
-            return true;
-        } catch (WebAppAlreadyExistsException e) {
-            return false;
+            ensureConfigurationExists();
+            try {
+                registerWebApp(webAppName);
+                return true;
+            } catch (WebAppAlreadyExistsException e) {
+                return false;
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
@@ -301,28 +556,38 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     @Override
     public synchronized void unregisterAETitle(String aet) throws ConfigurationException {
-        if (configurationExists())
-            try {
-                ctx.destroySubcontext(aetDN(aet, aetsRegistryDN));
-            } catch (NameNotFoundException e) {
-            } catch (NamingException e) {
-                throw new ConfigurationException(e);
-            }
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (configurationExists())
+                try {
+                    ctx().destroySubcontext(aetDN(aet, aetsRegistryDN));
+                } catch (NameNotFoundException e) {
+                } catch (NamingException e) {
+                    throw new ConfigurationException(e);
+                }
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     @Override
     public synchronized void unregisterWebAppName(String webAppName) throws ConfigurationException {
-        if (configurationExists())
-            try {
-                ctx.destroySubcontext(webAppDN(webAppName, webAppsRegistryDN));
-            } catch (NameNotFoundException e) {
-            } catch (NamingException e) {
-                throw new ConfigurationException(e);
-            }
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (configurationExists())
+                try {
+                    ctx().destroySubcontext(webAppDN(webAppName, webAppsRegistryDN));
+                } catch (NameNotFoundException e) {
+                } catch (NamingException e) {
+                    throw new ConfigurationException(e);
+                }
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     @Override
-    public synchronized ApplicationEntity findApplicationEntity(String aet)
+    public ApplicationEntity findApplicationEntity(String aet)
             throws ConfigurationException {
         return findDevice(
                 "(&(objectclass=dicomNetworkAE)(dicomAETitle=" + aet + "))", aet)
@@ -330,32 +595,37 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     }
 
     @Override
-    public synchronized WebApplication findWebApplication(String name) throws ConfigurationException {
+    public WebApplication findWebApplication(String name) throws ConfigurationException {
         return findDevice("(&(objectclass=dcmWebApp)(dcmWebAppName=" + name + "))", name)
             .getWebApplication(name);
     }
 
-    public synchronized Device findDevice(String filter, String childName)
+    public Device findDevice(String filter, String childName)
             throws ConfigurationException {
-        if (!configurationExists())
-            throw new ConfigurationNotFoundException();
-
-        SearchControls ctls = searchControlSubtreeScope(1, StringUtils.EMPTY_STRING, false);
-        NamingEnumeration<SearchResult> ne = null;
-        String childDN;
+        ReconnectDirContext leased = leaseContext();
         try {
-            ne = ctx.search(devicesDN, filter, ctls);
-            if (!ne.hasMore())
-                throw new ConfigurationNotFoundException(childName);
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
 
-            childDN = ne.next().getNameInNamespace();
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            SearchControls ctls = searchControlSubtreeScope(1, StringUtils.EMPTY_STRING, false);
+            NamingEnumeration<SearchResult> ne = null;
+            String childDN;
+            try {
+                ne = ctx().search(devicesDN, filter, ctls);
+                if (!ne.hasMore())
+                    throw new ConfigurationNotFoundException(childName);
+
+                childDN = ne.next().getNameInNamespace();
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } finally {
+               LdapUtils.safeClose(ne);
+            }
+            String deviceDN = childDN.substring(childDN.indexOf(',') + 1);
+            return loadDevice(deviceDN);
         } finally {
-           LdapUtils.safeClose(ne);
+            releaseContext(leased);
         }
-        String deviceDN = childDN.substring(childDN.indexOf(',') + 1);
-        return loadDevice(deviceDN);
     }
 
     public Connection findConnection(String connDN, Map<String, Connection> cache)
@@ -364,7 +634,7 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         if (conn == null) {
             try {
                 String[] attrIds = {"dicomHostname", "dicomPort", "dicomTLSCipherSuite", "dicomInstalled"};
-                Attributes attrs = ctx.getAttributes(connDN, attrIds);
+                Attributes attrs = getAttributes(connDN, attrIds);
                 cache.put(connDN, conn = new Connection());
                 loadFrom(conn, attrs, false);
             } catch (NameNotFoundException e) {
@@ -384,44 +654,189 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     }
 
     @Override
-    public synchronized Device findDevice(String name) throws ConfigurationException {
+    public Device findDevice(String name) throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
+
+            return loadDevice(deviceRef(name));
+        } finally {
+            releaseContext(leased);
+        }
+    }
+
+    @Override
+    public DeviceInfo[] listDeviceInfos(DeviceInfo keys)
+            throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                return new DeviceInfo[0];
+
+            ArrayList<DeviceInfo> results = new ArrayList<DeviceInfo>();
+            NamingEnumeration<SearchResult> ne = null;
+            try {
+                ne = search(devicesDN, toFilter(keys), DEVICE_INFO_ATTRS);
+                while (ne.hasMore()) {
+                    DeviceInfo deviceInfo = new DeviceInfo();
+                    loadFrom(deviceInfo, ne.next().getAttributes());
+                    results.add(deviceInfo);
+                }
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } finally {
+               LdapUtils.safeClose(ne);
+            }
+            return results.toArray(new DeviceInfo[results.size()]);
+        } finally {
+            releaseContext(leased);
+        }
+    }
+
+    @Override
+    public Stream<DeviceInfo> streamDeviceInfos(DeviceInfo keys, int pageSize) throws ConfigurationException {
         if (!configurationExists())
-            throw new ConfigurationNotFoundException();
+            return Stream.empty();
 
-        return loadDevice(deviceRef(name));
+        return stream(devicesDN, toFilter(keys), searchControlOneLevelScope(DEVICE_INFO_ATTRS), pageSize,
+                new SearchResultMapper<DeviceInfo>() {
+                    @Override
+                    public DeviceInfo map(SearchResult sr) throws NamingException {
+                        DeviceInfo deviceInfo = new DeviceInfo();
+                        loadFrom(deviceInfo, sr.getAttributes());
+                        return deviceInfo;
+                    }
+                });
     }
 
     @Override
-    public synchronized DeviceInfo[] listDeviceInfos(DeviceInfo keys)
+    public Stream<ApplicationEntityInfo> streamAETInfos(ApplicationEntityInfo keys, int pageSize)
             throws ConfigurationException {
         if (!configurationExists())
-            return new DeviceInfo[0];
+            return Stream.empty();
+
+        final String deviceName = keys != null ? keys.getDeviceName() : null;
+        final Map<String, Connection> connCache = new HashMap<>();
+        return stream(deviceName != null ? deviceRef(deviceName) : devicesDN, toFilter(keys),
+                deviceName != null
+                        ? searchControlOneLevelScope(AE_ATTRS)
+                        : searchControlSubtreeScope(0, AE_ATTRS, false),
+                pageSize,
+                new SearchResultMapper<ApplicationEntityInfo>() {
+                    @Override
+                    public ApplicationEntityInfo map(SearchResult sr) throws NamingException, ConfigurationException {
+                        ApplicationEntityInfo aetInfo = new ApplicationEntityInfo();
+                        loadFrom(aetInfo, sr.getAttributes(),
+                                deviceName != null ? deviceName : LdapUtils.cutDeviceName(sr.getName()), connCache);
+                        return aetInfo;
+                    }
+                });
+    }
+
+    private interface SearchResultMapper<T> {
+        T map(SearchResult sr) throws NamingException, ConfigurationException;
+    }
 
-        ArrayList<DeviceInfo> results = new ArrayList<DeviceInfo>();
-        NamingEnumeration<SearchResult> ne = null;
+    /**
+     * Returns a stream over the search results. If the current thread does not already hold a context, the stream
+     * borrows one from the pool, which is returned on exhaustion or on close of the stream.
+     */
+    private <T> Stream<T> stream(String name, String filter, SearchControls ctls, int pageSize,
+            SearchResultMapper<T> mapper) throws ConfigurationException {
+        ReconnectDirContext borrowed = leaseContext();
+        ReconnectDirContext streamCtx = ctx();
+        if (borrowed != null)
+            leasedContextLocal.remove(); // held by the stream, not by the current thread
+        PagedSearchResults results;
         try {
-            ne = search(devicesDN, toFilter(keys), "dicomDeviceName",
-                "dicomDescription",
-                "dicomManufacturer",
-                "dicomManufacturerModelName",
-                "dicomSoftwareVersion",
-                "dicomStationName",
-                "dicomInstitutionName",
-                "dicomInstitutionDepartmentName",
-                "dicomPrimaryDeviceType",
-                "dicomInstalled",
-                "objectClass");
-            while (ne.hasMore()) {
-                DeviceInfo deviceInfo = new DeviceInfo();
-                loadFrom(deviceInfo, ne.next().getAttributes());
-                results.add(deviceInfo);
-            }
+            results = new PagedSearchResults(streamCtx.getDirCtx(), name, filter, ctls, pageSize);
+        } catch (NameNotFoundException e) {
+            if (borrowed != null)
+                pool.release(borrowed);
+            return Stream.empty();
         } catch (NamingException e) {
+            if (borrowed != null)
+                pool.release(borrowed);
             throw new ConfigurationException(e);
-        } finally {
-           LdapUtils.safeClose(ne);
         }
-        return results.toArray(new DeviceInfo[results.size()]);
+        SearchResultSpliterator<T> spliterator =
+                new SearchResultSpliterator<>(streamCtx, borrowed, results, mapper);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator);
+    }
+
+    /**
+     * Maps search results to stream elements. Operations of the stream pipeline are invoked with the context of
+     * the stream leased to the consuming thread, so nested invocations of configuration methods do not borrow
+     * another context from the pool.
+     */
+    private final class SearchResultSpliterator<T> extends Spliterators.AbstractSpliterator<T>
+            implements Runnable {
+        private final ReconnectDirContext streamCtx;
+        private final ReconnectDirContext borrowed;
+        private final PagedSearchResults results;
+        private final SearchResultMapper<T> mapper;
+        private boolean closed;
+
+        SearchResultSpliterator(ReconnectDirContext streamCtx, ReconnectDirContext borrowed,
+                PagedSearchResults results, SearchResultMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.streamCtx = streamCtx;
+            this.borrowed = borrowed;
+            this.results = results;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (isClosed())
+                return false;
+
+            ReconnectDirContext prev = leasedContextLocal.get();
+            leasedContextLocal.set(streamCtx);
+            try {
+                if (!results.hasNext()) {
+                    run();
+                    return false;
+                }
+                action.accept(mapper.map(results.next()));
+                return true;
+            } catch (NamingException e) {
+                run();
+                throw new UncheckedConfigurationException(new ConfigurationException(e));
+            } catch (ConfigurationException e) {
+                run();
+                throw new UncheckedConfigurationException(e);
+            } finally {
+                if (prev != null)
+                    leasedContextLocal.set(prev);
+                else
+                    leasedContextLocal.remove();
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (closed)
+                return;
+
+            closed = true;
+            results.close();
+            if (borrowed != null)
+                pool.release(borrowed);
+        }
+    }
+
+    private static SearchControls searchControlOneLevelScope(String[] returningAttrs) {
+        SearchControls ctls = new SearchControls();
+        ctls.setSearchScope(SearchControls.ONELEVEL_SCOPE);
+        ctls.setReturningObjFlag(false);
+        ctls.setReturningAttributes(returningAttrs);
+        return ctls;
     }
 
     private String toFilter(DeviceInfo keys) {
@@ -541,7 +956,7 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         KeycloakClient keycloakClient = cache.get(keycloakClientDN);
         if (keycloakClient == null) {
             try {
-                Attributes attrs = ctx.getAttributes(keycloakClientDN);
+                Attributes attrs = ctx().getAttributes(keycloakClientDN);
                 cache.put(keycloakClientDN, keycloakClient = new KeycloakClient(clientID));
                 loadFrom(keycloakClient, attrs);
             } catch (NameNotFoundException e) {
@@ -552,89 +967,115 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     }
 
     @Override
-    public synchronized String[] listDeviceNames() throws ConfigurationException {
-        if (!configurationExists())
-            return StringUtils.EMPTY_STRING;
+    public String[] listDeviceNames() throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                return StringUtils.EMPTY_STRING;
 
-        return list(devicesDN, "(objectclass=dicomDevice)", "dicomDeviceName");
+            return list(devicesDN, "(objectclass=dicomDevice)", "dicomDeviceName");
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     @Override
-    public synchronized String[] listRegisteredAETitles() throws ConfigurationException {
-        if (!configurationExists())
-            return StringUtils.EMPTY_STRING;
+    public String[] listRegisteredAETitles() throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                return StringUtils.EMPTY_STRING;
 
-        return list(aetsRegistryDN, "(objectclass=dicomUniqueAETitle)", "dicomAETitle");
+            return list(aetsRegistryDN, "(objectclass=dicomUniqueAETitle)", "dicomAETitle");
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     @Override
-    public synchronized String[] listRegisteredWebAppNames() throws ConfigurationException {
-        if (!configurationExists())
-            return StringUtils.EMPTY_STRING;
+    public String[] listRegisteredWebAppNames() throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                return StringUtils.EMPTY_STRING;
 
-        return list(webAppsRegistryDN, "(objectclass=dcmUniqueWebAppName)", "dcmWebAppName");
+            return list(webAppsRegistryDN, "(objectclass=dcmUniqueWebAppName)", "dcmWebAppName");
+        } finally {
+            releaseContext(leased);
+        }
     }
 
-    public synchronized String[] list(String dn, String filter, String attrID)
+    public String[] list(String dn, String filter, String attrID)
             throws ConfigurationException {
-        ArrayList<String> values = new ArrayList<String>();
-        NamingEnumeration<SearchResult> ne = null;
+        ReconnectDirContext leased = leaseContext();
         try {
-            ne = search(dn, filter, attrID );
-            while (ne.hasMore()) {
-                SearchResult sr = ne.next();
-                Attributes attrs = sr.getAttributes();
-                values.add(LdapUtils.stringValue(attrs.get(attrID), null));
+            ArrayList<String> values = new ArrayList<String>();
+            NamingEnumeration<SearchResult> ne = null;
+            try {
+                ne = search(dn, filter, attrID );
+                while (ne.hasMore()) {
+                    SearchResult sr = ne.next();
+                    Attributes attrs = sr.getAttributes();
+                    values.add(LdapUtils.stringValue(attrs.get(attrID), null));
+                }
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } finally {
+               LdapUtils.safeClose(ne);
             }
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            return values.toArray(new String[values.size()]);
         } finally {
-           LdapUtils.safeClose(ne);
+            releaseContext(leased);
         }
-        return values.toArray(new String[values.size()]);
     }
 
     @Override
     public synchronized ConfigurationChanges persist(Device device, EnumSet<Option> options)
             throws ConfigurationException {
-        ensureConfigurationExists();
-        String deviceName = device.getDeviceName();
-        String deviceDN = deviceRef(deviceName);
-        boolean rollback = false;
-        ArrayList<String> destroyDNs = new ArrayList<>();
-
+        ReconnectDirContext leased = leaseContext();
         try {
-            if (options != null && options.contains(Option.REGISTER))
-                register(device, destroyDNs);
+            ensureConfigurationExists();
+            String deviceName = device.getDeviceName();
+            String deviceDN = deviceRef(deviceName);
+            boolean rollback = false;
+            ArrayList<String> destroyDNs = new ArrayList<>();
 
-            ConfigurationChanges diffs = configurationChangesOf(options);
-            ConfigurationChanges.ModifiedObject ldapObj =
-                    ConfigurationChanges.addModifiedObject(diffs, deviceDN, ConfigurationChanges.ChangeType.C);
-            createSubcontext(deviceDN,
-                    storeTo(ConfigurationChanges.nullifyIfNotVerbose(diffs, ldapObj),
-                            device, new BasicAttributes(true)));
-            rollback = true;
-            storeChilds(ConfigurationChanges.nullifyIfNotVerbose(diffs, diffs), deviceDN, device);
-            if (options == null || !options.contains(Option.PRESERVE_CERTIFICATE))
-                updateCertificates(device);
-            rollback = false;
-            destroyDNs.clear();
-            return diffs;
-        } catch (NameAlreadyBoundException e) {
-            throw new ConfigurationAlreadyExistsException(deviceName);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
-        } catch (CertificateException e) {
-            throw new ConfigurationException(e);
-        } finally {
-            if (rollback) {
-                try {
-                    destroySubcontextWithChilds(deviceDN);
-                } catch (NamingException e) {
-                    LOG.warn("Rollback failed:", e);
+            try {
+                if (options != null && options.contains(Option.REGISTER))
+                    register(device, destroyDNs);
+
+                ConfigurationChanges diffs = configurationChangesOf(options);
+                ConfigurationChanges.ModifiedObject ldapObj =
+                        ConfigurationChanges.addModifiedObject(diffs, deviceDN, ConfigurationChanges.ChangeType.C);
+                createSubcontext(deviceDN,
+                        storeTo(ConfigurationChanges.nullifyIfNotVerbose(diffs, ldapObj),
+                                device, new BasicAttributes(true)));
+                rollback = true;
+                storeChilds(ConfigurationChanges.nullifyIfNotVerbose(diffs, diffs), deviceDN, device);
+                if (options == null || !options.contains(Option.PRESERVE_CERTIFICATE))
+                    updateCertificates(device);
+                rollback = false;
+                destroyDNs.clear();
+                fireConfigurationChanges(deviceName, diffs, deviceDN, ConfigurationChanges.ChangeType.C);
+                return diffs;
+            } catch (NameAlreadyBoundException e) {
+                throw new ConfigurationAlreadyExistsException(deviceName);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } catch (CertificateException e) {
+                throw new ConfigurationException(e);
+            } finally {
+                if (rollback) {
+                    try {
+                        destroySubcontextWithChilds(deviceDN);
+                    } catch (NamingException e) {
+                        LOG.warn("Rollback failed:", e);
+                    }
                 }
+                unregister(destroyDNs);
             }
-            unregister(destroyDNs);
+        } finally {
+            releaseContext(leased);
         }
     }
 
@@ -748,43 +1189,50 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     public ConfigurationChanges merge(Device device, EnumSet<Option> options) throws ConfigurationException {
         ConfigurationChanges diffs = configurationChangesOf(options);
         merge(device, options, diffs);
+        fireConfigurationChanges(device.getDeviceName(), diffs,
+                deviceRef(device.getDeviceName()), ConfigurationChanges.ChangeType.U);
         return diffs;
     }
 
     private synchronized void merge(Device device, EnumSet<Option> options, ConfigurationChanges diffs)
         throws ConfigurationException {
-        if (!configurationExists())
-            throw new ConfigurationNotFoundException();
-
-        String deviceDN = deviceRef(device.getDeviceName());
-        Device prev = loadDevice(deviceDN);
-        ArrayList<String> destroyDNs = new ArrayList<>();
+        ReconnectDirContext leased = leaseContext();
         try {
-            boolean register = options != null && options.contains(Option.REGISTER);
-            boolean preserveVendorData = options != null && options.contains(Option.PRESERVE_VENDOR_DATA);
-            if (register) {
-                registerDiff(prev, device, destroyDNs);
-            }
-            ConfigurationChanges.ModifiedObject ldapObj =
-                    ConfigurationChanges.addModifiedObject(diffs, deviceDN, ConfigurationChanges.ChangeType.U);
-            modifyAttributes(deviceDN,
-                    storeDiffs(ldapObj, prev, device, new ArrayList<ModificationItem>(), preserveVendorData));
-            ConfigurationChanges.removeLastIfEmpty(diffs, ldapObj);
-            mergeChilds(diffs, prev, device, deviceDN, preserveVendorData);
-            destroyDNs.clear();
-            if (register) {
-                markForUnregister(prev, device, destroyDNs);
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
+
+            String deviceDN = deviceRef(device.getDeviceName());
+            Device prev = loadDevice(deviceDN);
+            ArrayList<String> destroyDNs = new ArrayList<>();
+            try {
+                boolean register = options != null && options.contains(Option.REGISTER);
+                boolean preserveVendorData = options != null && options.contains(Option.PRESERVE_VENDOR_DATA);
+                if (register) {
+                    registerDiff(prev, device, destroyDNs);
+                }
+                ConfigurationChanges.ModifiedObject ldapObj =
+                        ConfigurationChanges.addModifiedObject(diffs, deviceDN, ConfigurationChanges.ChangeType.U);
+                modifyAttributes(deviceDN,
+                        storeDiffs(ldapObj, prev, device, new ArrayList<ModificationItem>(), preserveVendorData));
+                ConfigurationChanges.removeLastIfEmpty(diffs, ldapObj);
+                mergeChilds(diffs, prev, device, deviceDN, preserveVendorData);
+                destroyDNs.clear();
+                if (register) {
+                    markForUnregister(prev, device, destroyDNs);
+                }
+                if (options == null || !options.contains(Option.PRESERVE_CERTIFICATE))
+                    updateCertificates(prev, device);
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException(e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } catch (CertificateException e) {
+                throw new ConfigurationException(e);
+            } finally {
+                unregister(destroyDNs);
             }
-            if (options == null || !options.contains(Option.PRESERVE_CERTIFICATE))
-                updateCertificates(prev, device);
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException(e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
-        } catch (CertificateException e) {
-            throw new ConfigurationException(e);
         } finally {
-            unregister(destroyDNs);
+            releaseContext(leased);
         }
     }
 
@@ -839,14 +1287,20 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     @Override
     public synchronized ConfigurationChanges removeDevice(String name, EnumSet<Option> options)
             throws ConfigurationException {
-        if (!configurationExists())
-            throw new ConfigurationNotFoundException();
-
-        String dn = deviceRef(name);
-        removeDeviceWithDN(dn, options != null && options.contains(Option.REGISTER));
-        ConfigurationChanges diffs = new ConfigurationChanges(false);
-        ConfigurationChanges.addModifiedObject(diffs, dn, ConfigurationChanges.ChangeType.D);
-        return diffs;
+        ReconnectDirContext leased = leaseContext();
+        try {
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
+
+            String dn = deviceRef(name);
+            removeDeviceWithDN(dn, options != null && options.contains(Option.REGISTER));
+            ConfigurationChanges diffs = new ConfigurationChanges(false);
+            ConfigurationChanges.addModifiedObject(diffs, dn, ConfigurationChanges.ChangeType.D);
+            fireConfigurationChanges(name, diffs);
+            return diffs;
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     private void markForUnregister(String deviceDN, List<String> dns)
@@ -884,30 +1338,45 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     public synchronized void createSubcontext(String name, Attributes attrs)
             throws NamingException {
-        ctx.createSubcontextAndClose(name, attrs);
+        ReconnectDirContext leased = borrowContext();
+        try {
+            ctx().createSubcontextAndClose(name, attrs);
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     public synchronized void destroySubcontext(String dn) throws NamingException {
-        ctx.destroySubcontext(dn);
+        ReconnectDirContext leased = borrowContext();
+        try {
+            ctx().destroySubcontext(dn);
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     public synchronized void destroySubcontextWithChilds(String name)
             throws NamingException {
-        NamingEnumeration<NameClassPair> list = ctx.list(name);
+        ReconnectDirContext leased = borrowContext();
         try {
-            while (list.hasMore())
-                destroySubcontextWithChilds(list.next().getNameInNamespace());
+            NamingEnumeration<NameClassPair> list = ctx().list(name);
+            try {
+                while (list.hasMore())
+                    destroySubcontextWithChilds(list.next().getNameInNamespace());
+            } finally {
+                LdapUtils.safeClose(list);
+            }
+            ctx().destroySubcontext(name);
         } finally {
-            LdapUtils.safeClose(list);
+            releaseContext(leased);
         }
-        ctx.destroySubcontext(name);
     }
 
     private void setConfigurationDN(String configurationDN) {
-        this.configurationDN = configurationDN;
         this.devicesDN = CN_DEVICES + configurationDN;
         this.aetsRegistryDN = CN_UNIQUE_AE_TITLES_REGISTRY + configurationDN;
         this.webAppsRegistryDN = CN_UNIQUE_WEB_APP_NAMES_REGISTRY + configurationDN;
+        this.configurationDN = configurationDN;
     }
 
     public String getConfigurationDN() {
@@ -950,7 +1419,7 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         NamingEnumeration<SearchResult> ne = null;
         try {
             SearchControls ctls = searchControlSubtreeScope(1, StringUtils.EMPTY_STRING, false);
-            ne = ctx.search(
+            ne = ctx().search(
                     baseDN,
                     "(&(objectclass=" + configurationRoot
                             + ")(cn=" + configurationCN + "))",
@@ -1205,14 +1674,19 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     @Override
     public synchronized void persistCertificates(String dn, X509Certificate... certs)
             throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
         try {
-            storeCertificates(dn, certs);
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException(e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
-        } catch (CertificateEncodingException e) {
-            throw new ConfigurationException(e);
+            try {
+                storeCertificates(dn, certs);
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException(e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } catch (CertificateEncodingException e) {
+                throw new ConfigurationException(e);
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
@@ -1221,11 +1695,11 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         byte[][] vals = new byte[certs.length][];
         for (int i = 0; i < vals.length; i++)
             vals[i] = certs[i].getEncoded();
-        Attributes attrs = ctx.getAttributes(dn,
+        Attributes attrs = ctx().getAttributes(dn,
                 new String[] { "objectClass" } );
         ModificationItem replaceCert = new ModificationItem(
                 DirContext.REPLACE_ATTRIBUTE, attr(userCertificate, vals ));
-        ctx.modifyAttributes(dn, 
+        ctx().modifyAttributes(dn, 
                 LdapUtils.hasObjectClass(attrs, pkiUser)
                      ? new ModificationItem[] { replaceCert }
                      : new ModificationItem[] {
@@ -1237,33 +1711,43 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     @Override
     public synchronized void removeCertificates(String dn) throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
         try {
-            ModificationItem removeCert = new ModificationItem(
-                    DirContext.REMOVE_ATTRIBUTE, new BasicAttribute(userCertificate));
-            ctx.modifyAttributes(dn, new ModificationItem[] { removeCert });
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException(e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            try {
+                ModificationItem removeCert = new ModificationItem(
+                        DirContext.REMOVE_ATTRIBUTE, new BasicAttribute(userCertificate));
+                ctx().modifyAttributes(dn, new ModificationItem[] { removeCert });
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException(e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
     @Override
-    public synchronized X509Certificate[] findCertificates(String dn) throws ConfigurationException {
+    public X509Certificate[] findCertificates(String dn) throws ConfigurationException {
+        ReconnectDirContext leased = leaseContext();
         try {
-            return loadCertificates(dn);
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException(e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
-        } catch (CertificateException e) {
-            throw new ConfigurationException(e);
+            try {
+                return loadCertificates(dn);
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException(e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } catch (CertificateException e) {
+                throw new ConfigurationException(e);
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
     private X509Certificate[] loadCertificates(String dn)
             throws NamingException, CertificateException {
-        Attributes attrs = ctx.getAttributes(dn, new String[] { userCertificate } );
+        Attributes attrs = ctx().getAttributes(dn, new String[] { userCertificate } );
         Attribute attr = attrs.get(userCertificate);
         if (attr == null)
             return EMPTY_X509_CERTIFICATES;
@@ -1278,90 +1762,135 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     @Override
     public byte[][] loadDeviceVendorData(String deviceName) throws ConfigurationException {
-        if (!configurationExists())
-            throw new ConfigurationNotFoundException();
-
+        ReconnectDirContext leased = leaseContext();
         try {
-            Attributes attrs = getAttributes(deviceRef(deviceName), new String[]{ "dicomVendorData" });
-            return byteArrays(attrs.get("dicomVendorData"));
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException("Device with specified name not found", e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
+
+            try {
+                Attributes attrs = getAttributes(deviceRef(deviceName), new String[]{ "dicomVendorData" });
+                return byteArrays(attrs.get("dicomVendorData"));
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException("Device with specified name not found", e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            }
+        } finally {
+            releaseContext(leased);
         }
     }
 
     @Override
     public ConfigurationChanges updateDeviceVendorData(String deviceName, byte[]... vendorData)
             throws ConfigurationException {
-        String deviceRef = deviceRef(deviceName);
-        if (!configurationExists())
-            throw new ConfigurationNotFoundException();
-
-        ConfigurationChanges diffs = new ConfigurationChanges(false);
+        ReconnectDirContext leased = leaseContext();
         try {
-            Attributes attrs = getAttributes(deviceRef, new String[]{"dicomVendorData"});
-            byte[][] prev = byteArrays(attrs.get("dicomVendorData"));
-            ConfigurationChanges.ModifiedObject ldapObj =
-                    ConfigurationChanges.addModifiedObject(diffs, deviceRef, ConfigurationChanges.ChangeType.C);
-            List<ModificationItem> mods = new ArrayList<>(1);
-            storeDiff(ldapObj, mods, "dicomVendorData", prev, vendorData);
-            modifyAttributes(deviceRef, mods);
-         } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException("Device with specified name not found", e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            String deviceRef = deviceRef(deviceName);
+            if (!configurationExists())
+                throw new ConfigurationNotFoundException();
+
+            ConfigurationChanges diffs = new ConfigurationChanges(false);
+            try {
+                Attributes attrs = getAttributes(deviceRef, new String[]{"dicomVendorData"});
+                byte[][] prev = byteArrays(attrs.get("dicomVendorData"));
+                ConfigurationChanges.ModifiedObject ldapObj =
+                        ConfigurationChanges.addModifiedObject(diffs, deviceRef, ConfigurationChanges.ChangeType.C);
+                List<ModificationItem> mods = new ArrayList<>(1);
+                storeDiff(ldapObj, mods, "dicomVendorData", prev, vendorData);
+                modifyAttributes(deviceRef, mods);
+             } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException("Device with specified name not found", e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            }
+            fireConfigurationChanges(deviceName, diffs);
+            return diffs;
+        } finally {
+            releaseContext(leased);
         }
-        return diffs;
     }
 
     public Device loadDevice(String deviceDN) throws ConfigurationException {
-        // get the device cache for this loading phase
-        Map<String, Device> deviceCache = currentlyLoadedDevicesLocal.get();
-
-        // if there is none, create one for the current thread and remember that it should be cleaned up when the device is loaded
-        boolean doCleanUpCache = false;
-        if (deviceCache == null) {
-            doCleanUpCache = true;
-            deviceCache = new HashMap<String, Device>();
-            currentlyLoadedDevicesLocal.set(deviceCache);
-        }
+        ReconnectDirContext leased = leaseContext();
+        try {
+            // get the device cache for this loading phase
+            Map<String, Device> deviceCache = currentlyLoadedDevicesLocal.get();
+
+            // if there is none, create one for the current thread and remember that it should be cleaned up when the device is loaded
+            boolean doCleanUpCache = false;
+            if (deviceCache == null) {
+                doCleanUpCache = true;
+                deviceCache = new HashMap<String, Device>();
+                currentlyLoadedDevicesLocal.set(deviceCache);
+            }
 
-        // if a requested device is already being (was) loaded, do not load it again, just return existing Device object 
-        if (deviceCache.containsKey(deviceDN))
-            return deviceCache.get(deviceDN);
+            // if a requested device is already being (was) loaded, do not load it again, just return existing Device object 
+            if (deviceCache.containsKey(deviceDN))
+                return deviceCache.get(deviceDN);
                 
         
-        try {
-            Attributes attrs = getAttributes(deviceDN);
-            Device device = new Device(LdapUtils.stringValue(attrs.get("dicomDeviceName"), null));
+            DeviceSubtree prevSubtree = deviceSubtreeLocal.get();
+            try {
+                if (prefetchDeviceSubtree)
+                    deviceSubtreeLocal.set(prefetchDeviceSubtree(deviceDN));
+                Attributes attrs = getAttributes(deviceDN);
+                Device device = new Device(LdapUtils.stringValue(attrs.get("dicomDeviceName"), null));
 
-            // remember this device so it won't be loaded again in this run
-            deviceCache.put(deviceDN, device);
+                // remember this device so it won't be loaded again in this run
+                deviceCache.put(deviceDN, device);
                         
-            loadFrom(device, attrs);
-            loadChilds(device, deviceDN);
-            return device;
-        } catch (NameNotFoundException e) {
-            throw new ConfigurationNotFoundException("Device with specified name not found",e);
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
-        } catch (CertificateException e) {
-            throw new ConfigurationException(e);
+                loadFrom(device, attrs);
+                loadChilds(device, deviceDN);
+                return device;
+            } catch (NameNotFoundException e) {
+                throw new ConfigurationNotFoundException("Device with specified name not found",e);
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } catch (CertificateException e) {
+                throw new ConfigurationException(e);
+            } finally {
+                if (prevSubtree != null)
+                    deviceSubtreeLocal.set(prevSubtree);
+                else
+                    deviceSubtreeLocal.remove();
+
+                // if this loadDevice call initialized the cache, then clean it up
+                if (doCleanUpCache) currentlyLoadedDevicesLocal.remove();
+            }
+        
         } finally {
+            releaseContext(leased);
+        }
+    }
 
-            // if this loadDevice call initialized the cache, then clean it up
-            if (doCleanUpCache) currentlyLoadedDevicesLocal.remove();
+    private DeviceSubtree prefetchDeviceSubtree(String deviceDN) throws NamingException {
+        try {
+            DeviceSubtree subtree = DeviceSubtree.load(ctx(), deviceDN);
+            LOG.debug("Prefetched {} entries of {}", subtree.size(), deviceDN);
+            return subtree;
+        } catch (NameNotFoundException e) {
+            throw e;
+        } catch (NamingException e) {
+            LOG.warn("Prefetch of {} failed - search child entries separately:", deviceDN, e);
+            return null;
         }
-        
     }
 
     public Attributes getAttributes(String name) throws NamingException {
-        return ctx.getAttributes(name);
+        return getAttributes(name, null);
     }
 
     public Attributes getAttributes(String name, String[] attrIDs) throws NamingException {
-        return ctx.getAttributes(name, attrIDs);
+        DeviceSubtree subtree = deviceSubtreeLocal.get();
+        Attributes attrs;
+        if (subtree != null && (attrs = subtree.getAttributes(name, attrIDs)) != null)
+            return attrs;
+        ReconnectDirContext leased = borrowContext();
+        try {
+            return attrIDs != null ? ctx().getAttributes(name, attrIDs) : ctx().getAttributes(name);
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     private void loadChilds(Device device, String deviceDN)
@@ -1517,7 +2046,11 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
         ctls.setSearchScope(SearchControls.ONELEVEL_SCOPE);
         ctls.setReturningObjFlag(false);
         ctls.setReturningAttributes(attrs);
-        return ctx.search(dn, filter, ctls);
+        DeviceSubtree subtree = deviceSubtreeLocal.get();
+        NamingEnumeration<SearchResult> ne;
+        if (subtree != null && (ne = subtree.search(dn, filter, attrs)) != null)
+            return ne;
+        return search(dn, filter, ctls);
     }
 
     private void loadFrom(Connection conn, Attributes attrs, boolean extended)
@@ -2251,13 +2784,25 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
 
     public void modifyAttributes(String dn, List<ModificationItem> mods)
             throws NamingException {
-        if (!mods.isEmpty())
-            ctx.modifyAttributes(dn, mods.toArray(new ModificationItem[mods.size()]));
+        if (mods.isEmpty())
+            return;
+
+        ReconnectDirContext leased = borrowContext();
+        try {
+            ctx().modifyAttributes(dn, mods.toArray(new ModificationItem[mods.size()]));
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     public void replaceAttributes(String dn, Attributes attrs)
             throws NamingException {
-        ctx.modifyAttributes(dn, DirContext.REPLACE_ATTRIBUTE, attrs);
+        ReconnectDirContext leased = borrowContext();
+        try {
+            ctx().modifyAttributes(dn, DirContext.REPLACE_ATTRIBUTE, attrs);
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     
@@ -2580,70 +3125,95 @@ public final class LdapDicomConfiguration implements DicomConfiguration {
     }
 
     @Override
-    public synchronized ApplicationEntityInfo[] listAETInfos(ApplicationEntityInfo keys)
+    public ApplicationEntityInfo[] listAETInfos(ApplicationEntityInfo keys)
             throws ConfigurationException {
-        if (!configurationExists())
-            return new ApplicationEntityInfo[0];
-
-        ArrayList<ApplicationEntityInfo> results = new ArrayList<ApplicationEntityInfo>();
-        NamingEnumeration<SearchResult> ne = null;
+        ReconnectDirContext leased = leaseContext();
         try {
-            String deviceName = keys.getDeviceName();
-            ne = search(deviceName, AE_ATTRS, toFilter(keys));
-            Map<String, Connection> connCache = new HashMap<>();
-            while (ne.hasMore()) {
-                ApplicationEntityInfo aetInfo = new ApplicationEntityInfo();
-                SearchResult ne1 = ne.next();
-                loadFrom(aetInfo, ne1.getAttributes(),
-                        deviceName != null ? deviceName : LdapUtils.cutDeviceName(ne1.getName()), connCache);
-                results.add(aetInfo);
+            if (!configurationExists())
+                return new ApplicationEntityInfo[0];
+
+            ArrayList<ApplicationEntityInfo> results = new ArrayList<ApplicationEntityInfo>();
+            NamingEnumeration<SearchResult> ne = null;
+            try {
+                String deviceName = keys.getDeviceName();
+                ne = search(deviceName, AE_ATTRS, toFilter(keys));
+                Map<String, Connection> connCache = new HashMap<>();
+                while (ne.hasMore()) {
+                    ApplicationEntityInfo aetInfo = new ApplicationEntityInfo();
+                    SearchResult ne1 = ne.next();
+                    loadFrom(aetInfo, ne1.getAttributes(),
+                            deviceName != null ? deviceName : LdapUtils.cutDeviceName(ne1.getName()), connCache);
+                    results.add(aetInfo);
+                }
+            } catch (NameNotFoundException e) {
+                return new ApplicationEntityInfo[0];
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } finally {
+                LdapUtils.safeClose(ne);
             }
-        } catch (NameNotFoundException e) {
-            return new ApplicationEntityInfo[0];
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            return results.toArray(new ApplicationEntityInfo[results.size()]);
         } finally {
-            LdapUtils.safeClose(ne);
+            releaseContext(leased);
         }
-        return results.toArray(new ApplicationEntityInfo[results.size()]);
     }
 
     @Override
-    public synchronized WebApplicationInfo[] listWebApplicationInfos(WebApplicationInfo keys)
+    public WebApplicationInfo[] listWebApplicationInfos(WebApplicationInfo keys)
             throws ConfigurationException {
-        if (!configurationExists())
-            return new WebApplicationInfo[0];
-
-        ArrayList<WebApplicationInfo> results = new ArrayList<>();
-        NamingEnumeration<SearchResult> ne = null;
+        ReconnectDirContext leased = leaseContext();
         try {
-            String deviceName = keys.getDeviceName();
-            ne = search(deviceName, WEBAPP_ATTRS, toFilter(keys));
-            Map<String, Connection> connCache = new HashMap<>();
-            Map<String, KeycloakClient> keycloakClientCache = new HashMap<>();
-            while (ne.hasMore()) {
-                WebApplicationInfo webappInfo = new WebApplicationInfo();
-                SearchResult ne1 = ne.next();
-                loadFrom(webappInfo, ne1.getAttributes(),
-                        deviceName != null ? deviceName : LdapUtils.cutDeviceName(ne1.getName()),
-                        connCache, keycloakClientCache);
-                results.add(webappInfo);
+            if (!configurationExists())
+                return new WebApplicationInfo[0];
+
+            ArrayList<WebApplicationInfo> results = new ArrayList<>();
+            NamingEnumeration<SearchResult> ne = null;
+            try {
+                String deviceName = keys.getDeviceName();
+                ne = search(deviceName, WEBAPP_ATTRS, toFilter(keys));
+                Map<String, Connection> connCache = new HashMap<>();
+                Map<String, KeycloakClient> keycloakClientCache = new HashMap<>();
+                while (ne.hasMore()) {
+                    WebApplicationInfo webappInfo = new WebApplicationInfo();
+                    SearchResult ne1 = ne.next();
+                    loadFrom(webappInfo, ne1.getAttributes(),
+                            deviceName != null ? deviceName : LdapUtils.cutDeviceName(ne1.getName()),
+                            connCache, keycloakClientCache);
+                    results.add(webappInfo);
+                }
+            } catch (NameNotFoundException e) {
+                return new WebApplicationInfo[0];
+            } catch (NamingException e) {
+                throw new ConfigurationException(e);
+            } finally {
+                LdapUtils.safeClose(ne);
             }
-        } catch (NameNotFoundException e) {
-            return new WebApplicationInfo[0];
-        } catch (NamingException e) {
-            throw new ConfigurationException(e);
+            return results.toArray(new WebApplicationInfo[results.size()]);
         } finally {
-            LdapUtils.safeClose(ne);
+            releaseContext(leased);
         }
-        return results.toArray(new WebApplicationInfo[results.size()]);
     }
 
     public NamingEnumeration<SearchResult> search(String deviceName, String[] attrsArray, String filter)
             throws NamingException {
         return deviceName != null
                 ? search(deviceRef(deviceName), filter, attrsArray)
-                : ctx.search(devicesDN, filter, searchControlSubtreeScope(0, attrsArray, true));
+                : search(devicesDN, filter, searchControlSubtreeScope(0, attrsArray, true));
+    }
+
+    /**
+     * Searches on the context leased by the current thread. If the current thread does not hold a context,
+     * the search results are read completely before the context borrowed for the search is returned to the pool.
+     */
+    private NamingEnumeration<SearchResult> search(String dn, String filter, SearchControls ctls)
+            throws NamingException {
+        ReconnectDirContext leased = borrowContext();
+        try {
+            NamingEnumeration<SearchResult> ne = ctx().search(dn, filter, ctls);
+            return leased != null ? detach(ne) : ne;
+        } finally {
+            releaseContext(leased);
+        }
     }
 
     private static String toFilter(ApplicationEntityInfo keys) {
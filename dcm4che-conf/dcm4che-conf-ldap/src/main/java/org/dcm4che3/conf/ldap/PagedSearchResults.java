@@ -0,0 +1,146 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.conf.ldap;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the results of a LDAP search, fetched in pages of limited size using the LDAP Control
+ * for Simple Paged Results Manipulation (RFC 2696). Falls back to fetch all results at once, if the context
+ * is not a {@link LdapContext} or if the LDAP server does not support the control.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class PagedSearchResults implements Closeable {
+
+    private final DirContext ctx;
+    private final String name;
+    private final String filter;
+    private final SearchControls ctls;
+    private final int pageSize;
+    private NamingEnumeration<SearchResult> ne;
+
+    PagedSearchResults(DirContext ctx, String name, String filter, SearchControls ctls, int pageSize)
+            throws NamingException {
+        this.pageSize = pageSize;
+        this.ctx = pageSize > 0 && ctx instanceof LdapContext
+                ? ((LdapContext) ctx).newInstance(pagedResultsControls(pageSize, null))
+                : ctx;
+        this.name = name;
+        this.filter = filter;
+        this.ctls = ctls;
+        try {
+            this.ne = this.ctx.search(name, filter, ctls);
+        } catch (NamingException e) {
+            closeContext();
+            throw e;
+        }
+    }
+
+    private static Control[] pagedResultsControls(int pageSize, byte[] cookie) throws NamingException {
+        try {
+            return new Control[] { new PagedResultsControl(pageSize, cookie, Control.NONCRITICAL) };
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    boolean hasNext() throws NamingException {
+        while (!ne.hasMore()) {
+            byte[] cookie = cookie();
+            if (cookie == null || cookie.length == 0)
+                return false;
+
+            ne.close();
+            LdapContext ldapCtx = (LdapContext) ctx;
+            ldapCtx.setRequestControls(pagedResultsControls(pageSize, cookie));
+            ne = ldapCtx.search(name, filter, ctls);
+        }
+        return true;
+    }
+
+    SearchResult next() throws NamingException {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return ne.next();
+    }
+
+    private byte[] cookie() throws NamingException {
+        if (!(ctx instanceof LdapContext) || pageSize <= 0)
+            return null;
+
+        Control[] controls = ((LdapContext) ctx).getResponseControls();
+        if (controls != null)
+            for (Control control : controls)
+                if (control instanceof PagedResultsResponseControl)
+                    return ((PagedResultsResponseControl) control).getCookie();
+
+        return null;
+    }
+
+    @Override
+    public void close() {
+        LdapUtils.safeClose(ne);
+        closeContext();
+    }
+
+    private void closeContext() {
+        if (pageSize > 0 && ctx instanceof LdapContext) {
+            try {
+                ctx.close();
+            } catch (NamingException ignore) {}
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.ldap;
+
+import org.dcm4che3.conf.api.ConfigurationChanges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.naming.Binding;
+import javax.naming.InvalidNameException;
+import javax.naming.NamingException;
+import javax.naming.directory.SearchControls;
+import javax.naming.event.EventDirContext;
+import javax.naming.event.NamespaceChangeListener;
+import javax.naming.event.NamingEvent;
+import javax.naming.event.NamingExceptionEvent;
+import javax.naming.event.ObjectChangeListener;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import java.io.Closeable;
+import java.util.Hashtable;
+
+/**
+ * Listens for modifications of entries below the Devices root, using the event notification of the JNDI LDAP
+ * provider, which is implemented by the LDAP Persistent Search control. Requires LDAP server support of the
+ * Persistent Search control (OID 2.16.840.1.113730.3.4.3).
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class PersistentSearch implements NamespaceChangeListener, ObjectChangeListener, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentSearch.class);
+
+    interface Callback {
+        void onChange(String deviceName, ConfigurationChanges changes);
+    }
+
+    private final ReconnectDirContext ctx;
+    private final EventDirContext eventCtx;
+    private final Callback callback;
+
+    PersistentSearch(Hashtable<?,?> env, String devicesDN, Callback callback) throws NamingException {
+        this.ctx = new ReconnectDirContext(env);
+        this.callback = callback;
+        try {
+            this.eventCtx = (EventDirContext) ctx.getDirCtx().lookup("");
+            SearchControls ctls = new SearchControls();
+            ctls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+            eventCtx.addNamingListener(devicesDN, "(objectclass=*)", ctls, this);
+        } catch (NamingException | RuntimeException e) {
+            ctx.close();
+            throw e;
+        }
+        LOG.info("Listen for modifications of entries below {}", devicesDN);
+    }
+
+    @Override
+    public void objectAdded(NamingEvent evt) {
+        onChange(evt.getNewBinding(), ConfigurationChanges.ChangeType.C);
+    }
+
+    @Override
+    public void objectRemoved(NamingEvent evt) {
+        onChange(evt.getOldBinding(), ConfigurationChanges.ChangeType.D);
+    }
+
+    @Override
+    public void objectRenamed(NamingEvent evt) {
+        onChange(evt.getOldBinding(), ConfigurationChanges.ChangeType.D);
+        onChange(evt.getNewBinding(), ConfigurationChanges.ChangeType.C);
+    }
+
+    @Override
+    public void objectChanged(NamingEvent evt) {
+        onChange(evt.getNewBinding(), ConfigurationChanges.ChangeType.U);
+    }
+
+    @Override
+    public void namingExceptionThrown(NamingExceptionEvent evt) {
+        LOG.warn("Persistent search failed - modifications of the configuration may be missed:",
+                evt.getException());
+        callback.onChange(null, new ConfigurationChanges(false));
+    }
+
+    private void onChange(Binding binding, ConfigurationChanges.ChangeType changeType) {
+        if (binding == null)
+            return;
+
+        String dn = binding.getName();
+        ConfigurationChanges changes = new ConfigurationChanges(false);
+        ConfigurationChanges.addModifiedObject(changes, dn, changeType);
+        callback.onChange(deviceNameOf(dn), changes);
+    }
+
+    static String deviceNameOf(String dn) {
+        try {
+            for (Rdn rdn : new LdapName(dn).getRdns())
+                if (rdn.getType().equalsIgnoreCase("dicomDeviceName"))
+                    return (String) rdn.getValue();
+        } catch (InvalidNameException e) {
+            LOG.info("Failed to parse DN: {}", dn);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            eventCtx.removeNamingListener(this);
+        } catch (NamingException e) {
+            LOG.info("Failed to remove naming listener:", e);
+        }
+        try {
+            eventCtx.close();
+        } catch (NamingException ignore) {}
+        ctx.close();
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.naming.*;
 import javax.naming.directory.*;
+import javax.naming.ldap.InitialLdapContext;
 import java.io.Closeable;
 import java.util.Hashtable;
 
@@ -27,13 +28,13 @@ class ReconnectDirContext implements Closeable {
 
     public ReconnectDirContext(Hashtable<?,?> env) throws NamingException {
         this.env = (Hashtable) env.clone();
-        this.ctx = new InitialDirContext(env);
+        this.ctx = new InitialLdapContext(env, null);
     }
 
     private void reconnect() throws NamingException {
         LOG.info("Connection to {} broken - reconnect", env.get(Context.PROVIDER_URL));
         close();
-        ctx = new InitialDirContext(env);
+        ctx = new InitialLdapContext(env, null);
     }
 
     @Override
@@ -0,0 +1,144 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.conf.ldap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttribute;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchResult;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class DeviceSubtreeTest {
+
+    private static final String DEVICE_DN =
+            "dicomDeviceName=STORESCP,cn=Devices,cn=DICOM Configuration,dc=dcm4che,dc=org";
+
+    private DeviceSubtree subtree;
+
+    @Before
+    public void setUp() throws Exception {
+        List<SearchResult> results = new ArrayList<>();
+        results.add(entry(DEVICE_DN, "dicomDeviceName", "STORESCP", "dicomDevice", "dcmDevice"));
+        results.add(entry("cn=dicom," + DEVICE_DN, "cn", "dicom", "dicomNetworkConnection"));
+        results.add(entry("dicomAETitle=STORESCP," + DEVICE_DN,
+                "dicomAETitle", "STORESCP", "dicomNetworkAE", "dcmNetworkAE"));
+        results.add(entry("cn=Verification SCP,dicomAETitle=STORESCP," + DEVICE_DN,
+                "cn", "Verification SCP", "dicomTransferCapability"));
+        subtree = new DeviceSubtree(DEVICE_DN, results);
+    }
+
+    private static SearchResult entry(String dn, String attrID, String value, String... objectClasses) {
+        Attributes attrs = new BasicAttributes(true);
+        BasicAttribute objectclass = new BasicAttribute("objectClass");
+        for (String objectClass : objectClasses)
+            objectclass.add(objectClass);
+        attrs.put(objectclass);
+        attrs.put(attrID, value);
+        SearchResult sr = new SearchResult(dn, null, attrs);
+        sr.setNameInNamespace(dn);
+        return sr;
+    }
+
+    @Test
+    public void testGetAttributes() throws Exception {
+        Attributes attrs = subtree.getAttributes(
+                "DICOMAETITLE=STORESCP, dicomDeviceName=storescp,cn=Devices,cn=DICOM Configuration,dc=dcm4che,dc=org",
+                null);
+        assertEquals("STORESCP", attrs.get("dicomAETitle").get());
+        Attributes selected = subtree.getAttributes(DEVICE_DN, new String[]{ "dicomDeviceName" });
+        assertEquals(1, selected.size());
+        assertNull(subtree.getAttributes("cn=Devices,cn=DICOM Configuration,dc=dcm4che,dc=org", null));
+        assertNull(subtree.getAttributes(DEVICE_DN, new String[]{ "userCertificate;binary" }));
+        try {
+            subtree.getAttributes("cn=other," + DEVICE_DN, null);
+            fail("NameNotFoundException expected");
+        } catch (NameNotFoundException expected) {}
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        assertEquals(1, count(subtree.search(DEVICE_DN, "(objectclass=dicomNetworkConnection)", null)));
+        assertEquals(1, count(subtree.search(DEVICE_DN, "(objectClass=DCMNETWORKAE)", null)));
+        assertEquals(2, count(subtree.search(DEVICE_DN,
+                "(|(objectclass=dicomNetworkAE)(objectclass=dicomNetworkConnection))", null)));
+        assertEquals(1, count(subtree.search(DEVICE_DN,
+                "(&(objectclass=dicomNetworkAE)(!(objectclass=dcmWebApp)))", null)));
+        assertEquals(0, count(subtree.search(DEVICE_DN, "(objectclass=dicomTransferCapability)", null)));
+        assertEquals(1, count(subtree.search("dicomAETitle=STORESCP," + DEVICE_DN,
+                "(objectclass=dicomTransferCapability)", null)));
+        SearchResult sr = subtree.search(DEVICE_DN, "(objectclass=dicomNetworkAE)", new String[0]).next();
+        assertEquals("dicomAETitle=STORESCP", sr.getName());
+        assertEquals("dicomAETitle=STORESCP," + DEVICE_DN, sr.getNameInNamespace());
+        assertEquals(0, sr.getAttributes().size());
+    }
+
+    @Test
+    public void testSearchNotCovered() throws Exception {
+        assertNull(subtree.search(DEVICE_DN, "(dicomAETitle=STORESCP)", null));
+        assertNull(subtree.search(DEVICE_DN, "(objectclass=*)", null));
+        assertNull(subtree.search(DEVICE_DN, "(objectclass=dicomNetworkAE", null));
+        assertNull(subtree.search("cn=Devices,cn=DICOM Configuration,dc=dcm4che,dc=org",
+                "(objectclass=dicomDevice)", null));
+    }
+
+    private static int count(NamingEnumeration<SearchResult> ne) throws Exception {
+        int count = 0;
+        while (ne.hasMore()) {
+            ne.next();
+            count++;
+        }
+        return count;
+    }
+}
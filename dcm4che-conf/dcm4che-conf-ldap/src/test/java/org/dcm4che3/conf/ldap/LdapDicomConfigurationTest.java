@@ -39,7 +39,9 @@
 package org.dcm4che3.conf.ldap;
 
 import org.dcm4che3.conf.api.ConfigurationAlreadyExistsException;
+import org.dcm4che3.conf.api.ConfigurationException;
 import org.dcm4che3.conf.api.ConfigurationNotFoundException;
+import org.dcm4che3.conf.api.UncheckedConfigurationException;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.net.*;
 import org.dcm4che3.net.TransferCapability.Role;
@@ -47,8 +49,17 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -118,6 +129,91 @@ public class LdapDicomConfigurationTest {
         config.removeDevice("Test-Device-1", null);
     }
 
+    @Test
+    public void testStreamAETInfos() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            try {
+                config.removeDevice("Test-Device-" + i, null);
+            }  catch (ConfigurationNotFoundException e) {}
+            config.persist(createDevice("Test-Device-" + i, "TEST-AET" + i), null);
+        }
+        try (Stream<ApplicationEntityInfo> stream = config.streamAETInfos(new ApplicationEntityInfo(), 2)) {
+            List<String> aets = new ArrayList<>();
+            for (Iterator<ApplicationEntityInfo> iter = stream.iterator(); iter.hasNext();)
+                aets.add(iter.next().getAETitle());
+            assertTrue(aets.containsAll(Arrays.asList("TEST-AET1", "TEST-AET2", "TEST-AET3")));
+        }
+        try (Stream<DeviceInfo> stream = config.streamDeviceInfos(deviceInfo("Test-Device-2"), 2)) {
+            assertEquals(1, stream.count());
+        }
+        for (int i = 1; i <= 3; i++)
+            config.removeDevice("Test-Device-" + i, null);
+    }
+
+    @Test
+    public void testFindDeviceWhileStreaming() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            try {
+                config.removeDevice("Test-Device-" + i, null);
+            }  catch (ConfigurationNotFoundException e) {}
+            config.persist(createDevice("Test-Device-" + i, "TEST-AET" + i), null);
+        }
+        config.setContextPoolTimeout(5000);
+        final List<String> deviceNames = new ArrayList<>();
+        try (Stream<ApplicationEntityInfo> stream = config.streamAETInfos(new ApplicationEntityInfo(), 2)) {
+            stream.forEach(new Consumer<ApplicationEntityInfo>() {
+                @Override
+                public void accept(ApplicationEntityInfo info) {
+                    try {
+                        deviceNames.add(config.findDevice(info.getDeviceName()).getDeviceName());
+                    } catch (ConfigurationException e) {
+                        throw new UncheckedConfigurationException(e);
+                    }
+                }
+            });
+        }
+        assertTrue(deviceNames.containsAll(Arrays.asList("Test-Device-1", "Test-Device-2", "Test-Device-3")));
+        config.setMaxContextPoolSize(2);
+        try (Stream<DeviceInfo> stream = config.streamDeviceInfos(deviceInfo("Test-Device-2"), 2)) {
+            for (Iterator<DeviceInfo> iter = stream.iterator(); iter.hasNext();)
+                assertNotNull(config.findDevice(iter.next().getDeviceName()));
+        }
+        for (int i = 1; i <= 3; i++)
+            config.removeDevice("Test-Device-" + i, null);
+    }
+
+    @Test
+    public void testConcurrentFindWithPrefetchDeviceSubtree() throws Exception {
+        try {
+            config.removeDevice("Test-Device-1", null);
+        }  catch (ConfigurationNotFoundException e) {}
+        config.persist(createDevice("Test-Device-1", "TEST-AET1"), null);
+        config.setMaxContextPoolSize(4);
+        config.setPrefetchDeviceSubtree(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ApplicationEntity>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+                futures.add(executor.submit(new Callable<ApplicationEntity>() {
+                    @Override
+                    public ApplicationEntity call() throws Exception {
+                        return config.findApplicationEntity("TEST-AET1");
+                    }
+                }));
+            for (Future<ApplicationEntity> future : futures) {
+                ApplicationEntity ae = future.get();
+                assertTrue(ae.getConnections().get(0).isServer());
+                assertNotNull(ae.getTransferCapabilityFor(UID.CTImageStorage, TransferCapability.Role.SCP));
+                assertEquals(EnumSet.of(QueryOption.RELATIONAL),
+                        ae.getTransferCapabilityFor(UID.StudyRootQueryRetrieveInformationModelFIND,
+                                TransferCapability.Role.SCP).getQueryOptions());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        config.removeDevice("Test-Device-1", null);
+    }
+
     private DeviceInfo deviceInfo(String deviceName) {
         DeviceInfo keys =  new DeviceInfo();
         keys.setDeviceName(deviceName);
@@ -0,0 +1,205 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.conf.ldap;
+
+import org.junit.Test;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class PagedSearchResultsTest {
+
+    @Test
+    public void testPaging() throws Exception {
+        PagingContext paging = new PagingContext(7);
+        List<String> names = new ArrayList<>();
+        try (PagedSearchResults results = new PagedSearchResults(paging.proxy(), "", "(objectclass=*)",
+                new SearchControls(), 3)) {
+            while (results.hasNext())
+                names.add(results.next().getName());
+        }
+        assertEquals(7, names.size());
+        assertEquals("cn=0", names.get(0));
+        assertEquals("cn=6", names.get(6));
+        assertEquals(3, paging.searches);
+        assertTrue(paging.closed);
+    }
+
+    @Test
+    public void testNoPaging() throws Exception {
+        PagingContext paging = new PagingContext(7);
+        int count = 0;
+        try (PagedSearchResults results = new PagedSearchResults(paging.proxy(), "", "(objectclass=*)",
+                new SearchControls(), 0)) {
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+        }
+        assertEquals(7, count);
+        assertEquals(1, paging.searches);
+        assertFalse(paging.closed);
+    }
+
+    /**
+     * Simulates a LDAP server supporting the Simple Paged Results Control, returning the offset of the next page
+     * as cookie.
+     */
+    private static class PagingContext implements InvocationHandler {
+        final int total;
+        int pageSize;
+        int offset;
+        int searches;
+        boolean closed;
+        Control[] responseControls;
+
+        PagingContext(int total) {
+            this.total = total;
+        }
+
+        LdapContext proxy() {
+            return (LdapContext) Proxy.newProxyInstance(LdapContext.class.getClassLoader(),
+                    new Class<?>[] { LdapContext.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "newInstance":
+                case "setRequestControls":
+                    PagedResultsControl control = (PagedResultsControl) ((Control[]) args[0])[0];
+                    pageSize = decodeSize(control.getEncodedValue());
+                    return method.getName().equals("newInstance") ? proxy : null;
+                case "search":
+                    return search();
+                case "getResponseControls":
+                    return responseControls;
+                case "close":
+                    closed = true;
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        private NamingEnumeration<SearchResult> search() throws Exception {
+            searches++;
+            int end = pageSize > 0 ? Math.min(offset + pageSize, total) : total;
+            List<SearchResult> page = new ArrayList<>();
+            for (int i = offset; i < end; i++)
+                page.add(new SearchResult("cn=" + i, null, new BasicAttributes()));
+            offset = end;
+            responseControls = pageSize > 0
+                    ? new Control[] { new PagedResultsResponseControl(PagedResultsControl.OID, false,
+                            encodeCookie(end < total ? new byte[] { (byte) end } : new byte[0])) }
+                    : null;
+            return new Enumeration(page.iterator());
+        }
+
+        private static int decodeSize(byte[] value) {
+            // SEQUENCE { INTEGER size, OCTET STRING cookie } with single byte size
+            return value[4];
+        }
+
+        private static byte[] encodeCookie(byte[] cookie) {
+            byte[] b = new byte[7 + cookie.length];
+            b[0] = 0x30;
+            b[1] = (byte) (5 + cookie.length);
+            b[2] = 0x02;
+            b[3] = 0x01;
+            b[4] = 0;
+            b[5] = 0x04;
+            b[6] = (byte) cookie.length;
+            System.arraycopy(cookie, 0, b, 7, cookie.length);
+            return b;
+        }
+    }
+
+    private static class Enumeration implements NamingEnumeration<SearchResult> {
+        final Iterator<SearchResult> iter;
+
+        Enumeration(Iterator<SearchResult> iter) {
+            this.iter = iter;
+        }
+
+        @Override
+        public SearchResult next() {
+            return iter.next();
+        }
+
+        @Override
+        public boolean hasMore() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return hasMore();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+            return next();
+        }
+    }
+}
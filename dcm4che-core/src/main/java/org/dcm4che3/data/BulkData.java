@@ -41,6 +41,8 @@ package org.dcm4che3.data;
 import org.dcm4che3.io.DicomEncodingOptions;
 import org.dcm4che3.io.DicomOutputStream;
 import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.FileChannelCache;
+import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StreamUtils;
 import org.dcm4che3.util.StringUtils;
 
@@ -48,6 +50,11 @@ import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -159,10 +166,243 @@ public class BulkData implements Value {
         if (!uri.startsWith("file:"))
             return new URL(uri).openStream();
 
-        InputStream in = new FileInputStream(getFile());
-        StreamUtils.skipFully(in, offset);
+        return skipFully(new FileInputStream(getFile()), offset);
+
+    }
+
+    /**
+     * Opens a stream to read a range of the value. File URIs are read by
+     * positional reads from a channel of {@link FileChannelCache#getDefault()},
+     * so the preceding bytes of the file are never read.
+     *
+     * @param off offset of the range relative to the begin of the value
+     * @param len length of the range or -1 for the remaining value
+     * @return input stream of the specified range
+     * @throws IOException if the resource could not be opened
+     * @throws IllegalArgumentException if the range exceeds the value
+     */
+    public InputStream openStream(long off, long len) throws IOException {
+        len = checkRange(off, len);
+        if (!uri.startsWith("file:")) {
+            InputStream in = skipFully(new URL(uri).openStream(), off);
+            return len == -1 ? in : new RangeInputStream(in, len);
+        }
+
+        FileChannelCache.Lease lease = FileChannelCache.getDefault().open(getFile());
+        try {
+            long pos = offset + off;
+            return new FileChannelInputStream(lease, pos,
+                    len == -1 ? lease.channel().size() - pos : len);
+        } catch (IOException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private static InputStream skipFully(InputStream in, long n) throws IOException {
+        try {
+            StreamUtils.skipFully(in, n);
+        } catch (IOException e) {
+            SafeClose.close(in);
+            throw e;
+        }
         return in;
+    }
+
+    /**
+     * Transfers a range of the value to the specified channel. File URIs
+     * are transferred by {@link FileChannel#transferTo}, which may avoid to
+     * copy the bytes into user space.
+     *
+     * @param ch target channel
+     * @param off offset of the range relative to the begin of the value
+     * @param len length of the range or -1 for the remaining value
+     * @return number of transferred bytes
+     * @throws IOException if the resource could not be read or the channel
+     *         could not be written
+     * @throws IllegalArgumentException if the range exceeds the value
+     */
+    public long transferTo(WritableByteChannel ch, long off, long len)
+            throws IOException {
+        len = checkRange(off, len);
+        if (!uri.startsWith("file:"))
+            return copyTo(ch, openStream(off, len));
+
+        FileChannelCache.Lease lease = FileChannelCache.getDefault().open(getFile());
+        try {
+            FileChannel fc = lease.channel();
+            long pos = offset + off;
+            long remaining = len == -1 ? fc.size() - pos : len;
+            long transferred = 0;
+            while (remaining > 0) {
+                long n;
+                try {
+                    n = fc.transferTo(pos, remaining, ch);
+                } catch (ClosedChannelException e) {
+                    fc = reopen(lease, e);
+                    continue;
+                }
+                if (n == 0 && pos >= fc.size())
+                    throw new EOFException();
+                pos += n;
+                remaining -= n;
+                transferred += n;
+            }
+            return transferred;
+        } finally {
+            lease.close();
+        }
+    }
+
+    private long checkRange(long off, long len) {
+        if (uri == null)
+            throw new IllegalStateException("uri: null");
+
+        long valueLength = longLength();
+        if (off < 0 || len < -1 || valueLength != -1
+                && (off > valueLength || len > valueLength - off))
+            throw new IllegalArgumentException("off: " + off + ", len: " + len
+                    + ", length: " + valueLength);
+
+        return len == -1 && valueLength != -1 ? valueLength - off : len;
+    }
+
+    private static long copyTo(WritableByteChannel ch, InputStream in)
+            throws IOException {
+        try {
+            byte[] b = new byte[8192];
+            ByteBuffer buf = ByteBuffer.wrap(b);
+            long transferred = 0;
+            int read;
+            while ((read = in.read(b)) > 0) {
+                buf.clear();
+                buf.limit(read);
+                while (buf.hasRemaining())
+                    ch.write(buf);
+                transferred += read;
+            }
+            return transferred;
+        } finally {
+            in.close();
+        }
+    }
 
+    private static class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        RangeInputStream(InputStream in, long len) {
+            super(in);
+            this.remaining = len;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0)
+                return -1;
+
+            int b = in.read();
+            if (b >= 0)
+                remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0)
+                return -1;
+
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0)
+                remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Re-opens the channel of the lease, if it was closed by the interrupt of
+     * another thread reading from the same channel of the cache.
+     */
+    private static FileChannel reopen(FileChannelCache.Lease lease,
+            ClosedChannelException e) throws IOException {
+        if (e instanceof ClosedByInterruptException || lease.channel().isOpen())
+            throw e;
+
+        return lease.reopen();
+    }
+
+    private static class FileChannelInputStream extends InputStream {
+        private final FileChannelCache.Lease lease;
+        private FileChannel channel;
+        private long pos;
+        private long remaining;
+
+        FileChannelInputStream(FileChannelCache.Lease lease, long pos, long len) {
+            this.lease = lease;
+            this.channel = lease.channel();
+            this.pos = pos;
+            this.remaining = len;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) > 0 ? b[0] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0)
+                return -1;
+
+            ByteBuffer dst = ByteBuffer.wrap(b, off, (int) Math.min(len, remaining));
+            int read;
+            try {
+                read = channel.read(dst, pos);
+            } catch (ClosedChannelException e) {
+                channel = reopen(lease, e);
+                read = channel.read(dst, pos);
+            }
+            if (read > 0) {
+                pos += read;
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, remaining));
+            pos += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() {
+            lease.close();
+        }
     }
 
     @Override
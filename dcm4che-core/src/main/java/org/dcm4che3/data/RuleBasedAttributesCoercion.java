@@ -0,0 +1,534 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.data;
+
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Attributes Coercion defined by a declarative rule, operating directly on {@link Attributes}.
+ * <p>
+ * Rules are compiled once by {@link #compile(Reader, AttributesCoercion)} into a chain of coercions, one per rule.
+ * Each line of the rule source specifies one rule:
+ * <pre>
+ * set &lt;path&gt; &lt;value&gt;[\&lt;value&gt;..] [&lt;VR&gt;] [if &lt;condition&gt; [and &lt;condition&gt;..]]
+ * copy &lt;path&gt; &lt;path&gt; [if ..]
+ * remove &lt;path&gt; [if ..]
+ * map &lt;path&gt; &lt;from&gt;=&lt;to&gt; [&lt;from&gt;=&lt;to&gt;..] [if ..]
+ * replace &lt;path&gt; &lt;regex&gt; &lt;replacement&gt; [if ..]
+ * </pre>
+ * with {@code <path>} specified by keywords or tag values (in hex) of the attribute, optionally preceded by
+ * keywords or tag values of sequence attributes, separated by {@code '.'}, e.g.
+ * {@code RequestAttributesSequence.ScheduledProcedureStepID}. Actions on attributes in sequence items are applied to
+ * all items of the sequence. Conditions are {@code <path>} (present), {@code !<path>} (absent),
+ * {@code <path>=<value>}, {@code <path>!=<value>} and {@code <path>~<regex>} and are tested against all values of
+ * the attribute in the first item of sequences. Tokens containing spaces may be enclosed in double quotes. Empty
+ * lines and lines starting with {@code '#'} are ignored.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class RuleBasedAttributesCoercion implements AttributesCoercion {
+
+    private final String rule;
+    private final Action action;
+    private final Condition[] conditions;
+    private final AttributesCoercion next;
+
+    private RuleBasedAttributesCoercion(String rule, Action action, Condition[] conditions,
+            AttributesCoercion next) {
+        this.rule = rule;
+        this.action = action;
+        this.conditions = conditions;
+        this.next = next;
+    }
+
+    public static AttributesCoercion compile(String rules, AttributesCoercion next) {
+        try {
+            return compile(new StringReader(rules), next);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public static AttributesCoercion compile(Reader rules, AttributesCoercion next) throws IOException {
+        BufferedReader reader = new BufferedReader(rules);
+        ArrayList<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null)
+            lines.add(line);
+
+        AttributesCoercion coercion = next;
+        for (int i = lines.size(); --i >= 0;) {
+            String rule = lines.get(i).trim();
+            if (!rule.isEmpty() && rule.charAt(0) != '#')
+                try {
+                    coercion = compileRule(rule, coercion);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            "Invalid rule at line " + (i + 1) + ": " + rule + " - " + e.getMessage());
+                }
+        }
+        return coercion;
+    }
+
+    private static AttributesCoercion compileRule(String rule, AttributesCoercion next) {
+        List<String> tokens = tokenize(rule);
+        int ifIndex = tokens.indexOf("if");
+        List<String> args = tokens.subList(1, ifIndex < 0 ? tokens.size() : ifIndex);
+        Action action;
+        switch (tokens.get(0)) {
+            case "set":
+                checkArgs(args, 2, 3);
+                TagPath path = new TagPath(args.get(0));
+                action = new SetValues(path,
+                        args.size() > 2 ? VR.valueOf(args.get(2)) : ElementDictionary.vrOf(path.tag, null),
+                        args.get(1).isEmpty() ? StringUtils.EMPTY_STRING : StringUtils.split(args.get(1), '\\'));
+                break;
+            case "copy":
+                checkArgs(args, 2, 2);
+                action = new CopyValues(new TagPath(args.get(0)), new TagPath(args.get(1)));
+                break;
+            case "remove":
+                checkArgs(args, 1, 1);
+                action = new RemoveAttribute(new TagPath(args.get(0)));
+                break;
+            case "map":
+                checkArgs(args, 2, Integer.MAX_VALUE);
+                HashMap<String, String> map = new HashMap<>();
+                for (String entry : args.subList(1, args.size())) {
+                    int index = entry.indexOf('=');
+                    if (index < 0)
+                        throw new IllegalArgumentException("Missing '=' in " + entry);
+                    map.put(entry.substring(0, index), entry.substring(index + 1));
+                }
+                action = new MapValues(new TagPath(args.get(0)), map);
+                break;
+            case "replace":
+                checkArgs(args, 3, 3);
+                action = new ReplaceValues(new TagPath(args.get(0)), compilePattern(args.get(1)), args.get(2));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action: " + tokens.get(0));
+        }
+        Condition[] conditions = {};
+        if (ifIndex >= 0) {
+            List<String> conds = tokens.subList(ifIndex + 1, tokens.size());
+            if (conds.isEmpty())
+                throw new IllegalArgumentException("Missing condition");
+            ArrayList<Condition> list = new ArrayList<>();
+            for (int i = 0; i < conds.size(); i++) {
+                if (i > 0 && (!conds.get(i).equals("and") || ++i == conds.size()))
+                    throw new IllegalArgumentException("Invalid conditions: " + conds);
+                list.add(Condition.valueOf(conds.get(i)));
+            }
+            conditions = list.toArray(conditions);
+        }
+        return new RuleBasedAttributesCoercion(rule, action, conditions, next);
+    }
+
+    private static void checkArgs(List<String> args, int min, int max) {
+        if (args.size() < min || args.size() > max)
+            throw new IllegalArgumentException("Invalid number of arguments: " + args.size());
+    }
+
+    private static Pattern compilePattern(String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private static List<String> tokenize(String rule) {
+        ArrayList<String> tokens = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        boolean token = false;
+        for (int i = 0, n = rule.length(); i < n; i++) {
+            char c = rule.charAt(i);
+            if (quoted) {
+                if (c != '"')
+                    sb.append(c);
+                else if (i + 1 < n && rule.charAt(i + 1) == '"')
+                    sb.append(rule.charAt(++i));
+                else
+                    quoted = false;
+            } else if (c == '"') {
+                quoted = token = true;
+            } else if (Character.isWhitespace(c)) {
+                if (token) {
+                    tokens.add(sb.toString());
+                    sb.setLength(0);
+                    token = false;
+                }
+            } else {
+                sb.append(c);
+                token = true;
+            }
+        }
+        if (quoted)
+            throw new IllegalArgumentException("Missing closing quote");
+        if (token)
+            tokens.add(sb.toString());
+        return tokens;
+    }
+
+    @Override
+    public String remapUID(String uid) {
+        return next != null ? next.remapUID(uid) : uid;
+    }
+
+    @Override
+    public void coerce(Attributes attrs, Attributes modified) {
+        if (matches(attrs))
+            action.apply(attrs, modified);
+        if (next != null)
+            next.coerce(attrs, modified);
+    }
+
+    private boolean matches(Attributes attrs) {
+        for (Condition condition : conditions)
+            if (!condition.matches(attrs))
+                return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+    private static final class TagPath {
+        final int[] itemPointers;
+        final int tag;
+        final int topLevelTag;
+
+        TagPath(String s) {
+            int[] tags = TagUtils.parseTagPath(s);
+            itemPointers = Arrays.copyOf(tags, tags.length - 1);
+            tag = tags[tags.length - 1];
+            topLevelTag = tags[0];
+        }
+
+        /**
+         * Returns the (nested) Data Sets containing the attribute.
+         */
+        List<Attributes> containers(Attributes attrs, boolean create) {
+            List<Attributes> list = Collections.singletonList(attrs);
+            for (int sqtag : itemPointers) {
+                ArrayList<Attributes> items = new ArrayList<>();
+                for (Attributes container : list) {
+                    Sequence seq = container.getSequence(sqtag);
+                    if (seq != null && !seq.isEmpty())
+                        items.addAll(seq);
+                    else if (create) {
+                        Attributes item = new Attributes();
+                        container.newSequence(sqtag, 1).add(item);
+                        items.add(item);
+                    }
+                }
+                list = items;
+            }
+            return list;
+        }
+
+        Attributes firstContainer(Attributes attrs) {
+            for (int sqtag : itemPointers)
+                if ((attrs = attrs.getNestedDataset(sqtag)) == null)
+                    return null;
+            return attrs;
+        }
+
+        String[] getStrings(Attributes attrs) {
+            Attributes container = firstContainer(attrs);
+            return container != null ? container.getStrings(tag) : null;
+        }
+
+        void recordOriginal(Attributes attrs, Attributes modified) {
+            if (modified != null && !modified.contains(topLevelTag) && attrs.contains(topLevelTag))
+                modified.addSelected(attrs, topLevelTag);
+        }
+    }
+
+    private interface Action {
+        void apply(Attributes attrs, Attributes modified);
+    }
+
+    private static final class SetValues implements Action {
+        final TagPath path;
+        final VR vr;
+        final String[] values;
+
+        SetValues(TagPath path, VR vr, String[] values) {
+            this.path = path;
+            this.vr = vr;
+            this.values = values;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            path.recordOriginal(attrs, modified);
+            for (Attributes container : path.containers(attrs, true))
+                container.setString(path.tag, vr, values.clone());
+        }
+    }
+
+    private static final class CopyValues implements Action {
+        final TagPath src;
+        final TagPath dest;
+
+        CopyValues(TagPath src, TagPath dest) {
+            this.src = src;
+            this.dest = dest;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            Attributes srcContainer = src.firstContainer(attrs);
+            if (srcContainer == null)
+                return;
+
+            VR.Holder vr = new VR.Holder();
+            Object value = srcContainer.getValue(src.tag, vr);
+            if (value == null || value instanceof Fragments)
+                return;
+
+            dest.recordOriginal(attrs, modified);
+            for (Attributes container : dest.containers(attrs, true)) {
+                if (value instanceof Sequence) {
+                    Sequence seq = (Sequence) value;
+                    Sequence copy = container.newSequence(dest.tag, seq.size());
+                    for (Attributes item : seq)
+                        copy.add(new Attributes(item));
+                } else if (value instanceof byte[]) {
+                    container.setBytes(dest.tag, vr.vr, ((byte[]) value).clone());
+                } else if (value instanceof String[]) {
+                    container.setString(dest.tag, vr.vr, ((String[]) value).clone());
+                } else {
+                    container.setValue(dest.tag, vr.vr, value);
+                }
+            }
+        }
+    }
+
+    private static final class RemoveAttribute implements Action {
+        final TagPath path;
+
+        RemoveAttribute(TagPath path) {
+            this.path = path;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            path.recordOriginal(attrs, modified);
+            for (Attributes container : path.containers(attrs, false))
+                container.remove(path.tag);
+        }
+    }
+
+    private abstract static class ValuesAction implements Action {
+        final TagPath path;
+
+        ValuesAction(TagPath path) {
+            this.path = path;
+        }
+
+        @Override
+        public void apply(Attributes attrs, Attributes modified) {
+            VR.Holder vr = new VR.Holder();
+            for (Attributes container : path.containers(attrs, false)) {
+                if (container.getValue(path.tag, vr) == null)
+                    continue;
+                String[] values = container.getStrings(path.tag);
+                if (values == null)
+                    continue;
+                values = values.clone();
+                boolean changed = false;
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        String value = apply(values[i]);
+                        if (!value.equals(values[i])) {
+                            values[i] = value;
+                            changed = true;
+                        }
+                    }
+                }
+                if (changed) {
+                    path.recordOriginal(attrs, modified);
+                    container.setString(path.tag, vr.vr, values);
+                }
+            }
+        }
+
+        abstract String apply(String value);
+    }
+
+    private static final class MapValues extends ValuesAction {
+        final Map<String, String> map;
+
+        MapValues(TagPath path, Map<String, String> map) {
+            super(path);
+            this.map = map;
+        }
+
+        @Override
+        String apply(String value) {
+            String mapped = map.get(value);
+            return mapped != null ? mapped : value;
+        }
+    }
+
+    private static final class ReplaceValues extends ValuesAction {
+        final Pattern pattern;
+        final String replacement;
+
+        ReplaceValues(TagPath path, Pattern pattern, String replacement) {
+            super(path);
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+
+        @Override
+        String apply(String value) {
+            Matcher matcher = pattern.matcher(value);
+            return matcher.find() ? matcher.replaceAll(replacement) : value;
+        }
+    }
+
+    private enum Operator {
+        PRESENT, ABSENT, EQUALS, NOT_EQUALS, MATCHES
+    }
+
+    private static final class Condition {
+        final TagPath path;
+        final Operator op;
+        final String value;
+        final Pattern pattern;
+
+        Condition(TagPath path, Operator op, String value) {
+            this.path = path;
+            this.op = op;
+            this.value = value;
+            this.pattern = op == Operator.MATCHES ? compilePattern(value) : null;
+        }
+
+        static Condition valueOf(String s) {
+            if (s.startsWith("!"))
+                return new Condition(new TagPath(s.substring(1)), Operator.ABSENT, null);
+            int index = indexOfOperator(s);
+            if (index < 0)
+                return new Condition(new TagPath(s), Operator.PRESENT, null);
+            if (index == 0)
+                throw new IllegalArgumentException("Missing attribute in condition: " + s);
+            TagPath path = new TagPath(s.substring(0, index));
+            switch (s.charAt(index)) {
+                case '~':
+                    return new Condition(path, Operator.MATCHES, s.substring(index + 1));
+                case '=':
+                    return new Condition(path, Operator.EQUALS, s.substring(index + 1));
+            }
+            if (!s.startsWith("=", index + 1))
+                throw new IllegalArgumentException("Invalid operator in condition: " + s);
+            return new Condition(path, Operator.NOT_EQUALS, s.substring(index + 2));
+        }
+
+        private static int indexOfOperator(String s) {
+            for (int i = 0, n = s.length(); i < n; i++)
+                switch (s.charAt(i)) {
+                    case '~':
+                    case '=':
+                    case '!':
+                        return i;
+                }
+            return -1;
+        }
+
+        boolean matches(Attributes attrs) {
+            switch (op) {
+                case PRESENT:
+                    return contains(attrs);
+                case ABSENT:
+                    return !contains(attrs);
+                case NOT_EQUALS:
+                    return !containsValue(attrs);
+                case EQUALS:
+                    return containsValue(attrs);
+            }
+            String[] values = path.getStrings(attrs);
+            if (values != null)
+                for (String s : values)
+                    if (s != null && pattern.matcher(s).matches())
+                        return true;
+            return false;
+        }
+
+        private boolean contains(Attributes attrs) {
+            Attributes container = path.firstContainer(attrs);
+            return container != null && container.contains(path.tag);
+        }
+
+        private boolean containsValue(Attributes attrs) {
+            String[] values = path.getStrings(attrs);
+            if (values != null)
+                for (String s : values)
+                    if (value.equals(s))
+                        return true;
+            return false;
+        }
+    }
+}
@@ -39,6 +39,7 @@
 package org.dcm4che3.io;
 
 import java.io.IOException;
+import java.util.LinkedList;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
@@ -72,6 +73,7 @@ public class SAXWriter implements DicomInputHandler {
     private final ContentHandler ch;
     private final AttributesImpl atts = new AttributesImpl();
     private final char[] buffer = new char[BUFFER_LENGTH];
+    private final LinkedList<int[]> itemNumbers = new LinkedList<int[]>();
 
     public SAXWriter(ContentHandler ch) {
         this.ch = ch;
@@ -99,6 +101,20 @@ public class SAXWriter implements DicomInputHandler {
         endDocument();
     }
 
+    /**
+     * Writes the data set read from the specified stream, without building
+     * the complete {@code Attributes} in memory: Items of Sequences are
+     * discarded after they were emitted as SAX events.
+     *
+     * @param dis DICOM input stream
+     * @throws IOException on read errors or if the {@code ContentHandler}
+     *         throws a {@code SAXException}
+     */
+    public void write(DicomInputStream dis) throws IOException {
+        dis.setDicomInputHandler(this);
+        dis.readDataset(-1, -1);
+    }
+
     private void writeItem(final Attributes item) throws SAXException {
         final SpecificCharacterSet cs = item.getSpecificCharacterSet();
         try {
@@ -240,7 +256,7 @@ public class SAXWriter implements DicomInputHandler {
             dis.readValue(dis, attrs);
         } else if (dis.isExcludeBulkData()) {
             if (len == -1)
-                dis.readValue(dis, attrs);
+                readItems(dis, attrs);
             else
                 dis.skipFully(len);
         } else try {
@@ -248,7 +264,7 @@ public class SAXWriter implements DicomInputHandler {
             addAttributes(tag, vr, privateCreator);
             startElement("DicomAttribute");
             if (vr == VR.SQ || len == -1) {
-                dis.readValue(dis, attrs);
+                readItems(dis, attrs);
             } else if (len > 0) {
                 if (dis.isIncludeBulkDataURI()) {
                     writeBulkData(dis.createBulkData(dis));
@@ -272,6 +288,16 @@ public class SAXWriter implements DicomInputHandler {
         }
     }
 
+    private void readItems(DicomInputStream dis, Attributes attrs)
+            throws IOException {
+        itemNumbers.add(new int[1]);
+        try {
+            dis.readValue(dis, attrs);
+        } finally {
+            itemNumbers.removeLast();
+        }
+    }
+
     private void addAttributes(int tag, VR vr, String privateCreator) {
         if (includeKeyword) {
             String keyword = ElementDictionary.keywordOf(tag, privateCreator);
@@ -290,8 +316,9 @@ public class SAXWriter implements DicomInputHandler {
     public void readValue(DicomInputStream dis, Sequence seq)
             throws IOException {
         try {
-            startElement("Item", "number", seq.size() + 1);
+            startElement("Item", "number", ++itemNumbers.getLast()[0]);
             dis.readValue(dis, seq);
+            seq.remove(seq.size() - 1);
             endElement("Item");
         } catch (SAXException e) {
             throw new IOException(e);
@@ -0,0 +1,697 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.BulkData;
+import org.dcm4che3.data.ElementDictionary;
+import org.dcm4che3.data.PersonName;
+import org.dcm4che3.data.SpecificCharacterSet;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.util.Base64;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Encodes SAX events of the Native DICOM Model directly into a
+ * {@link DicomOutputStream}, without building the complete data set in memory
+ * as {@link ContentHandlerAdapter} does. Sequences and Items are written with
+ * undefined length; only attributes of Private Groups are buffered until the
+ * end of the group, to be able to allocate and write the Private Creator Data
+ * Elements in front of them.
+ * <p>
+ * Attributes are expected in ascending tag order, as written by
+ * {@link SAXWriter}. File Meta Information attributes have to precede the
+ * attributes of the data set. An attribute out of order terminates the
+ * parsing with a {@link SAXException} and {@link #isTagOrderViolated()}
+ * returns {@code true}; the output written so far is not a valid data set.
+ * Only encoding options for which {@link #isSupported(DicomEncodingOptions)}
+ * returns {@code true} can be applied.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class StreamingContentHandlerAdapter extends DefaultHandler {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(StreamingContentHandlerAdapter.class);
+
+    private final OutputStream out;
+    private final boolean lenient;
+    private String tsuid;
+    private boolean nofmi;
+    private DicomEncodingOptions encOpts = DicomEncodingOptions.DEFAULT;
+    private DicomOutputStream dos;
+    private Attributes scratch;
+    private Attributes fmi;
+    private final LinkedList<Item> items = new LinkedList<Item>();
+
+    private final ByteArrayOutputStream bout = new ByteArrayOutputStream(64);
+    private final char[] carry = new char[4];
+    private int carryLen;
+    private final StringBuilder sb = new StringBuilder(64);
+    private final ArrayList<String> values = new ArrayList<String>();
+    private PersonName pn;
+    private PersonName.Group pnGroup;
+    private int tag;
+    private String privateCreator;
+    private VR vr;
+    private BulkData bulkData;
+    private int fragmentCount = -1;
+    private boolean sequencePending;
+    private boolean itemPending;
+    private boolean processCharacters;
+    private boolean inlineBinary;
+    private boolean tagOrderViolated;
+
+    private Attributes privateAttrs;
+    private ContentHandlerAdapter privateHandler;
+    private int privateGroup;
+    private int privateDepth;
+
+    private static class Item {
+        String[] specificCharacterSet;
+        SpecificCharacterSet cs;
+        int itemCount;
+        long lastTag = -1L;
+
+        Item(Item parent) {
+            if (parent != null) {
+                specificCharacterSet = parent.specificCharacterSet;
+                cs = parent.cs;
+            } else {
+                cs = SpecificCharacterSet.getDefaultCharacterSet();
+            }
+        }
+
+        void setSpecificCharacterSet(String[] codes) {
+            specificCharacterSet = codes;
+            cs = SpecificCharacterSet.valueOf(codes);
+        }
+    }
+
+    public StreamingContentHandlerAdapter(OutputStream out) {
+        this(out, false);
+    }
+
+    public StreamingContentHandlerAdapter(OutputStream out, boolean lenient) {
+        if (out == null)
+            throw new NullPointerException();
+        this.out = out;
+        this.lenient = lenient;
+        items.add(new Item(null));
+    }
+
+    /**
+     * Set Transfer Syntax of the encoded data set. If not set, the Transfer
+     * Syntax specified by included File Meta Information is used, or
+     * Implicit VR Little Endian if there is no File Meta Information.
+     *
+     * @param tsuid Transfer Syntax UID or {@code null}
+     */
+    public final void setTransferSyntax(String tsuid) {
+        this.tsuid = tsuid;
+    }
+
+    public final void setNoFileMetaInformation(boolean nofmi) {
+        this.nofmi = nofmi;
+    }
+
+    /**
+     * Set encoding options.
+     *
+     * @param encOpts encoding options
+     * @throws IllegalArgumentException if the encoding options are not
+     *         {@link #isSupported(DicomEncodingOptions) supported}
+     */
+    public final void setEncodingOptions(DicomEncodingOptions encOpts) {
+        if (encOpts == null)
+            throw new NullPointerException();
+        if (!isSupported(encOpts))
+            throw new IllegalArgumentException(
+                    "Group Length or explicit Sequence or Item Length not supported");
+        this.encOpts = encOpts;
+    }
+
+    /**
+     * Returns if attributes can be streamed with the specified encoding
+     * options. Group Length attributes cannot be written, and Sequences and
+     * Items outside of Private Groups can only be encoded with undefined
+     * length, because their length is not known in advance.
+     *
+     * @param encOpts encoding options
+     * @return {@code true} if Group Length attributes are excluded and
+     *         undefined length is used for Sequences and Items
+     */
+    public static boolean isSupported(DicomEncodingOptions encOpts) {
+        return !encOpts.groupLength
+                && encOpts.undefSequenceLength
+                && encOpts.undefItemLength;
+    }
+
+    /**
+     * Returns if the parsing was terminated by an attribute which does not
+     * follow the previous attribute of the same data set in ascending tag
+     * order.
+     *
+     * @return {@code true} if an attribute was out of order
+     */
+    public boolean isTagOrderViolated() {
+        return tagOrderViolated;
+    }
+
+    public Attributes getFileMetaInformation() {
+        return fmi;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName,
+            org.xml.sax.Attributes atts) throws SAXException {
+        boolean dicomAttribute = qName.equals("DicomAttribute");
+        if (privateHandler != null) {
+            if (privateDepth == 0 && dicomAttribute
+                    && groupNumber(atts) != privateGroup) {
+                flushPrivateGroup();
+            } else {
+                if (dicomAttribute)
+                    privateDepth++;
+                privateHandler.startElement(uri, localName, qName, atts);
+                return;
+            }
+        }
+        try {
+            switch (qName.charAt(0)) {
+            case 'A':
+                if (qName.equals("Alphabetic"))
+                    startPNGroup(PersonName.Group.Alphabetic);
+                break;
+            case 'B':
+                if (qName.equals("BulkData"))
+                    bulkData(atts.getValue("uuid"), atts.getValue("uri"));
+                break;
+            case 'D':
+                if (dicomAttribute) {
+                    int tag = (int) Long.parseLong(atts.getValue("tag"), 16);
+                    checkTagOrder(tag);
+                    if (TagUtils.isPrivateGroup(tag)) {
+                        startPrivateGroup(tag);
+                        privateHandler.startElement(uri, localName, qName, atts);
+                    } else {
+                        startDicomAttribute(tag,
+                                atts.getValue("privateCreator"),
+                                atts.getValue("vr"));
+                    }
+                } else if (qName.equals("DataFragment"))
+                    startDataFragment(Integer.parseInt(atts.getValue("number")));
+                break;
+            case 'F':
+                if (qName.equals("FamilyName"))
+                    startText();
+                break;
+            case 'G':
+                if (qName.equals("GivenName"))
+                    startText();
+                break;
+            case 'I':
+                if (qName.equals("Item"))
+                    startItem(Integer.parseInt(atts.getValue("number")));
+                else if (qName.equals("InlineBinary"))
+                    startInlineBinary();
+                else if (qName.equals("Ideographic"))
+                    startPNGroup(PersonName.Group.Ideographic);
+                break;
+            case 'M':
+                if (qName.equals("MiddleName"))
+                    startText();
+                break;
+            case 'N':
+                if (qName.equals("NamePrefix") || qName.equals("NameSuffix"))
+                    startText();
+                break;
+            case 'P':
+                if (qName.equals("PersonName")) {
+                    startPersonName(Integer.parseInt(atts.getValue("number")));
+                } else if (qName.equals("Phonetic"))
+                    startPNGroup(PersonName.Group.Phonetic);
+                break;
+            case 'V':
+                if (qName.equals("Value")) {
+                    startValue(Integer.parseInt(atts.getValue("number")));
+                    startText();
+                }
+                break;
+            }
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private void checkTagOrder(int tag) throws SAXException {
+        Item item = items.getLast();
+        long utag = tag & 0xffffffffL;
+        if (utag <= item.lastTag) {
+            tagOrderViolated = true;
+            throw new SAXException("Attribute " + TagUtils.toString(tag)
+                    + " does not follow " + TagUtils.toString((int) item.lastTag)
+                    + " in ascending tag order");
+        }
+        item.lastTag = utag;
+    }
+
+    private static int groupNumber(org.xml.sax.Attributes atts) {
+        return (int) (Long.parseLong(atts.getValue("tag"), 16) >>> 16);
+    }
+
+    private boolean bigEndian() {
+        return dos != null && dos.isBigEndian();
+    }
+
+    private void bulkData(String uuid, String uri) {
+        bulkData = new BulkData(uuid, uri, bigEndian());
+    }
+
+    private void startInlineBinary() {
+        processCharacters = true;
+        inlineBinary = true;
+        carryLen = 0;
+        bout.reset();
+    }
+
+    private void startText() {
+        processCharacters = true;
+        inlineBinary = false;
+        sb.setLength(0);
+    }
+
+    private void startPrivateGroup(int tag) throws IOException {
+        writePendingHeaders();
+        privateAttrs = new Attributes();
+        String[] codes = items.getLast().specificCharacterSet;
+        if (codes != null)
+            privateAttrs.setString(Tag.SpecificCharacterSet, VR.CS, codes);
+        privateHandler = new ContentHandlerAdapter(privateAttrs, lenient);
+        privateGroup = tag >>> 16;
+        privateDepth = 1;
+    }
+
+    private void startDicomAttribute(int tag, String privateCreator,
+            String vr) throws IOException {
+        this.tag = tag;
+        this.privateCreator = privateCreator;
+        this.vr = vr != null ? VR.valueOf(vr)
+                             : ElementDictionary.vrOf(tag, privateCreator);
+        if (!isFileMetaInformation())
+            writePendingHeaders();
+        if (this.vr == VR.SQ) {
+            sequencePending = true;
+            items.getLast().itemCount = 0;
+        }
+    }
+
+    private boolean isFileMetaInformation() {
+        return items.size() == 1 && TagUtils.isFileMetaInformation(tag);
+    }
+
+    private void startDataFragment(int number) throws IOException {
+        if (fragmentCount < 0) {
+            dos.writeHeader(tag, vr, -1);
+            fragmentCount = 0;
+        }
+        while (fragmentCount < number - 1) {
+            dos.writeHeader(Tag.Item, null, 0);
+            fragmentCount++;
+        }
+    }
+
+    private void startItem(int number) throws IOException {
+        writePendingHeaders();
+        Item parent = items.getLast();
+        while (parent.itemCount < number - 1) {
+            writeEmptyItem();
+            parent.itemCount++;
+        }
+        parent.itemCount++;
+        items.add(new Item(parent));
+        itemPending = true;
+    }
+
+    private void startValue(int number) {
+        while (values.size() < number-1)
+            values.add(null);
+    }
+
+    private void startPersonName(int number) {
+        startValue(number);
+        pn = new PersonName();
+    }
+
+    private void startPNGroup(PersonName.Group pnGroup) {
+        this.pnGroup = pnGroup;
+    }
+
+    private void writePendingHeaders() throws IOException {
+        if (dos == null)
+            beginDataset();
+        if (sequencePending) {
+            dos.writeHeader(tag, VR.SQ, -1);
+            sequencePending = false;
+        }
+        if (itemPending) {
+            dos.writeHeader(Tag.Item, null, -1);
+            itemPending = false;
+        }
+    }
+
+    private void writeEmptyItem() throws IOException {
+        if (encOpts.undefEmptyItemLength) {
+            dos.writeHeader(Tag.Item, null, -1);
+            dos.writeHeader(Tag.ItemDelimitationItem, null, 0);
+        } else {
+            dos.writeHeader(Tag.Item, null, 0);
+        }
+    }
+
+    private void beginDataset() throws IOException {
+        if (nofmi)
+            fmi = null;
+        else if (fmi != null && tsuid != null)
+            fmi.setString(Tag.TransferSyntaxUID, VR.UI, tsuid);
+        dos = new DicomOutputStream(out,
+                fmi != null
+                        ? UID.ExplicitVRLittleEndian
+                        : tsuid != null
+                                ? tsuid
+                                : UID.ImplicitVRLittleEndian);
+        dos.setEncodingOptions(encOpts);
+        if (fmi != null) {
+            dos.writeFileMetaInformation(fmi);
+            String ts = fmi.getString(Tag.TransferSyntaxUID, null);
+            if (ts != null)
+                dos.switchTransferSyntax(ts);
+        }
+        scratch = new Attributes(dos.isBigEndian(), 1);
+    }
+
+    @Override
+    public void characters(char[] ch, int offset, int len)
+            throws SAXException {
+        if (privateDepth > 0)
+            privateHandler.characters(ch, offset, len);
+        else if (processCharacters)
+            if (inlineBinary)
+                try {
+                    if (carryLen != 0) {
+                        int copy = Math.min(4 - carryLen, len);
+                        System.arraycopy(ch, offset, carry, carryLen, copy);
+                        carryLen += copy;
+                        offset += copy;
+                        len -= copy;
+                        if (carryLen == 4)
+                          Base64.decode(carry, 0, 4, bout);
+                        else return;
+                    }
+                    if ((carryLen = len & 3) != 0) {
+                        len -= carryLen;
+                        System.arraycopy(ch, offset + len, carry, 0, carryLen);
+                    }
+                    Base64.decode(ch, offset, len, bout);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            else
+                sb.append(ch, offset, len);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException {
+        if (privateHandler != null) {
+            if (privateDepth > 0) {
+                privateHandler.endElement(uri, localName, qName);
+                if (qName.equals("DicomAttribute"))
+                    privateDepth--;
+                return;
+            }
+            flushPrivateGroup();
+        }
+        try {
+            switch (qName.charAt(0)) {
+            case 'D':
+                if (qName.equals("DicomAttribute"))
+                    endDicomAttribute();
+                else if (qName.equals("DataFragment"))
+                    endDataFragment();
+                break;
+            case 'F':
+                if (qName.equals("FamilyName"))
+                    endPNComponent(PersonName.Component.FamilyName);
+                break;
+            case 'G':
+                if (qName.equals("GivenName"))
+                    endPNComponent(PersonName.Component.GivenName);
+                break;
+            case 'I':
+                if (qName.equals("Item"))
+                    endItem();
+                break;
+            case 'M':
+                if (qName.equals("MiddleName"))
+                    endPNComponent(PersonName.Component.MiddleName);
+                break;
+            case 'N':
+                if (qName.equals("NamePrefix"))
+                    endPNComponent(PersonName.Component.NamePrefix);
+                else if (qName.equals("NameSuffix"))
+                    endPNComponent(PersonName.Component.NameSuffix);
+                break;
+            case 'P':
+                if (qName.equals("PersonName"))
+                    endPersonName();
+                break;
+            case 'V':
+                if (qName.equals("Value")) {
+                    endValue();
+                }
+                break;
+            }
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        processCharacters = false;
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        try {
+            if (dos == null)
+                beginDataset();
+            dos.finish();
+            dos.flush();
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private void flushPrivateGroup() throws SAXException {
+        Attributes attrs = privateAttrs;
+        privateAttrs = null;
+        privateHandler = null;
+        privateDepth = 0;
+        if (dos.isBigEndian())
+            attrs = new Attributes(attrs, true);
+        final SpecificCharacterSet cs = items.getLast().cs;
+        try {
+            attrs.accept(new Attributes.Visitor() {
+                @Override
+                public boolean visit(Attributes attrs, int tag, VR vr,
+                        Object value) throws Exception {
+                    if (tag != Tag.SpecificCharacterSet)
+                        dos.writeAttribute(tag, vr, value, cs);
+                    return true;
+                }},
+                false);
+        } catch (Exception e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private void endDataFragment() throws IOException {
+        if (bulkData != null) {
+            dos.writeAttribute(Tag.Item, vr, bulkData, null);
+            bulkData = null;
+        } else {
+            dos.writeAttribute(Tag.Item, vr, getBytes());
+        }
+        fragmentCount++;
+    }
+
+    private void endDicomAttribute() throws IOException, SAXException {
+        if (vr == VR.SQ) {
+            endSequence();
+            return;
+        }
+        if (fragmentCount >= 0) {
+            dos.writeHeader(Tag.SequenceDelimitationItem, null, 0);
+            fragmentCount = -1;
+            return;
+        }
+        Attributes attrs = isFileMetaInformation() ? fmi() : scratch;
+        if (bulkData != null) {
+            attrs.setValue(tag, vr, bulkData);
+            bulkData = null;
+        } else if (inlineBinary) {
+            attrs.setBytes(tag, vr, getBytes());
+            inlineBinary = false;
+        } else {
+            String[] ss = getStrings();
+            try {
+                attrs.setString(tag, vr, ss);
+            } catch (RuntimeException e) {
+                String message = String.format("Invalid %s(%04X,%04X) %s %s",
+                        prefix(privateCreator, items.size() - 1),
+                        TagUtils.groupNumber(tag),
+                        TagUtils.elementNumber(tag),
+                        vr,
+                        Arrays.toString(ss));
+                if (lenient) {
+                    LOG.info("{} - ignored", message);
+                    return;
+                }
+                throw new SAXException(message, e);
+            }
+            if (tag == Tag.SpecificCharacterSet && attrs == scratch)
+                items.getLast().setSpecificCharacterSet(ss);
+        }
+        if (attrs == scratch)
+            dos.writeAttribute(tag, vr, scratch.remove(tag),
+                    items.getLast().cs);
+    }
+
+    private Attributes fmi() {
+        if (fmi == null)
+            fmi = new Attributes();
+        return fmi;
+    }
+
+    private void endSequence() throws IOException {
+        if (sequencePending) {
+            sequencePending = false;
+            if (encOpts.undefEmptySequenceLength) {
+                dos.writeHeader(tag, VR.SQ, -1);
+                dos.writeHeader(Tag.SequenceDelimitationItem, null, 0);
+            } else {
+                dos.writeHeader(tag, VR.SQ, 0);
+            }
+        } else {
+            dos.writeHeader(Tag.SequenceDelimitationItem, null, 0);
+        }
+    }
+
+    private static String prefix(String privateCreator, int level) {
+        if (privateCreator == null && level == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (privateCreator != null) {
+            sb.append(privateCreator).append(':');
+        }
+        for (int i = 0; i < level; i++) {
+            sb.append('>');
+        }
+        return sb.toString();
+    }
+
+    private void endItem() throws IOException {
+        if (itemPending) {
+            itemPending = false;
+            writeEmptyItem();
+        } else {
+            dos.writeHeader(Tag.ItemDelimitationItem, null, 0);
+        }
+        items.removeLast();
+        vr = VR.SQ;
+    }
+
+    private void endPersonName() {
+        values.add(pn.toString());
+        pn = null;
+    }
+
+    private void endValue() {
+        values.add(getString());
+    }
+
+    private void endPNComponent(PersonName.Component pnComp) {
+        pn.set(pnGroup, pnComp, getString());
+    }
+
+    private String getString() {
+        return sb.toString();
+    }
+
+    private byte[] getBytes() {
+        byte[] b = bout.toByteArray();
+        return bigEndian() ? vr.toggleEndian(b, false) : b;
+    }
+
+    private String[] getStrings() {
+        try {
+            return values.toArray(new String[values.size()]);
+        } finally {
+            values.clear();
+        }
+    }
+
+}
@@ -38,7 +38,12 @@
 
 package org.dcm4che3.io;
 
-import java.util.HashMap;
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
@@ -46,13 +51,38 @@ import javax.xml.transform.stream.StreamSource;
 
 
 /**
+ * Cache of compiled XSL stylesheets, which may be accessed concurrently.
+ * <p>
+ * Concurrent requests for the same not yet compiled stylesheet are served by one compilation. If a maximal
+ * number of cached stylesheets is configured, the least recently used stylesheet is evicted. Optionally, the
+ * modification time of stylesheets located in the file system is checked on each access and modified
+ * stylesheets are recompiled.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
 public class TemplatesCache {
 
     private static TemplatesCache defaultCache;
 
-    private final HashMap<String, Templates> map = new HashMap<String, Templates>();
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return maxSize > 0 && size() > maxSize;
+        }
+    };
+    private int maxSize;
+    private volatile boolean checkLastModified;
+    private long hits;
+    private long misses;
+    private long compilations;
+    private long compileTimeNanos;
+
+    public TemplatesCache() {
+    }
+
+    public TemplatesCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
 
     public static synchronized TemplatesCache getDefault() {
         if (defaultCache == null) {
@@ -68,14 +98,134 @@ public class TemplatesCache {
         defaultCache = cache;
     }
 
-    public void clear() {
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Set maximal number of cached stylesheets. {@code 0} = unlimited.
+     *
+     * @param maxSize maximal number of cached stylesheets or {@code 0}
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        this.maxSize = maxSize;
+        if (maxSize > 0) {
+            Iterator<Entry> iter = map.values().iterator();
+            for (int n = map.size(); n > maxSize; n--) {
+                iter.next();
+                iter.remove();
+            }
+        }
+    }
+
+    public boolean isCheckLastModified() {
+        return checkLastModified;
+    }
+
+    /**
+     * Enable recompilation of stylesheets located in the file system, if their modification time has changed.
+     *
+     * @param checkLastModified {@code true} to check the modification time of stylesheets on each access
+     */
+    public void setCheckLastModified(boolean checkLastModified) {
+        this.checkLastModified = checkLastModified;
+    }
+
+    public synchronized void clear() {
         map.clear();
     }
 
+    public synchronized void remove(String uri) {
+        map.remove(uri);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0.;
+    }
+
+    public synchronized long getCompilations() {
+        return compilations;
+    }
+
+    public synchronized long getCompileTimeNanos() {
+        return compileTimeNanos;
+    }
+
+    public synchronized void resetStatistics() {
+        hits = 0L;
+        misses = 0L;
+        compilations = 0L;
+        compileTimeNanos = 0L;
+    }
+
     public Templates get(String uri) throws TransformerConfigurationException {
-        Templates tpl = map.get(uri);
-        if (tpl == null)
-            map.put(uri, tpl = SAXTransformer.newTemplates(new StreamSource(uri)));
-        return tpl;
+        Entry entry;
+        synchronized (this) {
+            entry = map.get(uri);
+            if (entry == null) {
+                map.put(uri, entry = new Entry(uri));
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+        return entry.get();
+    }
+
+    private synchronized void compiled(long nanos) {
+        compilations++;
+        compileTimeNanos += nanos;
+    }
+
+    private static File toFile(String uri) {
+        try {
+            URI u = new URI(uri);
+            String scheme = u.getScheme();
+            if (scheme == null || scheme.length() == 1) // relative path or Windows drive letter
+                return new File(uri);
+            return scheme.equals("file") ? new File(u) : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(uri);
+        }
+    }
+
+    private final class Entry {
+        private final String uri;
+        private final File file;
+        private Templates templates;
+        private long lastModified;
+
+        Entry(String uri) {
+            this.uri = uri;
+            this.file = toFile(uri);
+        }
+
+        synchronized Templates get() throws TransformerConfigurationException {
+            if (templates != null) {
+                if (!checkLastModified || file == null || file.lastModified() == lastModified)
+                    return templates;
+            }
+            long lastModified = file != null ? file.lastModified() : 0L;
+            long start = System.nanoTime();
+            templates = SAXTransformer.newTemplates(new StreamSource(uri));
+            compiled(System.nanoTime() - start);
+            this.lastModified = lastModified;
+            return templates;
+        }
     }
 }
@@ -0,0 +1,183 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index over an ordered list of rules with conditions on two string values - e.g. AE Title and SOP Class UID -
+ * where an empty list of values in the condition matches any value. Returns the same first matching rule as a
+ * linear scan of the list, but only evaluates the rules with a condition which may match the two values.
+ *
+ * @param <T> rule type
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public final class ConditionIndex<T> {
+
+    private static final int[] EMPTY_INTS = {};
+
+    private final Object[] rules;
+    private final HashMap<String, HashMap<String, int[]>> buckets = new HashMap<>();
+
+    /**
+     * Interface to access the values of the two conditions of a rule.
+     */
+    public interface Conditions<T> {
+        String[] values1(T rule);
+        String[] values2(T rule);
+    }
+
+    public ConditionIndex(List<? extends T> rules, Conditions<? super T> conditions) {
+        this.rules = rules.toArray();
+        HashMap<String, HashMap<String, List<Integer>>> lists = new HashMap<>();
+        for (int i = 0; i < this.rules.length; i++) {
+            T rule = rule(i);
+            for (String value1 : orAny(conditions.values1(rule))) {
+                HashMap<String, List<Integer>> lists1 = lists.get(value1);
+                if (lists1 == null)
+                    lists.put(value1, lists1 = new HashMap<>());
+                for (String value2 : orAny(conditions.values2(rule))) {
+                    List<Integer> list = lists1.get(value2);
+                    if (list == null)
+                        lists1.put(value2, list = new ArrayList<>());
+                    if (list.isEmpty() || list.get(list.size() - 1).intValue() != i)
+                        list.add(i);
+                }
+            }
+        }
+        for (Map.Entry<String, HashMap<String, List<Integer>>> entry1 : lists.entrySet()) {
+            HashMap<String, int[]> buckets1 = new HashMap<>();
+            for (Map.Entry<String, List<Integer>> entry2 : entry1.getValue().entrySet())
+                buckets1.put(entry2.getKey(), toInts(entry2.getValue()));
+            buckets.put(entry1.getKey(), buckets1);
+        }
+    }
+
+    private static String[] orAny(String[] values) {
+        return values == null || values.length == 0 ? new String[]{ null } : values;
+    }
+
+    private static int[] toInts(List<Integer> list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = list.get(i);
+        return a;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T rule(int index) {
+        return (T) rules[index];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Returns the first rule with conditions matching the specified values, which also matches the specified
+     * predicate. A {@code null} value matches any condition.
+     *
+     * @param value1 value matched against the first condition or {@code null}
+     * @param value2 value matched against the second condition or {@code null}
+     * @param matches predicate, which has to be fulfilled by the returned rule
+     * @return first matching rule or {@code null}
+     */
+    public T find(String value1, String value2, Predicate<? super T> matches) {
+        if (value1 == null || value2 == null)
+            return findLinear(matches);
+
+        int[] a = bucket(value1, value2);
+        int[] b = bucket(value1, null);
+        int[] c = bucket(null, value2);
+        int[] d = bucket(null, null);
+        int ia = 0, ib = 0, ic = 0, id = 0;
+        for (;;) {
+            int next = min(a, ia, b, ib, c, ic, d, id);
+            if (next == Integer.MAX_VALUE)
+                return null;
+
+            T rule = rule(next);
+            if (matches.test(rule))
+                return rule;
+
+            if (ia < a.length && a[ia] == next) ia++;
+            if (ib < b.length && b[ib] == next) ib++;
+            if (ic < c.length && c[ic] == next) ic++;
+            if (id < d.length && d[id] == next) id++;
+        }
+    }
+
+    private T findLinear(Predicate<? super T> matches) {
+        for (int i = 0; i < rules.length; i++) {
+            T rule = rule(i);
+            if (matches.test(rule))
+                return rule;
+        }
+        return null;
+    }
+
+    private int[] bucket(String value1, String value2) {
+        HashMap<String, int[]> buckets1 = buckets.get(value1);
+        if (buckets1 == null)
+            return EMPTY_INTS;
+
+        int[] bucket = buckets1.get(value2);
+        return bucket != null ? bucket : EMPTY_INTS;
+    }
+
+    private static int min(int[] a, int ia, int[] b, int ib, int[] c, int ic, int[] d, int id) {
+        return Math.min(
+                Math.min(ia < a.length ? a[ia] : Integer.MAX_VALUE, ib < b.length ? b[ib] : Integer.MAX_VALUE),
+                Math.min(ic < c.length ? c[ic] : Integer.MAX_VALUE, id < d.length ? d[id] : Integer.MAX_VALUE));
+    }
+
+    @Override
+    public String toString() {
+        return "ConditionIndex[rules=" + rules.length + ", buckets=" + buckets.size() + ']';
+    }
+}
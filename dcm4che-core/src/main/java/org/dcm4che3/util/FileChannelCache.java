@@ -0,0 +1,331 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a limited number of files open for reading, so repeated positional
+ * reads of the same file do not have to re-open it. Channels are handed out
+ * as {@link Lease}s; a channel evicted from the cache is closed after its
+ * last {@code Lease} was released. Cached channels of files modified since
+ * they were opened are replaced. Channels not leased for longer than the
+ * maximal idle time are closed and removed from the cache.
+ * <p>
+ * A channel is closed for all {@code Lease}s, if a thread reading from it is
+ * interrupted. Closed channels are removed from the cache, and other
+ * {@code Lease} holders may continue with a new channel returned by
+ * {@link Lease#reopen()}.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class FileChannelCache {
+
+    private static final FileChannelCache DEFAULT = new FileChannelCache(16, 60000L);
+
+    private final LinkedHashMap<File, Entry> map =
+            new LinkedHashMap<File, Entry>(16, 0.75f, true);
+    private int maxSize;
+    private long maxIdleTime;
+    private boolean expireScheduled;
+
+    private static final class Expirer {
+        static final ScheduledExecutorService EXECUTOR =
+                new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "FileChannelCache-Expirer");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    private static final class Entry {
+        final FileChannel channel;
+        final long lastModified;
+        int refCount;
+        long idleSince;
+        boolean evicted;
+
+        Entry(FileChannel channel, long lastModified) {
+            this.channel = channel;
+            this.lastModified = lastModified;
+        }
+
+        void evict() {
+            evicted = true;
+            if (refCount == 0)
+                SafeClose.close(channel);
+        }
+    }
+
+    public final class Lease implements Closeable {
+        private final File file;
+        private Entry entry;
+        private boolean released;
+
+        Lease(File file, Entry entry) {
+            this.file = file;
+            this.entry = entry;
+        }
+
+        public FileChannel channel() {
+            return entry.channel;
+        }
+
+        /**
+         * Replaces the channel of this {@code Lease} by a newly opened one, if
+         * it was closed - typically by the interrupt of another thread
+         * reading from the same channel.
+         *
+         * @return the open channel
+         * @throws IOException if the file could not be re-opened
+         */
+        public FileChannel reopen() throws IOException {
+            synchronized (FileChannelCache.this) {
+                if (released)
+                    throw new IllegalStateException("released");
+
+                if (entry.channel.isOpen())
+                    return entry.channel;
+
+                if (map.get(file) == entry)
+                    map.remove(file);
+                entry.evicted = true;
+            }
+            Entry reopened = acquire(file);
+            synchronized (FileChannelCache.this) {
+                entry.refCount--;
+                entry = reopened;
+            }
+            return reopened.channel;
+        }
+
+        @Override
+        public void close() {
+            synchronized (FileChannelCache.this) {
+                if (released)
+                    return;
+
+                released = true;
+                if (--entry.refCount == 0) {
+                    if (entry.evicted)
+                        SafeClose.close(entry.channel);
+                    else {
+                        entry.idleSince = System.nanoTime();
+                        scheduleExpire(maxIdleTime);
+                    }
+                }
+            }
+        }
+    }
+
+    public FileChannelCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * Creates a cache which closes channels not leased for longer than
+     * {@code maxIdleTime}.
+     *
+     * @param maxSize maximal number of cached channels
+     * @param maxIdleTime maximal idle time of cached channels in ms or
+     *        {@code 0} (= unlimited)
+     */
+    public FileChannelCache(int maxSize, long maxIdleTime) {
+        setMaxSize(maxSize);
+        setMaxIdleTime(maxIdleTime);
+    }
+
+    public static FileChannelCache getDefault() {
+        return DEFAULT;
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+
+        this.maxSize = maxSize;
+        evictEldest();
+    }
+
+    public synchronized long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * Set maximal time in ms cached channels are kept open without being
+     * leased.
+     *
+     * @param maxIdleTime maximal idle time in ms or {@code 0} (= unlimited)
+     */
+    public synchronized void setMaxIdleTime(long maxIdleTime) {
+        if (maxIdleTime < 0)
+            throw new IllegalArgumentException("maxIdleTime: " + maxIdleTime);
+
+        this.maxIdleTime = maxIdleTime;
+        if (maxIdleTime > 0)
+            expireIdle();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public Lease open(File file) throws IOException {
+        file = file.getAbsoluteFile();
+        return new Lease(file, acquire(file));
+    }
+
+    private Entry acquire(File file) throws IOException {
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            Entry entry = map.get(file);
+            if (entry != null) {
+                if (entry.lastModified == lastModified && entry.channel.isOpen()) {
+                    entry.refCount++;
+                    return entry;
+                }
+                map.remove(file).evict();
+            }
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        synchronized (this) {
+            Entry entry = new Entry(channel, lastModified);
+            Entry prev = map.put(file, entry);
+            if (prev != null)
+                prev.evict();
+            entry.refCount++;
+            evictEldest();
+            return entry;
+        }
+    }
+
+    public synchronized void remove(File file) {
+        Entry entry = map.remove(file.getAbsoluteFile());
+        if (entry != null)
+            entry.evict();
+    }
+
+    /**
+     * Removes the channel of the specified file from the cache. The channel
+     * is closed after its last {@link Lease} was released, so the file can
+     * be deleted - also on platforms which do not permit to delete open
+     * files. Invoke before deleting a file which may have been read by
+     * {@link Lease}s of this cache.
+     *
+     * @param path path of the file
+     */
+    public void evict(Path path) {
+        remove(path.toFile());
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : map.values())
+            entry.evict();
+        map.clear();
+    }
+
+    private void scheduleExpire(long delay) {
+        if (maxIdleTime == 0 || expireScheduled)
+            return;
+
+        expireScheduled = true;
+        Expirer.EXECUTOR.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (FileChannelCache.this) {
+                    expireScheduled = false;
+                    if (maxIdleTime > 0)
+                        expireIdle();
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void expireIdle() {
+        long now = System.nanoTime();
+        long maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleTime);
+        long nextExpire = -1L;
+        Iterator<Entry> iter = map.values().iterator();
+        while (iter.hasNext()) {
+            Entry entry = iter.next();
+            if (entry.refCount > 0)
+                continue;
+
+            long remaining = entry.idleSince + maxIdleNanos - now;
+            if (remaining <= 0) {
+                entry.evict();
+                iter.remove();
+            } else if (nextExpire < 0 || remaining < nextExpire)
+                nextExpire = remaining;
+        }
+        if (nextExpire >= 0)
+            scheduleExpire(TimeUnit.NANOSECONDS.toMillis(nextExpire) + 1);
+    }
+
+    private void evictEldest() {
+        Iterator<Entry> iter = map.values().iterator();
+        while (map.size() > maxSize) {
+            iter.next().evict();
+            iter.remove();
+        }
+    }
+}
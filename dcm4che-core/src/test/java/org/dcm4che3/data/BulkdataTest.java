@@ -38,8 +38,21 @@
 
 package org.dcm4che3.data;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.Arrays;
+
+import org.dcm4che3.util.FileChannelCache;
+import org.dcm4che3.util.StreamUtils;
 import org.junit.Test;
 
 /**
@@ -75,4 +88,103 @@ public class BulkdataTest {
         assertEquals(bulk.hashCode(),bulkUnknown.hashCode());
     }
 
+    @Test
+    public void testOpenStreamRange() throws Exception {
+        File file = createTempFile();
+        try {
+            BulkData bulkData = new BulkData(file.toURI().toString(), 100, 1000, false);
+            byte[] b = new byte[20];
+            InputStream in = bulkData.openStream(10, 20);
+            try {
+                StreamUtils.readFully(in, b, 0, b.length);
+                assertEquals(-1, in.read());
+            } finally {
+                in.close();
+            }
+            assertArrayEquals(Arrays.copyOfRange(content(), 110, 130), b);
+        } finally {
+            FileChannelCache.getDefault().remove(file);
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTransferTo() throws Exception {
+        File file = createTempFile();
+        try {
+            BulkData bulkData = new BulkData(file.toURI().toString(), 100, 1000, false);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(10, bulkData.transferTo(Channels.newChannel(out), 990, -1));
+            assertArrayEquals(Arrays.copyOfRange(content(), 1090, 1100), out.toByteArray());
+        } finally {
+            FileChannelCache.getDefault().remove(file);
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testOpenStreamRangeAfterInterruptOfOtherReader() throws Exception {
+        File file = createTempFile();
+        try {
+            final BulkData bulkData = new BulkData(file.toURI().toString(), 100, 1000, false);
+            byte[] b = new byte[1000];
+            InputStream in = bulkData.openStream(0, -1);
+            try {
+                StreamUtils.readFully(in, b, 0, 10);
+                final Exception[] interruptedReader = new Exception[1];
+                Thread t = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            InputStream in2 = bulkData.openStream(0, -1);
+                            try {
+                                Thread.currentThread().interrupt();
+                                in2.read(new byte[10]);
+                            } finally {
+                                in2.close();
+                            }
+                        } catch (Exception e) {
+                            interruptedReader[0] = e;
+                        }
+                    }
+                };
+                t.start();
+                t.join();
+                assertTrue(interruptedReader[0] instanceof ClosedByInterruptException);
+                StreamUtils.readFully(in, b, 10, 990);
+                assertEquals(-1, in.read());
+            } finally {
+                in.close();
+            }
+            assertArrayEquals(Arrays.copyOfRange(content(), 100, 1100), b);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(10, bulkData.transferTo(Channels.newChannel(out), 990, -1));
+        } finally {
+            FileChannelCache.getDefault().remove(file);
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeExceedsValue() throws Exception {
+        new BulkData(url, 100, 1000, false).openStream(990, 20);
+    }
+
+    private static byte[] content() {
+        byte[] b = new byte[2000];
+        for (int i = 0; i < b.length; i++)
+            b[i] = (byte) i;
+        return b;
+    }
+
+    private static File createTempFile() throws IOException {
+        File file = File.createTempFile("bulkdata", ".tmp");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content());
+        } finally {
+            out.close();
+        }
+        return file;
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.data;
+
+import org.dcm4che3.io.XSLTAttributesCoercion;
+import org.junit.Test;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class RuleBasedAttributesCoercionTest {
+
+    private static final String RULES = "# test rules\n"
+            + "set InstitutionName \"General Hospital\" LO if !InstitutionName\n"
+            + "set StationName NEW SH if Modality=CT and StationName\n"
+            + "copy PatientID OtherPatientIDsSequence.PatientID\n"
+            + "remove PatientComments if PatientID~TMP.*\n"
+            + "map Modality MR=MRI PT=PET\n"
+            + "replace RequestAttributesSequence.ScheduledProcedureStepID ^SPS- X-\n"
+            + "remove PatientAge if Modality!=CT\n";
+
+    private static final String XSL_EQUIVALENT_RULES = ""
+            + "set InstitutionName \"General Hospital\" LO if !InstitutionName\n"
+            + "set StationName NEW SH if Modality=MR\n"
+            + "map Modality MR=MRI PT=PET\n";
+
+    private static final String XSL = ""
+            + "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">\n"
+            + "  <xsl:output method=\"xml\"/>\n"
+            + "  <xsl:template match=\"/NativeDicomModel\">\n"
+            + "    <NativeDicomModel>\n"
+            + "      <xsl:if test=\"not(DicomAttribute[@tag='00080080'])\">\n"
+            + "        <DicomAttribute tag=\"00080080\" vr=\"LO\">"
+            +           "<Value number=\"1\">General Hospital</Value></DicomAttribute>\n"
+            + "      </xsl:if>\n"
+            + "      <xsl:variable name=\"modality\" select=\"DicomAttribute[@tag='00080060']/Value\"/>\n"
+            + "      <xsl:if test=\"$modality='MR'\">\n"
+            + "        <DicomAttribute tag=\"00081010\" vr=\"SH\"><Value number=\"1\">NEW</Value></DicomAttribute>\n"
+            + "        <DicomAttribute tag=\"00080060\" vr=\"CS\"><Value number=\"1\">MRI</Value></DicomAttribute>\n"
+            + "      </xsl:if>\n"
+            + "      <xsl:if test=\"$modality='PT'\">\n"
+            + "        <DicomAttribute tag=\"00080060\" vr=\"CS\"><Value number=\"1\">PET</Value></DicomAttribute>\n"
+            + "      </xsl:if>\n"
+            + "    </NativeDicomModel>\n"
+            + "  </xsl:template>\n"
+            + "</xsl:stylesheet>\n";
+
+    @Test
+    public void testCoerce() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.PatientID, VR.LO, "TMP123");
+        attrs.setString(Tag.PatientComments, VR.LT, "comment");
+        attrs.setString(Tag.PatientAge, VR.AS, "042Y");
+        attrs.setString(Tag.Modality, VR.CS, "MR");
+        attrs.setString(Tag.StationName, VR.SH, "OLD");
+        Sequence rqAttrsSeq = attrs.newSequence(Tag.RequestAttributesSequence, 2);
+        for (String spsID : new String[]{ "SPS-1", "SPS-2" }) {
+            Attributes item = new Attributes(1);
+            item.setString(Tag.ScheduledProcedureStepID, VR.SH, spsID);
+            rqAttrsSeq.add(item);
+        }
+        Attributes modified = new Attributes();
+        AttributesCoercion coercion = RuleBasedAttributesCoercion.compile(RULES, null);
+        coercion.coerce(attrs, modified);
+
+        assertEquals("General Hospital", attrs.getString(Tag.InstitutionName));
+        assertEquals("OLD", attrs.getString(Tag.StationName));
+        assertEquals("TMP123", attrs.getNestedDataset(Tag.OtherPatientIDsSequence).getString(Tag.PatientID));
+        assertFalse(attrs.contains(Tag.PatientComments));
+        assertEquals("MRI", attrs.getString(Tag.Modality));
+        assertEquals("X-1", rqAttrsSeq.get(0).getString(Tag.ScheduledProcedureStepID));
+        assertEquals("X-2", rqAttrsSeq.get(1).getString(Tag.ScheduledProcedureStepID));
+        assertFalse(attrs.contains(Tag.PatientAge));
+
+        assertEquals("comment", modified.getString(Tag.PatientComments));
+        assertEquals("MR", modified.getString(Tag.Modality));
+        assertEquals("SPS-1", modified.getNestedDataset(Tag.RequestAttributesSequence)
+                .getString(Tag.ScheduledProcedureStepID));
+        assertFalse(modified.contains(Tag.InstitutionName));
+    }
+
+    @Test
+    public void testCoerceMultipleValues() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.ImageType, VR.CS, "ORIGINAL", "PRIMARY", "AXIAL");
+        Attributes modified = new Attributes();
+        RuleBasedAttributesCoercion.compile("map ImageType ORIGINAL=DERIVED AXIAL=OTHER", null)
+                .coerce(attrs, modified);
+
+        assertArrayEquals(new String[]{ "DERIVED", "PRIMARY", "OTHER" }, attrs.getStrings(Tag.ImageType));
+        assertArrayEquals(new String[]{ "ORIGINAL", "PRIMARY", "AXIAL" }, modified.getStrings(Tag.ImageType));
+    }
+
+    @Test
+    public void testConditionOperatorPrecedence() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.StudyDescription, VR.LO, "a~b");
+        attrs.setString(Tag.PatientComments, VR.LT, "comment");
+        RuleBasedAttributesCoercion.compile("remove PatientComments if StudyDescription=a~b", null)
+                .coerce(attrs, null);
+
+        assertFalse(attrs.contains(Tag.PatientComments));
+    }
+
+    @Test
+    public void testSameResultAsXSLTAttributesCoercion() throws Exception {
+        Templates templates = TransformerFactory.newInstance().newTemplates(
+                new StreamSource(new StringReader(XSL)));
+        AttributesCoercion rules = RuleBasedAttributesCoercion.compile(XSL_EQUIVALENT_RULES, null);
+        AttributesCoercion xslt = new XSLTAttributesCoercion(templates, null);
+        for (String modality : new String[]{ "MR", "PT", "CT" }) {
+            Attributes attrs = new Attributes();
+            attrs.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 100");
+            attrs.setString(Tag.ImageType, VR.CS, "ORIGINAL", "PRIMARY", "AXIAL");
+            attrs.setString(Tag.Modality, VR.CS, modality);
+            attrs.setString(Tag.StationName, VR.SH, "OLD");
+            attrs.setString(Tag.PatientName, VR.PN, "Test^Patient");
+            attrs.setInt(Tag.Rows, VR.US, 512);
+            Attributes coercedByRules = new Attributes(attrs);
+            rules.coerce(coercedByRules, new Attributes());
+            Attributes coercedByXSLT = new Attributes(attrs);
+            xslt.coerce(coercedByXSLT, new Attributes());
+
+            assertEquals(modality, coercedByXSLT, coercedByRules);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRule() {
+        RuleBasedAttributesCoercion.compile("set PatientName", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingAttributeInCondition() {
+        RuleBasedAttributesCoercion.compile("remove PatientComments if =x", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOperatorInCondition() {
+        RuleBasedAttributesCoercion.compile("remove PatientComments if Modality!CT", null);
+    }
+}
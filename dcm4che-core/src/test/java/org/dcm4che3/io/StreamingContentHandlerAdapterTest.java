@@ -0,0 +1,204 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.util.ByteUtils;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class StreamingContentHandlerAdapterTest {
+
+    @Test
+    public void testExplicitVRLittleEndian() throws Exception {
+        testRoundTrip(UID.ExplicitVRLittleEndian, false);
+    }
+
+    @Test
+    public void testExplicitVRBigEndian() throws Exception {
+        testRoundTrip(UID.ExplicitVRBigEndianRetired, true);
+    }
+
+    @Test
+    public void testStreamFromDicomInputStream() throws Exception {
+        Attributes attrs = dataset();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        DicomOutputStream dos = new DicomOutputStream(bout,
+                UID.ExplicitVRLittleEndian);
+        dos.writeDataset(null, attrs);
+        dos.close();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingContentHandlerAdapter ch = new StreamingContentHandlerAdapter(out);
+        ch.setTransferSyntax(UID.ExplicitVRLittleEndian);
+        DicomInputStream dis = new DicomInputStream(
+                new ByteArrayInputStream(bout.toByteArray()),
+                UID.ExplicitVRLittleEndian);
+        try {
+            new SAXWriter(ch).write(dis);
+        } finally {
+            dis.close();
+        }
+        assertEquals(attrs, parse(out.toByteArray(), UID.ExplicitVRLittleEndian));
+    }
+
+    @Test
+    public void testNestedTagOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingContentHandlerAdapter ch = new StreamingContentHandlerAdapter(out);
+        ch.setTransferSyntax(UID.ExplicitVRLittleEndian);
+        parseXML("<NativeDicomModel>"
+                + "<DicomAttribute tag=\"00080018\" vr=\"UI\"><Value number=\"1\">1.2.3</Value></DicomAttribute>"
+                + "<DicomAttribute tag=\"00400275\" vr=\"SQ\"><Item number=\"1\">"
+                + "<DicomAttribute tag=\"00321060\" vr=\"LO\"><Value number=\"1\">first</Value></DicomAttribute>"
+                + "</Item></DicomAttribute>"
+                + "</NativeDicomModel>", ch);
+        assertFalse(ch.isTagOrderViolated());
+        Attributes attrs = parse(out.toByteArray(), UID.ExplicitVRLittleEndian);
+        assertEquals("first", attrs.getNestedDataset(0x00400275).getString(0x00321060));
+    }
+
+    @Test
+    public void testTagOrderViolated() throws Exception {
+        StreamingContentHandlerAdapter ch = new StreamingContentHandlerAdapter(new ByteArrayOutputStream());
+        try {
+            parseXML("<NativeDicomModel>"
+                    + "<DicomAttribute tag=\"00100020\" vr=\"LO\"><Value number=\"1\">PID</Value></DicomAttribute>"
+                    + "<DicomAttribute tag=\"00080018\" vr=\"UI\"><Value number=\"1\">1.2.3</Value></DicomAttribute>"
+                    + "</NativeDicomModel>", ch);
+            fail("SAXException expected");
+        } catch (SAXException e) {
+            assertTrue(ch.isTagOrderViolated());
+        }
+    }
+
+    @Test
+    public void testSupportedEncodingOptions() {
+        assertTrue(StreamingContentHandlerAdapter.isSupported(DicomEncodingOptions.DEFAULT));
+        assertFalse(StreamingContentHandlerAdapter.isSupported(
+                new DicomEncodingOptions(true, true, false, true, false)));
+        assertFalse(StreamingContentHandlerAdapter.isSupported(
+                new DicomEncodingOptions(false, false, false, true, false)));
+        assertFalse(StreamingContentHandlerAdapter.isSupported(
+                new DicomEncodingOptions(false, true, false, false, false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedEncodingOptions() {
+        new StreamingContentHandlerAdapter(new ByteArrayOutputStream()).setEncodingOptions(
+                new DicomEncodingOptions(true, true, false, true, false));
+    }
+
+    private static void parseXML(String xml, StreamingContentHandlerAdapter ch) throws Exception {
+        SAXParserFactory.newInstance().newSAXParser().parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), ch);
+    }
+
+    private static void testRoundTrip(String tsuid, boolean bigEndian)
+            throws Exception {
+        Attributes attrs = dataset();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingContentHandlerAdapter ch = new StreamingContentHandlerAdapter(out);
+        ch.setTransferSyntax(tsuid);
+        new SAXWriter(ch).write(attrs);
+        assertEquals(new Attributes(attrs, bigEndian), parse(out.toByteArray(), tsuid));
+    }
+
+    private static Attributes parse(byte[] b, String tsuid) throws IOException {
+        DicomInputStream in = new DicomInputStream(
+                new ByteArrayInputStream(b), tsuid);
+        try {
+            return in.readDataset(-1, -1);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Attributes dataset() {
+        Attributes attrs = new Attributes();
+        attrs.setString(0x00080005, VR.CS, "ISO_IR 100");
+        attrs.setString(0x00080018, VR.UI, "1.2.3.4");
+        attrs.setString(0x00090010, VR.LO, "TEST CREATOR");
+        attrs.setString(0x00091001, VR.LO, "private");
+        attrs.setString(0x00100010, VR.PN, "Müller^Hans");
+        Sequence seq = attrs.newSequence(0x00400275, 3);
+        Attributes item = new Attributes();
+        item.setString(0x00321060, VR.LO, "first");
+        Sequence nested = item.newSequence(0x00400008, 1);
+        Attributes nestedItem = new Attributes();
+        nestedItem.setString(0x00080100, VR.SH, "CODE");
+        nested.add(nestedItem);
+        seq.add(item);
+        seq.add(new Attributes());
+        Attributes item3 = new Attributes();
+        item3.setString(0x00321060, VR.LO, "third");
+        seq.add(item3);
+        attrs.setNull(0x00400260, VR.SQ);
+        attrs.setInt(0x00280010, VR.US, 512);
+        attrs.setString(0x00290010, VR.LO, "OTHER CREATOR");
+        attrs.setBytes(0x00291010, VR.OB, new byte[] { 1, 2, 3, 4 });
+        Fragments frags = attrs.newFragments(0x7FE00010, VR.OB, 2);
+        frags.add(ByteUtils.EMPTY_BYTES);
+        frags.add(new byte[] { 5, 6, 7, 8 });
+        return attrs;
+    }
+}
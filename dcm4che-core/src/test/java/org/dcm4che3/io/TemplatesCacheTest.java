@@ -0,0 +1,113 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.transform.Templates;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class TemplatesCacheTest {
+
+    private static final byte[] XSL = ("<xsl:stylesheet version=\"1.0\" "
+            + "xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"/>").getBytes(StandardCharsets.UTF_8);
+
+    private File file1;
+    private File file2;
+
+    @Before
+    public void setUp() throws Exception {
+        file1 = File.createTempFile("tpl", ".xsl");
+        file2 = File.createTempFile("tpl", ".xsl");
+        Files.write(file1.toPath(), XSL);
+        Files.write(file2.toPath(), XSL);
+    }
+
+    @After
+    public void tearDown() {
+        file1.delete();
+        file2.delete();
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        TemplatesCache cache = new TemplatesCache();
+        String uri = file1.toURI().toString();
+        Templates tpl = cache.get(uri);
+        assertSame(tpl, cache.get(uri));
+        assertEquals(1, cache.getCompilations());
+        assertEquals(0.5, cache.getHitRatio(), 0);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        TemplatesCache cache = new TemplatesCache(1);
+        Templates tpl1 = cache.get(file1.getPath());
+        cache.get(file2.getPath());
+        assertEquals(1, cache.size());
+        assertNotSame(tpl1, cache.get(file1.getPath()));
+        assertEquals(3, cache.getCompilations());
+    }
+
+    @Test
+    public void testCheckLastModified() throws Exception {
+        TemplatesCache cache = new TemplatesCache();
+        cache.setCheckLastModified(true);
+        String uri = file1.toURI().toString();
+        Templates tpl = cache.get(uri);
+        assertSame(tpl, cache.get(uri));
+        assertTrue(file1.setLastModified(file1.lastModified() - 10000L));
+        assertNotSame(tpl, cache.get(uri));
+        assertEquals(2, cache.getCompilations());
+    }
+}
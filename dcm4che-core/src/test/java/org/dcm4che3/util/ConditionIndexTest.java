@@ -0,0 +1,158 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class ConditionIndexTest {
+
+    static final class Rule {
+        final String[] aets;
+        final String[] cuids;
+        final int modulo;
+
+        Rule(String[] aets, String[] cuids, int modulo) {
+            this.aets = aets;
+            this.cuids = cuids;
+            this.modulo = modulo;
+        }
+
+        boolean matches(String aet, String cuid, int n) {
+            return isEmptyOrContains(aets, aet) && isEmptyOrContains(cuids, cuid) && n % modulo == 0;
+        }
+
+        private static boolean isEmptyOrContains(String[] a, String s) {
+            if (s == null || a.length == 0)
+                return true;
+            for (String s1 : a)
+                if (s1.equals(s))
+                    return true;
+            return false;
+        }
+    }
+
+    static final ConditionIndex.Conditions<Rule> CONDITIONS = new ConditionIndex.Conditions<Rule>() {
+        @Override
+        public String[] values1(Rule rule) {
+            return rule.aets;
+        }
+
+        @Override
+        public String[] values2(Rule rule) {
+            return rule.cuids;
+        }
+    };
+
+    static List<Rule> randomRules(Random rnd, int count) {
+        List<Rule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            rules.add(new Rule(randomValues(rnd, "AET", 50), randomValues(rnd, "1.2.3.", 100), 1 + rnd.nextInt(3)));
+        return rules;
+    }
+
+    private static String[] randomValues(Random rnd, String prefix, int range) {
+        String[] values = new String[rnd.nextInt(4)];
+        for (int i = 0; i < values.length; i++)
+            values[i] = prefix + rnd.nextInt(range);
+        return values;
+    }
+
+    static Rule findLinear(List<Rule> rules, String aet, String cuid, int n) {
+        for (Rule rule : rules)
+            if (rule.matches(aet, cuid, n))
+                return rule;
+        return null;
+    }
+
+    static Predicate<Rule> matches(final String aet, final String cuid, final int n) {
+        return new Predicate<Rule>() {
+            @Override
+            public boolean test(Rule rule) {
+                return rule.matches(aet, cuid, n);
+            }
+        };
+    }
+
+    @Test
+    public void testFind() {
+        List<Rule> rules = new ArrayList<>();
+        Rule aet1ct = new Rule(new String[]{"AET1"}, new String[]{"CT"}, 1);
+        Rule aet1 = new Rule(new String[]{"AET1", "AET2"}, new String[0], 1);
+        Rule ct = new Rule(new String[0], new String[]{"CT", "MR"}, 1);
+        Rule any = new Rule(new String[0], new String[0], 1);
+        rules.add(aet1ct);
+        rules.add(aet1);
+        rules.add(ct);
+        rules.add(any);
+        ConditionIndex<Rule> index = new ConditionIndex<>(rules, CONDITIONS);
+        assertSame(aet1ct, index.find("AET1", "CT", matches("AET1", "CT", 0)));
+        assertSame(aet1, index.find("AET2", "CT", matches("AET2", "CT", 0)));
+        assertSame(ct, index.find("AET3", "MR", matches("AET3", "MR", 0)));
+        assertSame(any, index.find("AET3", "US", matches("AET3", "US", 0)));
+        assertSame(aet1ct, index.find(null, "CT", matches(null, "CT", 0)));
+    }
+
+    @Test
+    public void testFindSameAsLinearScan() {
+        Random rnd = new Random(4711);
+        List<Rule> rules = randomRules(rnd, 2000);
+        ConditionIndex<Rule> index = new ConditionIndex<>(rules, CONDITIONS);
+        for (int i = 0; i < 10000; i++) {
+            String aet = "AET" + rnd.nextInt(60);
+            String cuid = "1.2.3." + rnd.nextInt(120);
+            int n = rnd.nextInt(6);
+            assertSame(findLinear(rules, aet, cuid, n), index.find(aet, cuid, matches(aet, cuid, n)));
+        }
+    }
+}
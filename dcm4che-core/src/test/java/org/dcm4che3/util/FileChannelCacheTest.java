@@ -0,0 +1,131 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class FileChannelCacheTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("test", ".bin");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[100]);
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testReuseChannel() throws IOException {
+        FileChannelCache cache = new FileChannelCache(4);
+        FileChannelCache.Lease lease = cache.open(file);
+        FileChannel channel = lease.channel();
+        lease.close();
+        assertTrue(channel.isOpen());
+        FileChannelCache.Lease lease2 = cache.open(file);
+        assertSame(channel, lease2.channel());
+        lease2.close();
+        cache.clear();
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        FileChannelCache cache = new FileChannelCache(4);
+        FileChannelCache.Lease lease = cache.open(file);
+        FileChannel channel = lease.channel();
+        cache.evict(file.toPath());
+        assertEquals(0, cache.size());
+        assertTrue(channel.isOpen());
+        lease.close();
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testCloseIdleChannel() throws Exception {
+        FileChannelCache cache = new FileChannelCache(4, 100L);
+        FileChannelCache.Lease lease = cache.open(file);
+        FileChannel channel = lease.channel();
+        Thread.sleep(200L);
+        assertTrue(channel.isOpen());
+        lease.close();
+        for (int i = 0; i < 50 && channel.isOpen(); i++)
+            Thread.sleep(20L);
+        assertFalse(channel.isOpen());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testKeepChannelWithoutMaxIdleTime() throws Exception {
+        FileChannelCache cache = new FileChannelCache(4);
+        FileChannelCache.Lease lease = cache.open(file);
+        FileChannel channel = lease.channel();
+        lease.close();
+        Thread.sleep(200L);
+        assertTrue(channel.isOpen());
+        cache.setMaxIdleTime(100L);
+        assertFalse(channel.isOpen());
+        assertEquals(0, cache.size());
+    }
+}
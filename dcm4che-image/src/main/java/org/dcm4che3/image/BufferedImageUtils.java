@@ -54,6 +54,7 @@ import java.awt.image.*;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -61,6 +62,10 @@ import java.util.List;
  */
 public class BufferedImageUtils {
 
+    private static final int PARALLEL_MIN_PIXELS = 1 << 20;
+
+    private static final int PARALLEL_MIN_ROWS = 64;
+
     private BufferedImageUtils() {}
 
     public static BufferedImage convertToIntRGB(BufferedImage bi) {
@@ -107,6 +112,9 @@ public class BufferedImageUtils {
         WritableRaster rasterDst = dst.getRaster();
         WritableRaster raster = src.getRaster();
         ColorSpace cs = src.getColorModel().getColorSpace();
+        if (cs instanceof YBRColorSpace && convertYBRtoRGB(((YBRColorSpace) cs).getYBR(), raster, rasterDst))
+            return dst;
+
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
                 byte[] ba = (byte[]) raster.getDataElements(j, i, null);
@@ -140,6 +148,9 @@ public class BufferedImageUtils {
         }
         WritableRaster rasterDst = dst.getRaster();
         WritableRaster raster = src.getRaster();
+        if (convertPalettetoRGB(pcm, raster, rasterDst))
+            return dst;
+
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
                 byte[] b = convertTo3Bytes(pcm , raster.getDataElements(j, i, null));
@@ -149,6 +160,134 @@ public class BufferedImageUtils {
         return dst;
     }
 
+    private static boolean convertYBRtoRGB(YBR ybr, Raster raster, WritableRaster rasterDst) {
+        ComponentSampleModel dsm = getByteComponentSampleModel(rasterDst);
+        if (dsm == null || dsm.getNumBands() != 3 || !isUntranslated(raster))
+            return false;
+
+        byte[] dstData = getData(rasterDst);
+        int dstPixelStride = dsm.getPixelStride();
+        int dstScanlineStride = dsm.getScanlineStride();
+        int r = dsm.getOffset(0, 0, 0);
+        int g = dsm.getOffset(0, 0, 1);
+        int b = dsm.getOffset(0, 0, 2);
+        int w = raster.getWidth();
+        SampleModel sm = raster.getSampleModel();
+        if (sm instanceof SampledComponentSampleModel) {
+            ColorSubsampling subsampling = ((SampledComponentSampleModel) sm).getColorSubsampling();
+            byte[] srcData = ((DataBufferByte) raster.getDataBuffer()).getData();
+            forEachRows(raster.getHeight(), w, (y0, y1) -> {
+                for (int y = y0; y < y1; y++) {
+                    int i = y * dstScanlineStride;
+                    subsampling.toRGB(ybr, srcData, w, y, dstData, i + r, i + g, i + b, dstPixelStride);
+                }
+            });
+            return true;
+        }
+        ComponentSampleModel csm = getByteComponentSampleModel(raster);
+        if (csm == null)
+            return false;
+
+        byte[] srcData = getData(raster);
+        int srcPixelStride = csm.getPixelStride();
+        int srcScanlineStride = csm.getScanlineStride();
+        int y0Pos = csm.getOffset(0, 0, 0);
+        int cbPos = csm.getOffset(0, 0, 1);
+        int crPos = csm.getOffset(0, 0, 2);
+        forEachRows(raster.getHeight(), w, (y0, y1) -> {
+            for (int y = y0; y < y1; y++) {
+                int i = y * srcScanlineStride;
+                int j = y * dstScanlineStride;
+                ybr.toRGB(srcData, i + y0Pos, i + cbPos, i + crPos, srcPixelStride,
+                        dstData, j + r, j + g, j + b, dstPixelStride, w);
+            }
+        });
+        return true;
+    }
+
+    private static boolean convertPalettetoRGB(ColorModel pcm, Raster raster, WritableRaster rasterDst) {
+        ComponentSampleModel dsm = getByteComponentSampleModel(rasterDst);
+        SampleModel sm = raster.getSampleModel();
+        int bits = pcm.getPixelSize();
+        if (dsm == null || dsm.getNumBands() != 3 || !(sm instanceof ComponentSampleModel) || bits > 16
+                || raster.getDataBuffer().getNumBanks() != 1 || !isUntranslated(raster))
+            return false;
+
+        DataBuffer db = raster.getDataBuffer();
+        byte[] srcBytes;
+        short[] srcShorts;
+        if (db instanceof DataBufferByte) {
+            srcBytes = ((DataBufferByte) db).getData();
+            srcShorts = null;
+        } else if (db instanceof DataBufferUShort) {
+            srcBytes = null;
+            srcShorts = ((DataBufferUShort) db).getData();
+        } else {
+            return false;
+        }
+        int[] rgbs = new int[srcBytes != null ? 0x100 : 1 << bits];
+        int mask = rgbs.length - 1;
+        for (int i = 0; i < rgbs.length; i++)
+            rgbs[i] = pcm.getRGB(i);
+
+        ComponentSampleModel csm = (ComponentSampleModel) sm;
+        byte[] dstData = getData(rasterDst);
+        int srcPixelStride = csm.getPixelStride();
+        int srcScanlineStride = csm.getScanlineStride();
+        int srcOffset = csm.getOffset(0, 0);
+        int dstPixelStride = dsm.getPixelStride();
+        int dstScanlineStride = dsm.getScanlineStride();
+        int r = dsm.getOffset(0, 0, 0);
+        int g = dsm.getOffset(0, 0, 1);
+        int b = dsm.getOffset(0, 0, 2);
+        int w = raster.getWidth();
+        forEachRows(raster.getHeight(), w, (y0, y1) -> {
+            for (int y = y0; y < y1; y++) {
+                for (int x = 0, i = y * srcScanlineStride + srcOffset, j = y * dstScanlineStride; x < w;
+                     x++, i += srcPixelStride, j += dstPixelStride) {
+                    int rgb = rgbs[(srcBytes != null ? srcBytes[i] : srcShorts[i]) & mask];
+                    dstData[j + r] = (byte) (rgb >> 16);
+                    dstData[j + g] = (byte) (rgb >> 8);
+                    dstData[j + b] = (byte) rgb;
+                }
+            }
+        });
+        return true;
+    }
+
+    private static ComponentSampleModel getByteComponentSampleModel(Raster raster) {
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer db = raster.getDataBuffer();
+        return sm instanceof ComponentSampleModel && db instanceof DataBufferByte && db.getNumBanks() == 1
+                && isUntranslated(raster)
+                ? (ComponentSampleModel) sm
+                : null;
+    }
+
+    private static boolean isUntranslated(Raster raster) {
+        return raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                && raster.getDataBuffer().getOffset() == 0;
+    }
+
+    /**
+     * Invokes {@code rows} for the whole image. Images with more than {@link #PARALLEL_MIN_PIXELS} pixels are
+     * split in bands of rows, which are converted concurrently using the common Fork/Join pool.
+     */
+    private static void forEachRows(int h, int w, RowsConverter rows) {
+        int bands = (long) w * h < PARALLEL_MIN_PIXELS ? 1
+                : Math.min(Runtime.getRuntime().availableProcessors(), h / PARALLEL_MIN_ROWS);
+        if (bands <= 1) {
+            rows.convert(0, h);
+            return;
+        }
+        IntStream.range(0, bands).parallel().forEach(band -> rows.convert(h * band / bands, h * (band + 1) / bands));
+    }
+
+    @FunctionalInterface
+    private interface RowsConverter {
+        void convert(int y0, int y1);
+    }
+
     private static byte[] convertTo3Bytes(ColorModel pm, Object data) {
         byte[] b = new byte[3];
         int pix;
@@ -84,4 +84,32 @@ public enum ColorSubsampling {
     public abstract int indexOfY(int x, int y, int w);
 
     public abstract int indexOfBR(int x, int y, int w);
+
+    /**
+     * Converts one row of chroma subsampled 8 bit YBR samples to pixel interleaved RGB samples using integer
+     * arithmetic.
+     *
+     * @param ybr YBR color space of the source samples
+     * @param src subsampled source samples of the whole frame
+     * @param w number of columns
+     * @param y index of the row to convert
+     * @param dst destination samples
+     * @param rPos index of the red sample of the first pixel of the row in {@code dst}
+     * @param gPos index of the green sample of the first pixel of the row in {@code dst}
+     * @param bPos index of the blue sample of the first pixel of the row in {@code dst}
+     * @param dstPixelStride distance between samples of consecutive pixels in {@code dst}
+     */
+    public void toRGB(YBR ybr, byte[] src, int w, int y, byte[] dst, int rPos, int gPos, int bPos,
+            int dstPixelStride) {
+        for (int x = 0; x < w; x++) {
+            int ibr = indexOfBR(x, y, w);
+            int rgb = ybr.toRGB(src[indexOfY(x, y, w)] & 0xff, src[ibr] & 0xff, src[ibr + 1] & 0xff);
+            dst[rPos] = (byte) (rgb >> 16);
+            dst[gPos] = (byte) (rgb >> 8);
+            dst[bPos] = (byte) rgb;
+            rPos += dstPixelStride;
+            gPos += dstPixelStride;
+            bPos += dstPixelStride;
+        }
+    }
 }
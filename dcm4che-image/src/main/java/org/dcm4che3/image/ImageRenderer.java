@@ -0,0 +1,194 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.image;
+
+import org.dcm4che3.data.Attributes;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a stored frame to an 8 bit image ready for encoding by a JPEG or PNG {@link ImageWriter}.
+ * <p>
+ * Rescale, VOI and Presentation LUT are expected to be combined to one {@link LookupTable}, which is applied
+ * in a single pass from the stored raster into the 8 bit output raster - or in place, if the stored raster has
+ * already 8 bit samples. Overlays are burnt into the output raster afterwards, so only the pixels covered by
+ * an overlay are touched twice. The rendered image shares its data buffer with the output raster and may be
+ * passed directly to {@link #write(RenderedImage, ImageWriter, ImageWriteParam, OutputStream)}.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class ImageRenderer {
+
+    private LookupTable lut;
+    private final List<Overlay> overlays = new ArrayList<>();
+
+    public LookupTable getLookupTable() {
+        return lut;
+    }
+
+    /**
+     * Set combined Modality, VOI and Presentation LUT with 8 bit output, applied on monochrome images.
+     *
+     * @param lut combined LUT or {@code null} for color images
+     */
+    public void setLookupTable(LookupTable lut) {
+        this.lut = lut;
+    }
+
+    public void addOverlay(int frameIndex, Attributes ovlyAttrs, int gg0000, int[] pixelValue, byte[] ovlyData) {
+        overlays.add(new Overlay(frameIndex, ovlyAttrs, gg0000, pixelValue, ovlyData));
+    }
+
+    public void clearOverlays() {
+        overlays.clear();
+    }
+
+    /**
+     * Render stored raster to an 8 bit gray image, if a {@link #setLookupTable LUT} was set. Otherwise the stored
+     * raster is kept with its color model, if it is a {@link ComponentColorModel} or {@link DirectColorModel},
+     * and converted to an RGB image for other color models - like the {@link IndexColorModel} of Palette Color
+     * images.
+     *
+     * @param raster stored raster, which may be modified
+     * @param cm color model of the stored raster; only used, if no LUT was set
+     * @return rendered image
+     */
+    public BufferedImage render(WritableRaster raster, ColorModel cm) {
+        BufferedImage bi = lut != null
+                ? renderGray(raster)
+                : renderColor(raster, cm);
+        WritableRaster dest = bi.getRaster();
+        for (Overlay overlay : overlays)
+            overlay.burnIn(dest);
+        return bi;
+    }
+
+    private BufferedImage renderGray(WritableRaster raster) {
+        WritableRaster dest = raster.getSampleModel().getDataType() == DataBuffer.TYPE_BYTE
+                && raster.getNumBands() == 1
+                ? raster
+                : Raster.createWritableRaster(
+                        new PixelInterleavedSampleModel(DataBuffer.TYPE_BYTE,
+                                raster.getWidth(), raster.getHeight(), 1, raster.getWidth(), new int[]{0}),
+                        null);
+        lut.lookup(raster, dest);
+        return new BufferedImage(
+                new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), new int[]{8},
+                        false, false, ColorModel.OPAQUE, DataBuffer.TYPE_BYTE),
+                dest, false, null);
+    }
+
+    private static BufferedImage renderColor(WritableRaster raster, ColorModel cm) {
+        BufferedImage bi = new BufferedImage(cm, raster, false, null);
+        return cm instanceof ComponentColorModel || cm instanceof DirectColorModel
+                ? bi
+                : BufferedImageUtils.convertToIntRGB(bi);
+    }
+
+    /**
+     * Returns {@code true} if images with the specified color model can be passed to a JPEG or PNG
+     * {@link ImageWriter} without previous color conversion.
+     */
+    public static boolean isRGB(ColorModel cm) {
+        return cm instanceof DirectColorModel
+                || cm instanceof ComponentColorModel
+                    && cm.getTransferType() == DataBuffer.TYPE_BYTE
+                    && (cm.getColorSpace().isCS_sRGB() || cm.getColorSpace().getType() == ColorSpace.TYPE_GRAY);
+    }
+
+    /**
+     * Encode image by specified image writer directly to the output stream, without using a temporary cache
+     * file. The output stream is flushed, but not closed.
+     */
+    public static void write(RenderedImage image, ImageWriter writer, ImageWriteParam param, OutputStream out)
+            throws IOException {
+        ImageOutputStream ios = new MemoryCacheImageOutputStream(out);
+        try {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.setOutput(null);
+            ios.close();
+        }
+        out.flush();
+    }
+
+    private static class Overlay {
+        final int frameIndex;
+        final Attributes attrs;
+        final int gg0000;
+        final int[] pixelValue;
+        final byte[] data;
+
+        Overlay(int frameIndex, Attributes attrs, int gg0000, int[] pixelValue, byte[] data) {
+            this.frameIndex = frameIndex;
+            this.attrs = attrs;
+            this.gg0000 = gg0000;
+            this.pixelValue = pixelValue;
+            this.data = data;
+        }
+
+        void burnIn(WritableRaster raster) {
+            Overlays.applyOverlay(frameIndex, raster, attrs, gg0000, pixelValue(raster.getNumBands()), data);
+        }
+
+        private int[] pixelValue(int numBands) {
+            if (pixelValue.length == numBands)
+                return pixelValue;
+            int[] value = new int[numBands];
+            for (int i = 0; i < numBands; i++)
+                value[i] = pixelValue[Math.min(i, pixelValue.length - 1)];
+            return value;
+        }
+    }
+}
@@ -56,6 +56,10 @@ public class SampledComponentSampleModel extends SampleModel {
         this.subsampling = subsampling;
     }
 
+    public ColorSubsampling getColorSubsampling() {
+        return subsampling;
+    }
+
     @Override
     public SampleModel createCompatibleSampleModel(int w, int h) {
         return new SampledComponentSampleModel(w, h, subsampling);
@@ -90,10 +90,85 @@ public enum YBR {
         1.1644154634373545, 2.017290682233469, -1.3527300480981362E-4, -1.0813536710791642, 
     };
 
+    private static final int FIXED_POINT_SHIFT = 16;
+
+    private static final int[][] FROM_YBR_FIXED_POINT = {
+        toFixedPoint(FROM_YBR_FULL),
+        toFixedPoint(FROM_YBR_PARTIAL)
+    };
+
     public abstract float[] toRGB(float[] ybr);
 
     public abstract float[] fromRGB(float[] rgb);
 
+    /**
+     * Converts one pixel with 8 bit samples using integer arithmetic.
+     *
+     * @param y luminance
+     * @param cb blue chrominance
+     * @param cr red chrominance
+     * @return RGB value in the format {@code 0xRRGGBB}
+     */
+    public int toRGB(int y, int cb, int cr) {
+        int[] a = FROM_YBR_FIXED_POINT[ordinal()];
+        return (clamp(a[0] * y + a[1] * cb + a[2] * cr + a[3]) << 16)
+                | (clamp(a[4] * y + a[5] * cb + a[6] * cr + a[7]) << 8)
+                | clamp(a[8] * y + a[9] * cb + a[10] * cr + a[11]);
+    }
+
+    /**
+     * Converts {@code length} pixels with 8 bit samples from YBR to RGB using integer arithmetic. The samples of
+     * source and destination may be interleaved by pixel or by plane, as specified by their offsets and pixel
+     * strides. Source and destination may refer to the same array, if the samples of each pixel are located at
+     * the same positions.
+     *
+     * @param src source samples
+     * @param yPos index of the first luminance sample in {@code src}
+     * @param cbPos index of the first blue chrominance sample in {@code src}
+     * @param crPos index of the first red chrominance sample in {@code src}
+     * @param srcPixelStride distance between samples of consecutive pixels in {@code src}
+     * @param dst destination samples
+     * @param rPos index of the first red sample in {@code dst}
+     * @param gPos index of the first green sample in {@code dst}
+     * @param bPos index of the first blue sample in {@code dst}
+     * @param dstPixelStride distance between samples of consecutive pixels in {@code dst}
+     * @param length number of pixels to convert
+     */
+    public void toRGB(byte[] src, int yPos, int cbPos, int crPos, int srcPixelStride,
+            byte[] dst, int rPos, int gPos, int bPos, int dstPixelStride, int length) {
+        int[] a = FROM_YBR_FIXED_POINT[ordinal()];
+        int a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+        int a4 = a[4], a5 = a[5], a6 = a[6], a7 = a[7];
+        int a8 = a[8], a9 = a[9], a10 = a[10], a11 = a[11];
+        for (int i = 0; i < length; i++) {
+            int y = src[yPos] & 0xff;
+            int cb = src[cbPos] & 0xff;
+            int cr = src[crPos] & 0xff;
+            dst[rPos] = (byte) clamp(a0 * y + a1 * cb + a2 * cr + a3);
+            dst[gPos] = (byte) clamp(a4 * y + a5 * cb + a6 * cr + a7);
+            dst[bPos] = (byte) clamp(a8 * y + a9 * cb + a10 * cr + a11);
+            yPos += srcPixelStride;
+            cbPos += srcPixelStride;
+            crPos += srcPixelStride;
+            rPos += dstPixelStride;
+            gPos += dstPixelStride;
+            bPos += dstPixelStride;
+        }
+    }
+
+    private static int clamp(int fixedPoint) {
+        return fixedPoint <= 0 ? 0 : Math.min(fixedPoint >> FIXED_POINT_SHIFT, 255);
+    }
+
+    private static int[] toFixedPoint(double[] a) {
+        int[] b = new int[12];
+        double scale = 1 << FIXED_POINT_SHIFT;
+        for (int i = 0; i < 12; i++) {
+            b[i] = (int) Math.round((i & 3) == 3 ? (a[i] * 255 + 0.5) * scale : a[i] * scale);
+        }
+        return b;
+    }
+
     private static float[] convert(float[] in, double[] a) {
         return new float[] {
                 (float) Math.max(0.0, Math.min(1.0,
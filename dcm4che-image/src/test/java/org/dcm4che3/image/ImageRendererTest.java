@@ -0,0 +1,189 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.image;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.junit.Test;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class ImageRendererTest {
+
+    private static final int[] STORED_12 = { 0, 1000, 2048, 4095 };
+    private static final int[] RENDERED_12 = { 0, 62, 128, 255 };
+
+    @Test
+    public void testRenderGray() {
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.setLookupTable(new ByteLookupTable(new StoredValue.Unsigned(12), 8, 0, 4096, false));
+        BufferedImage bi = renderer.render(raster(DataBuffer.TYPE_USHORT, 1, STORED_12), null);
+        assertGray8(bi);
+        assertArrayEquals(RENDERED_12, pixels(bi));
+    }
+
+    @Test
+    public void testRenderGrayInPlace() {
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.setLookupTable(new ByteLookupTable(new StoredValue.Unsigned(8), 8, 0, 256, true));
+        WritableRaster raster = raster(DataBuffer.TYPE_BYTE, 1, 0, 1, 128, 255);
+        BufferedImage bi = renderer.render(raster, null);
+        assertGray8(bi);
+        assertSame(raster, bi.getRaster());
+        assertArrayEquals(new int[] { 255, 254, 127, 0 }, pixels(bi));
+    }
+
+    @Test
+    public void testRenderGrayWithOverlay() {
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.setLookupTable(new ByteLookupTable(new StoredValue.Unsigned(12), 8, 0, 4096, false));
+        renderer.addOverlay(0, overlay(), 0, new int[] { 200 }, null);
+        BufferedImage bi = renderer.render(raster(DataBuffer.TYPE_USHORT, 1, STORED_12), null);
+        assertGray8(bi);
+        assertArrayEquals(new int[] { 0, 200, 200, 255 }, pixels(bi));
+    }
+
+    @Test
+    public void testRenderPalette() {
+        ImageRenderer renderer = new ImageRenderer();
+        BufferedImage bi = renderer.render(raster(DataBuffer.TYPE_BYTE, 1, 0, 1, 2, 3), palette());
+        assertEquals(BufferedImage.TYPE_INT_RGB, bi.getType());
+        assertArrayEquals(new int[] { 0x000000, 0xff0000, 0x00ff00, 0x0000ff }, rgb(bi));
+    }
+
+    @Test
+    public void testRenderPaletteWithOverlay() {
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.addOverlay(0, overlay(), 0, new int[] { 0xff }, null);
+        BufferedImage bi = renderer.render(raster(DataBuffer.TYPE_BYTE, 1, 0, 1, 2, 3), palette());
+        assertEquals(BufferedImage.TYPE_INT_RGB, bi.getType());
+        assertArrayEquals(new int[] { 0x000000, 0xffffff, 0xffffff, 0x0000ff }, rgb(bi));
+    }
+
+    @Test
+    public void testRenderGray16WithOverlayKeepsColorModel() {
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.addOverlay(0, overlay(), 0, new int[] { 0xff }, null);
+        ColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), new int[] { 16 },
+                false, false, ColorModel.OPAQUE, DataBuffer.TYPE_USHORT);
+        WritableRaster raster = raster(DataBuffer.TYPE_USHORT, 1, STORED_12);
+        BufferedImage bi = renderer.render(raster, cm);
+        assertSame(cm, bi.getColorModel());
+        assertSame(raster, bi.getRaster());
+        assertArrayEquals(new int[] { 0, 0xff, 0xff, 4095 }, pixels(bi));
+    }
+
+    @Test
+    public void testRenderRGBKeepsColorModel() {
+        ImageRenderer renderer = new ImageRenderer();
+        ColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false,
+                ColorModel.OPAQUE, DataBuffer.TYPE_BYTE);
+        WritableRaster raster = raster(DataBuffer.TYPE_BYTE, 3,
+                0, 0, 0, 255, 0, 0, 0, 255, 0, 0, 0, 255);
+        BufferedImage bi = renderer.render(raster, cm);
+        assertSame(cm, bi.getColorModel());
+        assertArrayEquals(new int[] { 0x000000, 0xff0000, 0x00ff00, 0x0000ff }, rgb(bi));
+    }
+
+    private static WritableRaster raster(int dataType, int bands, int... samples) {
+        int[] bandOffsets = new int[bands];
+        for (int i = 0; i < bands; i++)
+            bandOffsets[i] = i;
+        WritableRaster raster = Raster.createWritableRaster(
+                new PixelInterleavedSampleModel(dataType, 2, 2, bands, 2 * bands, bandOffsets), null);
+        raster.setPixels(0, 0, 2, 2, samples);
+        return raster;
+    }
+
+    /**
+     * 2x2 overlay covering the 2nd and 3rd pixel.
+     */
+    private static Attributes overlay() {
+        Attributes attrs = new Attributes();
+        attrs.setInt(Tag.OverlayRows, VR.US, 2);
+        attrs.setInt(Tag.OverlayColumns, VR.US, 2);
+        attrs.setInt(Tag.OverlayOrigin, VR.SS, 1, 1);
+        attrs.setBytes(Tag.OverlayData, VR.OW, new byte[] { 0x06, 0 });
+        return attrs;
+    }
+
+    private static ColorModel palette() {
+        Attributes attrs = new Attributes();
+        attrs.setInt(Tag.RedPaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setInt(Tag.GreenPaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setInt(Tag.BluePaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setBytes(Tag.RedPaletteColorLookupTableData, VR.OW, new byte[] { 0, (byte) 0xff, 0, 0 });
+        attrs.setBytes(Tag.GreenPaletteColorLookupTableData, VR.OW, new byte[] { 0, 0, (byte) 0xff, 0 });
+        attrs.setBytes(Tag.BluePaletteColorLookupTableData, VR.OW, new byte[] { 0, 0, 0, (byte) 0xff });
+        return new PaletteColorModel(8, DataBuffer.TYPE_BYTE, ColorSpace.getInstance(ColorSpace.CS_sRGB), attrs);
+    }
+
+    private static void assertGray8(BufferedImage bi) {
+        assertEquals(1, bi.getColorModel().getNumComponents());
+        assertEquals(DataBuffer.TYPE_BYTE, bi.getRaster().getDataBuffer().getDataType());
+    }
+
+    private static int[] pixels(BufferedImage bi) {
+        return bi.getRaster().getPixels(0, 0, 2, 2, (int[]) null);
+    }
+
+    private static int[] rgb(BufferedImage bi) {
+        int[] rgb = bi.getRGB(0, 0, 2, 2, null, 0, 2);
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] &= 0xffffff;
+        return rgb;
+    }
+}
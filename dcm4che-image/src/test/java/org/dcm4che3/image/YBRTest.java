@@ -0,0 +1,95 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.image;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class YBRTest {
+
+    @Test
+    public void testFullToRGB() {
+        assertMaxDeviation(YBR.FULL, 1);
+    }
+
+    @Test
+    public void testPartialToRGB() {
+        assertMaxDeviation(YBR.PARTIAL, 1);
+    }
+
+    @Test
+    public void testToRGBPlanar() {
+        byte[] src = { 0, (byte) 128, (byte) 255, (byte) 128, 64, (byte) 200 };
+        byte[] dst = new byte[6];
+        YBR.FULL.toRGB(src, 0, 2, 4, 1, dst, 0, 2, 4, 1, 2);
+        for (int i = 0; i < 2; i++) {
+            int rgb = YBR.FULL.toRGB(src[i] & 0xff, src[i + 2] & 0xff, src[i + 4] & 0xff);
+            assertEquals((rgb >> 16) & 0xff, dst[i] & 0xff);
+            assertEquals((rgb >> 8) & 0xff, dst[i + 2] & 0xff);
+            assertEquals(rgb & 0xff, dst[i + 4] & 0xff);
+        }
+    }
+
+    private static void assertMaxDeviation(YBR ybr, int maxDeviation) {
+        float[] in = new float[3];
+        for (int y = 0; y < 256; y++)
+            for (int cb = 0; cb < 256; cb++)
+                for (int cr = 0; cr < 256; cr++) {
+                    in[0] = y / 255f;
+                    in[1] = cb / 255f;
+                    in[2] = cr / 255f;
+                    float[] expected = ybr.toRGB(in);
+                    int rgb = ybr.toRGB(y, cb, cr);
+                    for (int i = 0; i < 3; i++) {
+                        int diff = Math.abs(Math.round(expected[i] * 255) - ((rgb >> (16 - (i << 3))) & 0xff));
+                        if (diff > maxDeviation)
+                            fail(ybr + " YBR[" + y + ',' + cb + ',' + cr + "] differs in component " + i
+                                    + " by " + diff);
+                    }
+                }
+    }
+}
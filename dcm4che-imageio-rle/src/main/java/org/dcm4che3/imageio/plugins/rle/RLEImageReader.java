@@ -50,6 +50,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
@@ -79,15 +81,11 @@ public class RLEImageReader extends ImageReader {
     private static final String MISMATCH_NUM_RLE_SEGMENTS =
             "Number of RLE Segments does not match image type: ";
 
-    private final int[] header = new int[16];
-
-    private final byte[] buf = new byte[8192];
+    private static final int PARALLEL_MIN_SEGMENT_LENGTH = 0x10000;
 
-    private long headerPos;
-
-    private long bufOff;
+    private final int[] header = new int[16];
 
-    private int bufPos;
+    private byte[] buf = new byte[8192];
 
     private int bufLen;
 
@@ -107,11 +105,6 @@ public class RLEImageReader extends ImageReader {
         super.setInput(input, seekForwardOnly, ignoreMetadata);
         resetInternalState();
         iis = (ImageInputStream) input;
-        try {
-            headerPos = iis.getStreamPosition();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
     }
 
     private void resetInternalState() {
@@ -241,142 +234,128 @@ public class RLEImageReader extends ImageReader {
     }
 
     private void read(byte[][] bands) throws IOException {
-        readRLEHeader(bands.length);
-        for (int i = 0; i < bands.length; i++)
-            unrle(i+1, bands[i]);
+        readRLEData(bands.length);
+        forEachSegment(bands.length, bands[0].length, i -> unrle(i + 1, bands[i]));
     }
 
     private void read(short[] data) throws IOException {
-        readRLEHeader(2);
-        Arrays.fill(data, (short) 0);
-        unrle(1, data);
-        unrle(2, data);
+        readRLEData(2);
+        byte[] low = new byte[data.length];
+        forEachSegment(2, data.length, i -> {
+            if (i == 0)
+                unrle(1, data);
+            else
+                unrle(2, low);
+        });
+        for (int i = 0; i < data.length; i++)
+            data[i] |= low[i] & 0xff;
     }
 
-    private void seekSegment(int seg) throws IOException {
-        long streamPos = headerPos + (header[seg] & 0xffffffffL);
-        int bufPos = (int) (streamPos - bufOff);
-        if (bufPos >= 0 && bufPos <= bufLen)
-            this.bufPos = bufPos;
-        else {
-            iis.seek(streamPos);
-            this.bufPos = bufLen; // force fillBuffer on nextByte()
-        }
+    private static void forEachSegment(int numSegments, int segmentLength, IntConsumer action) {
+        if (segmentLength < PARALLEL_MIN_SEGMENT_LENGTH)
+            for (int i = 0; i < numSegments; i++)
+                action.accept(i);
+        else
+            IntStream.range(0, numSegments).parallel().forEach(action);
     }
 
-
-    private void readRLEHeader(int numSegments) throws IOException {
-        fillBuffer();
+    private void readRLEData(int numSegments) throws IOException {
+        long length = iis.length();
+        if (length > 0) {
+            length -= iis.getStreamPosition();
+            if (length > buf.length && length <= Integer.MAX_VALUE - 8)
+                buf = new byte[(int) length + 1];
+        }
+        bufLen = 0;
+        int read;
+        while ((read = iis.read(buf, bufLen, buf.length - bufLen)) > 0) {
+            if ((bufLen += read) == buf.length)
+                buf = Arrays.copyOf(buf, buf.length << 1);
+        }
         if (bufLen < 64)
             throw new EOFException();
         for (int i = 0, off = 0; i < header.length; i++, off += 4)
             header[i] = ByteUtils.bytesToIntLE(buf, off);
-        bufPos = 64;
         if (header[0] != numSegments)
             throw new IOException(MISMATCH_NUM_RLE_SEGMENTS + header[0]);
     }
 
-    private void unrle(int seg, byte[] data) throws IOException {
-        seekSegment(seg);
-        int pos = 0;
-        try {
-            int n;
-            int end;
-            byte val;
-            while (pos < data.length) {
-                n = nextByte();
-                if (n >= 0) {
-                    read(data, pos, ++n);
-                    pos += n;
-                } else if (n != -128) {
-                    end = pos + 1 - n;
-                    val = nextByte();
-                    while (pos < end)
-                        data[pos++] = val;
-                }
-            }
-        } catch (EOFException e) {
-            LOG.info("RLE Segment #{} too short, set missing {} bytes to 0",
-                    seg, data.length - pos);
-        } catch (IndexOutOfBoundsException e) {
-            LOG.info("RLE Segment #{} too long, truncate surplus bytes", seg);
-        }
+    private int segmentStart(int seg) {
+        long off = header[seg] & 0xffffffffL;
+        return off < 64 || off > bufLen ? bufLen : (int) off;
     }
 
-    private void read(byte[] data, int pos, int len) throws IOException {
-        int remaining = len;
+    private void unrle(int seg, byte[] data) {
+        byte[] src = buf;
+        int end = bufLen;
+        int srcPos = segmentStart(seg);
+        int pos = 0;
         int n;
-        while (remaining > 0) {
-            n = bufLen - bufPos;
-            if (n <= 0) {
-                fillBuffer();
-                n = bufLen - bufPos;
+        while (pos < data.length) {
+            if (srcPos >= end) {
+                segmentTooShort(seg, data.length - pos);
+                Arrays.fill(data, pos, data.length, (byte) 0);
+                return;
             }
-            if ((remaining -= n) < 0)
-                n += remaining;
-            System.arraycopy(buf, bufPos, data, pos, n);
-            bufPos += n;
-            pos += n;
-        }
-    }
-
-    private void unrle(int seg, short[] data) throws IOException {
-        seekSegment(seg);
-        int pos = 0;
-        try {
-            int shift = seg == 1 ? 8 : 0;
-            int n;
-            int end;
-            int val;
-            while (pos < data.length) {
-                n = nextByte();
-                if (n >= 0) {
-                    read(data, pos, ++n, shift);
-                    pos += n;
-                } else if (n != -128) {
-                    end = pos + 1 - n;
-                    val = (nextByte() & 0xff) << shift;
-                    while (pos < end)
-                        data[pos++] |= val;
+            n = src[srcPos++];
+            if (n >= 0) {
+                n = Math.min(n + 1, end - srcPos);
+                if (pos + n > data.length) {
+                    segmentTooLong(seg);
+                    n = data.length - pos;
+                }
+                System.arraycopy(src, srcPos, data, pos, n);
+                srcPos += n;
+                pos += n;
+            } else if (n != -128 && srcPos < end) {
+                n = 1 - n;
+                if (pos + n > data.length) {
+                    segmentTooLong(seg);
+                    n = data.length - pos;
                 }
+                Arrays.fill(data, pos, pos += n, src[srcPos++]);
             }
-        } catch (EOFException e) {
-            LOG.info("RLE Segment #{} too short, set missing {} bytes to 0",
-                    seg, data.length - pos);
-        } catch (IndexOutOfBoundsException e) {
-            LOG.info("RLE Segment #{} to long, truncate surplus bytes", seg);
         }
     }
 
-    private void read(short[] data, int pos, int len, int shift) throws IOException {
-        int remaining = len;
+    private void unrle(int seg, short[] data) {
+        byte[] src = buf;
+        int end = bufLen;
+        int srcPos = segmentStart(seg);
+        int pos = 0;
         int n;
-        while (remaining > 0) {
-            n = bufLen - bufPos;
-            if (n <= 0) {
-                fillBuffer();
-                n = bufLen - bufPos;
+        while (pos < data.length) {
+            if (srcPos >= end) {
+                segmentTooShort(seg, data.length - pos);
+                Arrays.fill(data, pos, data.length, (short) 0);
+                return;
+            }
+            n = src[srcPos++];
+            if (n >= 0) {
+                n = Math.min(n + 1, end - srcPos);
+                if (pos + n > data.length) {
+                    segmentTooLong(seg);
+                    n = data.length - pos;
+                }
+                while (n-- > 0)
+                    data[pos++] = (short) (src[srcPos++] << 8);
+            } else if (n != -128 && srcPos < end) {
+                n = 1 - n;
+                if (pos + n > data.length) {
+                    segmentTooLong(seg);
+                    n = data.length - pos;
+                }
+                Arrays.fill(data, pos, pos += n, (short) (src[srcPos++] << 8));
             }
-            if ((remaining -= n) < 0)
-                n += remaining;
-            while (n-- > 0)
-                data[pos++] |= (buf[bufPos++] & 0xff) << shift;
         }
     }
 
-    private void fillBuffer() throws IOException {
-        bufOff = iis.getStreamPosition();
-        bufPos = 0;
-        bufLen = iis.read(buf);
-        if (bufLen <= 0)
-            throw new EOFException();
+    private static void segmentTooShort(int seg, int missing) {
+        LOG.info("RLE Segment #{} too short, set missing {} bytes to 0", seg, missing);
     }
 
-    private byte nextByte() throws IOException {
-        if (bufPos >= bufLen)
-            fillBuffer();
-
-        return buf[bufPos++];
+    private static void segmentTooLong(int seg) {
+        LOG.info("RLE Segment #{} too long, truncate surplus bytes", seg);
     }
 
 }
@@ -0,0 +1,247 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.imageio.plugins.rle;
+
+import org.dcm4che3.util.ByteUtils;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes images according DICOM PS3.5 Annex G "Encapsulated RLE Compressed Images". Each byte of each sample
+ * is encoded in a separate RLE Segment - most significant byte first - so images with up to 15 bytes per pixel
+ * are supported. Segments of large images are encoded concurrently.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class RLEImageWriter extends ImageWriter {
+
+    private static final int PARALLEL_MIN_SEGMENT_LENGTH = 0x10000;
+    private static final int MAX_SEGMENTS = 15;
+
+    protected RLEImageWriter(ImageWriterSpi originatingProvider) {
+        super(originatingProvider);
+    }
+
+    @Override
+    public IIOMetadata getDefaultStreamMetadata(ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata getDefaultImageMetadata(ImageTypeSpecifier imageType, ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata convertStreamMetadata(IIOMetadata inData, ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata convertImageMetadata(IIOMetadata inData, ImageTypeSpecifier imageType,
+            ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public boolean canWriteRasters() {
+        return true;
+    }
+
+    @Override
+    public void write(IIOMetadata streamMetadata, IIOImage image, ImageWriteParam param) throws IOException {
+        Object output = getOutput();
+        if (output == null)
+            throw new IllegalStateException("Output not set");
+
+        Raster raster = image.hasRaster() ? image.getRaster() : toRaster(image.getRenderedImage());
+        byte[][] segments = encode(raster);
+        byte[] header = new byte[64];
+        ByteUtils.intToBytesLE(segments.length, header, 0);
+        int offset = header.length;
+        for (int i = 0; i < segments.length; i++) {
+            ByteUtils.intToBytesLE(offset, header, (i + 1) << 2);
+            offset += segments[i].length;
+        }
+        ImageOutputStream ios = (ImageOutputStream) output;
+        ios.write(header);
+        for (byte[] segment : segments)
+            ios.write(segment);
+    }
+
+    private static Raster toRaster(RenderedImage image) {
+        return image.getNumXTiles() == 1 && image.getNumYTiles() == 1
+                ? image.getTile(image.getMinTileX(), image.getMinTileY())
+                : image.getData();
+    }
+
+    private static byte[][] encode(Raster raster) throws IIOException {
+        SampleModel sm = raster.getSampleModel();
+        int bytesPerSample = bytesPerSample(sm);
+        int numBands = sm.getNumBands();
+        int numSegments = numBands * bytesPerSample;
+        if (bytesPerSample == 0 || numSegments > MAX_SEGMENTS)
+            throw new IIOException("Unsupported Sample Model: " + sm);
+
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        byte[][] segments = new byte[numSegments][];
+        if (w * h < PARALLEL_MIN_SEGMENT_LENGTH)
+            for (int i = 0; i < numSegments; i++)
+                segments[i] = encodeSegment(raster, i / bytesPerSample, bytesPerSample - 1 - i % bytesPerSample);
+        else
+            IntStream.range(0, numSegments).parallel().forEach(i ->
+                    segments[i] = encodeSegment(raster, i / bytesPerSample, bytesPerSample - 1 - i % bytesPerSample));
+        return segments;
+    }
+
+    static int bytesPerSample(SampleModel sm) {
+        switch (sm.getDataType()) {
+            case DataBuffer.TYPE_BYTE:
+                return 1;
+            case DataBuffer.TYPE_USHORT:
+            case DataBuffer.TYPE_SHORT:
+                return 2;
+        }
+        return 0;
+    }
+
+    private static byte[] encodeSegment(Raster raster, int band, int byteIndex) {
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        byte[] row = new byte[w];
+        byte[] dst = new byte[h * (w + (w + 127) / 128) + 1];
+        int pos = 0;
+        for (int y = 0; y < h; y++) {
+            getRow(raster, band, byteIndex, y, row);
+            pos = encodeRow(row, w, dst, pos);
+        }
+        if ((pos & 1) != 0)
+            dst[pos++] = 0;
+        return Arrays.copyOf(dst, pos);
+    }
+
+    private static void getRow(Raster raster, int band, int byteIndex, int y, byte[] row) {
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer db = raster.getDataBuffer();
+        int w = row.length;
+        if (sm instanceof ComponentSampleModel) {
+            ComponentSampleModel csm = (ComponentSampleModel) sm;
+            int pixelStride = csm.getPixelStride();
+            int i = csm.getOffset(raster.getMinX() - raster.getSampleModelTranslateX(),
+                    raster.getMinY() - raster.getSampleModelTranslateY() + y, band)
+                    + db.getOffsets()[csm.getBankIndices()[band]];
+            int bank = csm.getBankIndices()[band];
+            switch (db.getDataType()) {
+                case DataBuffer.TYPE_BYTE:
+                    byte[] b = ((DataBufferByte) db).getData(bank);
+                    if (pixelStride == 1)
+                        System.arraycopy(b, i, row, 0, w);
+                    else
+                        for (int x = 0; x < w; x++, i += pixelStride)
+                            row[x] = b[i];
+                    return;
+                case DataBuffer.TYPE_USHORT:
+                    toBytes(((DataBufferUShort) db).getData(bank), i, pixelStride, byteIndex, row);
+                    return;
+                case DataBuffer.TYPE_SHORT:
+                    toBytes(((DataBufferShort) db).getData(bank), i, pixelStride, byteIndex, row);
+                    return;
+            }
+        }
+        int[] samples = raster.getSamples(raster.getMinX(), raster.getMinY() + y, w, 1, band, (int[]) null);
+        int shift = byteIndex << 3;
+        for (int x = 0; x < w; x++)
+            row[x] = (byte) (samples[x] >> shift);
+    }
+
+    private static void toBytes(short[] s, int i, int pixelStride, int byteIndex, byte[] row) {
+        int shift = byteIndex << 3;
+        for (int x = 0; x < row.length; x++, i += pixelStride)
+            row[x] = (byte) (s[i] >> shift);
+    }
+
+    static int encodeRow(byte[] src, int len, byte[] dst, int pos) {
+        int i = 0;
+        while (i < len) {
+            byte b = src[i];
+            int run = 1;
+            while (i + run < len && run < 128 && src[i + run] == b)
+                run++;
+            if (run > 2) {
+                dst[pos++] = (byte) (1 - run);
+                dst[pos++] = b;
+                i += run;
+            } else {
+                int start = i;
+                i += run;
+                while (i < len && i - start < 128
+                        && !(i + 2 < len && src[i] == src[i + 1] && src[i] == src[i + 2]))
+                    i++;
+                int n = i - start;
+                dst[pos++] = (byte) (n - 1);
+                System.arraycopy(src, start, dst, pos, n);
+                pos += n;
+            }
+        }
+        return pos;
+    }
+}
@@ -40,6 +40,7 @@
 
 package org.dcm4che3.imageio.codec;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -48,14 +49,20 @@ import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Fragments;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.imageio.codec.jpeg.JPEGParser;
 import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.util.Property;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -185,6 +192,92 @@ public class TranscoderTest {
         assertEquals(1, jpegPixelRepresentation("test16signed-J2KI.dcm"));
     }
 
+    @Test
+    public void testCompressDecompressRLE() throws Exception {
+        test("MR2_UNC", "MR2_UNC-RLE.dcm", UID.RLELossless, true);
+        transcode(new File("target/test-out/MR2_UNC-RLE.dcm"), new File("target/test-out/MR2_UNC-RLE.unc"),
+                UID.ExplicitVRLittleEndian, true, 0);
+        assertSamePixelData("MR2_UNC", "MR2_UNC-RLE.unc");
+    }
+
+    @Test
+    public void testCompressDecompressRLEPerPixelRGB() throws Exception {
+        test("US-RGB-8-esopecho", "US-RGB-8-esopecho-RLE.dcm", UID.RLELossless, true);
+        transcode(new File("target/test-out/US-RGB-8-esopecho-RLE.dcm"),
+                new File("target/test-out/US-RGB-8-esopecho-RLE.unc"),
+                UID.ExplicitVRLittleEndian, true, 0);
+        assertSamePixelData("US-RGB-8-esopecho", "US-RGB-8-esopecho-RLE.unc");
+    }
+
+    @Test
+    public void testCompressToFragments() throws Exception {
+        test("MR2_UNC", "MR2_UNC-JPLL-fragments.dcm", UID.JPEGLossless, true, 1024);
+        Attributes attrs = readDataset("MR2_UNC-JPLL-fragments.dcm");
+        assertTrue(attrs.getInt(Tag.NumberOfFrames, 1) + 1
+                < ((Fragments) attrs.getValue(Tag.PixelData)).size());
+    }
+
+    @Test
+    public void testCompressToFragmentsWithVerify() throws Exception {
+        test("MR2_UNC", "MR2_UNC-JPLL-verified.dcm", UID.JPEGLossless, true, 1024,
+                new Property("maxPixelValueError", 0));
+        Attributes attrs = readDataset("MR2_UNC-JPLL-verified.dcm");
+        assertEquals("verification falls back to one fragment per frame",
+                attrs.getInt(Tag.NumberOfFrames, 1) + 1,
+                ((Fragments) attrs.getValue(Tag.PixelData)).size());
+    }
+
+    @Test
+    public void testFragmentedImageOutputStreamSeekBack() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FragmentedImageOutputStream ios = new FragmentedImageOutputStream(
+                new DicomOutputStream(out, UID.ExplicitVRLittleEndian), null, 4);
+        ios.write(new byte[]{1, 2, 3, 4, 5, 6});
+        ios.seek(5);
+        ios.write(7);
+        try {
+            ios.seek(3);
+            fail("seek to already written fragment");
+        } catch (IOException expected) {}
+        assertEquals(6, ios.finish());
+        assertEquals(2, ios.getFragments());
+        assertArrayEquals(new byte[]{
+                (byte) 0xfe, (byte) 0xff, 0, (byte) 0xe0, 4, 0, 0, 0, 1, 2, 3, 4,
+                (byte) 0xfe, (byte) 0xff, 0, (byte) 0xe0, 2, 0, 0, 0, 5, 7 },
+                out.toByteArray());
+    }
+
+    private void assertSamePixelData(String ifname, String ofname) throws IOException {
+        Attributes expected;
+        try (DicomInputStream dis = new DicomInputStream(new File("target/test-data/" + ifname))) {
+            expected = dis.readDataset(-1, -1);
+        }
+        Attributes actual = readDataset(ofname);
+        assertArrayEquals(colorByPixel(expected), colorByPixel(actual));
+    }
+
+    private static byte[] colorByPixel(Attributes attrs) throws IOException {
+        byte[] b = attrs.getBytes(Tag.PixelData);
+        int samples = attrs.getInt(Tag.SamplesPerPixel, 1);
+        if (samples == 1 || attrs.getInt(Tag.PlanarConfiguration, 0) == 0)
+            return b;
+
+        int plane = attrs.getInt(Tag.Rows, 0) * attrs.getInt(Tag.Columns, 0);
+        int frameLength = plane * samples;
+        byte[] dest = new byte[b.length];
+        for (int frame = 0; frame < b.length; frame += frameLength)
+            for (int i = 0; i < plane; i++)
+                for (int s = 0; s < samples; s++)
+                    dest[frame + i * samples + s] = b[frame + s * plane + i];
+        return dest;
+    }
+
+    private Attributes readDataset(String ofname) throws IOException {
+        try (DicomInputStream dis = new DicomInputStream(new File("target/test-out/" + ofname))) {
+            return dis.readDataset(-1, -1);
+        }
+    }
+
     private int jpegBitsPerSample(String ofname) throws IOException {
         final File ofile = new File("target/test-out/" + ofname);
         long jpegPos = jpegPos(ofile);
@@ -212,8 +305,17 @@ public class TranscoderTest {
 
     private void test(String ifname, String ofname, final String outts, boolean fmi)
             throws IOException {
-        final File ifile = new File("target/test-data/" + ifname);
-        final File ofile = new File("target/test-out/" + ofname);
+        test(ifname, ofname, outts, fmi, 0);
+    }
+
+    private void test(String ifname, String ofname, final String outts, boolean fmi, int fragmentSize,
+            Property... compressParams) throws IOException {
+        transcode(new File("target/test-data/" + ifname), new File("target/test-out/" + ofname),
+                outts, fmi, fragmentSize, compressParams);
+    }
+
+    private void transcode(File ifile, final File ofile, final String outts, boolean fmi, int fragmentSize,
+            Property... compressParams) throws IOException {
         Transcoder.Handler handler = new Transcoder.Handler() {
             @Override
             public OutputStream newOutputStream(Transcoder transcoder, Attributes dataset) throws IOException {
@@ -224,6 +326,9 @@ public class TranscoderTest {
             transcoder.setIncludeFileMetaInformation(fmi);
             transcoder.setIncludeBulkData(DicomInputStream.IncludeBulkData.URI);
             transcoder.setDestinationTransferSyntax(outts);
+            transcoder.setFragmentSize(fragmentSize);
+            if (compressParams.length > 0)
+                transcoder.setCompressParams(compressParams);
             transcoder.transcode(handler);
         }
     }
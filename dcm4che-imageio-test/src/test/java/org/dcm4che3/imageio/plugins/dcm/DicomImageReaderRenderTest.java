@@ -0,0 +1,169 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.imageio.plugins.dcm;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.image.LookupTable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class DicomImageReaderRenderTest {
+
+    private static final int[] STORED_12 = { 0, 950, 1000, 4095 };
+    // linear VOI function of window center 1000 and width 100: ((1000 - 999.5) / 99 + 0.5) * 255 = 128.79
+    private static final int[] RENDERED_12 = { 0, 0, 129, 255 };
+
+    private DicomImageReader reader;
+
+    @Before
+    public void setUp() {
+        reader = (DicomImageReader) ImageIO.getImageReadersByFormatName("DICOM").next();
+    }
+
+    @After
+    public void tearDown() {
+        reader.dispose();
+    }
+
+    @Test
+    public void testCreateLUT() throws Exception {
+        reader.setInput(gray12("1000", "100"));
+        Raster raster = reader.readRaster(0, null);
+        LookupTable lut = reader.createLUT(raster, 0, null, 8);
+        WritableRaster dest = raster.createCompatibleWritableRaster();
+        lut.lookup(raster, dest);
+        assertArrayEquals(RENDERED_12, dest.getPixels(0, 0, 2, 2, (int[]) null));
+    }
+
+    @Test
+    public void testCreateLUTWithWindowOfParam() throws Exception {
+        reader.setInput(gray12("2000", "100"));
+        DicomImageReadParam param = new DicomImageReadParam();
+        param.setWindowCenter(1000);
+        param.setWindowWidth(100);
+        Raster raster = reader.readRaster(0, null);
+        LookupTable lut = reader.createLUT(raster, 0, param, 8);
+        WritableRaster dest = raster.createCompatibleWritableRaster();
+        lut.lookup(raster, dest);
+        assertArrayEquals(RENDERED_12, dest.getPixels(0, 0, 2, 2, (int[]) null));
+    }
+
+    @Test
+    public void testReadGray() throws Exception {
+        reader.setInput(gray12("1000", "100"));
+        BufferedImage bi = reader.read(0, null);
+        assertEquals(1, bi.getColorModel().getNumComponents());
+        assertEquals(DataBuffer.TYPE_BYTE, bi.getRaster().getDataBuffer().getDataType());
+        assertArrayEquals(RENDERED_12, bi.getRaster().getPixels(0, 0, 2, 2, (int[]) null));
+    }
+
+    @Test
+    public void testReadPalette() throws Exception {
+        reader.setInput(palette());
+        BufferedImage bi = reader.read(0, null);
+        int[] rgb = bi.getRGB(0, 0, 2, 2, null, 0, 2);
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] &= 0xffffff;
+        assertArrayEquals(new int[] { 0x000000, 0xff0000, 0x00ff00, 0x0000ff }, rgb);
+    }
+
+    private static DicomMetaData gray12(String windowCenter, String windowWidth) {
+        Attributes attrs = imagePixel(1, "MONOCHROME2", 16, 12);
+        attrs.setString(Tag.WindowCenter, VR.DS, windowCenter);
+        attrs.setString(Tag.WindowWidth, VR.DS, windowWidth);
+        byte[] pixelData = new byte[STORED_12.length * 2];
+        for (int i = 0; i < STORED_12.length; i++) {
+            pixelData[i * 2] = (byte) STORED_12[i];
+            pixelData[i * 2 + 1] = (byte) (STORED_12[i] >> 8);
+        }
+        attrs.setBytes(Tag.PixelData, VR.OW, pixelData);
+        return new DicomMetaData(fmi(), attrs);
+    }
+
+    private static DicomMetaData palette() {
+        Attributes attrs = imagePixel(1, "PALETTE COLOR", 8, 8);
+        attrs.setInt(Tag.RedPaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setInt(Tag.GreenPaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setInt(Tag.BluePaletteColorLookupTableDescriptor, VR.US, 4, 0, 8);
+        attrs.setBytes(Tag.RedPaletteColorLookupTableData, VR.OW, new byte[] { 0, (byte) 0xff, 0, 0 });
+        attrs.setBytes(Tag.GreenPaletteColorLookupTableData, VR.OW, new byte[] { 0, 0, (byte) 0xff, 0 });
+        attrs.setBytes(Tag.BluePaletteColorLookupTableData, VR.OW, new byte[] { 0, 0, 0, (byte) 0xff });
+        attrs.setBytes(Tag.PixelData, VR.OB, new byte[] { 0, 1, 2, 3 });
+        return new DicomMetaData(fmi(), attrs);
+    }
+
+    private static Attributes imagePixel(int samples, String pmi, int bitsAllocated, int bitsStored) {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setInt(Tag.SamplesPerPixel, VR.US, samples);
+        attrs.setString(Tag.PhotometricInterpretation, VR.CS, pmi);
+        attrs.setInt(Tag.Rows, VR.US, 2);
+        attrs.setInt(Tag.Columns, VR.US, 2);
+        attrs.setInt(Tag.BitsAllocated, VR.US, bitsAllocated);
+        attrs.setInt(Tag.BitsStored, VR.US, bitsStored);
+        attrs.setInt(Tag.HighBit, VR.US, bitsStored - 1);
+        attrs.setInt(Tag.PixelRepresentation, VR.US, 0);
+        return attrs;
+    }
+
+    private static Attributes fmi() {
+        Attributes fmi = new Attributes();
+        fmi.setString(Tag.TransferSyntaxUID, VR.UI, UID.ExplicitVRLittleEndian);
+        return fmi;
+    }
+}
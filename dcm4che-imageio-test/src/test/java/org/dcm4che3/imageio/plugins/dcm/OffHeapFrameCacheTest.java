@@ -0,0 +1,120 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.imageio.plugins.dcm;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class OffHeapFrameCacheTest {
+
+    private static final String IUID = "1.2.3.4";
+
+    @Test
+    public void testRenderingKeyIncludesAddAutoWindow() {
+        DicomImageReadParam param = new DicomImageReadParam();
+        String key = param.getRenderingKey();
+        param.setAddAutoWindow(true);
+        assertNotEquals(key, param.getRenderingKey());
+    }
+
+    @Test
+    public void testGetFrame() {
+        OffHeapFrameCache cache = new OffHeapFrameCache(1024, 0);
+        cache.putFrame(IUID, 0, "", createGrayImage(new DataBufferUShort(new short[]{1, 2, 3, 4}, 4)));
+        assertNull(cache.getFrame(IUID, 1, ""));
+        BufferedImage bi = cache.getFrame(IUID, 0, "");
+        assertNotNull(bi);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, bi.getRaster().getPixels(0, 0, 2, 2, (int[]) null));
+        assertEquals(1, cache.getFrameHits());
+        assertEquals(1, cache.getFrameMisses());
+    }
+
+    @Test
+    public void testGetFrameWithDataBufferOffset() {
+        OffHeapFrameCache cache = new OffHeapFrameCache(1024, 0);
+        byte[] data = {9, 9, 1, 2, 3, 4};
+        cache.putFrame(IUID, 0, "", createGrayImage(new DataBufferByte(data, 4, 2)));
+        BufferedImage bi = cache.getFrame(IUID, 0, "");
+        assertArrayEquals(new int[]{1, 2, 3, 4}, bi.getRaster().getPixels(0, 0, 2, 2, (int[]) null));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        OffHeapFrameCache cache = new OffHeapFrameCache(8, 0);
+        cache.putFrame(IUID, 0, "", createGrayImage(new DataBufferByte(4)));
+        cache.putFrame(IUID, 1, "", createGrayImage(new DataBufferByte(4)));
+        assertNotNull(cache.getFrame(IUID, 0, ""));
+        cache.putFrame(IUID, 2, "", createGrayImage(new DataBufferByte(4)));
+        assertNotNull(cache.getFrame(IUID, 0, ""));
+        assertNull(cache.getFrame(IUID, 1, ""));
+        assertEquals(1, cache.getFrameEvictions());
+        assertEquals(8, cache.getFrameBytes());
+        cache.invalidate(IUID);
+        assertEquals(0, cache.getFrameCount());
+        assertEquals(0, cache.getFrameBytes());
+    }
+
+    private static BufferedImage createGrayImage(DataBuffer db) {
+        int bits = DataBuffer.getDataTypeSize(db.getDataType());
+        ComponentColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                new int[]{bits}, false, false, Transparency.OPAQUE, db.getDataType());
+        PixelInterleavedSampleModel sm = new PixelInterleavedSampleModel(db.getDataType(), 2, 2, 1, 2, new int[]{0});
+        WritableRaster raster = Raster.createWritableRaster(sm, db, null);
+        return new BufferedImage(cm, raster, false, null);
+    }
+}
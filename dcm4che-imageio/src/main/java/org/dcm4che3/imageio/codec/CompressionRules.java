@@ -42,10 +42,12 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Predicate;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.image.PhotometricInterpretation;
+import org.dcm4che3.util.ConditionIndex;
 
 
 /**
@@ -59,6 +61,8 @@ public class CompressionRules
     private final ArrayList<CompressionRule> list =
             new ArrayList<CompressionRule>();
 
+    private transient volatile ConditionIndex<CompressionRule> index;
+
     public void add(CompressionRule rule) {
         if (findByCommonName(rule.getCommonName()) != null)
             throw new IllegalStateException("CompressionRule with cn: '"
@@ -67,6 +71,7 @@ public class CompressionRules
         if (index < 0)
             index = -(index+1);
         list.add(index, rule);
+        this.index = null;
     }
 
     public void add(CompressionRules rules) {
@@ -75,10 +80,12 @@ public class CompressionRules
     }
 
     public boolean remove(CompressionRule ac) {
+        index = null;
         return list.remove(ac);
     }
 
     public void clear() {
+        index = null;
         list.clear();
     }
 
@@ -89,13 +96,35 @@ public class CompressionRules
         return null;
     }
 
-    public CompressionRule findCompressionRule(String aeTitle, ImageDescriptor imageDescriptor) {
-        for (CompressionRule ac : list)
-            if (ac.matchesCondition(aeTitle, imageDescriptor))
-                return ac;
-        return null;
+    public CompressionRule findCompressionRule(final String aeTitle, final ImageDescriptor imageDescriptor) {
+        return index().find(aeTitle, imageDescriptor.getSopClassUID(), new Predicate<CompressionRule>() {
+            @Override
+            public boolean test(CompressionRule rule) {
+                return rule.matchesCondition(aeTitle, imageDescriptor);
+            }
+        });
+    }
+
+    private ConditionIndex<CompressionRule> index() {
+        ConditionIndex<CompressionRule> index = this.index;
+        if (index == null)
+            this.index = index = new ConditionIndex<>(list, CONDITIONS);
+        return index;
     }
 
+    private static final ConditionIndex.Conditions<CompressionRule> CONDITIONS =
+            new ConditionIndex.Conditions<CompressionRule>() {
+                @Override
+                public String[] values1(CompressionRule rule) {
+                    return rule.getAETitles();
+                }
+
+                @Override
+                public String[] values2(CompressionRule rule) {
+                    return rule.getSOPClasses();
+                }
+            };
+
     @Override
     public Iterator<CompressionRule> iterator() {
         return list.iterator();
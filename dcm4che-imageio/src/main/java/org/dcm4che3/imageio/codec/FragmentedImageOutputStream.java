@@ -0,0 +1,203 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.imageio.codec;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.io.DicomOutputStream;
+
+import javax.imageio.stream.ImageOutputStreamImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Image output stream, which writes the compressed bit stream of one frame as sequence of Data Fragments of
+ * fixed size directly to the {@link DicomOutputStream}, so the whole compressed frame is never held in memory.
+ * Seeking back is only supported within the current - not yet written - fragment.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class FragmentedImageOutputStream extends ImageOutputStreamImpl
+        implements BytesWithImageImageDescriptor {
+
+    private final DicomOutputStream dos;
+    private final ImageDescriptor imageDescriptor;
+    private final byte[] buf;
+    private long bufStart;
+    private int bufLength;
+    private int fragments;
+
+    public FragmentedImageOutputStream(DicomOutputStream dos, ImageDescriptor imageDescriptor, int fragmentSize) {
+        if (fragmentSize <= 0 || (fragmentSize & 1) != 0)
+            throw new IllegalArgumentException("fragmentSize: " + fragmentSize);
+        this.dos = dos;
+        this.imageDescriptor = imageDescriptor;
+        this.buf = new byte[fragmentSize];
+    }
+
+    @Override
+    public ImageDescriptor getImageDescriptor() {
+        return imageDescriptor;
+    }
+
+    @Override
+    public ByteBuffer getBytes() throws IOException {
+        byte[] array = new byte[8192];
+        int length = 0;
+        int read;
+        while ((read = this.read(array, length, array.length - length)) > 0) {
+            if ((length += read) == array.length)
+                array = Arrays.copyOf(array, array.length << 1);
+        }
+        return ByteBuffer.wrap(array, 0, length);
+    }
+
+    public int getFragments() {
+        return fragments;
+    }
+
+    @Override
+    public long length() {
+        return bufStart + bufLength;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        checkClosed();
+        if (pos < bufStart)
+            throw new IOException("Cannot seek to already written fragment");
+        super.seek(pos);
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        long pos = streamPos - bufStart;
+        if (pos < 0)
+            throw new IOException("Cannot read already written fragment");
+        if (pos >= bufLength)
+            return -1;
+        streamPos++;
+        return buf[(int) pos] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        long pos = streamPos - bufStart;
+        if (pos < 0)
+            throw new IOException("Cannot read already written fragment");
+        if (pos >= bufLength)
+            return -1;
+        int n = Math.min(len, bufLength - (int) pos);
+        System.arraycopy(buf, (int) pos, b, off, n);
+        streamPos += n;
+        return n;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        flushBits();
+        int pos = bufferPosition();
+        buf[pos++] = (byte) b;
+        if (bufLength < pos)
+            bufLength = pos;
+        streamPos++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        flushBits();
+        while (len > 0) {
+            int pos = bufferPosition();
+            int n = Math.min(len, buf.length - pos);
+            System.arraycopy(b, off, buf, pos, n);
+            pos += n;
+            if (bufLength < pos)
+                bufLength = pos;
+            streamPos += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private int bufferPosition() throws IOException {
+        checkClosed();
+        if (streamPos < bufStart)
+            throw new IOException("Cannot write to already written fragment");
+        while (streamPos - bufStart >= buf.length) {
+            Arrays.fill(buf, bufLength, buf.length, (byte) 0);
+            writeFragment(buf.length);
+        }
+        return (int) (streamPos - bufStart);
+    }
+
+    private void writeFragment(int length) throws IOException {
+        dos.writeHeader(Tag.Item, null, length);
+        dos.write(buf, 0, length);
+        fragments++;
+        bufStart += length;
+        bufLength = 0;
+        if (flushedPos < bufStart)
+            flushedPos = bufStart;
+    }
+
+    /**
+     * Writes the remaining bytes of the frame as last Data Fragment, padded to even length.
+     *
+     * @return total length of the compressed frame, excluding padding
+     */
+    public long finish() throws IOException {
+        flushBits();
+        long length = bufStart + bufLength;
+        if (bufLength > 0 || fragments == 0) {
+            int fragmentLength = bufLength;
+            if ((fragmentLength & 1) != 0)
+                buf[fragmentLength++] = 0;
+            writeFragment(fragmentLength);
+        }
+        return length;
+    }
+}
@@ -50,6 +50,7 @@ import org.dcm4che3.imageio.codec.jpeg.PatchJPEGLSImageOutputStream;
 import org.dcm4che3.imageio.stream.EncapsulatedPixelDataImageInputStream;
 import org.dcm4che3.io.*;
 import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.FileChannelCache;
 import org.dcm4che3.util.Property;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StreamUtils;
@@ -125,6 +126,8 @@ public class Transcoder implements Closeable {
 
     private int avgPixelValueBlockSize = 1;
 
+    private int fragmentSize;
+
     private Attributes fileMetaInformation;
 
     private DicomOutputStream dos;
@@ -260,6 +263,25 @@ public class Transcoder implements Closeable {
         this.nullifyPixelData = nullifyPixelData;
     }
 
+    public int getFragmentSize() {
+        return fragmentSize;
+    }
+
+    /**
+     * Enables streaming of compressed frames as Data Fragments of at most {@code fragmentSize} bytes, so only one
+     * fragment of the compressed bit stream of a frame is held in memory at a time. Only effective for Transfer
+     * Syntaxes which permit a frame to span multiple fragments and if no verification of the compressed frames
+     * is configured by {@code maxPixelValueError}, which requires to re-read the whole compressed frame.
+     *
+     * @param fragmentSize maximal fragment size in bytes, must be even, or {@code 0} to encode each compressed
+     *                     frame in one Data Fragment
+     */
+    public void setFragmentSize(int fragmentSize) {
+        if (fragmentSize < 0 || (fragmentSize & 1) != 0)
+            throw new IllegalArgumentException("fragmentSize: " + fragmentSize);
+        this.fragmentSize = fragmentSize;
+    }
+
     public ImageDescriptor getImageDescriptor() {
         return imageDescriptor;
     }
@@ -376,8 +398,10 @@ public class Transcoder implements Closeable {
         if (closeInputStream)
             SafeClose.close(dis);
         if (deleteBulkDataFiles)
-            for (File tmpFile : dis.getBulkDataFiles())
+            for (File tmpFile : dis.getBulkDataFiles()) {
+                FileChannelCache.getDefault().evict(tmpFile.toPath());
                 tmpFile.delete();
+            }
         if (closeOutputStream && dos != null)
             dos.close();
     }
@@ -680,6 +704,15 @@ public class Transcoder implements Closeable {
     }
 
     private void compressFrame(int frameIndex) throws IOException {
+        if (fragmentSize > 0 && destTransferSyntaxType.mayFrameSpanMultipleFragments()) {
+            if (verifier == null) {
+                compressFrameToFragments(frameIndex);
+                return;
+            }
+            if (frameIndex == 0)
+                LOG.info("Verification of compressed frames requires to buffer each compressed frame"
+                        + " - ignore fragment size {}", fragmentSize);
+        }
         ExtMemoryCacheImageOutputStream ios = new ExtMemoryCacheImageOutputStream(compressorImageDescriptor);
         compressor.setOutput(compressorParam.patchJPEGLS != null
                 ? new PatchJPEGLSImageOutputStream(ios, compressorParam.patchJPEGLS)
@@ -701,6 +734,22 @@ public class Transcoder implements Closeable {
         ios.flush();
     }
 
+    private void compressFrameToFragments(int frameIndex) throws IOException {
+        FragmentedImageOutputStream ios =
+                new FragmentedImageOutputStream(dos, compressorImageDescriptor, fragmentSize);
+        compressor.setOutput(compressorParam.patchJPEGLS != null
+                ? new PatchJPEGLSImageOutputStream(ios, compressorParam.patchJPEGLS)
+                : ios);
+        long start = System.currentTimeMillis();
+        compressor.write(null, new IIOImage(bi, null, null), compressParam);
+        long length = ios.finish();
+        long end = System.currentTimeMillis();
+        if (LOG.isDebugEnabled())
+            LOG.debug("Compressed frame #{} in {} ms into {} fragments, ratio {}:1",
+                    frameIndex + 1, end - start, ios.getFragments(),
+                    (float) imageDescriptor.getFrameLength() / length);
+    }
+
     private void readFrame() throws IOException {
         initBufferedImage();
         WritableRaster raster = originalBi.getRaster();
@@ -41,6 +41,7 @@ package org.dcm4che3.imageio.plugins.dcm;
 import javax.imageio.ImageReadParam;
 
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -158,4 +159,36 @@ public class DicomImageReadParam extends ImageReadParam {
     public int[] getOverlayRGBPixelValue() {
         return new int[]{(overlayRGBValue >> 16) & 0xff, (overlayRGBValue >> 8) & 0xff, overlayRGBValue & 0xff};
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a key identifying the rendering parameters, used to lookup rendered frames in a {@link FrameCache}.
+     *
+     * @return rendering key or {@code null}, if the rendered frame shall not be cached, because a destination
+     *         image is specified or the Presentation State has no SOP Instance UID.
+     */
+    public String getRenderingKey() {
+        if (getDestination() != null || getDestinationType() != null)
+            return null;
+
+        String psuid = null;
+        if (presentationState != null
+                && (psuid = presentationState.getString(Tag.SOPInstanceUID)) == null)
+            return null;
+
+        StringBuilder sb = new StringBuilder(64);
+        if (psuid != null)
+            sb.append("ps=").append(psuid);
+        else if (windowWidth != 0)
+            sb.append("c=").append(windowCenter).append(",w=").append(windowWidth);
+        else
+            sb.append("window=").append(windowIndex)
+                    .append(",voilut=").append(voiLUTIndex)
+                    .append(",preferWindow=").append(preferWindow)
+                    .append(",auto=").append(autoWindowing)
+                    .append(",addAuto=").append(addAutoWindow);
+        return sb.append(",overlays=").append(Integer.toHexString(overlayActivationMask))
+                .append(",ovlygray=").append(Integer.toHexString(overlayGrayscaleValue))
+                .append(",ovlyrgb=").append(Integer.toHexString(overlayRGBValue))
+                .toString();
+    }
+}
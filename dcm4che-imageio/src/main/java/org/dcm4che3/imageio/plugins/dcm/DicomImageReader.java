@@ -66,6 +66,7 @@ import org.dcm4che3.data.Sequence;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.data.VR;
+import org.dcm4che3.image.ImageRenderer;
 import org.dcm4che3.image.LookupTable;
 import org.dcm4che3.image.LookupTableFactory;
 import org.dcm4che3.image.Overlays;
@@ -160,10 +161,38 @@ public class DicomImageReader extends ImageReader implements Closeable {
     private PhotometricInterpretation pmiAfterDecompression;
     private ImageDescriptor imageDescriptor;
 
+    private FrameCache frameCache;
+
+    private String iuid;
+
     public DicomImageReader(ImageReaderSpi originatingProvider) {
         super(originatingProvider);
     }
 
+    public FrameCache getFrameCache() {
+        return frameCache;
+    }
+
+    /**
+     * Set cache for parsed metadata and rendered frames, which is kept over changes of the input.
+     *
+     * @param frameCache frame cache or {@code null}
+     */
+    public void setFrameCache(FrameCache frameCache) {
+        this.frameCache = frameCache;
+    }
+
+    /**
+     * Specifies the SOP Instance UID of the current input, which allows to lookup the metadata from the
+     * {@link #setFrameCache frame cache} without parsing an {@link ImageInputStream} input. Must be invoked after
+     * {@link #setInput}.
+     *
+     * @param iuid SOP Instance UID of the current input
+     */
+    public void setSOPInstanceUID(String iuid) {
+        this.iuid = iuid;
+    }
+
     @Override
     public void setInput(Object input, boolean seekForwardOnly,
             boolean ignoreMetadata) {
@@ -446,6 +475,34 @@ public class DicomImageReader extends ImageReader implements Closeable {
         readMetadata();
         checkIndex(frameIndex);
 
+        String iuid = frameCache != null ? sopInstanceUID() : null;
+        String renderingKey = iuid != null ? renderingKey(param) : null;
+        if (renderingKey == null)
+            return readFrame(frameIndex, param);
+
+        BufferedImage bi = frameCache.getFrame(iuid, frameIndex, renderingKey);
+        if (bi == null) {
+            bi = readFrame(frameIndex, param);
+            frameCache.putFrame(iuid, frameIndex, renderingKey, bi);
+        }
+        return bi;
+    }
+
+    private String sopInstanceUID() {
+        return iuid != null ? iuid : metadata.getAttributes().getString(Tag.SOPInstanceUID);
+    }
+
+    private static String renderingKey(ImageReadParam param) {
+        if (param == null)
+            return "";
+
+        if (param instanceof DicomImageReadParam)
+            return ((DicomImageReadParam) param).getRenderingKey();
+
+        return param.getDestination() == null && param.getDestinationType() == null ? "" : null;
+    }
+
+    private BufferedImage readFrame(int frameIndex, ImageReadParam param) throws IOException {
         BufferedImage bi = null;
         WritableRaster raster;
         if (decompressor != null) {
@@ -470,35 +527,28 @@ public class DicomImageReader extends ImageReader implements Closeable {
             raster = (WritableRaster) readRaster(frameIndex, param);
         }
         int[] overlayGroupOffsets = getActiveOverlayGroupOffsets(param);
-        byte[][] overlayData = new byte[overlayGroupOffsets.length][];
-        if (bi == null) {
-            if (pmi.isMonochrome()) {
-                for (int i = 0; i < overlayGroupOffsets.length; i++) {
-                    overlayData[i] = extractOverlay(overlayGroupOffsets[i], raster);
-                }
-                SampleModel sm = createSampleModel(DataBuffer.TYPE_BYTE, false);
-                raster = applyLUTs(raster, frameIndex, param, sm, 8);
-                ColorModel cm = createColorModel(8, DataBuffer.TYPE_BYTE);
-                bi = new BufferedImage(cm, raster, false, null);
-            } else {
-                ColorModel cm = createColorModel(bitsStored, dataType);
-                bi = new BufferedImage(cm, raster, false, null);
-            }
-        }
-        if (overlayGroupOffsets.length > 0) {
-            if (!(bi.getColorModel() instanceof ComponentColorModel)) {
-                BufferedImage bi2 = new BufferedImage(width, height,
-                        pmi.isMonochrome() ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
-                Graphics2D graphics = bi2.createGraphics();
-                graphics.drawImage(bi, 0, 0, null);
-                graphics.dispose();
-                bi = bi2;
-            }
-            for (int i = 0; i < overlayGroupOffsets.length; i++) {
-                applyOverlay(overlayGroupOffsets[i], bi.getRaster(), frameIndex, param, 8, overlayData[i]);
+        if (bi != null && overlayGroupOffsets.length == 0)
+            return bi;
+
+        ImageRenderer renderer = new ImageRenderer();
+        if (bi == null && pmi.isMonochrome()) {
+            for (int gg0000 : overlayGroupOffsets) {
+                byte[] ovlyData = extractOverlay(gg0000, raster);
+                renderer.addOverlay(ovlyData != null ? 0 : frameIndex, overlayAttrs(gg0000, param), gg0000,
+                        overlayPixelValue(gg0000, param), ovlyData);
             }
+            renderer.setLookupTable(createLUT(raster, frameIndex, param, 8));
+            return renderer.render(raster, null);
         }
-        return bi;
+        if (overlayGroupOffsets.length == 0)
+            return new BufferedImage(createColorModel(bitsStored, dataType), raster, false, null);
+
+        for (int gg0000 : overlayGroupOffsets)
+            renderer.addOverlay(frameIndex, overlayAttrs(gg0000, param), gg0000,
+                    overlayPixelValue(gg0000, param), null);
+        return bi != null
+                ? renderer.render(bi.getRaster(), bi.getColorModel())
+                : renderer.render(raster, createColorModel(bitsStored, dataType));
     }
 
     private byte[] extractOverlay(int gg0000, WritableRaster raster) {
@@ -559,31 +609,34 @@ public class DicomImageReader extends ImageReader implements Closeable {
         }
     }
 
-    private void applyOverlay(int gg0000, WritableRaster raster,
-            int frameIndex, ImageReadParam param, int outBits, byte[] ovlyData) {
-        Attributes ovlyAttrs = metadata.getAttributes();
-        int[] pixelValue = null;
-        boolean monochrome = pmi.isMonochrome();
+    private Attributes overlayAttrs(int gg0000, ImageReadParam param) {
         if (param instanceof DicomImageReadParam) {
-            DicomImageReadParam dParam = (DicomImageReadParam) param;
-            Attributes psAttrs = dParam.getPresentationState();
-            if (psAttrs != null) {
-                if (psAttrs.containsValue(Tag.OverlayData | gg0000))
-                    ovlyAttrs = psAttrs;
-                pixelValue = monochrome
-                        ? Overlays.getRecommendedGrayscalePixelValue(psAttrs, gg0000, 8)
-                        : Overlays.getRecommendedRGBPixelValue(psAttrs, gg0000);
-            }
-            if (pixelValue == null)
-                pixelValue = monochrome
-                        ? new int[] { dParam.getOverlayGrayscaleValue() >> 8 }
-                        : dParam.getOverlayRGBPixelValue();
-        } else {
-            pixelValue = monochrome
+            Attributes psAttrs = ((DicomImageReadParam) param).getPresentationState();
+            if (psAttrs != null && psAttrs.containsValue(Tag.OverlayData | gg0000))
+                return psAttrs;
+        }
+        return metadata.getAttributes();
+    }
+
+    private int[] overlayPixelValue(int gg0000, ImageReadParam param) {
+        boolean monochrome = pmi.isMonochrome();
+        if (!(param instanceof DicomImageReadParam))
+            return monochrome
                     ? new int[] { 0xff }
                     : new int[] { 0xff, 0xff, 0xff } ;
-        }
-        Overlays.applyOverlay(ovlyData != null ? 0 : frameIndex, raster, ovlyAttrs, gg0000, pixelValue, ovlyData);
+
+        DicomImageReadParam dParam = (DicomImageReadParam) param;
+        Attributes psAttrs = dParam.getPresentationState();
+        int[] pixelValue = null;
+        if (psAttrs != null)
+            pixelValue = monochrome
+                    ? Overlays.getRecommendedGrayscalePixelValue(psAttrs, gg0000, 8)
+                    : Overlays.getRecommendedRGBPixelValue(psAttrs, gg0000);
+        if (pixelValue == null)
+            pixelValue = monochrome
+                    ? new int[] { dParam.getOverlayGrayscaleValue() >> 8 }
+                    : dParam.getOverlayRGBPixelValue();
+        return pixelValue;
     }
 
     private int[] getActiveOverlayGroupOffsets(ImageReadParam param) {
@@ -602,12 +655,18 @@ public class DicomImageReader extends ImageReader implements Closeable {
                 0xffff);
     }
 
-    private WritableRaster applyLUTs(WritableRaster raster,
-            int frameIndex, ImageReadParam param, SampleModel sm, int outBits) {
-         WritableRaster destRaster =
-                sm.getDataType() == raster.getSampleModel().getDataType()
-                        ? raster
-                        : Raster.createWritableRaster(sm, null);
+    /**
+     * Create combined Modality, VOI and Presentation LUT for rendering the specified frame of a monochrome image.
+     *
+     * @param raster raster of the frame as returned by {@link #readRaster}; only used for auto-windowing
+     * @param frameIndex index of the frame
+     * @param param specifies Window or VOI LUT and Presentation State; may be {@code null}
+     * @param outBits bits of the LUT output
+     * @return combined LUT
+     */
+    public LookupTable createLUT(Raster raster, int frameIndex, ImageReadParam param, int outBits)
+            throws IOException {
+        readMetadata();
         Attributes imgAttrs = metadata.getAttributes();
         StoredValue sv = StoredValue.valueOf(imgAttrs);
         LookupTableFactory lutParam = new LookupTableFactory(sv);
@@ -647,9 +706,7 @@ public class DicomImageReader extends ImageReader implements Closeable {
                 lutParam.autoWindowing(imgAttrs, raster, dParam.isAddAutoWindow());
             lutParam.setPresentationLUT(imgAttrs);
         }
-        LookupTable lut = lutParam.createLUT(outBits);
-        lut.lookup(raster, destRaster);
-        return destRaster;
+        return lutParam.createLUT(outBits);
     }
 
     private Attributes selectFctGroup(Attributes imgAttrs,
@@ -712,6 +769,21 @@ public class DicomImageReader extends ImageReader implements Closeable {
         if (iis == null)
             throw new IllegalStateException("Input not set");
 
+        if (frameCache != null && iuid != null) {
+            DicomMetaData cached = frameCache.getMetaData(iuid);
+            if (cached != null) {
+                Attributes ds = new Attributes(cached.getAttributes());
+                initPixelDataFromAttributes(ds);
+                if (pixelDataFragments != null) {
+                    // offsets and lengths of fragments get updated on reading frames
+                    pixelDataFragments = copyOf(pixelDataFragments);
+                    ds.remove(Tag.PixelData);
+                }
+                setMetadata(new DicomMetaData(cached.getFileMetaInformation(), ds));
+                return;
+            }
+        }
+
         DicomInputStream dis = new DicomInputStream(new ImageInputStreamAdapter(iis));
         dis.setIncludeBulkData(IncludeBulkData.URI);
         dis.setBulkDataDescriptor(BulkDataDescriptor.PIXELDATA);
@@ -729,6 +801,30 @@ public class DicomImageReader extends ImageReader implements Closeable {
         }
         setMetadata(new DicomMetaData(fmi, ds));
         initPixelDataIIS(dis);
+        if (frameCache != null) {
+            String iuid = sopInstanceUID();
+            if (iuid != null)
+                frameCache.putMetaData(iuid, metadataToCache());
+        }
+    }
+
+    private DicomMetaData metadataToCache() {
+        Attributes ds = new Attributes(metadata.getAttributes());
+        if (pixelDataFragments != null)
+            ds.setValue(Tag.PixelData, pixelDataVR, copyOf(pixelDataFragments));
+        ds.setReadOnly();
+        return new DicomMetaData(metadata.getFileMetaInformation(), ds);
+    }
+
+    private static Fragments copyOf(Fragments src) {
+        Fragments dst = new Fragments(src.vr(), src.bigEndian(), src.size());
+        for (Object frag : src)
+            dst.add(frag instanceof BulkData ? copyOf((BulkData) frag) : frag);
+        return dst;
+    }
+
+    private static BulkData copyOf(BulkData src) {
+        return new BulkData(src.uriWithoutOffsetAndLength(), src.offset(), src.length(), src.bigEndian());
     }
 
     /** Initializes the pixel data reading from an image input stream */
@@ -860,6 +956,7 @@ public class DicomImageReader extends ImageReader implements Closeable {
         }
         patchJpegLS = null;
         pmi = null;
+        iuid = null;
     }
 
     private void checkIndex(int frameIndex) {
@@ -0,0 +1,331 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.imageio.plugins.dcm;
+
+import java.awt.image.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link FrameCache} keeping the sample data of rendered frames in direct byte buffers outside of the Java heap.
+ * Frames are evicted in least recently used order if the sum of their sample data exceeds the configured
+ * maximal size. Metadata is kept on the heap and evicted in least recently used order if the number of cached
+ * entries exceeds the configured maximal number.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class OffHeapFrameCache implements FrameCache {
+
+    private final long maxFrameBytes;
+    private final int maxMetaData;
+    private final LinkedHashMap<FrameKey, Frame> frames = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, DicomMetaData> metadata;
+    private long frameBytes;
+    private long frameHits;
+    private long frameMisses;
+    private long frameEvictions;
+    private long metaDataHits;
+    private long metaDataMisses;
+
+    public OffHeapFrameCache(long maxFrameBytes, final int maxMetaData) {
+        if (maxFrameBytes < 0)
+            throw new IllegalArgumentException("maxFrameBytes: " + maxFrameBytes);
+        if (maxMetaData < 0)
+            throw new IllegalArgumentException("maxMetaData: " + maxMetaData);
+        this.maxFrameBytes = maxFrameBytes;
+        this.maxMetaData = maxMetaData;
+        this.metadata = new LinkedHashMap<String, DicomMetaData>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DicomMetaData> eldest) {
+                return size() > maxMetaData;
+            }
+        };
+    }
+
+    public long getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    public int getMaxMetaData() {
+        return maxMetaData;
+    }
+
+    public synchronized long getFrameBytes() {
+        return frameBytes;
+    }
+
+    public synchronized int getFrameCount() {
+        return frames.size();
+    }
+
+    public synchronized long getFrameHits() {
+        return frameHits;
+    }
+
+    public synchronized long getFrameMisses() {
+        return frameMisses;
+    }
+
+    public synchronized long getFrameEvictions() {
+        return frameEvictions;
+    }
+
+    public synchronized long getMetaDataHits() {
+        return metaDataHits;
+    }
+
+    public synchronized long getMetaDataMisses() {
+        return metaDataMisses;
+    }
+
+    public synchronized void resetStatistics() {
+        frameHits = 0;
+        frameMisses = 0;
+        frameEvictions = 0;
+        metaDataHits = 0;
+        metaDataMisses = 0;
+    }
+
+    @Override
+    public synchronized DicomMetaData getMetaData(String iuid) {
+        DicomMetaData result = metadata.get(iuid);
+        if (result != null)
+            metaDataHits++;
+        else
+            metaDataMisses++;
+        return result;
+    }
+
+    @Override
+    public synchronized void putMetaData(String iuid, DicomMetaData value) {
+        if (maxMetaData > 0)
+            metadata.put(iuid, value);
+    }
+
+    @Override
+    public BufferedImage getFrame(String iuid, int frameIndex, String renderingKey) {
+        Frame frame;
+        synchronized (this) {
+            frame = frames.get(new FrameKey(iuid, frameIndex, renderingKey));
+            if (frame == null) {
+                frameMisses++;
+                return null;
+            }
+            frameHits++;
+        }
+        return frame.toBufferedImage();
+    }
+
+    @Override
+    public void putFrame(String iuid, int frameIndex, String renderingKey, BufferedImage bi) {
+        Frame frame = Frame.valueOf(bi, maxFrameBytes);
+        if (frame == null)
+            return;
+
+        FrameKey key = new FrameKey(iuid, frameIndex, renderingKey);
+        synchronized (this) {
+            Frame prev = frames.put(key, frame);
+            if (prev != null)
+                frameBytes -= prev.size();
+            frameBytes += frame.size();
+            Iterator<Frame> iter = frames.values().iterator();
+            while (frameBytes > maxFrameBytes) {
+                frameBytes -= iter.next().size();
+                iter.remove();
+                frameEvictions++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String iuid) {
+        metadata.remove(iuid);
+        Iterator<Map.Entry<FrameKey, Frame>> iter = frames.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<FrameKey, Frame> entry = iter.next();
+            if (entry.getKey().iuid.equals(iuid)) {
+                frameBytes -= entry.getValue().size();
+                iter.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        metadata.clear();
+        frames.clear();
+        frameBytes = 0;
+    }
+
+    private static final class FrameKey {
+        final String iuid;
+        final int frameIndex;
+        final String renderingKey;
+
+        FrameKey(String iuid, int frameIndex, String renderingKey) {
+            this.iuid = iuid;
+            this.frameIndex = frameIndex;
+            this.renderingKey = renderingKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FrameKey)) return false;
+            FrameKey other = (FrameKey) o;
+            return frameIndex == other.frameIndex
+                    && iuid.equals(other.iuid)
+                    && renderingKey.equals(other.renderingKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return (iuid.hashCode() * 31 + frameIndex) * 31 + renderingKey.hashCode();
+        }
+    }
+
+    private static final class Frame {
+        final ColorModel cm;
+        final SampleModel sm;
+        final int dataType;
+        final int bankSize;
+        final int numBanks;
+        final ByteBuffer data;
+
+        private Frame(ColorModel cm, SampleModel sm, DataBuffer db, ByteBuffer data) {
+            this.cm = cm;
+            this.sm = sm;
+            this.dataType = db.getDataType();
+            this.bankSize = db.getSize();
+            this.numBanks = db.getNumBanks();
+            this.data = data;
+        }
+
+        static Frame valueOf(BufferedImage bi, long maxFrameBytes) {
+            WritableRaster raster = bi.getRaster();
+            if (raster.getParent() != null
+                    || raster.getSampleModelTranslateX() != 0
+                    || raster.getSampleModelTranslateY() != 0)
+                return null;
+
+            DataBuffer db = raster.getDataBuffer();
+            if (db.getDataType() > DataBuffer.TYPE_INT)
+                return null;
+
+            int bytesPerElement = DataBuffer.getDataTypeSize(db.getDataType()) >> 3;
+            long size = (long) db.getSize() * db.getNumBanks() * bytesPerElement;
+            if (size > maxFrameBytes)
+                return null;
+
+            // only the db.getSize() elements starting at the offset of each bank are copied,
+            // so the restored DataBuffer has zero offsets
+            int len = db.getSize();
+            int[] offsets = db.getOffsets();
+            ByteBuffer data = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+            for (int bank = 0; bank < db.getNumBanks(); bank++) {
+                int off = offsets[bank];
+                switch (db.getDataType()) {
+                    case DataBuffer.TYPE_BYTE:
+                        data.put(((DataBufferByte) db).getData(bank), off, len);
+                        break;
+                    case DataBuffer.TYPE_USHORT:
+                        data.asShortBuffer().put(((DataBufferUShort) db).getData(bank), off, len);
+                        data.position(data.position() + (len << 1));
+                        break;
+                    case DataBuffer.TYPE_SHORT:
+                        data.asShortBuffer().put(((DataBufferShort) db).getData(bank), off, len);
+                        data.position(data.position() + (len << 1));
+                        break;
+                    default:
+                        data.asIntBuffer().put(((DataBufferInt) db).getData(bank), off, len);
+                        data.position(data.position() + (len << 2));
+                }
+            }
+            return new Frame(bi.getColorModel(), raster.getSampleModel(), db, data);
+        }
+
+        long size() {
+            return data.capacity();
+        }
+
+        BufferedImage toBufferedImage() {
+            ByteBuffer src = data.duplicate().order(data.order());
+            src.clear();
+            DataBuffer db;
+            switch (dataType) {
+                case DataBuffer.TYPE_BYTE:
+                    byte[][] bs = new byte[numBanks][bankSize];
+                    for (byte[] b : bs)
+                        src.get(b);
+                    db = new DataBufferByte(bs, bankSize);
+                    break;
+                case DataBuffer.TYPE_USHORT:
+                    db = new DataBufferUShort(getShorts(src), bankSize);
+                    break;
+                case DataBuffer.TYPE_SHORT:
+                    db = new DataBufferShort(getShorts(src), bankSize);
+                    break;
+                default:
+                    int[][] is = new int[numBanks][bankSize];
+                    for (int[] i : is) {
+                        src.asIntBuffer().get(i);
+                        src.position(src.position() + (bankSize << 2));
+                    }
+                    db = new DataBufferInt(is, bankSize);
+            }
+            return new BufferedImage(cm, Raster.createWritableRaster(sm, db, null), false, null);
+        }
+
+        private short[][] getShorts(ByteBuffer src) {
+            short[][] ss = new short[numBanks][bankSize];
+            for (short[] s : ss) {
+                src.asShortBuffer().get(s);
+                src.position(src.position() + (bankSize << 1));
+            }
+            return ss;
+        }
+    }
+}
@@ -105,6 +105,20 @@ public class JSONWriter implements DicomInputHandler {
         gen.writeEnd();
     }
 
+    /**
+     * Writes the Data Set while it is read from the specified input stream,
+     * without accumulating its attributes in memory. Bulk data is written as
+     * {@code BulkDataURI}, if the input stream is configured with
+     * {@link DicomInputStream.IncludeBulkData#URI}.
+     *
+     * @param dis the input stream to read the Data Set from
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(DicomInputStream dis) throws IOException {
+        dis.setDicomInputHandler(this);
+        dis.readDataset(-1, -1);
+    }
+
     private void writeAttribute(int tag, VR vr, Object value,
             SpecificCharacterSet cs, Attributes attrs) {
         if (TagUtils.isGroupLength(tag))
@@ -172,7 +186,7 @@ public class JSONWriter implements DicomInputHandler {
                     gen.writeEnd();
             } else if (len > 0) {
                 if (dis.isIncludeBulkDataURI()) {
-                    writeBulkData(dis.createBulkData(dis));
+                    writeBulkData(dis);
                 } else {
                     byte[] b = dis.readValue();
                     if (tag == Tag.TransferSyntaxUID
@@ -344,6 +358,16 @@ public class JSONWriter implements DicomInputHandler {
         gen.write("BulkDataURI", replaceBulkDataURI != null ? replaceBulkDataURI : blkdata.getURI());
     }
 
+    private void writeBulkData(DicomInputStream dis) throws IOException {
+        if (replaceBulkDataURI != null) {
+            // no need to spool the value to a bulk data file
+            dis.skipFully(dis.length());
+            gen.write("BulkDataURI", replaceBulkDataURI);
+        } else {
+            writeBulkData(dis.createBulkData(dis));
+        }
+    }
+
     @Override
     public void readValue(DicomInputStream dis, Sequence seq)
             throws IOException {
@@ -354,6 +378,8 @@ public class JSONWriter implements DicomInputHandler {
         }
         gen.writeStartObject();
         dis.readValue(dis, seq);
+        // already written - do not keep previous items in memory
+        seq.remove(seq.size() - 1);
         gen.writeEnd();
     }
 
@@ -376,7 +402,7 @@ public class JSONWriter implements DicomInputHandler {
         else {
             gen.writeStartObject();
             if (dis.isIncludeBulkDataURI()) {
-                writeBulkData(dis.createBulkData(dis));
+                writeBulkData(dis);
             } else {
                 writeInlineBinary(frags.vr(), dis.readValue(), 
                         dis.bigEndian(), false);
@@ -0,0 +1,792 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.json;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.data.PersonName.Group;
+import org.dcm4che3.util.Base64;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParsingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Reads Data Sets in the DICOM JSON Model (PS3.18 Annex F) from UTF-8 encoded bytes, using a hand-written
+ * tokenizer instead of the {@code javax.json} parser abstraction. Numeric values of binary VRs are decoded
+ * directly into primitive arrays. Otherwise behaves like {@link JSONReader}.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class UTF8JSONReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UTF8JSONReader.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int VR_KEY = 0;
+    private static final int VALUE_KEY = 1;
+    private static final int INLINE_BINARY_KEY = 2;
+    private static final int BULK_DATA_URI_KEY = 3;
+    private static final int DATA_FRAGMENT_KEY = 4;
+    private static final String[] KEYS = { "vr", "Value", "InlineBinary", "BulkDataURI", "DataFragment" };
+    private static final Group[] GROUPS = Group.values();
+    private static final VR[] VRS = new VR[26 * 26];
+    static {
+        for (VR vr : VR.values()) {
+            int code = vr.code();
+            VRS[((code >> 8) - 'A') * 26 + (code & 0xff) - 'A'] = vr;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] buf;
+    private int pos;
+    private int limit;
+    private long offset;
+    private char[] cbuf = new char[64];
+    private int clen;
+    private boolean skipBulkDataURI;
+    private Attributes fmi;
+    private int level = -1;
+    private final ByteArrayOutputStream bout = new ByteArrayOutputStream(64);
+    private final EnumMap<Group, String> pnGroups = new EnumMap<>(Group.class);
+
+    public UTF8JSONReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public UTF8JSONReader(InputStream in, int bufferSize) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.in = in;
+        this.buf = new byte[bufferSize];
+    }
+
+    public boolean isSkipBulkDataURI() {
+        return skipBulkDataURI;
+    }
+
+    public void setSkipBulkDataURI(boolean skipBulkDataURI) {
+        this.skipBulkDataURI = skipBulkDataURI;
+    }
+
+    public Attributes getFileMetaInformation() {
+        return fmi;
+    }
+
+    public Attributes readDataset(Attributes attrs) throws IOException {
+        int c = nextToken();
+        boolean wrappedInArray = c == '[';
+        if (wrappedInArray)
+            c = nextToken();
+        expect(c, '{');
+        if (attrs == null) {
+            attrs = new Attributes();
+        }
+        fmi = null;
+        doReadDataset(attrs);
+        if (wrappedInArray)
+            expect(nextToken(), ']');
+        return attrs;
+    }
+
+    public void readDatasets(JSONReader.Callback callback) throws IOException {
+        expect(nextToken(), '[');
+        int c = nextToken();
+        while (c == '{') {
+            fmi = null;
+            Attributes attrs = new Attributes();
+            doReadDataset(attrs);
+            callback.onDataset(fmi, attrs);
+            if ((c = nextToken()) == ',')
+                c = nextToken();
+        }
+        expect(c, ']');
+    }
+
+    private Attributes doReadDataset(Attributes attrs) throws IOException {
+        int c = nextToken();
+        if (c == '}') {
+            attrs.trimToSize();
+            return attrs;
+        }
+        expect(c, '"');
+        readChars();
+        return readDatasetFromKey(attrs);
+    }
+
+    private Attributes readDatasetFromKey(Attributes attrs) throws IOException {
+        level++;
+        for (;;) {
+            int tag = parseTag();
+            expect(nextToken(), ':');
+            readAttribute(attrs, tag);
+            int c = nextToken();
+            if (c == '}')
+                break;
+            expect(c, ',');
+            expect(nextToken(), '"');
+            readChars();
+        }
+        attrs.trimToSize();
+        level--;
+        return attrs;
+    }
+
+    private void readAttribute(Attributes attrs, int tag) throws IOException {
+        if (level == 0 && TagUtils.isFileMetaInformation(tag)) {
+            if (fmi == null)
+                fmi = new Attributes();
+            attrs = fmi;
+        }
+        expect(nextToken(), '{');
+        Element el = new Element();
+        int c = nextToken();
+        while (c != '}') {
+            expect(c, '"');
+            readChars();
+            int key = matchKey(KEYS);
+            expect(nextToken(), ':');
+            switch (key) {
+                case VR_KEY:
+                    el.vr = readVR();
+                    break;
+                case VALUE_KEY:
+                    readValues(el);
+                    break;
+                case INLINE_BINARY_KEY:
+                    el.bytes = readInlineBinary();
+                    break;
+                case BULK_DATA_URI_KEY:
+                    el.bulkDataURI = readStringValue();
+                    break;
+                case DATA_FRAGMENT_KEY:
+                    el.values = readDataFragments();
+                    break;
+                default:
+                    throw parsingException("Unexpected \"" + new String(cbuf, 0, clen)
+                            + "\", expected \"Value\" or \"InlineBinary\""
+                            + " or \"BulkDataURI\" or  \"DataFragment\"");
+            }
+            if ((c = nextToken()) == ',')
+                c = nextToken();
+        }
+        if (el.vr == null)
+            throw parsingException("Missing property: vr");
+
+        if (el.isEmpty())
+            attrs.setNull(tag, el.vr);
+        else if (el.bulkDataURI != null) {
+            if (!skipBulkDataURI)
+                attrs.setValue(tag, el.vr, new BulkData(null, el.bulkDataURI, false));
+        } else switch (el.vr) {
+            case AE:
+            case AS:
+            case AT:
+            case CS:
+            case DA:
+            case DS:
+            case DT:
+            case LO:
+            case LT:
+            case PN:
+            case IS:
+            case SH:
+            case ST:
+            case TM:
+            case UC:
+            case UI:
+            case UR:
+            case UT:
+                attrs.setString(tag, el.vr, el.toStrings());
+                break;
+            case FL:
+            case FD:
+                attrs.setDouble(tag, el.vr, el.toDoubles());
+                break;
+            case SL:
+            case SS:
+            case UL:
+            case US:
+                attrs.setInt(tag, el.vr, el.toInts());
+                break;
+            case SQ:
+                el.toItems(attrs.newSequence(tag, el.values.size()));
+                break;
+            case OB:
+            case OD:
+            case OF:
+            case OL:
+            case OW:
+            case UN:
+                if (el.bytes != null)
+                    attrs.setBytes(tag, el.vr, el.bytes);
+                else
+                    el.toFragments(attrs.newFragments(tag, el.vr, el.values.size()));
+        }
+    }
+
+    private VR readVR() throws IOException {
+        expect(nextToken(), '"');
+        readChars();
+        int i1, i2;
+        VR vr;
+        if (clen != 2
+                || (i1 = cbuf[0] - 'A') < 0 || i1 >= 26
+                || (i2 = cbuf[1] - 'A') < 0 || i2 >= 26
+                || (vr = VRS[i1 * 26 + i2]) == null)
+            throw parsingException("Invalid vr: " + new String(cbuf, 0, clen));
+        return vr;
+    }
+
+    private void readValues(Element el) throws IOException {
+        expect(nextToken(), '[');
+        int c = nextToken();
+        if (c == ']')
+            return;
+
+        VR vr = el.vr;
+        if (vr == VR.FL || vr == VR.FD)
+            el.doubles = new double[8];
+        else if (vr == VR.SL || vr == VR.SS || vr == VR.UL || vr == VR.US)
+            el.ints = new int[8];
+        else
+            el.values = new ArrayList<>();
+        for (;;) {
+            if (el.doubles != null)
+                el.addDouble(readDouble(c, vr));
+            else if (el.ints != null)
+                el.addInt(readInt(c));
+            else
+                el.values.add(readValue(c, vr));
+            if ((c = nextToken()) == ']')
+                break;
+            expect(c, ',');
+            c = nextToken();
+        }
+    }
+
+    private Object readValue(int c, VR vr) throws IOException {
+        switch (c) {
+            case '"':
+                return readString();
+            case '{':
+                return readItemOrPersonName(vr);
+            case 'n':
+                return readNull();
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                readNumber(c);
+                return new String(cbuf, 0, clen);
+        }
+        throw parsingException("Unexpected '" + (char) c + "'");
+    }
+
+    private double readDouble(int c, VR vr) throws IOException {
+        if (c == 'n') {
+            readNull();
+            LOG.info("decode {} null as NaN", vr);
+            return Double.NaN;
+        }
+        readNumber(c);
+        long l = parseLong(15);
+        double d = l != Long.MIN_VALUE ? l : Double.parseDouble(new String(cbuf, 0, clen));
+        if (d == -Double.MAX_VALUE) {
+            LOG.info("decode {} {} as -Infinity", vr, d);
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (d == Double.MAX_VALUE) {
+            LOG.info("decode {} {} as Infinity", vr, d);
+            return Double.POSITIVE_INFINITY;
+        }
+        return d;
+    }
+
+    private int readInt(int c) throws IOException {
+        if (c == 'n')
+            throw parsingException("Unexpected null");
+        readNumber(c);
+        long l = parseLong(18);
+        return (int) (l != Long.MIN_VALUE ? l : new BigDecimal(new String(cbuf, 0, clen)).longValue());
+    }
+
+    /**
+     * Returns the integer value of the number in {@code cbuf}, or {@code Long.MIN_VALUE} if it contains a
+     * fraction or exponent part or more than the specified number of digits.
+     */
+    private long parseLong(int maxDigits) {
+        boolean neg = cbuf[0] == '-';
+        int i = neg ? 1 : 0;
+        if (clen == i || clen - i > maxDigits)
+            return Long.MIN_VALUE;
+        long l = 0;
+        while (i < clen) {
+            int digit = cbuf[i++] - '0';
+            if (digit < 0 || digit > 9)
+                return Long.MIN_VALUE;
+            l = l * 10 + digit;
+        }
+        return neg ? (l != 0 ? -l : Long.MIN_VALUE) : l;
+    }
+
+    private String readNull() throws IOException {
+        if (readByte() != 'u' || readByte() != 'l' || readByte() != 'l')
+            throw parsingException("Expected null");
+        return null;
+    }
+
+    private void readNumber(int c) throws IOException {
+        clen = 0;
+        for (;;) {
+            switch (c) {
+                case '+':
+                case '-':
+                case '.':
+                case 'e':
+                case 'E':
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                    appendChar((char) c);
+                    if (pos == limit && !fill())
+                        return;
+                    c = buf[pos++];
+                    continue;
+            }
+            pos--;
+            return;
+        }
+    }
+
+    private Object readItemOrPersonName(VR vr) throws IOException {
+        int c = nextToken();
+        if (c == '}')
+            return null;
+
+        expect(c, '"');
+        readChars();
+        return vr == VR.SQ || vr == null && isTag()
+                ? readDatasetFromKey(new Attributes())
+                : readPersonNameFromKey();
+    }
+
+    private String readPersonNameFromKey() throws IOException {
+        pnGroups.clear();
+        for (;;) {
+            int group = matchKey(GROUPS);
+            if (group < 0)
+                throw parsingException("Unexpected \"" + new String(cbuf, 0, clen)
+                        + "\", expected \"Alphabetic\" or \"Ideographic\""
+                        + " or \"Phonetic\"");
+            expect(nextToken(), ':');
+            pnGroups.put(GROUPS[group], readStringValue());
+            int c = nextToken();
+            if (c == '}')
+                break;
+            expect(c, ',');
+            expect(nextToken(), '"');
+            readChars();
+        }
+        String s = pnGroups.get(Group.Alphabetic);
+        if (s != null && pnGroups.size() == 1)
+            return s;
+
+        StringBuilder sb = new StringBuilder(64);
+        if (s != null)
+            sb.append(s);
+
+        sb.append('=');
+        s = pnGroups.get(Group.Ideographic);
+        if (s != null)
+            sb.append(s);
+
+        s = pnGroups.get(Group.Phonetic);
+        if (s != null)
+            sb.append('=').append(s);
+
+        return sb.toString();
+    }
+
+    private List<Object> readDataFragments() throws IOException {
+        ArrayList<Object> list = new ArrayList<>();
+        expect(nextToken(), '[');
+        int c = nextToken();
+        while (c != ']') {
+            switch (c) {
+                case '{':
+                    list.add(readDataFragment());
+                    break;
+                case 'n':
+                    list.add(readNull());
+                    break;
+                default:
+                    throw parsingException("Unexpected '" + (char) c + "'");
+            }
+            if ((c = nextToken()) == ',')
+                c = nextToken();
+        }
+        return list;
+    }
+
+    private Object readDataFragment() throws IOException {
+        byte[] bytes = null;
+        String bulkDataURI = null;
+        int c = nextToken();
+        while (c != '}') {
+            expect(c, '"');
+            readChars();
+            int key = matchKey(KEYS);
+            expect(nextToken(), ':');
+            switch (key) {
+                case BULK_DATA_URI_KEY:
+                    bulkDataURI = readStringValue();
+                    break;
+                case INLINE_BINARY_KEY:
+                    bytes = readInlineBinary();
+                    break;
+                default:
+                    throw parsingException("Unexpected \"" + new String(cbuf, 0, clen)
+                            + "\", expected \"InlineBinary\""
+                            + " or \"BulkDataURI\"");
+            }
+            if ((c = nextToken()) == ',')
+                c = nextToken();
+        }
+        return bulkDataURI != null && !skipBulkDataURI
+                ? new BulkData(null, bulkDataURI, false)
+                : bytes;
+    }
+
+    private byte[] readInlineBinary() throws IOException {
+        expect(nextToken(), '"');
+        readChars();
+        bout.reset();
+        Base64.decode(cbuf, 0, clen, bout);
+        return bout.toByteArray();
+    }
+
+    private String readStringValue() throws IOException {
+        expect(nextToken(), '"');
+        return readString();
+    }
+
+    private String readString() throws IOException {
+        readChars();
+        return new String(cbuf, 0, clen);
+    }
+
+    private boolean isTag() {
+        if (clen != 8)
+            return false;
+        for (int i = 0; i < 8; i++)
+            if (Character.digit(cbuf[i], 16) < 0)
+                return false;
+        return true;
+    }
+
+    private int parseTag() {
+        int tag = 0;
+        for (int i = 0; i < clen; i++) {
+            int digit = Character.digit(cbuf[i], 16);
+            if (digit < 0 || i == 8)
+                throw parsingException("Invalid tag: " + new String(cbuf, 0, clen));
+            tag = (tag << 4) | digit;
+        }
+        return tag;
+    }
+
+    private int matchKey(Object[] keys) {
+        for (int i = 0; i < keys.length; i++)
+            if (equalsChars(keys[i].toString()))
+                return i;
+        return -1;
+    }
+
+    private boolean equalsChars(String key) {
+        if (key.length() != clen)
+            return false;
+        for (int i = 0; i < clen; i++)
+            if (key.charAt(i) != cbuf[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Decodes the remaining characters of a JSON string - after the opening quotation mark - into
+     * {@code cbuf[0..clen-1]}.
+     */
+    private void readChars() throws IOException {
+        clen = 0;
+        int b;
+        while ((b = readByte()) != '"') {
+            if (b == '\\') {
+                switch (b = readByte()) {
+                    case 'b':
+                        b = '\b';
+                        break;
+                    case 'f':
+                        b = '\f';
+                        break;
+                    case 'n':
+                        b = '\n';
+                        break;
+                    case 'r':
+                        b = '\r';
+                        break;
+                    case 't':
+                        b = '\t';
+                        break;
+                    case 'u':
+                        b = (hexDigit() << 12) | (hexDigit() << 8) | (hexDigit() << 4) | hexDigit();
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    default:
+                        throw parsingException("Invalid escape sequence: \\" + (char) b);
+                }
+                appendChar((char) b);
+            } else if (b >= 0) {
+                appendChar((char) b);
+            } else if ((b & 0xe0) == 0xc0) {
+                appendChar((char) (((b & 0x1f) << 6) | continuation()));
+            } else if ((b & 0xf0) == 0xe0) {
+                appendChar((char) (((b & 0x0f) << 12) | (continuation() << 6) | continuation()));
+            } else if ((b & 0xf8) == 0xf0) {
+                int cp = ((b & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                appendChar(Character.highSurrogate(cp));
+                appendChar(Character.lowSurrogate(cp));
+            } else {
+                throw parsingException("Invalid UTF-8 encoding");
+            }
+        }
+    }
+
+    private int continuation() throws IOException {
+        int b = readByte();
+        if ((b & 0xc0) != 0x80)
+            throw parsingException("Invalid UTF-8 encoding");
+        return b & 0x3f;
+    }
+
+    private int hexDigit() throws IOException {
+        int digit = Character.digit(readByte(), 16);
+        if (digit < 0)
+            throw parsingException("Invalid unicode escape sequence");
+        return digit;
+    }
+
+    private void appendChar(char c) {
+        if (clen == cbuf.length)
+            cbuf = Arrays.copyOf(cbuf, clen << 1);
+        cbuf[clen++] = c;
+    }
+
+    private int nextToken() throws IOException {
+        int b;
+        do {
+            b = readByte();
+        } while (b == ' ' || b == '\n' || b == '\r' || b == '\t');
+        return b;
+    }
+
+    private int readByte() throws IOException {
+        if (pos == limit && !fill())
+            throw parsingException("Unexpected end of input");
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        pos = limit = 0;
+        int n = in.read(buf);
+        if (n <= 0)
+            return false;
+        limit = n;
+        return true;
+    }
+
+    private void expect(int c, char expected) {
+        if (c != expected)
+            throw parsingException("Unexpected '" + (char) c + "', expected '" + expected + "'");
+    }
+
+    private JsonParsingException parsingException(String message) {
+        final long streamOffset = offset + pos;
+        return new JsonParsingException(message, new JsonLocation() {
+            @Override
+            public long getLineNumber() {
+                return -1L;
+            }
+
+            @Override
+            public long getColumnNumber() {
+                return -1L;
+            }
+
+            @Override
+            public long getStreamOffset() {
+                return streamOffset;
+            }
+
+            @Override
+            public String toString() {
+                return "(streamOffset:" + streamOffset + ")";
+            }
+        });
+    }
+
+    private static class Element {
+        VR vr;
+        List<Object> values;
+        double[] doubles;
+        int[] ints;
+        int size;
+        byte[] bytes;
+        String bulkDataURI;
+
+        boolean isEmpty() {
+            return size == 0 && (values == null || values.isEmpty())
+                    && (bytes == null || bytes.length == 0) && bulkDataURI == null;
+        }
+
+        void addDouble(double d) {
+            if (size == doubles.length)
+                doubles = Arrays.copyOf(doubles, size << 1);
+            doubles[size++] = d;
+        }
+
+        void addInt(int i) {
+            if (size == ints.length)
+                ints = Arrays.copyOf(ints, size << 1);
+            ints[size++] = i;
+        }
+
+        String[] toStrings() {
+            String[] ss = new String[values.size()];
+            for (int i = 0; i < ss.length; i++) {
+                Object value = values.get(i);
+                ss[i] = value != null ? value.toString() : null;
+            }
+            return ss;
+        }
+
+        double[] toDoubles() {
+            if (doubles != null)
+                return size == doubles.length ? doubles : Arrays.copyOf(doubles, size);
+
+            double[] ds = new double[values.size()];
+            for (int i = 0; i < ds.length; i++) {
+                Object value = values.get(i);
+                double d;
+                if (value == null) {
+                    LOG.info("decode {} null as NaN", vr);
+                    d = Double.NaN;
+                } else {
+                    d = Double.parseDouble(value.toString());
+                    if (d == -Double.MAX_VALUE) {
+                        LOG.info("decode {} {} as -Infinity", vr, d);
+                        d = Double.NEGATIVE_INFINITY;
+                    } else if (d == Double.MAX_VALUE) {
+                        LOG.info("decode {} {} as Infinity", vr, d);
+                        d = Double.POSITIVE_INFINITY;
+                    }
+                }
+                ds[i] = d;
+            }
+            return ds;
+        }
+
+        int[] toInts() {
+            if (ints != null)
+                return size == ints.length ? ints : Arrays.copyOf(ints, size);
+
+            int[] is = new int[values.size()];
+            for (int i = 0; i < is.length; i++) {
+                Object value = values.get(i);
+                is[i] = new BigDecimal(value.toString()).intValue();
+            }
+            return is;
+        }
+
+        void toItems(Sequence seq) {
+            for (Object value : values) {
+                seq.add(value != null ? (Attributes) value : new Attributes(0));
+            }
+        }
+
+        void toFragments(Fragments fragments) {
+            for (Object value : values) {
+                fragments.add(value);
+            }
+        }
+
+    }
+}
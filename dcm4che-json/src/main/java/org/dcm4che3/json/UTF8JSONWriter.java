@@ -0,0 +1,610 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.json;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.data.PersonName.Group;
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes Data Sets in the DICOM JSON Model (PS3.18 Annex F) as UTF-8 encoded bytes directly to an output
+ * stream, without the overhead of the {@code javax.json} generator abstraction. The output is identical to the
+ * output of {@link JSONWriter} using a non pretty-printing {@code JsonGenerator}.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class UTF8JSONWriter implements Flushable, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UTF8JSONWriter.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final byte[] HEX_DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+    private static final byte[] BASE64 = {
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P',
+            'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z', 'a', 'b', 'c', 'd', 'e', 'f',
+            'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v',
+            'w', 'x', 'y', 'z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/' };
+    private static final byte[] VR_ = bytes("\":{\"vr\":\"");
+    private static final byte[] VALUE = bytes("\",\"Value\":[");
+    private static final byte[] INLINE_BINARY = bytes("\",\"InlineBinary\":\"");
+    private static final byte[] BULK_DATA_URI = bytes("\",\"BulkDataURI\":\"");
+    private static final byte[] DATA_FRAGMENT = bytes("\",\"DataFragment\":[");
+    private static final byte[] FRAGMENT_INLINE_BINARY = bytes("{\"InlineBinary\":\"");
+    private static final byte[] FRAGMENT_BULK_DATA_URI = bytes("{\"BulkDataURI\":\"");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] MIN_INT = bytes(Long.toString(Long.MIN_VALUE));
+
+    private final OutputStream out;
+    private final byte[] buf;
+    private final char[] chars = new char[32];
+    private int count;
+    private boolean inArray;
+    private boolean comma;
+    private String replaceBulkDataURI;
+    private boolean first;
+    private final Attributes.Visitor visitor = new Attributes.Visitor() {
+        @Override
+        public boolean visit(Attributes attrs, int tag, VR vr, Object value) throws Exception {
+            if (!TagUtils.isGroupLength(tag)) {
+                if (!first)
+                    writeByte(',');
+                first = false;
+                writeAttribute(attrs, tag, vr, value);
+            }
+            return true;
+        }
+    };
+
+    public UTF8JSONWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public UTF8JSONWriter(OutputStream out, int bufferSize) {
+        if (bufferSize < 64)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.out = out;
+        this.buf = new byte[bufferSize];
+    }
+
+    public String getReplaceBulkDataURI() {
+        return replaceBulkDataURI;
+    }
+
+    public void setReplaceBulkDataURI(String replaceBulkDataURI) {
+        this.replaceBulkDataURI = replaceBulkDataURI;
+    }
+
+    public void writeStartArray() throws IOException {
+        if (inArray)
+            throw new IllegalStateException("Array already started");
+        writeComma();
+        writeByte('[');
+        inArray = true;
+        comma = false;
+    }
+
+    public void writeEndArray() throws IOException {
+        if (!inArray)
+            throw new IllegalStateException("No array started");
+        writeByte(']');
+        inArray = false;
+        comma = true;
+    }
+
+    public void write(Attributes attrs) throws IOException {
+        writeComma();
+        writeDataset(attrs);
+        comma = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeComma() throws IOException {
+        if (comma)
+            writeByte(',');
+    }
+
+    private void writeDataset(Attributes attrs) throws IOException {
+        writeByte('{');
+        boolean first0 = first;
+        first = true;
+        try {
+            attrs.accept(visitor, false);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        first = first0;
+        writeByte('}');
+    }
+
+    private void writeAttribute(Attributes attrs, int tag, VR vr, Object value) throws IOException {
+        boolean bigEndian = attrs.bigEndian();
+        ensure(9);
+        buf[count++] = '"';
+        writeHex(tag);
+        writeASCII(VR_);
+        ensure(2);
+        int code = vr.code();
+        buf[count++] = (byte) (code >> 8);
+        buf[count++] = (byte) code;
+        if (value instanceof Value) {
+            writeValue(vr, (Value) value, bigEndian);
+        } else {
+            writeValue(vr, value, bigEndian, attrs.getSpecificCharacterSet(vr));
+        }
+        writeByte('}');
+    }
+
+    private void writeValue(VR vr, Value value, boolean bigEndian) throws IOException {
+        if (value.isEmpty()) {
+            writeByte('"');
+            return;
+        }
+        if (value instanceof Sequence) {
+            writeASCII(VALUE);
+            boolean first = true;
+            for (Attributes item : (Sequence) value) {
+                if (!first)
+                    writeByte(',');
+                first = false;
+                writeDataset(item);
+            }
+            writeByte(']');
+        } else if (value instanceof Fragments) {
+            writeASCII(DATA_FRAGMENT);
+            Fragments frags = (Fragments) value;
+            boolean first = true;
+            for (Object frag : frags) {
+                if (!first)
+                    writeByte(',');
+                first = false;
+                if (frag == null || frag instanceof Value && ((Value) frag).isEmpty())
+                    writeASCII(NULL);
+                else if (frag instanceof BulkData) {
+                    writeASCII(FRAGMENT_BULK_DATA_URI);
+                    writeBulkDataURI((BulkData) frag);
+                    writeByte('}');
+                } else {
+                    writeASCII(FRAGMENT_INLINE_BINARY);
+                    writeBase64(bigEndian ? frags.vr().toggleEndian((byte[]) frag, true) : (byte[]) frag);
+                    writeByte('"');
+                    writeByte('}');
+                }
+            }
+            writeByte(']');
+        } else if (value instanceof BulkData) {
+            writeASCII(BULK_DATA_URI);
+            writeBulkDataURI((BulkData) value);
+        } else {
+            writeByte('"');
+        }
+    }
+
+    private void writeBulkDataURI(BulkData bulkData) throws IOException {
+        writeEscaped(replaceBulkDataURI != null ? replaceBulkDataURI : bulkData.getURI());
+        writeByte('"');
+    }
+
+    private void writeValue(VR vr, Object val, boolean bigEndian, SpecificCharacterSet cs) throws IOException {
+        switch (vr) {
+            case AT:
+                writeTagValues(vr, val, bigEndian);
+                break;
+            case AE:
+            case AS:
+            case CS:
+            case DA:
+            case DS:
+            case DT:
+            case IS:
+            case LO:
+            case LT:
+            case PN:
+            case SH:
+            case ST:
+            case TM:
+            case UC:
+            case UI:
+            case UR:
+            case UT:
+                writeStringValues(vr, val, bigEndian, cs);
+                break;
+            case FL:
+            case FD:
+                writeDoubleValues(vr, val, bigEndian);
+                break;
+            case SL:
+            case SS:
+            case US:
+                writeIntValues(vr, val, bigEndian, false);
+                break;
+            case UL:
+                writeIntValues(vr, val, bigEndian, true);
+                break;
+            case OB:
+            case OD:
+            case OF:
+            case OL:
+            case OW:
+            case UN:
+                writeASCII(INLINE_BINARY);
+                writeBase64(bigEndian ? vr.toggleEndian((byte[]) val, true) : (byte[]) val);
+                writeByte('"');
+                break;
+            default:
+                writeByte('"');
+        }
+    }
+
+    private void writeTagValues(VR vr, Object val, boolean bigEndian) throws IOException {
+        if (!(val instanceof byte[])) {
+            writeStringValues(vr, val, bigEndian, null);
+            return;
+        }
+        writeASCII(VALUE);
+        int vm = vr.vmOf(val);
+        for (int i = 0; i < vm; i++) {
+            ensure(11);
+            if (i > 0)
+                buf[count++] = ',';
+            buf[count++] = '"';
+            writeHex(vr.toInt(val, bigEndian, i, 0));
+            buf[count++] = '"';
+        }
+        writeByte(']');
+    }
+
+    private void writeStringValues(VR vr, Object val, boolean bigEndian, SpecificCharacterSet cs)
+            throws IOException {
+        writeASCII(VALUE);
+        Object o = vr.toStrings(val, bigEndian, cs);
+        if (o instanceof String[]) {
+            String[] ss = (String[]) o;
+            for (int i = 0; i < ss.length; i++) {
+                if (i > 0)
+                    writeByte(',');
+                writeStringValue(vr, ss[i]);
+            }
+        } else {
+            writeStringValue(vr, (String) o);
+        }
+        writeByte(']');
+    }
+
+    private void writeStringValue(VR vr, String s) throws IOException {
+        if (s == null || s.isEmpty()) {
+            writeASCII(NULL);
+            return;
+        }
+        switch (vr) {
+            case DS:
+                double d;
+                try {
+                    d = StringUtils.parseDS(s);
+                } catch (NumberFormatException e) {
+                    LOG.info("illegal DS value: {} - encoded as null", s);
+                    writeASCII(NULL);
+                    break;
+                }
+                writeDouble(d);
+                break;
+            case IS:
+                int i;
+                try {
+                    i = StringUtils.parseIS(s);
+                } catch (NumberFormatException e) {
+                    LOG.info("illegal IS value: {} - encoded as null", s);
+                    writeASCII(NULL);
+                    break;
+                }
+                writeLong(i);
+                break;
+            case PN:
+                writePersonName(s);
+                break;
+            default:
+                writeByte('"');
+                writeEscaped(s);
+                writeByte('"');
+        }
+    }
+
+    private void writePersonName(String s) throws IOException {
+        PersonName pn = new PersonName(s, true);
+        writeByte('{');
+        boolean first = true;
+        for (Group group : Group.values()) {
+            if (pn.contains(group)) {
+                if (!first)
+                    writeByte(',');
+                first = false;
+                writeByte('"');
+                writeASCII(group.name());
+                writeByte('"');
+                writeByte(':');
+                writeByte('"');
+                writeEscaped(pn.toString(group, true));
+                writeByte('"');
+            }
+        }
+        writeByte('}');
+    }
+
+    private void writeDoubleValues(VR vr, Object val, boolean bigEndian) throws IOException {
+        writeASCII(VALUE);
+        int vm = vr.vmOf(val);
+        for (int i = 0; i < vm; i++) {
+            if (i > 0)
+                writeByte(',');
+            double d = vr.toDouble(val, bigEndian, i, 0);
+            if (Double.isNaN(d)) {
+                LOG.info("encode {} NaN as null", vr);
+                writeASCII(NULL);
+            } else {
+                if (d == Double.POSITIVE_INFINITY) {
+                    d = Double.MAX_VALUE;
+                    LOG.info("encode {} Infinity as {}", vr, d);
+                } else if (d == Double.NEGATIVE_INFINITY) {
+                    d = -Double.MAX_VALUE;
+                    LOG.info("encode {} -Infinity as {}", vr, d);
+                }
+                writeDouble(d);
+            }
+        }
+        writeByte(']');
+    }
+
+    private void writeIntValues(VR vr, Object val, boolean bigEndian, boolean unsigned) throws IOException {
+        writeASCII(VALUE);
+        int vm = vr.vmOf(val);
+        for (int i = 0; i < vm; i++) {
+            if (i > 0)
+                writeByte(',');
+            int v = vr.toInt(val, bigEndian, i, 0);
+            writeLong(unsigned ? v & 0xffffffffL : v);
+        }
+        writeByte(']');
+    }
+
+    private void writeDouble(double d) throws IOException {
+        // integral values in the range, where Double.toString does not use the computerized scientific notation,
+        // are formatted without allocating a String
+        long l = (long) d;
+        if (l == d && l > -10000000L && l < 10000000L && (l != 0L || Double.doubleToRawLongBits(d) == 0L)) {
+            writeLong(l);
+            ensure(2);
+            buf[count++] = '.';
+            buf[count++] = '0';
+        } else {
+            writeASCII(Double.toString(d));
+        }
+    }
+
+    private void writeLong(long l) throws IOException {
+        if (l == Long.MIN_VALUE) {
+            writeASCII(MIN_INT);
+            return;
+        }
+        ensure(20);
+        if (l < 0) {
+            buf[count++] = '-';
+            l = -l;
+        }
+        int end = count + digits(l);
+        int pos = end;
+        do {
+            buf[--pos] = (byte) ('0' + (l % 10));
+            l /= 10;
+        } while (l != 0);
+        count = end;
+    }
+
+    private static int digits(long l) {
+        int n = 1;
+        while ((l /= 10) != 0)
+            n++;
+        return n;
+    }
+
+    private void writeHex(int tag) {
+        for (int shift = 28; shift >= 0; shift -= 4)
+            buf[count++] = HEX_DIGITS[(tag >>> shift) & 0xf];
+    }
+
+    private void writeBase64(byte[] src) throws IOException {
+        int n = src.length / 3;
+        int r = src.length - 3 * n;
+        int srcPos = 0;
+        byte b1, b2, b3;
+        while (n-- > 0) {
+            ensure(4);
+            buf[count++] = BASE64[((b1 = src[srcPos++]) >>> 2) & 0x3F];
+            buf[count++] = BASE64[((b1 & 0x03) << 4) | (((b2 = src[srcPos++]) >>> 4) & 0x0F)];
+            buf[count++] = BASE64[((b2 & 0x0F) << 2) | (((b3 = src[srcPos++]) >>> 6) & 0x03)];
+            buf[count++] = BASE64[b3 & 0x3F];
+        }
+        if (r > 0) {
+            ensure(4);
+            buf[count++] = BASE64[((b1 = src[srcPos++]) >>> 2) & 0x3F];
+            if (r == 1) {
+                buf[count++] = BASE64[((b1 & 0x03) << 4)];
+                buf[count++] = '=';
+            } else {
+                buf[count++] = BASE64[((b1 & 0x03) << 4) | (((b2 = src[srcPos]) >>> 4) & 0x0F)];
+                buf[count++] = BASE64[(b2 & 0x0F) << 2];
+            }
+            buf[count++] = '=';
+        }
+    }
+
+    private void writeEscaped(String s) throws IOException {
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                if (count == buf.length)
+                    flushBuffer();
+                buf[count++] = (byte) c;
+                continue;
+            }
+            ensure(6);
+            if (c < 0x80) {
+                buf[count++] = '\\';
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        buf[count++] = (byte) c;
+                        break;
+                    case '\b':
+                        buf[count++] = 'b';
+                        break;
+                    case '\f':
+                        buf[count++] = 'f';
+                        break;
+                    case '\n':
+                        buf[count++] = 'n';
+                        break;
+                    case '\r':
+                        buf[count++] = 'r';
+                        break;
+                    case '\t':
+                        buf[count++] = 't';
+                        break;
+                    default:
+                        buf[count++] = 'u';
+                        buf[count++] = '0';
+                        buf[count++] = '0';
+                        buf[count++] = (byte) (c < 0x10 ? '0' : '1');
+                        buf[count++] = (byte) Character.forDigit(c & 0xf, 16);
+                }
+            } else if (c < 0x800) {
+                buf[count++] = (byte) (0xc0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                int cp;
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    cp = Character.toCodePoint(c, s.charAt(++i));
+                    buf[count++] = (byte) (0xf0 | (cp >> 18));
+                    buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    buf[count++] = (byte) (0x80 | (cp & 0x3f));
+                } else {
+                    buf[count++] = '?';
+                }
+            } else {
+                buf[count++] = (byte) (0xe0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private void writeASCII(String s) throws IOException {
+        int len = s.length();
+        if (len > chars.length) {
+            for (int i = 0; i < len; i++)
+                writeByte(s.charAt(i));
+            return;
+        }
+        ensure(len);
+        s.getChars(0, len, chars, 0);
+        for (int i = 0; i < len; i++)
+            buf[count++] = (byte) chars[i];
+    }
+
+    private void writeASCII(byte[] b) throws IOException {
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, count, b.length);
+        count += b.length;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (count == buf.length)
+            flushBuffer();
+        buf[count++] = (byte) b;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (count + n > buf.length)
+            flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        byte[] b = new byte[s.length()];
+        for (int i = 0; i < b.length; i++)
+            b[i] = (byte) s.charAt(i);
+        return b;
+    }
+}
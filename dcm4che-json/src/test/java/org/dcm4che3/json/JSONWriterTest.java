@@ -40,6 +40,8 @@ package org.dcm4che3.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 
 import javax.json.Json;
@@ -50,7 +52,10 @@ import org.dcm4che3.data.BulkData;
 import org.dcm4che3.data.Fragments;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
+import org.dcm4che3.data.Sequence;
 import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
 import org.junit.Test;
 
 /**
@@ -129,4 +134,36 @@ public class JSONWriterTest {
         assertEquals(INFINITY_AND_NAN, writer.toString());
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        Attributes dataset = new Attributes();
+        dataset.setString(Tag.ImageType, VR.CS, "DERIVED", "PRIMARY");
+        Sequence seq = dataset.newSequence(Tag.SourceImageSequence, 3);
+        for (int i = 0; i < 3; i++) {
+            Attributes item = new Attributes(2);
+            seq.add(item);
+            item.setString(Tag.ReferencedSOPClassUID, VR.UI, UID.CTImageStorage);
+            item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, "1.2.3." + i);
+        }
+        dataset.setString(Tag.PatientName, VR.PN, "af^ag");
+        dataset.setDouble(Tag.FrameTime, VR.DS, 33.0);
+        dataset.setInt(Tag.SamplesPerPixel, VR.US, 1);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(null, dataset);
+        }
+        StringWriter expected = new StringWriter();
+        JsonGenerator gen = Json.createGenerator(expected);
+        new JSONWriter(gen).write(dataset);
+        gen.flush();
+        StringWriter writer = new StringWriter();
+        gen = Json.createGenerator(writer);
+        try (DicomInputStream dis = new DicomInputStream(
+                new ByteArrayInputStream(bout.toByteArray()), UID.ExplicitVRLittleEndian)) {
+            new JSONWriter(gen).write(dis);
+        }
+        gen.flush();
+        assertEquals(expected.toString(), writer.toString());
+    }
+
 }
@@ -0,0 +1,163 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.json;
+
+import org.dcm4che3.data.*;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class UTF8JSONWriterTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        Attributes dataset = dataset();
+        assertEquals(writeWithGenerator(dataset), write(dataset));
+    }
+
+    @Test
+    public void testReadWritten() throws Exception {
+        Attributes dataset = dataset();
+        String json = write(dataset);
+        Attributes parsed = new UTF8JSONReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).readDataset(null);
+        assertEquals(json, write(parsed));
+        assertArrayEquals(new int[] { 1, -1 }, parsed.getInts(Tag.OverlayOrigin));
+        assertArrayEquals(new double[] { 0.5, 33.0 }, parsed.getDoubles(Tag.PixelSpacing), 0);
+    }
+
+    @Test
+    public void testReadDatasetWrappedInArray() throws Exception {
+        Attributes parsed = new UTF8JSONReader(new ByteArrayInputStream(
+                "[ {\"00100020\":{\"vr\":\"LO\",\"Value\":[\"P1\"]}} ]".getBytes(StandardCharsets.UTF_8)))
+                .readDataset(null);
+        assertEquals("P1", parsed.getString(Tag.PatientID));
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testReadDatasetWrappedInArrayWithoutClosingBracket() throws Exception {
+        new UTF8JSONReader(new ByteArrayInputStream(
+                "[{\"00100020\":{\"vr\":\"LO\",\"Value\":[\"P1\"]}},{}]".getBytes(StandardCharsets.UTF_8)))
+                .readDataset(null);
+    }
+
+    @Test
+    public void testReadDatasets() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8JSONWriter writer = new UTF8JSONWriter(out);
+        writer.writeStartArray();
+        writer.write(dataset());
+        writer.write(new Attributes());
+        writer.write(dataset());
+        writer.writeEndArray();
+        writer.flush();
+        final int[] count = { 0 };
+        new UTF8JSONReader(new ByteArrayInputStream(out.toByteArray()), 64).readDatasets(
+                new JSONReader.Callback() {
+                    @Override
+                    public void onDataset(Attributes fmi, Attributes dataset) {
+                        count[0]++;
+                    }
+                });
+        assertEquals(3, count[0]);
+    }
+
+    static Attributes dataset() {
+        Attributes dataset = new Attributes();
+        dataset.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 192");
+        dataset.setString(Tag.ImageType, VR.CS, "DERIVED", null, "PRIMARY");
+        Sequence seq = dataset.newSequence(Tag.SourceImageSequence, 2);
+        for (int i = 0; i < 2; i++) {
+            Attributes item = new Attributes(2);
+            seq.add(item);
+            item.setString(Tag.ReferencedSOPClassUID, VR.UI, UID.CTImageStorage);
+            item.setString(Tag.ReferencedSOPInstanceUID, VR.UI, "1.2.3." + i);
+        }
+        dataset.setString(Tag.PatientName, VR.PN, "Wang^XiaoDong=王^小東=");
+        dataset.setString(Tag.StudyDescription, VR.LO, "\"quoted\"\\\tä😀");
+        dataset.setDouble(Tag.FrameTime, VR.DS, 33.0);
+        dataset.setString(Tag.SelectorDSValue, VR.DS, "1.25e-4");
+        dataset.setDouble(Tag.PixelSpacing, VR.FD, 0.5, 33);
+        dataset.setFloat(Tag.SelectorFLValue, VR.FL, 0.1f, -1e10f, Float.NaN);
+        dataset.setInt(Tag.SamplesPerPixel, VR.US, 1);
+        dataset.setInt(Tag.OverlayOrigin, VR.SS, 1, 0xffff);
+        dataset.setInt(Tag.SelectorSLValue, VR.SL, Integer.MIN_VALUE, -1, 0);
+        dataset.setInt(Tag.SelectorULValue, VR.UL, -1);
+        dataset.setInt(Tag.NumberOfFrames, VR.IS, 1);
+        dataset.setInt(Tag.FrameIncrementPointer, VR.AT, Tag.FrameTime);
+        dataset.setBytes(Tag.SelectorOBValue, VR.OB, new byte[] { 0, 1, 2, 3, 4 });
+        dataset.setNull(Tag.ReferencedImageSequence, VR.SQ);
+        dataset.setValue(Tag.OverlayData, VR.OW, new BulkData(null, "file:/OverlayData", false));
+        Fragments frags = dataset.newFragments(Tag.PixelData, VR.OB, 2);
+        frags.add(null);
+        frags.add(new BulkData(null, "file:/PixelData", false));
+        return dataset;
+    }
+
+    private static String write(Attributes dataset) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8JSONWriter writer = new UTF8JSONWriter(out, 64);
+        writer.write(dataset);
+        writer.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String writeWithGenerator(Attributes dataset) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator gen = Json.createGenerator(out);
+        new JSONWriter(gen).write(dataset);
+        gen.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
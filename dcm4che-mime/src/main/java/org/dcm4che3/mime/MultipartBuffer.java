@@ -0,0 +1,166 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.mime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Read-ahead buffer shared by the {@link MultipartInputStream}s of all body parts of one multipart message.
+ * Positions are tracked as absolute offsets from the begin of the message, so they remain valid if the buffer is
+ * compacted or grown.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class MultipartBuffer {
+
+    static final int DEFAULT_BUFFER_SIZE = 0x10000;
+
+    final InputStream in;
+    private final ReadableByteChannel ch;
+    private byte[] buf;
+    private long base;
+    private int pos;
+    private int limit;
+    private int mark = -1;
+    private int marklimit;
+
+    MultipartBuffer(InputStream in, int bufferSize) {
+        this.in = in;
+        this.ch = null;
+        this.buf = new byte[bufferSize];
+    }
+
+    MultipartBuffer(ReadableByteChannel ch, int bufferSize) {
+        this.in = null;
+        this.ch = ch;
+        this.buf = new byte[bufferSize];
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    long position() {
+        return base + pos;
+    }
+
+    int index(long offset) {
+        return (int) (offset - base);
+    }
+
+    long offset(int index) {
+        return base + index;
+    }
+
+    int pos() {
+        return pos;
+    }
+
+    void skip(int n) {
+        pos += n;
+    }
+
+    int read() throws IOException {
+        if (pos == limit && fill() < 0)
+            return -1;
+
+        return buf[pos++] & 0xff;
+    }
+
+    void mark(int readlimit) {
+        mark = pos;
+        marklimit = readlimit;
+    }
+
+    void reset() throws IOException {
+        if (mark < 0)
+            throw new IOException("Resetting to invalid mark");
+
+        pos = mark;
+    }
+
+    int fill() throws IOException {
+        return fill(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads more bytes from the underlying stream or channel, after discarding bytes before the current position
+     * or - if still valid - the mark.
+     *
+     * @param max maximal number of bytes to read
+     * @return number of bytes read or {@code -1} if the end of the stream has been reached
+     * @throws IOException if an I/O error occurs or no bytes were read from a non-blocking channel
+     */
+    int fill(int max) throws IOException {
+        if (mark >= 0 && pos - mark > marklimit)
+            mark = -1;
+        int keep = mark >= 0 ? mark : pos;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, limit - keep);
+            base += keep;
+            pos -= keep;
+            limit -= keep;
+            if (mark >= 0)
+                mark = 0;
+        }
+        if (limit == buf.length)
+            buf = Arrays.copyOf(buf, buf.length << 1);
+        int len = Math.min(buf.length - limit, max);
+        int read = ch != null
+                ? ch.read(ByteBuffer.wrap(buf, limit, len))
+                : in.read(buf, limit, len);
+        if (read == 0)
+            throw new IOException("No bytes read - non-blocking stream or channel not supported");
+        if (read > 0)
+            limit += read;
+        return read;
+    }
+}
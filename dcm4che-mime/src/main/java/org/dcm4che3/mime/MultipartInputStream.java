@@ -41,131 +41,247 @@ import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
+ * Body part of a multipart message. The boundary delimiting the body part is located in the read-ahead buffer
+ * shared by all body parts using the Boyer-Moore-Horspool algorithm, so bytes preceding the boundary are
+ * returned in large blocks.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
  *
  */
-public class MultipartInputStream extends FilterInputStream {
+public class MultipartInputStream extends FilterInputStream implements ReadableByteChannel {
 
+    private final MultipartBuffer buffer;
     private final byte[] boundary;
-    private final byte[] buffer;
-    private byte[] markBuffer;
-    private int rpos;
-    private int markpos;
+    private final int[] shift;
+    private final boolean readAhead;
+    private long safeEnd;
+    private boolean boundaryFound;
     private boolean boundarySeen;
     private boolean markBoundarySeen;
 
+    /**
+     * Creates a body part reading directly from the specified input stream. Bytes are only read from the stream
+     * as far as necessary to locate the boundary, so after the boundary was reached, the stream is positioned
+     * immediately after the boundary.
+     *
+     * @param in the input stream
+     * @param boundary the boundary delimiting the body part
+     */
     protected MultipartInputStream(InputStream in, String boundary) {
-        super(in);
+        this(new MultipartBuffer(in, boundary.length() << 1), boundary, false);
+    }
+
+    MultipartInputStream(MultipartBuffer buffer, String boundary) {
+        this(buffer, boundary, true);
+    }
+
+    private MultipartInputStream(MultipartBuffer buffer, String boundary, boolean readAhead) {
+        super(buffer.in);
+        this.buffer = buffer;
         this.boundary = boundary.getBytes();
-        this.buffer = new byte[this.boundary.length];
-        this.rpos = buffer.length;
+        this.shift = shiftTable(this.boundary);
+        this.readAhead = readAhead;
+        this.safeEnd = buffer.position();
+    }
+
+    private static int[] shiftTable(byte[] boundary) {
+        int[] shift = new int[256];
+        int last = boundary.length - 1;
+        Arrays.fill(shift, boundary.length);
+        for (int i = 0; i < last; i++)
+            shift[boundary[i] & 0xff] = last - i;
+        return shift;
     }
 
     @Override
     public int read() throws IOException {
-        return isBoundary() ? -1 : buffer[rpos++];
+        return available(1) < 0 ? -1 : buffer.read();
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        if (isBoundary())
+        if (len == 0)
+            return 0;
+
+        int n = available(1);
+        if (n < 0)
             return -1;
 
-        int l = Math.min(remaining(), len);
-        System.arraycopy(buffer, rpos, b, off, l);
-        rpos += l;
-        return l;
+        n = Math.min(n, len);
+        System.arraycopy(buffer.array(), buffer.pos(), b, off, n);
+        buffer.skip(n);
+        return n;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining())
+            return 0;
+
+        int n = available(1);
+        if (n < 0)
+            return -1;
+
+        n = Math.min(n, dst.remaining());
+        dst.put(buffer.array(), buffer.pos(), n);
+        buffer.skip(n);
+        return n;
+    }
+
+    /**
+     * Writes the remaining bytes of this body part to the specified output stream, directly from the
+     * read-ahead buffer.
+     *
+     * @param out the output stream
+     * @return number of bytes written
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        long count = 0L;
+        int n;
+        while ((n = available(1)) > 0) {
+            out.write(buffer.array(), buffer.pos(), n);
+            buffer.skip(n);
+            count += n;
+        }
+        return count;
     }
 
     @Override
     public long skip(long n) throws IOException {
-        if (isBoundary())
+        if (n <= 0L)
+            return 0L;
+
+        int l = available(1);
+        if (l < 0)
             return 0L;
 
-        long l = Math.min(remaining(), n);
-        rpos += l;
+        l = (int) Math.min(l, n);
+        buffer.skip(l);
         return l;
     }
 
+    @Override
+    public int available() throws IOException {
+        return boundarySeen ? 0 : (int) Math.max(0L, safeEnd - buffer.position());
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
     @Override
     public synchronized void mark(int readlimit) {
-        super.mark(readlimit);
-        markBuffer = buffer.clone();
-        markpos = rpos;
+        buffer.mark(readlimit);
         markBoundarySeen = boundarySeen;
     }
 
     @Override
     public synchronized void reset() throws IOException {
-        super.reset();
-        System.arraycopy(markBuffer, 0, buffer, 0, buffer.length);
-        rpos = markpos;
+        buffer.reset();
         boundarySeen = markBoundarySeen;
     }
 
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
     @Override
     public void close() throws IOException {
         //NOOP
     }
 
     public void skipAll() throws IOException {
-        while (!isBoundary())
-            rpos += remaining();
+        int n;
+        while ((n = available(1)) >= 0)
+            buffer.skip(n);
     }
 
     public boolean isZIP() throws IOException {
-        return !isBoundary() 
-                && buffer[rpos] == 'P'
-                && buffer[rpos+1] == 'K';
+        if (available(2) < 2)
+            return false;
+
+        byte[] b = buffer.array();
+        int pos = buffer.pos();
+        return b[pos] == 'P' && b[pos+1] == 'K';
     }
 
-    private boolean isBoundary() throws IOException {
+    /**
+     * Returns the number of bytes preceding the boundary which are available in the read-ahead buffer, reading
+     * more bytes from the underlying stream until at least {@code min} bytes are available or the boundary is
+     * located. If the current position is at the boundary, the boundary is skipped and {@code -1} is returned.
+     */
+    private int available(int min) throws IOException {
         if (boundarySeen)
-            return true;
-
-        if (rpos < buffer.length) {
-            if (buffer[rpos] != boundary[0])
-                return false;
-
-            System.arraycopy(buffer, rpos, buffer, 0, buffer.length - rpos);
-        }
-        readFully(in, buffer, buffer.length - rpos, rpos);
-        rpos = 0;
+            return -1;
 
-        for (int i = 0; i < buffer.length; i++)
-            if (buffer[i] != boundary[i])
-                return false;
+        for (;;) {
+            int n = (int) (safeEnd - buffer.position());
+            if (n >= min)
+                return n;
 
-        boundarySeen = true;
-        return true;
-    }
+            if (boundaryFound) {
+                if (n > 0)
+                    return n;
 
-    private static void readFully(InputStream in, byte b[], int off, int len)
-            throws IOException {
-        if (off < 0 || len < 0 || off + len > b.length)
-            throw new IndexOutOfBoundsException();
-        while (len > 0) {
-            int count = in.read(b, off, len);
-            if (count < 0)
+                buffer.skip(boundary.length);
+                boundarySeen = true;
+                return -1;
+            }
+            if (!scanBoundary() && fill() < 0)
                 throw new EOFException();
-            off += count;
-            len -= count;
         }
     }
 
-    private int remaining() {
-        for (int i = rpos+1; i < buffer.length; i++)
-            if (buffer[i] == boundary[0])
-                return i - rpos;
+    /**
+     * Reads more bytes into the buffer. Without read-ahead, at most the bytes needed to test if the boundary
+     * starts at {@link #safeEnd} are read.
+     */
+    private int fill() throws IOException {
+        return buffer.fill(readAhead
+                ? Integer.MAX_VALUE
+                : (int) (safeEnd + boundary.length - buffer.offset(buffer.limit())));
+    }
 
-        return buffer.length - rpos;
+    /**
+     * Searches the boundary in the read-ahead buffer, beginning at {@link #safeEnd}, which is advanced to the
+     * position of the boundary, if found, or to the first position where the boundary may start, but exceeds
+     * the bytes available in the buffer.
+     *
+     * @return {@code true} if {@link #safeEnd} was advanced or the boundary was found
+     */
+    private boolean scanBoundary() {
+        byte[] b = buffer.array();
+        int limit = buffer.limit();
+        int last = boundary.length - 1;
+        int start = buffer.index(safeEnd);
+        int i = start;
+        while (i + last < limit) {
+            int j = last;
+            while (b[i + j] == boundary[j]) {
+                if (j == 0) {
+                    safeEnd = buffer.offset(i);
+                    boundaryFound = true;
+                    return true;
+                }
+                j--;
+            }
+            i += shift[b[i + last] & 0xff];
+        }
+        safeEnd = buffer.offset(i);
+        return i > start;
     }
 
     public Map<String, List<String>> readHeaderParams() throws IOException {
@@ -210,13 +326,10 @@ public class MultipartInputStream extends FilterInputStream {
 
     private boolean readHeaderParam(Field field) throws IOException {
         field.reset();
-        OUTER:
-        while (!isBoundary()) {
-            field.growBuffer(buffer.length);
-            while (rpos < buffer.length)
-                if (!field.append(buffer[rpos++]))
-                    break OUTER;
-        }
+        int b;
+        while ((b = read()) >= 0)
+            if (!field.append((byte) b))
+                break;
         return !field.isEmpty();
     }
 
@@ -232,20 +345,14 @@ public class MultipartInputStream extends FilterInputStream {
             return length == 0;
         }
 
-        void growBuffer(int grow) {
-            if (length + grow > buffer.length) {
-                byte[] copy = new byte[length + grow];
-                System.arraycopy(buffer, 0, copy, 0, length);
-                buffer = copy;
-            }
-        }
-
         boolean append(byte b) {
             if (b == '\n' && length > 0 && buffer[length-1] == '\r') {
                 length--;
                 return false;
             }
 
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, length << 1);
             buffer[length++] = b;
             return true;
         }
@@ -40,6 +40,7 @@ package org.dcm4che3.mime;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -52,17 +53,53 @@ public class MultipartParser {
     };
 
     private final String boundary;
+    private final int bufferSize;
 
     public MultipartParser(String boundary) {
+        this(boundary, MultipartBuffer.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param boundary boundary delimiting the body parts
+     * @param bufferSize initial size of the read-ahead buffer, which is grown if necessary
+     */
+    public MultipartParser(String boundary, int bufferSize) {
+        if (bufferSize <= boundary.length() + 4)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
         this.boundary = boundary;
+        this.bufferSize = bufferSize;
     }
 
-    @SuppressWarnings("resource")
+    /**
+     * Parses the multipart message read from the specified input stream. Bytes are read ahead into a buffer, so
+     * the stream may be consumed beyond the close delimiter, which terminates the parsing.
+     *
+     * @param in the input stream, which must block until at least one byte is available
+     * @param handler the handler invoked for each body part
+     * @throws IOException if an I/O error occurs
+     */
     public void parse(InputStream in, Handler handler) throws IOException {
-        new MultipartInputStream(in, "--" + boundary).skipAll(); // skip preamble
+        parse(new MultipartBuffer(in, bufferSize), handler);
+    }
+
+    /**
+     * Parses the multipart message read from the specified channel. Bytes are read ahead into a buffer, so the
+     * channel may be consumed beyond the close delimiter, which terminates the parsing.
+     *
+     * @param ch the channel, which must be in blocking mode
+     * @param handler the handler invoked for each body part
+     * @throws IOException if an I/O error occurs
+     */
+    public void parse(ReadableByteChannel ch, Handler handler) throws IOException {
+        parse(new MultipartBuffer(ch, bufferSize), handler);
+    }
+
+    @SuppressWarnings("resource")
+    private void parse(MultipartBuffer buffer, Handler handler) throws IOException {
+        new MultipartInputStream(buffer, "--" + boundary).skipAll(); // skip preamble
         for (int i=1;;i++) {
-            int ch1 = in.read();
-            int ch2 = in.read();
+            int ch1 = buffer.read();
+            int ch2 = buffer.read();
             if ((ch1 | ch2) < 0)
                 throw new EOFException();
 
@@ -72,7 +109,7 @@ public class MultipartParser {
             if (ch1 != '\r' || ch2 != '\n')
                 throw new IOException("missing CR/LF after boundary");
 
-            MultipartInputStream mis = new MultipartInputStream(in, "\r\n--" + boundary);
+            MultipartInputStream mis = new MultipartInputStream(buffer, "\r\n--" + boundary);
             handler.bodyPart(i, mis);
             mis.skipAll();
         }
@@ -0,0 +1,331 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.mime;
+
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a multipart message. The bodies of the parts are only read or generated on {@link #writeTo}, so the
+ * size of the message is not limited by available memory. If the lengths of all bodies are known in advance,
+ * the total length of the message is provided by {@link #getContentLength()}, otherwise the message may be sent
+ * with chunked transfer encoding.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class MultipartWriter {
+
+    private static final int DEFAULT_CHUNK_LENGTH = 0x10000;
+
+    public interface Body {
+        /**
+         * @return length of the body in bytes or {@code -1} if it is not known before writing it
+         */
+        long length() throws IOException;
+
+        void writeTo(OutputStream out) throws IOException;
+
+        static Body of(byte[] b) {
+            return new Body() {
+                @Override
+                public long length() {
+                    return b.length;
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    out.write(b);
+                }
+            };
+        }
+
+        static Body ofFile(Path path) {
+            return ofFile(path, 0L, -1L);
+        }
+
+        /**
+         * Returns body containing a region of a file, which is transferred by {@link FileChannel#transferTo}.
+         *
+         * @param path file path
+         * @param offset position of the first byte of the region in the file
+         * @param length length of the region or {@code -1} for the remaining bytes of the file
+         * @return body containing the file region
+         */
+        static Body ofFile(Path path, long offset, long length) {
+            return new Body() {
+                @Override
+                public long length() throws IOException {
+                    return length >= 0 ? length : Files.size(path) - offset;
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+                        long pos = offset;
+                        long end = offset + (length >= 0 ? length : fc.size() - offset);
+                        WritableByteChannel ch = out instanceof FileOutputStream
+                                ? ((FileOutputStream) out).getChannel()
+                                : Channels.newChannel(out);
+                        while (pos < end) {
+                            long n = fc.transferTo(pos, end - pos, ch);
+                            if (n <= 0)
+                                throw new EOFException(path.toString());
+                            pos += n;
+                        }
+                    }
+                }
+            };
+        }
+
+        /**
+         * Returns body which content is read from an input stream opened on {@link #writeTo}.
+         *
+         * @param in supplies the input stream, which is closed after its content was written
+         * @param length length of the content or {@code -1} if it is not known
+         * @return body containing the content of the input stream
+         */
+        static Body ofInputStream(InputStreamSupplier in, long length) {
+            return new Body() {
+                @Override
+                public long length() {
+                    return length;
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    try (InputStream is = in.open()) {
+                        byte[] buf = new byte[DEFAULT_CHUNK_LENGTH];
+                        int n;
+                        while ((n = is.read(buf)) > 0)
+                            out.write(buf, 0, n);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Returns body of unknown length which content is generated on {@link #writeTo}. Closing the output
+         * stream passed to the writer does not close the underlying stream.
+         *
+         * @param writer generates the content
+         * @return body containing the generated content
+         */
+        static Body ofWriter(ContentWriter writer) {
+            return new Body() {
+                @Override
+                public long length() {
+                    return -1L;
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    writer.writeTo(new FilterOutputStream(out) {
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            out.write(b, off, len);
+                        }
+
+                        @Override
+                        public void close() throws IOException {
+                            flush();
+                        }
+                    });
+                }
+            };
+        }
+
+        /**
+         * Returns body consisting of the concatenation of the specified bodies.
+         */
+        static Body concat(Body... bodies) {
+            return new Body() {
+                @Override
+                public long length() throws IOException {
+                    long length = 0L;
+                    for (Body body : bodies) {
+                        long l = body.length();
+                        if (l < 0)
+                            return -1L;
+                        length += l;
+                    }
+                    return length;
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    for (Body body : bodies)
+                        body.writeTo(out);
+                }
+            };
+        }
+    }
+
+    public interface InputStreamSupplier {
+        InputStream open() throws IOException;
+    }
+
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final String boundary;
+    private final List<Part> parts = new ArrayList<>();
+
+    public MultipartWriter(String boundary) {
+        this.boundary = boundary;
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Returns Content-Type of the multipart message.
+     *
+     * @param subtype MIME subtype of the message, e.g. {@code related}
+     * @param type value of {@code type} parameter or {@code null}
+     * @return value of Content-Type header field
+     */
+    public String getContentType(String subtype, String type) {
+        StringBuilder sb = new StringBuilder("multipart/").append(subtype);
+        if (type != null)
+            sb.append("; type=\"").append(type).append('"');
+        return sb.append("; boundary=").append(boundary).toString();
+    }
+
+    public MultipartWriter addPart(String contentType, String contentLocation, Body body) {
+        StringBuilder sb = new StringBuilder(128)
+                .append("\r\n--").append(boundary)
+                .append("\r\nContent-Type: ").append(contentType);
+        if (contentLocation != null)
+            sb.append("\r\nContent-Location: ").append(contentLocation);
+        sb.append("\r\n\r\n");
+        parts.add(new Part(sb.toString().getBytes(StandardCharsets.UTF_8), body));
+        return this;
+    }
+
+    public MultipartWriter addPart(String contentType, Body body) {
+        return addPart(contentType, null, body);
+    }
+
+    public int getNumberOfParts() {
+        return parts.size();
+    }
+
+    /**
+     * Returns the length of the whole multipart message, if the lengths of all bodies are known.
+     *
+     * @return length of the multipart message in bytes or {@code -1}
+     * @throws IOException if the length of a body part could not be determined
+     */
+    public long getContentLength() throws IOException {
+        long length = closeDelimiter().length;
+        for (Part part : parts) {
+            long l = part.body.length();
+            if (l < 0)
+                return -1L;
+            length += part.headers.length + l;
+        }
+        return length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        for (Part part : parts) {
+            out.write(part.headers);
+            part.body.writeTo(out);
+        }
+        out.write(closeDelimiter());
+        out.flush();
+    }
+
+    /**
+     * Sets Content-Type of the request, activates streaming with fixed length or - if the length of the message
+     * is not known in advance - with chunked transfer encoding, and writes the message to the output stream of
+     * the connection.
+     *
+     * @param connection HTTP connection, not yet connected
+     * @param subtype MIME subtype of the message, e.g. {@code related}
+     * @param type value of {@code type} parameter or {@code null}
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(HttpURLConnection connection, String subtype, String type) throws IOException {
+        connection.setRequestProperty("Content-Type", getContentType(subtype, type));
+        long length = getContentLength();
+        if (length >= 0)
+            connection.setFixedLengthStreamingMode(length);
+        else
+            connection.setChunkedStreamingMode(DEFAULT_CHUNK_LENGTH);
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            writeTo(out);
+        }
+    }
+
+    private byte[] closeDelimiter() {
+        return ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Part {
+        final byte[] headers;
+        final Body body;
+
+        Part(byte[] headers, Body body) {
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
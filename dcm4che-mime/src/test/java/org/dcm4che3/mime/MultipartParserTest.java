@@ -0,0 +1,223 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.mime;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class MultipartParserTest {
+
+    private static final String BOUNDARY = "0123456789abcdef";
+    private static final String MESSAGE =
+            "preamble\r\n" +
+            "--" + BOUNDARY + "\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "\r\n" +
+            "first part with --0123456789abcde partial boundary\r\n" +
+            "--" + BOUNDARY + "\r\n" +
+            "Content-Type: application/octet-stream\r\n" +
+            "\r\n" +
+            "\r\n--\r\n-" +
+            "\r\n--" + BOUNDARY + "--\r\n" +
+            "epilogue\r\n";
+
+    @Test
+    public void testParse() throws Exception {
+        assertParts(parse(new ByteArrayInputStream(bytes(MESSAGE)), 64));
+    }
+
+    @Test
+    public void testParseSplitBoundary() throws Exception {
+        for (int chunkSize = 1; chunkSize <= BOUNDARY.length() + 4; chunkSize++)
+            assertParts(parse(new ChunkedInputStream(bytes(MESSAGE), chunkSize), BOUNDARY.length() + 5));
+    }
+
+    @Test
+    public void testParseWithoutPreamble() throws Exception {
+        String message = MESSAGE.substring(MESSAGE.indexOf("--"));
+        assertParts(parse(new ByteArrayInputStream(bytes(message)), 64));
+    }
+
+    @Test
+    public void testParseWithoutEpilogue() throws Exception {
+        String message = MESSAGE.substring(0, MESSAGE.indexOf("epilogue"));
+        assertParts(parse(new ByteArrayInputStream(bytes(message)), 64));
+    }
+
+    @Test
+    public void testParseChannel() throws Exception {
+        final ByteBuffer src = ByteBuffer.wrap(bytes(MESSAGE));
+        final List<String> parts = new ArrayList<>();
+        new MultipartParser(BOUNDARY).parse(new ChunkedChannel(src, 3), new MultipartParser.Handler() {
+            @Override
+            public void bodyPart(int partNumber, MultipartInputStream in) throws IOException {
+                in.readHeaderParams();
+                ByteBuffer dst = ByteBuffer.allocate(256);
+                while (in.read(dst) > 0);
+                parts.add(new String(dst.array(), 0, dst.position(), StandardCharsets.US_ASCII));
+            }
+        });
+        assertEquals(2, parts.size());
+        assertEquals("\r\n--\r\n-", parts.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseNonBlockingChannel() throws Exception {
+        new MultipartParser(BOUNDARY).parse(new ChunkedChannel(ByteBuffer.allocate(0), 0),
+                new MultipartParser.Handler() {
+                    @Override
+                    public void bodyPart(int partNumber, MultipartInputStream in) {
+                        fail();
+                    }
+                });
+    }
+
+    @Test
+    public void testStreamPositionAfterBoundary() throws Exception {
+        InputStream in = new ByteArrayInputStream(bytes("part with - and -\r\n--" + BOUNDARY + "after"));
+        MultipartInputStream mis = new MultipartInputStream(in, "\r\n--" + BOUNDARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(17, mis.transferTo(out));
+        assertEquals("part with - and -", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        assertEquals(-1, mis.read());
+        assertEquals('a', in.read());
+    }
+
+    @Test
+    public void testStreamPositionAfterEmptyPart() throws Exception {
+        InputStream in = new ChunkedInputStream(bytes("\r\n--" + BOUNDARY + "\r\n"), 1);
+        MultipartInputStream mis = new MultipartInputStream(in, "\r\n--" + BOUNDARY);
+        assertEquals(-1, mis.read());
+        assertEquals('\r', in.read());
+        assertEquals('\n', in.read());
+        assertEquals(-1, in.read());
+    }
+
+    private static void assertParts(List<String> parts) {
+        assertEquals(2, parts.size());
+        assertEquals("text/plain|first part with --0123456789abcde partial boundary", parts.get(0));
+        assertEquals("application/octet-stream|\r\n--\r\n-", parts.get(1));
+    }
+
+    private static List<String> parse(InputStream in, int bufferSize) throws IOException {
+        final List<String> parts = new ArrayList<>();
+        new MultipartParser(BOUNDARY, bufferSize).parse(in, new MultipartParser.Handler() {
+            @Override
+            public void bodyPart(int partNumber, MultipartInputStream in) throws IOException {
+                assertEquals(parts.size() + 1, partNumber);
+                String contentType = in.readHeaderParams().get("content-type").get(0);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] b = new byte[5];
+                int n;
+                while ((n = in.read(b, 0, b.length)) > 0)
+                    out.write(b, 0, n);
+                parts.add(contentType + '|' + new String(out.toByteArray(), StandardCharsets.US_ASCII));
+            }
+        });
+        return parts;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static class ChunkedInputStream extends FilterInputStream {
+        private final int chunkSize;
+
+        ChunkedInputStream(byte[] b, int chunkSize) {
+            super(new ByteArrayInputStream(b));
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+
+    private static class ChunkedChannel implements ReadableByteChannel {
+        private final ByteBuffer src;
+        private final int chunkSize;
+
+        ChunkedChannel(ByteBuffer src, int chunkSize) {
+            this.src = src;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (chunkSize > 0 && !src.hasRemaining())
+                return -1;
+
+            int n = Math.min(Math.min(chunkSize, src.remaining()), dst.remaining());
+            for (int i = 0; i < n; i++)
+                dst.put(src.get());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.mime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class MultipartWriterTest {
+
+    private static final String BOUNDARY = "0123456789abcdef";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testOf() throws Exception {
+        MultipartWriter.Body body = MultipartWriter.Body.of(bytes("first"));
+        assertEquals(5, body.length());
+        assertEquals("first", toString(body));
+    }
+
+    @Test
+    public void testOfFile() throws Exception {
+        Path path = createFile("0123456789");
+        MultipartWriter.Body body = MultipartWriter.Body.ofFile(path);
+        assertEquals(10, body.length());
+        assertEquals("0123456789", toString(body));
+        MultipartWriter.Body region = MultipartWriter.Body.ofFile(path, 2, 5);
+        assertEquals(5, region.length());
+        assertEquals("23456", toString(region));
+        MultipartWriter.Body remaining = MultipartWriter.Body.ofFile(path, 7, -1);
+        assertEquals(3, remaining.length());
+        assertEquals("789", toString(remaining));
+    }
+
+    @Test
+    public void testOfInputStream() throws Exception {
+        final List<InputStream> opened = new ArrayList<>();
+        MultipartWriter.Body body = MultipartWriter.Body.ofInputStream(new MultipartWriter.InputStreamSupplier() {
+            @Override
+            public InputStream open() {
+                InputStream in = new ByteArrayInputStream(bytes("stream"));
+                opened.add(in);
+                return in;
+            }
+        }, 6);
+        assertEquals(6, body.length());
+        assertTrue(opened.isEmpty());
+        assertEquals("stream", toString(body));
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    public void testOfWriter() throws Exception {
+        MultipartWriter.Body body = MultipartWriter.Body.ofWriter(new MultipartWriter.ContentWriter() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                out.write(bytes("gen"));
+                out.write('e');
+                out.close();
+            }
+        });
+        assertEquals(-1, body.length());
+        final boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        body.writeTo(out);
+        assertFalse(closed[0]);
+        assertEquals("gene", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testConcat() throws Exception {
+        MultipartWriter.Body body = MultipartWriter.Body.concat(
+                MultipartWriter.Body.of(bytes("a")),
+                MultipartWriter.Body.ofFile(createFile("bc")));
+        assertEquals(3, body.length());
+        assertEquals("abc", toString(body));
+        MultipartWriter.Body unknown = MultipartWriter.Body.concat(body, writer("d"));
+        assertEquals(-1, unknown.length());
+        assertEquals("abcd", toString(unknown));
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        MultipartWriter writer = new MultipartWriter(BOUNDARY)
+                .addPart("text/plain", MultipartWriter.Body.of(bytes("first")))
+                .addPart("application/octet-stream", "file:///x", MultipartWriter.Body.ofFile(createFile("\r\n--")));
+        assertEquals(2, writer.getNumberOfParts());
+        assertEquals("multipart/related; type=\"application/dicom\"; boundary=" + BOUNDARY,
+                writer.getContentType("related", "application/dicom"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertEquals(
+                "\r\n--" + BOUNDARY + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "\r\n" +
+                "first" +
+                "\r\n--" + BOUNDARY + "\r\n" +
+                "Content-Type: application/octet-stream\r\n" +
+                "Content-Location: file:///x\r\n" +
+                "\r\n" +
+                "\r\n--" +
+                "\r\n--" + BOUNDARY + "--\r\n",
+                new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        assertEquals(out.size(), writer.getContentLength());
+    }
+
+    @Test
+    public void testContentLengthUnknown() throws Exception {
+        MultipartWriter writer = new MultipartWriter(BOUNDARY)
+                .addPart("text/plain", MultipartWriter.Body.of(bytes("first")))
+                .addPart("text/plain", writer("second"));
+        assertEquals(-1, writer.getContentLength());
+    }
+
+    @Test
+    public void testContentLengthOfEmptyMessage() throws Exception {
+        MultipartWriter writer = new MultipartWriter(BOUNDARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertEquals(out.size(), writer.getContentLength());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        MultipartWriter writer = new MultipartWriter(BOUNDARY)
+                .addPart("text/plain", MultipartWriter.Body.of(bytes("first part with --0123456789abcde")))
+                .addPart("application/octet-stream", MultipartWriter.Body.ofFile(createFile("\r\n--\r\n-")))
+                .addPart("text/plain", "file:///x", writer("third"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        final List<String> parts = new ArrayList<>();
+        new MultipartParser(BOUNDARY).parse(new ByteArrayInputStream(out.toByteArray()),
+                new MultipartParser.Handler() {
+                    @Override
+                    public void bodyPart(int partNumber, MultipartInputStream in) throws IOException {
+                        String contentType = in.readHeaderParams().get("content-type").get(0);
+                        ByteArrayOutputStream part = new ByteArrayOutputStream();
+                        in.transferTo(part);
+                        parts.add(contentType + '|' + new String(part.toByteArray(), StandardCharsets.US_ASCII));
+                    }
+                });
+        assertEquals(3, parts.size());
+        assertEquals("text/plain|first part with --0123456789abcde", parts.get(0));
+        assertEquals("application/octet-stream|\r\n--\r\n-", parts.get(1));
+        assertEquals("text/plain|third", parts.get(2));
+    }
+
+    private Path createFile(String content) throws IOException {
+        Path path = tmp.newFile().toPath();
+        Files.write(path, bytes(content));
+        return path;
+    }
+
+    private static MultipartWriter.Body writer(final String content) {
+        return MultipartWriter.Body.ofWriter(new MultipartWriter.ContentWriter() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                out.write(bytes(content));
+            }
+        });
+    }
+
+    private static String toString(MultipartWriter.Body body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -43,6 +43,7 @@ import java.io.Serializable;
 import java.net.Socket;
 import java.security.GeneralSecurityException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.net.pdu.AAbort;
@@ -73,6 +74,7 @@ import org.slf4j.LoggerFactory;
 public class ApplicationEntity implements Serializable {
 
     private static final long serialVersionUID = 3883790997057469573L;
+    private static final int DEF_NEGOTIATION_CACHE_SIZE = 0;
 
     protected static final Logger LOG = 
             LoggerFactory.getLogger(ApplicationEntity.class);
@@ -91,15 +93,19 @@ public class ApplicationEntity implements Serializable {
     private Boolean installed;
     private Boolean roleSelectionNegotiationLenient;
     private String hl7ApplicationName;
-    private final LinkedHashSet<String> acceptedCallingAETs = new LinkedHashSet<>();
-    private final LinkedHashSet<String> otherAETs = new LinkedHashSet<>();
-    private final LinkedHashMap<String, String> masqueradeCallingAETs = new LinkedHashMap<>();
-    private final List<Connection> conns = new ArrayList<>(1);
-    private final LinkedHashMap<String, TransferCapability> scuTCs = new LinkedHashMap<>();
-    private final LinkedHashMap<String, TransferCapability> scpTCs = new LinkedHashMap<>();
+    // collections read on association negotiation are replaced on modification, never modified in place,
+    // so a concurrent reconfiguration never exposes partially updated state to a negotiating association
+    private volatile LinkedHashSet<String> acceptedCallingAETs = new LinkedHashSet<>();
+    private volatile LinkedHashSet<String> otherAETs = new LinkedHashSet<>();
+    private volatile LinkedHashMap<String, String> masqueradeCallingAETs = new LinkedHashMap<>();
+    private final List<Connection> conns = new CopyOnWriteArrayList<>();
+    private volatile LinkedHashMap<String, TransferCapability> scuTCs = new LinkedHashMap<>();
+    private volatile LinkedHashMap<String, TransferCapability> scpTCs = new LinkedHashMap<>();
     private final LinkedHashMap<Class<? extends AEExtension>,AEExtension> extensions = new LinkedHashMap<>();
 
     private transient DimseRQHandler dimseRQHandler;
+    private transient volatile NegotiationCache negotiationCache;
+    private int negotiationCacheSize = DEF_NEGOTIATION_CACHE_SIZE;
 
     public ApplicationEntity() {
     }
@@ -249,32 +255,71 @@ public class ApplicationEntity implements Serializable {
     public void setPreferredTransferSyntaxes(String... transferSyntaxes) {
         this.prefTransferSyntaxes =
                 StringUtils.requireContainsNoEmpty(transferSyntaxes, "empty transferSyntax");
+        invalidateNegotiationCache();
+    }
+
+    /**
+     * Get the maximal number of different Association requests, for which the result of the negotiation of
+     * Presentation Contexts, SCP/SCU Role Selections and Extended Negotiations is cached.
+     *
+     * @return maximal number of cached negotiation results or 0, if caching is disabled.
+     */
+    public int getNegotiationCacheSize() {
+        return negotiationCacheSize;
+    }
+
+    /**
+     * Set the maximal number of different Association requests, for which the result of the negotiation of
+     * Presentation Contexts, SCP/SCU Role Selections and Extended Negotiations is cached. Caching is disabled by
+     * default. It shall not be enabled, if {@link #negotiate(AAssociateRQ, AAssociateAC, PresentationContext)} is
+     * overridden by a sub-class with a result not only depending on the Association request and the Transfer
+     * Capabilities. The value is not stored by the LDAP or JSON configuration backends, so it has to be set
+     * programmatically.
+     *
+     * @param negotiationCacheSize maximal number of cached negotiation results or 0 to disable caching.
+     */
+    public void setNegotiationCacheSize(int negotiationCacheSize) {
+        if (negotiationCacheSize < 0)
+            throw new IllegalArgumentException("negotiationCacheSize: " + negotiationCacheSize);
+
+        this.negotiationCacheSize = negotiationCacheSize;
+        NegotiationCache cache = negotiationCache;
+        if (cache != null)
+            cache.setMaxSize(negotiationCacheSize);
+    }
+
+    /**
+     * Invalidates cached negotiation results. Invoked on modifications of the Transfer Capabilities of this AE.
+     * Must be invoked explicitly after modifications of {@link StorageOptions} or {@link QueryOption}s of an
+     * associated {@link TransferCapability} in place.
+     */
+    public void invalidateNegotiationCache() {
+        NegotiationCache cache = negotiationCache;
+        if (cache != null)
+            cache.invalidate();
     }
 
     public String[] getAcceptedCallingAETitles() {
-        return acceptedCallingAETs.toArray(
-                new String[acceptedCallingAETs.size()]);
+        LinkedHashSet<String> aets = acceptedCallingAETs;
+        return aets.toArray(new String[aets.size()]);
     }
 
     public void setAcceptedCallingAETitles(String... aets) {
-        acceptedCallingAETs.clear();
-        for (String name : aets)
-            acceptedCallingAETs.add(name);
+        acceptedCallingAETs = new LinkedHashSet<>(Arrays.asList(aets));
     }
 
     public boolean isAcceptedCallingAETitle(String aet) {
-        return acceptedCallingAETs.isEmpty()
-                || acceptedCallingAETs.contains(aet);
+        LinkedHashSet<String> aets = acceptedCallingAETs;
+        return aets.isEmpty() || aets.contains(aet);
     }
 
     public String[] getOtherAETitles() {
-        return otherAETs.toArray(new String[otherAETs.size()]);
+        LinkedHashSet<String> aets = otherAETs;
+        return aets.toArray(new String[aets.size()]);
     }
 
     public void setOtherAETitles(String... aets) {
-        otherAETs.clear();
-        for (String name : aets)
-            otherAETs.add(name);
+        otherAETs = new LinkedHashSet<>(Arrays.asList(aets));
     }
 
     public boolean isOtherAETitle(String aet) {
@@ -282,6 +327,7 @@ public class ApplicationEntity implements Serializable {
     }
 
     public String[] getMasqueradeCallingAETitles() {
+        LinkedHashMap<String, String> masqueradeCallingAETs = this.masqueradeCallingAETs;
         String[] aets = new String[masqueradeCallingAETs.size()];
         int i = 0;
         for (Map.Entry<String, String> entry : masqueradeCallingAETs.entrySet()) {
@@ -294,7 +340,7 @@ public class ApplicationEntity implements Serializable {
     }
 
     public void setMasqueradeCallingAETitles(String... aets) {
-        masqueradeCallingAETs.clear();
+        LinkedHashMap<String, String> masqueradeCallingAETs = new LinkedHashMap<>();
         for (String aet : aets) {
             if (aet.charAt(0) == '[') {
                 int end = aet.indexOf(']');
@@ -304,9 +350,11 @@ public class ApplicationEntity implements Serializable {
                 masqueradeCallingAETs.put("*", aet);
             }
         }
+        this.masqueradeCallingAETs = masqueradeCallingAETs;
     }
 
     public String getCallingAETitle(String calledAET) {
+        LinkedHashMap<String, String> masqueradeCallingAETs = this.masqueradeCallingAETs;
         String callingAET = masqueradeCallingAETs.get(calledAET);
         if (callingAET == null) {
             callingAET = masqueradeCallingAETs.get("*");
@@ -317,6 +365,7 @@ public class ApplicationEntity implements Serializable {
     }
 
     public boolean isMasqueradeCallingAETitle(String calledAET) {
+        LinkedHashMap<String, String> masqueradeCallingAETs = this.masqueradeCallingAETs;
         return masqueradeCallingAETs.containsKey(calledAET) || masqueradeCallingAETs.containsKey("*");
     }
 
@@ -494,25 +543,42 @@ public class ApplicationEntity implements Serializable {
         return conns;
     }
 
-    public TransferCapability addTransferCapability(TransferCapability tc) {
+    public synchronized TransferCapability addTransferCapability(TransferCapability tc) {
         tc.setApplicationEntity(this);
-        TransferCapability prev = (tc.getRole() == TransferCapability.Role.SCU
-                ? scuTCs : scpTCs).put(tc.getSopClass(), tc);
+        boolean scu = tc.getRole() == TransferCapability.Role.SCU;
+        LinkedHashMap<String, TransferCapability> tcs = new LinkedHashMap<>(scu ? scuTCs : scpTCs);
+        TransferCapability prev = tcs.put(tc.getSopClass(), tc);
+        setTransferCapabilities(scu, tcs);
         if (prev != null && prev != tc)
             prev.setApplicationEntity(null);
         return prev;
     }
 
-    public TransferCapability removeTransferCapabilityFor(String sopClass,
+    public synchronized TransferCapability removeTransferCapabilityFor(String sopClass,
             TransferCapability.Role role) {
-        TransferCapability tc = (role == TransferCapability.Role.SCU ? scuTCs : scpTCs)
-                        .remove(sopClass);
-        if (tc != null)
-            tc.setApplicationEntity(null);
+        boolean scu = role == TransferCapability.Role.SCU;
+        LinkedHashMap<String, TransferCapability> tcs = scu ? scuTCs : scpTCs;
+        if (!tcs.containsKey(sopClass))
+            return null;
+
+        tcs = new LinkedHashMap<>(tcs);
+        TransferCapability tc = tcs.remove(sopClass);
+        setTransferCapabilities(scu, tcs);
+        tc.setApplicationEntity(null);
         return tc;
     }
 
+    private void setTransferCapabilities(boolean scu, LinkedHashMap<String, TransferCapability> tcs) {
+        if (scu)
+            scuTCs = tcs;
+        else
+            scpTCs = tcs;
+        invalidateNegotiationCache();
+    }
+
     public Collection<TransferCapability> getTransferCapabilities() {
+        LinkedHashMap<String, TransferCapability> scuTCs = this.scuTCs;
+        LinkedHashMap<String, TransferCapability> scpTCs = this.scpTCs;
         ArrayList<TransferCapability> tcs =
                 new ArrayList<TransferCapability>(scuTCs.size() + scpTCs.size());
         tcs.addAll(scpTCs.values());
@@ -522,7 +588,8 @@ public class ApplicationEntity implements Serializable {
 
     public Collection<TransferCapability> getTransferCapabilitiesWithRole(
             TransferCapability.Role role) {
-        return (role == TransferCapability.Role.SCU ? scuTCs : scpTCs).values();
+        return Collections.unmodifiableCollection(
+                (role == TransferCapability.Role.SCU ? scuTCs : scpTCs).values());
     }
 
     public TransferCapability getTransferCapabilityFor(
@@ -535,6 +602,42 @@ public class ApplicationEntity implements Serializable {
         return (role == TransferCapability.Role.SCU ? scuTCs : scpTCs).containsKey(sopClass);
     }
 
+    void negotiate(AAssociateRQ rq, AAssociateAC ac) {
+        NegotiationCache cache = negotiationCache();
+        if (cache == null) {
+            for (PresentationContext rqpc : rq.getPresentationContexts())
+                ac.addPresentationContext(negotiate(rq, ac, rqpc));
+            return;
+        }
+        String key = NegotiationCache.keyOf(rq);
+        AAssociateAC template = cache.get(key);
+        if (template == null) {
+            int version = cache.version();
+            template = new AAssociateAC();
+            for (PresentationContext rqpc : rq.getPresentationContexts())
+                template.addPresentationContext(negotiate(rq, template, rqpc));
+            cache.put(key, version, template);
+        } else {
+            LOG.debug("{}: use cached negotiation result", aet);
+        }
+        NegotiationCache.copyTo(template, ac);
+    }
+
+    private NegotiationCache negotiationCache() {
+        int size = negotiationCacheSize;
+        if (size <= 0)
+            return null;
+
+        NegotiationCache cache = negotiationCache;
+        if (cache == null) {
+            synchronized (this) {
+                if ((cache = negotiationCache) == null)
+                    negotiationCache = cache = new NegotiationCache(size);
+            }
+        }
+        return cache;
+    }
+
     protected PresentationContext negotiate(AAssociateRQ rq, AAssociateAC ac,
            PresentationContext rqpc) {
        String as = rqpc.getAbstractSyntax();
@@ -703,11 +806,10 @@ public class ApplicationEntity implements Serializable {
         reconfigureAEExtensions(src);
     }
 
-    private void reconfigureTransferCapabilities(ApplicationEntity src) {
-        scuTCs.clear();
-        scuTCs.putAll(src.scuTCs);
-        scpTCs.clear();
-        scpTCs.putAll(src.scpTCs);
+    private synchronized void reconfigureTransferCapabilities(ApplicationEntity src) {
+        scuTCs = new LinkedHashMap<>(src.scuTCs);
+        scpTCs = new LinkedHashMap<>(src.scpTCs);
+        invalidateNegotiationCache();
     }
 
     private void reconfigureAEExtensions(ApplicationEntity from) {
@@ -736,12 +838,9 @@ public class ApplicationEntity implements Serializable {
         applicationClusters = from.applicationClusters;
         prefCalledAETs = from.prefCalledAETs;
         prefCallingAETs = from.prefCallingAETs;
-        acceptedCallingAETs.clear();
-        acceptedCallingAETs.addAll(from.acceptedCallingAETs);
-        otherAETs.clear();
-        otherAETs.addAll(from.otherAETs);
-        masqueradeCallingAETs.clear();
-        masqueradeCallingAETs.putAll(from.masqueradeCallingAETs);
+        acceptedCallingAETs = new LinkedHashSet<>(from.acceptedCallingAETs);
+        otherAETs = new LinkedHashSet<>(from.otherAETs);
+        masqueradeCallingAETs = new LinkedHashMap<>(from.masqueradeCallingAETs);
         supportedCharacterSets = from.supportedCharacterSets;
         prefTransferSyntaxes = from.prefTransferSyntaxes;
         hl7ApplicationName = from.hl7ApplicationName;
@@ -749,6 +848,7 @@ public class ApplicationEntity implements Serializable {
         initiator = from.initiator;
         installed = from.installed;
         roleSelectionNegotiationLenient = from.roleSelectionNegotiationLenient;
+        setNegotiationCacheSize(from.negotiationCacheSize);
     }
 
     public void addAEExtension(AEExtension ext) {
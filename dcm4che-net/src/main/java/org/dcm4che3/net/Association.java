@@ -74,6 +74,7 @@ public class Association {
     private static final AtomicInteger prevSerialNo = new AtomicInteger();
     private final AtomicInteger messageID = new AtomicInteger();
     private final AtomicIntegerArray dimseCounters = new AtomicIntegerArray(46);
+    private final AtomicInteger admission = new AtomicInteger(); // 0: pending, 1: admitted, 2: released
     private final long connectTime;
     private final int serialNo;
     private final boolean requestor;
@@ -166,6 +167,14 @@ public class Association {
         dimseCounters.getAndIncrement(23 + dimse.ordinal());
     }
 
+    boolean markAdmitted() {
+        return admission.compareAndSet(0, 1);
+    }
+
+    boolean markReleased() {
+        return admission.getAndSet(2) == 1;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -495,6 +504,7 @@ public class Association {
     void write(AAssociateRQ rq) throws IOException {
         name = rq.getCallingAET() + delim() + rq.getCalledAET() + '(' + serialNo + ')';
         this.rq = rq;
+        device.countAssociation(this, rq.getCallingAET());
         LOG.info("{} << A-ASSOCIATE-RQ", name);
         LOG.debug("{}", rq);
         enterState(State.Sta5);
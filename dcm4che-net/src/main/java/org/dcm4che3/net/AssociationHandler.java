@@ -44,7 +44,6 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.net.pdu.AAssociateAC;
 import org.dcm4che3.net.pdu.AAssociateRJ;
 import org.dcm4che3.net.pdu.AAssociateRQ;
-import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.UserIdentityAC;
 
 /**
@@ -87,7 +86,7 @@ public class AssociationHandler {
         UserIdentityAC userIdentity = getUserIdNegotiator() != null
                 ? getUserIdNegotiator().negotiate(as, rq.getUserIdentityRQ())
                 : null;
-        if (ae.getDevice().isLimitOfAssociationsExceeded(rq))
+        if (!ae.getDevice().admitAssociation(as, rq))
             throw new AAssociateRJ(AAssociateRJ.RESULT_REJECTED_TRANSIENT,
                     AAssociateRJ.SOURCE_SERVICE_PROVIDER_PRES,
                     AAssociateRJ.REASON_LOCAL_LIMIT_EXCEEDED);
@@ -106,9 +105,7 @@ public class AssociationHandler {
         ac.setMaxOpsPerformed(Association.minZeroAsMax(rq.getMaxOpsPerformed(),
                 conn.getMaxOpsInvoked()));
         ac.setUserIdentityAC(userIdentity);
-        ApplicationEntity ae = as.getApplicationEntity();
-        for (PresentationContext rqpc : rq.getPresentationContexts())
-            ac.addPresentationContext(ae.negotiate(rq, ac, rqpc));
+        as.getApplicationEntity().negotiate(rq, ac);
         return ac;
     }
 
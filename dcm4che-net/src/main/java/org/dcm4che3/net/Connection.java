@@ -59,6 +59,7 @@ import java.util.EnumMap;
 import java.util.List;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 
@@ -138,6 +139,8 @@ public class Connection implements Serializable {
     private boolean tlsNeedClientAuth = true;
     private String[] tlsCipherSuites = {};
     private String[] tlsProtocols = DEFAULT_TLS_PROTOCOLS;
+    private int tlsSessionCacheSize;
+    private int tlsSessionTimeout;
     private String[] blacklist = {};
     private Boolean installed;
     private Protocol protocol = Protocol.DICOM;
@@ -152,6 +155,7 @@ public class Connection implements Serializable {
     private transient InetAddress clientBindAddr;
     private transient volatile Listener listener;
     private transient boolean rebindNeeded;
+    private transient volatile TLSHandshakeStatistics tlsHandshakeStatistics;
 
     static {
         registerTCPProtocolHandler(Protocol.DICOM, DicomProtocolHandler.INSTANCE);
@@ -243,7 +247,8 @@ public class Connection implements Serializable {
             return;
 
         this.hostname = hostname;
-        needRebind();
+        if (bindAddress == null)
+            needRebind();
     }
 
     /**
@@ -627,7 +632,6 @@ public class Connection implements Serializable {
             return;
 
         this.tlsCipherSuites = tlsCipherSuites;
-        needRebind();
     }
 
     public final boolean isTls() {
@@ -643,7 +647,6 @@ public class Connection implements Serializable {
             return;
 
         this.tlsProtocols = tlsProtocols;
-        needRebind();
     }
 
     public final boolean isTlsNeedClientAuth() {
@@ -655,7 +658,88 @@ public class Connection implements Serializable {
             return;
 
         this.tlsNeedClientAuth = tlsNeedClientAuth;
-        needRebind();
+    }
+
+    /**
+     * Get the maximal number of TLS sessions cached for resumption of sessions with the same peer.
+     * TLS sessions are cached by the {@link SSLContext} of the Device, shared by all its TLS connections,
+     * so the largest value configured on one of its TLS connections applies.
+     *
+     * @return maximal number of cached TLS sessions or {@code 0} (= JDK default).
+     */
+    public final int getTlsSessionCacheSize() {
+        return tlsSessionCacheSize;
+    }
+
+    /**
+     * Set the maximal number of TLS sessions cached for resumption of sessions with the same peer.
+     *
+     * @param size maximal number of cached TLS sessions or {@code 0} (= JDK default).
+     */
+    public final void setTlsSessionCacheSize(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("size: " + size);
+
+        if (this.tlsSessionCacheSize == size)
+            return;
+
+        this.tlsSessionCacheSize = size;
+        if (device != null)
+            device.configureTLSSessionContexts();
+    }
+
+    /**
+     * Get the timeout of cached TLS sessions in s. TLS sessions are cached by the {@link SSLContext} of the
+     * Device, shared by all its TLS connections, so the largest value configured on one of its TLS connections
+     * applies.
+     *
+     * @return timeout of cached TLS sessions in s or {@code 0} (= JDK default).
+     */
+    public final int getTlsSessionTimeout() {
+        return tlsSessionTimeout;
+    }
+
+    /**
+     * Set the timeout of cached TLS sessions in s.
+     *
+     * @param timeout timeout of cached TLS sessions in s or {@code 0} (= JDK default).
+     */
+    public final void setTlsSessionTimeout(int timeout) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("timeout: " + timeout);
+
+        if (this.tlsSessionTimeout == timeout)
+            return;
+
+        this.tlsSessionTimeout = timeout;
+        if (device != null)
+            device.configureTLSSessionContexts();
+    }
+
+    /**
+     * Get statistics about TLS handshakes of accepted and initiated connections.
+     *
+     * @return statistics about TLS handshakes
+     */
+    public TLSHandshakeStatistics getTLSHandshakeStatistics() {
+        TLSHandshakeStatistics stats = tlsHandshakeStatistics;
+        if (stats == null) {
+            synchronized (this) {
+                if ((stats = tlsHandshakeStatistics) == null)
+                    tlsHandshakeStatistics = stats = new TLSHandshakeStatistics();
+            }
+        }
+        return stats;
+    }
+
+    void startHandshake(SSLSocket ssl) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ssl.startHandshake();
+        long duration = System.nanoTime() - start;
+        SSLSession session = ssl.getSession();
+        getTLSHandshakeStatistics().onHandshakeCompleted(session, startTime, duration);
+        LOG.debug("{}: TLS handshake with {} in {} ms", ssl, session.getCipherSuite(), duration / 1000000L);
     }
 
     /**
@@ -1154,7 +1238,22 @@ public class Connection implements Serializable {
                 intersect(remoteConn.getTlsProtocols(), getTlsProtocols()));
         ssl.setEnabledCipherSuites(
                 intersect(remoteConn.tlsCipherSuites, tlsCipherSuites));
-        ssl.startHandshake();
+        startHandshake(ssl);
+        return ssl;
+    }
+
+    /**
+     * Layers TLS over a connection accepted by the listener of this connection. TLS settings and the
+     * {@link SSLContext} of the Device are applied on each accepted connection, so changes of them
+     * take effect for new connections without rebinding the listener.
+     */
+    SSLSocket createTLSSocket(Socket s) throws GeneralSecurityException, IOException {
+        SSLContext sslContext = device.sslContext();
+        SSLSocketFactory sf = sslContext.getSocketFactory();
+        SSLSocket ssl = (SSLSocket) sf.createSocket(s, null, true);
+        ssl.setEnabledProtocols(getTlsProtocols());
+        ssl.setEnabledCipherSuites(tlsCipherSuites);
+        ssl.setNeedClientAuth(tlsNeedClientAuth);
         return ssl;
     }
 
@@ -1241,6 +1340,8 @@ public class Connection implements Serializable {
         setTlsNeedClientAuth(from.tlsNeedClientAuth);
         setTlsCipherSuites(from.tlsCipherSuites);
         setTlsProtocols(from.tlsProtocols);
+        setTlsSessionCacheSize(from.tlsSessionCacheSize);
+        setTlsSessionTimeout(from.tlsSessionTimeout);
         setBlacklist(from.blacklist);
         setInstalled(from.installed);
     }
@@ -39,16 +39,23 @@
 package org.dcm4che3.net;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.net.InetAddress;
 import java.security.GeneralSecurityException;
 import java.security.KeyManagementException;
 import java.security.cert.X509Certificate;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 
 import org.dcm4che3.data.Code;
@@ -56,6 +63,8 @@ import org.dcm4che3.data.Issuer;
 import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.util.StringUtils;
 
+import static java.util.Collections.newSetFromMap;
+
 /**
  * DICOM Part 15, Annex H compliant description of a DICOM enabled system or
  * device. This is used to describe a DICOM-enabled network endpoint in terms of
@@ -69,6 +78,7 @@ import org.dcm4che3.util.StringUtils;
 public class Device implements Serializable {
 
     private static final long serialVersionUID = -5816872456184522866L;
+    private static final int MAX_ASSOCIATION_RATE_LIMITERS = 4096;
 
     private String deviceName;
     private String deviceUID;
@@ -104,6 +114,9 @@ public class Device implements Serializable {
     private String[] relatedDeviceRefs = {};
     private byte[][] vendorData = {};
     private int limitOpenAssociations;
+    private int limitAssociationRate;
+    private int limitAssociationRateBurst;
+    private int maxAssociationQueueTime;
     private boolean installed = true;
     private boolean roleSelectionNegotiationLenient;
     private TimeZone timeZoneOfDevice;
@@ -113,8 +126,9 @@ public class Device implements Serializable {
             new LinkedHashMap<String, X509Certificate[]>();
     private final LinkedHashMap<String, X509Certificate[]> thisNodeCertificates = 
             new LinkedHashMap<String, X509Certificate[]>();
-    private final List<Connection> conns = new ArrayList<Connection>();
-    private final LinkedHashMap<String, ApplicationEntity> aes = 
+    private final List<Connection> conns = new CopyOnWriteArrayList<Connection>();
+    // replaced on modification, so associations are negotiated against a consistent set of AEs
+    private volatile LinkedHashMap<String, ApplicationEntity> aes =
             new LinkedHashMap<String, ApplicationEntity>();
     private final LinkedHashMap<String, WebApplication> webapps = new LinkedHashMap<>();
     private final LinkedHashMap<String, KeycloakClient> keycloakClients = new LinkedHashMap<>();
@@ -126,11 +140,18 @@ public class Device implements Serializable {
     private transient ConnectionMonitor connectionMonitor;
     private transient AssociationMonitor associationMonitor;
 
-    private transient final List<Association> associations = new ArrayList<>();
+    private transient Set<Association> associations = newSetFromMap(new ConcurrentHashMap<Association, Boolean>());
+    private transient AtomicInteger numberOfAdmittedAssociations = new AtomicInteger();
+    private transient ConcurrentHashMap<String, AtomicInteger> associationsInitiatedBy = new ConcurrentHashMap<>();
+    private transient ConcurrentHashMap<String, TokenBucket> associationRateLimiters = new ConcurrentHashMap<>();
+    private transient ReentrantLock admissionLock = new ReentrantLock(true);
+    private transient Condition associationReleased = admissionLock.newCondition();
+    private transient AtomicInteger numberOfQueuedAssociations = new AtomicInteger();
 
     private transient Executor executor;
     private transient ScheduledExecutorService scheduledExecutor;
     private transient volatile SSLContext sslContext;
+    private transient volatile int[] defaultTlsSessionContextSettings;
     private transient volatile KeyManager km;
     private transient volatile TrustManager tm;
 
@@ -758,9 +779,7 @@ public class Device implements Serializable {
      }
 
     private void needReconfigureTLS()  {
-        for (Connection con : conns)
-            if (con.isTls())
-                con.needRebind();
+        // TLS listeners fetch the SSLContext on each accepted connection, so they need not be rebound
         sslContext = null;
     }
 
@@ -789,6 +808,8 @@ public class Device implements Serializable {
         conn.setDevice(this);
         conns.add(conn);
         conn.needRebind();
+        if (conn.isTls())
+            configureTLSSessionContexts();
     }
 
     public boolean removeConnection(Connection conn) {
@@ -821,19 +842,25 @@ public class Device implements Serializable {
     }
 
 
-    public void addApplicationEntity(ApplicationEntity ae) {
+    public synchronized void addApplicationEntity(ApplicationEntity ae) {
         ae.setDevice(this);
+        LinkedHashMap<String, ApplicationEntity> aes = new LinkedHashMap<>(this.aes);
         aes.put(ae.getAETitle(), ae);
+        this.aes = aes;
     }
 
     public ApplicationEntity removeApplicationEntity(ApplicationEntity ae) {
         return removeApplicationEntity(ae.getAETitle());
     }
 
-    public ApplicationEntity removeApplicationEntity(String aet) {
+    public synchronized ApplicationEntity removeApplicationEntity(String aet) {
+        if (!aes.containsKey(aet))
+            return null;
+
+        LinkedHashMap<String, ApplicationEntity> aes = new LinkedHashMap<>(this.aes);
         ApplicationEntity ae = aes.remove(aet);
-        if (ae != null)
-            ae.setDevice(null);
+        this.aes = aes;
+        ae.setDevice(null);
         return ae;
     }
 
@@ -931,6 +958,79 @@ public class Device implements Serializable {
         this.limitOpenAssociations = limit;
     }
 
+    /** Returns maximal number of Association requests per second accepted from one remote AE or from one
+     * remote host. Association requests exceeding the rate will be rejected with
+     * Result = 2 - rejected-transient, Source = 3 - DICOM UL service-provider (Presentation related function),
+     * Reason = 2 - local-limit-exceeded.
+     *
+     * @return maximal number of Association requests per second or 0 for no limit.
+     *
+     * @see #setLimitAssociationRate(int)
+     * @see #getLimitAssociationRateBurst()
+     */
+    public final int getLimitAssociationRate() {
+        return limitAssociationRate;
+    }
+
+    /** Sets maximal number of Association requests per second accepted from one remote AE or from one
+     * remote host.
+     *
+     * @param limit maximal number of Association requests per second or 0 for no limit.
+     * @throws IllegalArgumentException if limit is lesser than zero.
+     *
+     * @see #getLimitAssociationRate()
+     */
+    public final void setLimitAssociationRate(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit: " + limit);
+
+        if (this.limitAssociationRate != limit) {
+            this.limitAssociationRate = limit;
+            associationRateLimiters.clear();
+        }
+    }
+
+    /** Returns maximal number of Association requests accepted in a burst from one remote AE or from one
+     * remote host, before the {@link #getLimitAssociationRate() rate limit} applies.
+     *
+     * @return maximal number of Association requests in a burst or 0 for the value of
+     * {@link #getLimitAssociationRate()}.
+     *
+     * @see #setLimitAssociationRateBurst(int)
+     */
+    public final int getLimitAssociationRateBurst() {
+        return limitAssociationRateBurst;
+    }
+
+    public final void setLimitAssociationRateBurst(int burst) {
+        if (burst < 0)
+            throw new IllegalArgumentException("burst: " + burst);
+
+        if (this.limitAssociationRateBurst != burst) {
+            this.limitAssociationRateBurst = burst;
+            associationRateLimiters.clear();
+        }
+    }
+
+    /** Returns maximal time in ms an Association request exceeding {@link #getLimitOpenAssociations()} or
+     * {@link #getLimitAssociationsInitiatedBy(String)} waits for the close of another Association, before it is
+     * rejected. Waiting Association requests are admitted in the order of their arrival.
+     *
+     * @return maximal wait time in ms or 0 for rejecting such Association requests immediately.
+     *
+     * @see #setMaxAssociationQueueTime(int)
+     */
+    public final int getMaxAssociationQueueTime() {
+        return maxAssociationQueueTime;
+    }
+
+    public final void setMaxAssociationQueueTime(int maxAssociationQueueTime) {
+        if (maxAssociationQueueTime < 0)
+            throw new IllegalArgumentException("maxAssociationQueueTime: " + maxAssociationQueueTime);
+
+        this.maxAssociationQueueTime = maxAssociationQueueTime;
+    }
+
     /** Returns maximal number of open Associations which can be initiated by the specified remote AE.
      * If the limit is exceeded, further Association requests from that AE will be rejected with
      * Result = 2 - rejected-transient, Source = 1 - DICOM UL service-user, Reason = 2 - local-limit-exceeded.
@@ -996,37 +1096,186 @@ public class Device implements Serializable {
     }
 
     void addAssociation(Association as) {
-        synchronized (associations) {
-            associations.add(as);
-        }
+        associations.add(as);
     }
 
     void removeAssociation(Association as) {
-        synchronized (associations) {
-            associations.remove(as);
-            associations.notifyAll();
+        associations.remove(as);
+        if (as.markReleased()) {
+            decrementAssociationsInitiatedBy(as.getCallingAET());
+            numberOfAdmittedAssociations.decrementAndGet();
+            if (numberOfQueuedAssociations.get() > 0) {
+                admissionLock.lock();
+                try {
+                    associationReleased.signalAll();
+                } finally {
+                    admissionLock.unlock();
+                }
+            }
+        }
+        if (associations.isEmpty()) {
+            synchronized (associations) {
+                associations.notifyAll();
+            }
         }
     }
 
-    public Association [] listOpenAssociations() {
-        synchronized (associations) {
-            return associations.toArray(new Association[associations.size()]);
+    /**
+     * Counts requested Association initiated by a local AE. Associations initiated by local AEs are not subject of
+     * the configured limits, but are included in the number of open Associations checked against
+     * {@link #getLimitOpenAssociations()} on admission of Association requests from remote AEs.
+     */
+    void countAssociation(Association as, String callingAET) {
+        if (as.markAdmitted()) {
+            incrementAssociationsInitiatedBy(callingAET, 0);
+            numberOfAdmittedAssociations.incrementAndGet();
         }
     }
 
+    /**
+     * Admits Association request from a remote AE, if it neither exceeds the
+     * {@link #getLimitAssociationRate() rate limit} for the calling AE or the remote host, nor the limits of open
+     * Associations. If the limits of open Associations are exceeded, waits up to
+     * {@link #getMaxAssociationQueueTime()} ms for the close of other Associations.
+     *
+     * @return {@code true} if the Association was admitted, {@code false} if it shall be rejected.
+     */
+    boolean admitAssociation(Association as, AAssociateRQ rq) {
+        String callingAET = rq.getCallingAET();
+        if (!tryAcquireAssociationRatePermit(callingAET, as.getSocket().getInetAddress()))
+            return false;
+
+        if (numberOfQueuedAssociations.get() == 0 && tryAdmitAssociation(as, callingAET))
+            return true;
+
+        return maxAssociationQueueTime > 0 && awaitAdmission(as, callingAET);
+    }
+
+    private boolean tryAdmitAssociation(Association as, String callingAET) {
+        if (!incrementAssociationsInitiatedBy(callingAET, getLimitAssociationsInitiatedBy(callingAET)))
+            return false;
+
+        if (!incrementIfBelow(numberOfAdmittedAssociations, limitOpenAssociations)) {
+            decrementAssociationsInitiatedBy(callingAET);
+            return false;
+        }
+        if (!as.markAdmitted()) {
+            decrementAssociationsInitiatedBy(callingAET);
+            numberOfAdmittedAssociations.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean awaitAdmission(Association as, String callingAET) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(maxAssociationQueueTime);
+        numberOfQueuedAssociations.incrementAndGet();
+        admissionLock.lock();
+        try {
+            while (!tryAdmitAssociation(as, callingAET)) {
+                if (nanos <= 0L)
+                    return false;
+                nanos = associationReleased.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            admissionLock.unlock();
+            numberOfQueuedAssociations.decrementAndGet();
+        }
+    }
+
+    private static boolean incrementIfBelow(AtomicInteger counter, int limit) {
+        int count;
+        do {
+            count = counter.get();
+            if (limit > 0 && count >= limit)
+                return false;
+        } while (!counter.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Increments the number of open Associations initiated by the specified AE, if it is below the specified limit.
+     * Counters which dropped to 0 are marked by -1 and removed from {@link #associationsInitiatedBy}, so a
+     * concurrent increment retries with a new counter.
+     */
+    private boolean incrementAssociationsInitiatedBy(String callingAET, int limit) {
+        for (;;) {
+            AtomicInteger counter = associationsInitiatedBy.get(callingAET);
+            if (counter == null) {
+                AtomicInteger prev = associationsInitiatedBy.putIfAbsent(callingAET, counter = new AtomicInteger());
+                if (prev != null)
+                    counter = prev;
+            }
+            int count;
+            while ((count = counter.get()) >= 0) {
+                if (limit > 0 && count >= limit)
+                    return false;
+                if (counter.compareAndSet(count, count + 1))
+                    return true;
+            }
+            associationsInitiatedBy.remove(callingAET, counter);
+        }
+    }
+
+    private void decrementAssociationsInitiatedBy(String callingAET) {
+        AtomicInteger counter = associationsInitiatedBy.get(callingAET);
+        if (counter.decrementAndGet() == 0 && counter.compareAndSet(0, -1))
+            associationsInitiatedBy.remove(callingAET, counter);
+    }
+
+    private boolean tryAcquireAssociationRatePermit(String callingAET, InetAddress remoteAddr) {
+        int rate = limitAssociationRate;
+        if (rate <= 0)
+            return true;
+
+        int burst = limitAssociationRateBurst > 0 ? limitAssociationRateBurst : rate;
+        long now = System.nanoTime();
+        if (associationRateLimiters.size() > MAX_ASSOCIATION_RATE_LIMITERS)
+            removeIdleAssociationRateLimiters(now);
+        return associationRateLimiter("AET:" + callingAET, rate, burst, now).tryAcquire(now)
+                && (remoteAddr == null
+                    || associationRateLimiter("IP:" + remoteAddr.getHostAddress(), rate, burst, now).tryAcquire(now));
+    }
+
+    private TokenBucket associationRateLimiter(String key, int rate, int burst, long now) {
+        TokenBucket bucket = associationRateLimiters.get(key);
+        if (bucket == null) {
+            TokenBucket prev = associationRateLimiters.putIfAbsent(key, bucket = new TokenBucket(rate, burst, now));
+            if (prev != null)
+                bucket = prev;
+        }
+        return bucket;
+    }
+
+    private void removeIdleAssociationRateLimiters(long now) {
+        for (Iterator<TokenBucket> iter = associationRateLimiters.values().iterator(); iter.hasNext();) {
+            if (iter.next().isFull(now))
+                iter.remove();
+        }
+    }
+
+    public Association [] listOpenAssociations() {
+        return associations.toArray(new Association[0]);
+    }
+
     public int getNumberOfOpenAssociations() {
         return associations.size();
     }
 
+    /**
+     * Returns number of open Associations initiated by the specified AE, which were admitted or requested by this
+     * Device.
+     *
+     * @param callingAET AE Title of the initiating AE.
+     * @return number of open Associations initiated by the specified AE.
+     */
     public int getNumberOfAssociationsInitiatedBy(String callingAET) {
-        synchronized (associations) {
-            int count = 0;
-            for (Association association : associations) {
-                if (callingAET.equals(association.getCallingAET()))
-                    count++;
-            }
-            return count;
-        }
+        AtomicInteger counter = associationsInitiatedBy.get(callingAET);
+        return counter != null ? Math.max(0, counter.get()) : 0;
     }
 
     public void waitForNoOpenConnections() throws InterruptedException {
@@ -1036,11 +1285,18 @@ public class Device implements Serializable {
         }
     }
 
+    /**
+     * Returns if the admission of the specified Association request would exceed
+     * {@link #getLimitOpenAssociations()} or {@link #getLimitAssociationsInitiatedBy(String)}.
+     *
+     * @param rq Association request
+     * @return {@code true} if the admission would exceed a limit of open Associations.
+     */
     public boolean isLimitOfAssociationsExceeded(AAssociateRQ rq) {
-        Integer limit;
-        return limitOpenAssociations > 0 && associations.size() > limitOpenAssociations
-                || (limit = limitAssociationsInitiatedBy.get(rq.getCallingAET())) != null
-                && getNumberOfAssociationsInitiatedBy(rq.getCallingAET()) > limit;
+        int limit;
+        return limitOpenAssociations > 0 && numberOfAdmittedAssociations.get() >= limitOpenAssociations
+                || (limit = getLimitAssociationsInitiatedBy(rq.getCallingAET())) > 0
+                && getNumberOfAssociationsInitiatedBy(rq.getCallingAET()) >= limit;
     }
 
     public ApplicationEntity getApplicationEntity(String aet) {
@@ -1048,22 +1304,23 @@ public class Device implements Serializable {
     }
 
     public ApplicationEntity getApplicationEntity(String aet, boolean matchOtherAETs) {
+        LinkedHashMap<String, ApplicationEntity> aes = this.aes;
         ApplicationEntity ae = aes.get(aet);
         if (ae == null)
             ae = aes.get("*");
         if (ae == null && matchOtherAETs)
-            for (ApplicationEntity ae1 : getApplicationEntities())
+            for (ApplicationEntity ae1 : aes.values())
                 if (ae1.isOtherAETitle(aet))
                     return ae1;
         return ae;
     }
 
     public Collection<String> getApplicationAETitles() {
-        return aes.keySet();
+        return Collections.unmodifiableSet(aes.keySet());
     }
 
     public Collection<ApplicationEntity> getApplicationEntities() {
-        return aes.values();
+        return Collections.unmodifiableCollection(aes.values());
     }
 
     public final void setKeyManager(KeyManager km) {
@@ -1181,10 +1438,41 @@ public class Device implements Serializable {
 
         ctx = SSLContext.getInstance("TLS");
         ctx.init(keyManagers(), trustManagers(), null);
+        SSLSessionContext client = ctx.getClientSessionContext();
+        SSLSessionContext server = ctx.getServerSessionContext();
+        defaultTlsSessionContextSettings = new int[] {
+                client.getSessionCacheSize(), client.getSessionTimeout(),
+                server.getSessionCacheSize(), server.getSessionTimeout() };
+        configureTLSSessionContexts(ctx);
         sslContext = ctx;
         return ctx;
     }
 
+    void configureTLSSessionContexts() {
+        SSLContext ctx = sslContext;
+        if (ctx != null)
+            configureTLSSessionContexts(ctx);
+    }
+
+    private void configureTLSSessionContexts(SSLContext ctx) {
+        int cacheSize = 0;
+        int timeout = 0;
+        for (Connection conn : conns) {
+            if (conn.isTls()) {
+                cacheSize = Math.max(cacheSize, conn.getTlsSessionCacheSize());
+                timeout = Math.max(timeout, conn.getTlsSessionTimeout());
+            }
+        }
+        // restore the JDK defaults if no TLS connection specifies a value
+        int[] defaults = defaultTlsSessionContextSettings;
+        SSLSessionContext client = ctx.getClientSessionContext();
+        SSLSessionContext server = ctx.getServerSessionContext();
+        client.setSessionCacheSize(cacheSize > 0 ? cacheSize : defaults[0]);
+        client.setSessionTimeout(timeout > 0 ? timeout : defaults[1]);
+        server.setSessionCacheSize(cacheSize > 0 ? cacheSize : defaults[2]);
+        server.setSessionTimeout(timeout > 0 ? timeout : defaults[3]);
+    }
+
     public KeyManager[] keyManagers() throws GeneralSecurityException, IOException {
         KeyManager tmp = km();
         return tmp != null ? new KeyManager[] { tmp } : null;
@@ -1291,6 +1579,9 @@ public class Device implements Serializable {
         setThisNodeCertificates(from.thisNodeCertificates);
         setVendorData(from.vendorData);
         setLimitOpenAssociations(from.limitOpenAssociations);
+        setLimitAssociationRate(from.limitAssociationRate);
+        setLimitAssociationRateBurst(from.limitAssociationRateBurst);
+        setMaxAssociationQueueTime(from.maxAssociationQueueTime);
         setInstalled(from.installed);
         setLimitAssociationsInitiatedBy(from.limitAssociationsInitiatedBy);
         setRoleSelectionNegotiationLenient(from.roleSelectionNegotiationLenient);
@@ -1321,11 +1612,9 @@ public class Device implements Serializable {
      }
 
      private void reconfigureConnections(Device from) {
-         Iterator<Connection> connIter = conns.iterator();
-         while (connIter.hasNext()) {
-             Connection conn = connIter.next();
+         for (Connection conn : conns) {
              if (from.connectionWithEqualsRDN(conn) == null) {
-                 connIter.remove();
+                 conns.remove(conn);
                  conn.setDevice(null);
                  conn.unbind();
              }
@@ -1338,14 +1627,27 @@ public class Device implements Serializable {
          }
     }
 
-     private void reconfigureApplicationEntities(Device from) {
-         aes.keySet().retainAll(from.aes.keySet());
+    /**
+     * Existing AEs are kept and reconfigured in place, so references to them - e.g. of open Associations or of
+     * AE extensions - remain valid. Their attributes, Connections, Transfer Capabilities and AE extensions are
+     * updated one after the other, so Associations negotiated concurrently may see an AE with only some of these
+     * updated. Each of the collections is replaced as a whole and never observed partially modified.
+     */
+     private synchronized void reconfigureApplicationEntities(Device from) {
+         LinkedHashMap<String, ApplicationEntity> prev = aes;
+         LinkedHashMap<String, ApplicationEntity> aes = new LinkedHashMap<>();
          for (ApplicationEntity src : from.aes.values()) {
-             ApplicationEntity ae = aes.get(src.getAETitle());
-             if (ae == null)
-                 addApplicationEntity(ae = new ApplicationEntity(src.getAETitle()));
+             ApplicationEntity ae = prev.get(src.getAETitle());
+             if (ae == null) {
+                 ae = new ApplicationEntity(src.getAETitle());
+                 ae.setDevice(this);
+             }
              ae.reconfigure(src);
+             aes.put(ae.getAETitle(), ae);
          }
+         // publish added AEs not before they are fully configured; associations already
+         // established with removed AEs keep their reference to it until they are released
+         this.aes = aes;
      }
 
     private void reconfigureWebApplications(Device from) {
@@ -1370,9 +1672,27 @@ public class Device implements Serializable {
 
     public void reconfigureConnections(List<Connection> conns,
             List<Connection> src) {
-        conns.clear();
+        List<Connection> target = new ArrayList<>(src.size());
         for (Connection conn : src)
-            conns.add(connectionWithEqualsRDN(conn));
+            target.add(connectionWithEqualsRDN(conn));
+        if (conns.equals(target))
+            return;
+
+        // add before remove, so the list does not get empty in between
+        for (Connection conn : target)
+            if (!conns.contains(conn))
+                conns.add(conn);
+        conns.retainAll(target);
+        if (!conns.equals(target)) {
+            // fix order by one atomic replacement of all elements of a CopyOnWriteArrayList
+            final Iterator<Connection> iter = target.iterator();
+            conns.replaceAll(new UnaryOperator<Connection>() {
+                @Override
+                public Connection apply(Connection conn) {
+                    return iter.next();
+                }
+            });
+        }
     }
 
     private void reconfigureDeviceExtensions(Device from) {
@@ -1411,4 +1731,16 @@ public class Device implements Serializable {
                     + " configured for Device: " + deviceName);
         return devExt;
     }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        associationHandler = new AssociationHandler();
+        associations = newSetFromMap(new ConcurrentHashMap<Association, Boolean>());
+        numberOfAdmittedAssociations = new AtomicInteger();
+        associationsInitiatedBy = new ConcurrentHashMap<>();
+        associationRateLimiters = new ConcurrentHashMap<>();
+        admissionLock = new ReentrantLock(true);
+        associationReleased = admissionLock.newCondition();
+        numberOfQueuedAssociations = new AtomicInteger();
+    }
 }
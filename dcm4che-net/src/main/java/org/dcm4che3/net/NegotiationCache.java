@@ -0,0 +1,149 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.net.pdu.AAssociateAC;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.CommonExtendedNegotiation;
+import org.dcm4che3.net.pdu.ExtendedNegotiation;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.pdu.RoleSelection;
+import org.dcm4che3.util.TagUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches the negotiated Presentation Contexts, SCP/SCU Role Selections and Extended Negotiations of an
+ * {@link ApplicationEntity} by the content of the Association requests they were negotiated for. Cached entries
+ * are only reused for the version of the Transfer Capabilities they were negotiated with.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+final class NegotiationCache {
+
+    private final AtomicInteger version = new AtomicInteger();
+    private final LinkedHashMap<String, AAssociateAC> cache = new LinkedHashMap<String, AAssociateAC>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AAssociateAC> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private volatile int maxSize;
+
+    NegotiationCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        synchronized (cache) {
+            while (cache.size() > maxSize)
+                cache.remove(cache.keySet().iterator().next());
+        }
+    }
+
+    int version() {
+        return version.get();
+    }
+
+    void invalidate() {
+        version.incrementAndGet();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    AAssociateAC get(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    void put(String key, int version, AAssociateAC ac) {
+        synchronized (cache) {
+            if (this.version.get() == version)
+                cache.put(key, ac);
+        }
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    static String keyOf(AAssociateRQ rq) {
+        StringBuilder sb = new StringBuilder(rq.getNumberOfPresentationContexts() * 64);
+        for (PresentationContext pc : rq.getPresentationContexts()) {
+            sb.append(pc.getPCID()).append(':').append(pc.getAbstractSyntax());
+            for (String ts : pc.getTransferSyntaxes())
+                sb.append(',').append(ts);
+            sb.append(';');
+        }
+        for (RoleSelection rs : rq.getRoleSelections())
+            sb.append("RS:").append(rs.getSOPClassUID())
+                    .append(rs.isSCU() ? ",SCU" : "").append(rs.isSCP() ? ",SCP" : "").append(';');
+        for (ExtendedNegotiation extNeg : rq.getExtendedNegotiations())
+            sb.append("EN:").append(extNeg.getSOPClassUID())
+                    .append(',').append(TagUtils.toHexString(extNeg.getInformation())).append(';');
+        for (CommonExtendedNegotiation commonExtNeg : rq.getCommonExtendedNegotiations()) {
+            sb.append("CEN:").append(commonExtNeg.getSOPClassUID())
+                    .append(',').append(commonExtNeg.getServiceClassUID());
+            for (String cuid : commonExtNeg.getRelatedGeneralSOPClassUIDs())
+                sb.append(',').append(cuid);
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    static void copyTo(AAssociateAC template, AAssociateAC ac) {
+        for (PresentationContext pc : template.getPresentationContexts())
+            ac.addPresentationContext(pc);
+        for (RoleSelection rs : template.getRoleSelections())
+            ac.addRoleSelection(rs);
+        for (ExtendedNegotiation extNeg : template.getExtendedNegotiations())
+            ac.addExtendedNegotiation(extNeg);
+    }
+}
@@ -44,9 +44,6 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.security.GeneralSecurityException;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLServerSocket;
-import javax.net.ssl.SSLServerSocketFactory;
 import javax.net.ssl.SSLSocket;
 
 /**
@@ -65,7 +62,7 @@ class TCPListener implements Listener {
         
             this.conn = conn;
             this.handler = handler;
-            ss = conn.isTls() ? createTLSServerSocket(conn) : new ServerSocket();
+            ss = new ServerSocket();
             conn.setReceiveBufferSize(ss);
             ss.bind(conn.getBindPoint(), conn.getBacklog());
             conn.getDevice().execute(new Runnable(){
@@ -79,17 +76,6 @@ class TCPListener implements Listener {
         }
     }
 
-    private ServerSocket createTLSServerSocket(Connection conn)
-            throws IOException, GeneralSecurityException {
-        SSLContext sslContext = conn.getDevice().sslContext();
-        SSLServerSocketFactory ssf = sslContext.getServerSocketFactory();
-        SSLServerSocket ss = (SSLServerSocket) ssf.createServerSocket();
-        ss.setEnabledProtocols(conn.getTlsProtocols());
-        ss.setEnabledCipherSuites(conn.getTlsCipherSuites());
-        ss.setNeedClientAuth(conn.isTlsNeedClientAuth());
-        return ss;
-    }
-
     private void listen() {
         SocketAddress sockAddr = ss.getLocalSocketAddress();
         Connection.LOG.info("Start TCP Listener on {}", sockAddr);
@@ -108,8 +94,10 @@ class TCPListener implements Listener {
                 } else {
                     try {
                         conn.setSocketSendOptions(s);
-                        if (s instanceof SSLSocket) {
-                            ((SSLSocket) s).startHandshake();
+                        if (conn.isTls()) {
+                            SSLSocket ssl = conn.createTLSSocket(s);
+                            s = ssl;
+                            conn.startHandshake(ssl);
                         }
                     } catch (Throwable e) {
                         if (monitor != null)
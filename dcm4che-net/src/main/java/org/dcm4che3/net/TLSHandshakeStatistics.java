@@ -0,0 +1,116 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import javax.net.ssl.SSLSession;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts TLS handshakes on a {@link Connection}, separately for full handshakes and for handshakes which resumed
+ * a cached TLS session. A session is detected as resumed, if it was created before the start of the handshake.
+ * Therefore resumption of TLS 1.3 sessions by pre-shared keys - for which the JDK creates a new session - is
+ * counted as full handshake.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class TLSHandshakeStatistics {
+
+    private final AtomicLong handshakes = new AtomicLong();
+    private final AtomicLong handshakeTime = new AtomicLong();
+    private final AtomicLong resumptions = new AtomicLong();
+    private final AtomicLong resumptionTime = new AtomicLong();
+
+    void onHandshakeCompleted(SSLSession session, long startTimeMillis, long durationNanos) {
+        if (session.getCreationTime() < startTimeMillis) {
+            resumptions.incrementAndGet();
+            resumptionTime.addAndGet(durationNanos);
+        } else {
+            handshakes.incrementAndGet();
+            handshakeTime.addAndGet(durationNanos);
+        }
+    }
+
+    /**
+     * @return number of full TLS handshakes
+     */
+    public long getNumberOfHandshakes() {
+        return handshakes.get();
+    }
+
+    /**
+     * @return accumulated duration of full TLS handshakes in ns
+     */
+    public long getHandshakeTime() {
+        return handshakeTime.get();
+    }
+
+    /**
+     * @return number of TLS handshakes which resumed a cached session
+     */
+    public long getNumberOfResumptions() {
+        return resumptions.get();
+    }
+
+    /**
+     * @return accumulated duration of TLS handshakes which resumed a cached session in ns
+     */
+    public long getResumptionTime() {
+        return resumptionTime.get();
+    }
+
+    public void reset() {
+        handshakes.set(0L);
+        handshakeTime.set(0L);
+        resumptions.set(0L);
+        resumptionTime.set(0L);
+    }
+
+    @Override
+    public String toString() {
+        return "TLSHandshakeStatistics[handshakes=" + handshakes
+                + ", handshakeTime=" + handshakeTime.get() / 1000000L
+                + "ms, resumptions=" + resumptions
+                + ", resumptionTime=" + resumptionTime.get() / 1000000L
+                + "ms]";
+    }
+}
@@ -174,6 +174,7 @@ public class TransferCapability implements Serializable {
         this.transferSyntaxes = StringUtils.requireContainsNoEmpty(
                 StringUtils.requireNotEmpty(transferSyntaxes, "missing transferSyntax"),
                 "empty transferSyntax");
+        invalidateNegotiationCache();
     }
 
     public String[] getPreferredTransferSyntaxes() {
@@ -183,6 +184,7 @@ public class TransferCapability implements Serializable {
     public void setPreferredTransferSyntaxes(String... transferSyntaxes) {
         this.prefTransferSyntaxes =
                 StringUtils.requireContainsNoEmpty(transferSyntaxes, "empty transferSyntax");
+        invalidateNegotiationCache();
     }
 
     public boolean containsTransferSyntax(String ts) {
@@ -215,18 +217,55 @@ public class TransferCapability implements Serializable {
         return acceptable;
     }
 
+    /**
+     * Sets the Query Options, which are negotiated by Extended Negotiation. The options are copied, so later
+     * modifications of the passed set do not affect cached negotiation results.
+     *
+     * @param queryOptions Query Options or {@code null}
+     */
     public void setQueryOptions(EnumSet<QueryOption> queryOptions) {
-        this.queryOptions = queryOptions;
+        this.queryOptions = queryOptions != null ? EnumSet.copyOf(queryOptions) : null;
+        invalidateNegotiationCache();
     }
 
+    /**
+     * Returns the Query Options. Modifications of the returned set in place require to invoke
+     * {@link ApplicationEntity#invalidateNegotiationCache()}; use {@link #setQueryOptions} instead.
+     *
+     * @return Query Options or {@code null}
+     */
     public EnumSet<QueryOption> getQueryOptions() {
         return queryOptions;
     }
 
+    /**
+     * Sets the Storage Options, which are negotiated by Extended Negotiation. The options are copied, so later
+     * modifications of the passed options do not affect cached negotiation results.
+     *
+     * @param storageOptions Storage Options or {@code null}
+     */
     public void setStorageOptions(StorageOptions storageOptions) {
-        this.storageOptions = storageOptions;
+        this.storageOptions = storageOptions != null
+                ? new StorageOptions(
+                        storageOptions.getLevelOfSupport(),
+                        storageOptions.getDigitalSignatureSupport(),
+                        storageOptions.getElementCoercion())
+                : null;
+        invalidateNegotiationCache();
     }
 
+    private void invalidateNegotiationCache() {
+        ApplicationEntity ae = this.ae;
+        if (ae != null)
+            ae.invalidateNegotiationCache();
+    }
+
+    /**
+     * Returns the Storage Options. Modifications of the returned options in place require to invoke
+     * {@link ApplicationEntity#invalidateNegotiationCache()}; use {@link #setStorageOptions} instead.
+     *
+     * @return Storage Options or {@code null}
+     */
     public StorageOptions getStorageOptions() {
         return storageOptions;
     }
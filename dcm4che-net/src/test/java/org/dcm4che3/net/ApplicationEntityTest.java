@@ -0,0 +1,167 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateAC;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.ExtendedNegotiation;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.pdu.RoleSelection;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class ApplicationEntityTest {
+
+    @Test
+    public void testNegotiate() {
+        ApplicationEntity ae = createAE();
+        AAssociateAC ac1 = negotiate(ae, createRQ());
+        AAssociateAC ac2 = negotiate(ae, createRQ());
+        assertAccepted(ac1, UID.ExplicitVRLittleEndian);
+        assertAccepted(ac2, UID.ExplicitVRLittleEndian);
+        assertSame(ac1.getPresentationContext(1), ac2.getPresentationContext(1));
+        assertEquals(PresentationContext.ABSTRACT_SYNTAX_NOT_SUPPORTED, ac2.getPresentationContext(3).getResult());
+        RoleSelection rs = ac2.getRoleSelectionFor(UID.StudyRootQueryRetrieveInformationModelGET);
+        assertNotNull(rs);
+        assertTrue(rs.isSCU());
+        assertFalse(rs.isSCP());
+    }
+
+    @Test
+    public void testNegotiateAfterTransferCapabilityChange() {
+        ApplicationEntity ae = createAE();
+        assertAccepted(negotiate(ae, createRQ()), UID.ExplicitVRLittleEndian);
+        ae.getTransferCapabilityFor(UID.CTImageStorage, TransferCapability.Role.SCP)
+                .setTransferSyntaxes(UID.ImplicitVRLittleEndian);
+        assertAccepted(negotiate(ae, createRQ()), UID.ImplicitVRLittleEndian);
+        ae.removeTransferCapabilityFor(UID.CTImageStorage, TransferCapability.Role.SCP);
+        assertEquals(PresentationContext.ABSTRACT_SYNTAX_NOT_SUPPORTED,
+                negotiate(ae, createRQ()).getPresentationContext(1).getResult());
+    }
+
+    @Test
+    public void testNegotiateAfterStorageOptionsChange() {
+        ApplicationEntity ae = createAE();
+        TransferCapability tc = ae.getTransferCapabilityFor(UID.CTImageStorage, TransferCapability.Role.SCP);
+        StorageOptions storageOptions = new StorageOptions(StorageOptions.LevelOfSupport.LEVEL_0,
+                StorageOptions.DigitalSignatureSupport.UNSPECIFIED, StorageOptions.ElementCoercion.NO);
+        tc.setStorageOptions(storageOptions);
+        assertEquals(StorageOptions.LevelOfSupport.LEVEL_0, negotiatedStorageOptions(ae).getLevelOfSupport());
+        storageOptions.setLevelOfSupport(StorageOptions.LevelOfSupport.LEVEL_2);
+        assertEquals(StorageOptions.LevelOfSupport.LEVEL_0, negotiatedStorageOptions(ae).getLevelOfSupport());
+        tc.setStorageOptions(storageOptions);
+        assertEquals(StorageOptions.LevelOfSupport.LEVEL_2, negotiatedStorageOptions(ae).getLevelOfSupport());
+    }
+
+    @Test
+    public void testNegotiateWithoutCache() {
+        ApplicationEntity ae = new ApplicationEntity("TEST");
+        assertEquals(0, ae.getNegotiationCacheSize());
+        ae = createAE();
+        ae.setNegotiationCacheSize(0);
+        AAssociateAC ac1 = negotiate(ae, createRQ());
+        AAssociateAC ac2 = negotiate(ae, createRQ());
+        assertAccepted(ac2, UID.ExplicitVRLittleEndian);
+        assertNotSame(ac1.getPresentationContext(1), ac2.getPresentationContext(1));
+    }
+
+    @Test
+    public void testReconfigureNegotiationCacheSize() {
+        ApplicationEntity ae = createAE();
+        new Device("test").addApplicationEntity(ae);
+        AAssociateAC ac1 = negotiate(ae, createRQ());
+        ApplicationEntity from = createAE();
+        new Device("test").addApplicationEntity(from);
+        from.setNegotiationCacheSize(0);
+        ae.reconfigure(from);
+        assertEquals(0, ae.getNegotiationCacheSize());
+        assertNotSame(ac1.getPresentationContext(1), negotiate(ae, createRQ()).getPresentationContext(1));
+    }
+
+    private static void assertAccepted(AAssociateAC ac, String ts) {
+        PresentationContext pc = ac.getPresentationContext(1);
+        assertTrue(pc.isAccepted());
+        assertEquals(ts, pc.getTransferSyntax());
+    }
+
+    private static StorageOptions negotiatedStorageOptions(ApplicationEntity ae) {
+        AAssociateRQ rq = createRQ();
+        rq.addExtendedNegotiation(new ExtendedNegotiation(UID.CTImageStorage,
+                new StorageOptions().toExtendedNegotiationInformation()));
+        return StorageOptions.valueOf(negotiate(ae, rq).getExtNegotiationFor(UID.CTImageStorage));
+    }
+
+    private static AAssociateAC negotiate(ApplicationEntity ae, AAssociateRQ rq) {
+        AAssociateAC ac = new AAssociateAC();
+        ae.negotiate(rq, ac);
+        return ac;
+    }
+
+    private static ApplicationEntity createAE() {
+        ApplicationEntity ae = new ApplicationEntity("TEST");
+        ae.addTransferCapability(new TransferCapability(null, UID.CTImageStorage,
+                TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian));
+        ae.addTransferCapability(new TransferCapability(null, UID.StudyRootQueryRetrieveInformationModelGET,
+                TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        ae.setPreferredTransferSyntaxes(UID.ExplicitVRLittleEndian);
+        ae.setNegotiationCacheSize(100);
+        return ae;
+    }
+
+    private static AAssociateRQ createRQ() {
+        AAssociateRQ rq = new AAssociateRQ();
+        rq.addPresentationContext(new PresentationContext(1, UID.CTImageStorage,
+                UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian));
+        rq.addPresentationContext(new PresentationContext(3, UID.MRImageStorage,
+                UID.ImplicitVRLittleEndian));
+        rq.addPresentationContext(new PresentationContext(5, UID.StudyRootQueryRetrieveInformationModelGET,
+                UID.ImplicitVRLittleEndian));
+        rq.addRoleSelection(new RoleSelection(UID.StudyRootQueryRetrieveInformationModelGET, true, false));
+        return rq;
+    }
+}
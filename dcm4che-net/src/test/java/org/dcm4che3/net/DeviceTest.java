@@ -39,19 +39,38 @@ package org.dcm4che3.net;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
+import org.dcm4che3.data.UID;
 import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.pdu.AAssociateRJ;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.DicomServiceRegistry;
 import org.junit.Test;
 
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
  *
  */
 public class DeviceTest {
 
+    private static final String AES_128 = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+    private static final String AES_256 = "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384";
+
     /**
      * Test method for {@link org.dcm4che3.net.Device#reconfigure(org.dcm4che3.net.Device)}.
      */
@@ -66,6 +85,255 @@ public class DeviceTest {
         assertEquals(1, conns.size());
     }
 
+    @Test
+    public void testReconfigureKeepsUnchangedState() throws Exception {
+        Device d1 = createDevice("test", "AET1");
+        ApplicationEntity ae1 = d1.getApplicationEntity("AET1");
+        Connection conn = d1.listConnections().get(0);
+        d1.setInstalled(false);
+        d1.bindConnections();
+        Device d2 = createDevice("test", "AET1");
+        d2.setInstalled(false);
+        ApplicationEntity ae2 = new ApplicationEntity("AET2");
+        d2.addApplicationEntity(ae2);
+        ae2.addConnection(d2.listConnections().get(0));
+        d2.listConnections().get(0).setTlsProtocols("TLSv1.2");
+        d1.reconfigure(d2);
+        assertSame(ae1, d1.getApplicationEntity("AET1"));
+        assertSame(conn, ae1.getConnections().get(0));
+        assertSame(conn, d1.getApplicationEntity("AET2").getConnections().get(0));
+        assertFalse(conn.isRebindNeeded());
+    }
+
+    @Test
+    public void testReconfigureConnectionOrder() throws Exception {
+        Device d1 = createDevice("test", "AET1");
+        Connection conn1 = d1.listConnections().get(0);
+        Connection conn2 = new Connection("dicom-tls", "localhost", 2762);
+        d1.addConnection(conn2);
+        d1.getApplicationEntity("AET1").addConnection(conn2);
+        Device d2 = createDevice("test", "AET1");
+        Connection conn3 = new Connection("dicom-tls", "localhost", 2762);
+        d2.addConnection(conn3);
+        ApplicationEntity ae2 = d2.getApplicationEntity("AET1");
+        ae2.removeConnection(d2.listConnections().get(0));
+        ae2.addConnection(conn3);
+        ae2.addConnection(d2.listConnections().get(0));
+        d1.reconfigure(d2);
+        List<Connection> conns = d1.getApplicationEntity("AET1").getConnections();
+        assertEquals(2, conns.size());
+        assertSame(conn2, conns.get(0));
+        assertSame(conn1, conns.get(1));
+    }
+
+    @Test
+    public void testLimitAssociationsInitiatedBy() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        Device scp = createSCP(executor, scheduledExecutor);
+        scp.setLimitAssociationsInitiatedBy("SCU", 1);
+        scp.bindConnections();
+        ApplicationEntity scu = createSCU(executor, scheduledExecutor);
+        Connection remote = scp.listConnections().get(0);
+        try {
+            assertFalse(scp.isLimitOfAssociationsExceeded(echoRQ()));
+            Association as = scu.connect(remote, echoRQ());
+            assertEquals(1, scp.getNumberOfAssociationsInitiatedBy("SCU"));
+            assertTrue(scp.isLimitOfAssociationsExceeded(echoRQ()));
+            try {
+                scu.connect(remote, echoRQ());
+                fail("Association exceeding limit was admitted");
+            } catch (AAssociateRJ e) {
+                assertEquals(AAssociateRJ.REASON_LOCAL_LIMIT_EXCEEDED, e.getReason());
+            }
+            as.release();
+            as.waitForSocketClose();
+            awaitNoAssociationsInitiatedBy(scp, "SCU");
+            assertFalse(scp.isLimitOfAssociationsExceeded(echoRQ()));
+            scu.connect(remote, echoRQ()).release();
+        } finally {
+            scp.unbindConnections();
+            executor.shutdownNow();
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMaxAssociationQueueTime() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        Device scp = createSCP(executor, scheduledExecutor);
+        scp.setLimitOpenAssociations(1);
+        scp.setMaxAssociationQueueTime(500);
+        scp.bindConnections();
+        final ApplicationEntity scu = createSCU(executor, scheduledExecutor);
+        final Connection remote = scp.listConnections().get(0);
+        try {
+            Association as = scu.connect(remote, echoRQ());
+            long start = System.currentTimeMillis();
+            try {
+                scu.connect(remote, echoRQ());
+                fail("Association exceeding limit was admitted");
+            } catch (AAssociateRJ e) {
+                assertTrue(System.currentTimeMillis() - start >= 500);
+            }
+            scp.setMaxAssociationQueueTime(5000);
+            Future<Association> queued = executor.submit(new Callable<Association>() {
+                @Override
+                public Association call() throws Exception {
+                    return scu.connect(remote, echoRQ());
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(queued.isDone());
+            as.release();
+            as.waitForSocketClose();
+            Association as2 = queued.get();
+            assertTrue(as2.isReadyForDataTransfer());
+            as2.release();
+            as2.waitForSocketClose();
+            awaitNoAssociationsInitiatedBy(scp, "SCU");
+        } finally {
+            scp.unbindConnections();
+            executor.shutdownNow();
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTLSConnection() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        Device scp = createSCP(executor, scheduledExecutor);
+        Connection listening = scp.listConnections().get(0);
+        setTLS(scp, listening, AES_128);
+        scp.bindConnections();
+        ApplicationEntity scu = createSCU(executor, scheduledExecutor);
+        Connection conn = scu.getConnections().get(0);
+        setTLS(scu.getDevice(), conn, AES_128, AES_256);
+        Connection remote = new Connection("dicom", "127.0.0.1", boundPort(listening));
+        remote.setTlsCipherSuites(AES_128, AES_256);
+        try {
+            Association as = scu.connect(remote, echoRQ());
+            assertTrue(as.getSocket() instanceof SSLSocket);
+            assertEquals(AES_128, ((SSLSocket) as.getSocket()).getSession().getCipherSuite());
+            as.release();
+            as.waitForSocketClose();
+            as = scu.connect(remote, echoRQ());
+            as.release();
+            as.waitForSocketClose();
+            assertEquals(1, conn.getTLSHandshakeStatistics().getNumberOfHandshakes());
+            assertEquals(1, conn.getTLSHandshakeStatistics().getNumberOfResumptions());
+            assertEquals(1, listening.getTLSHandshakeStatistics().getNumberOfHandshakes());
+            assertEquals(1, listening.getTLSHandshakeStatistics().getNumberOfResumptions());
+            listening.setTlsCipherSuites(AES_256);
+            assertFalse(listening.isRebindNeeded());
+            as = scu.connect(remote, echoRQ());
+            assertEquals(AES_256, ((SSLSocket) as.getSocket()).getSession().getCipherSuite());
+            as.release();
+            as.waitForSocketClose();
+            conn.setTlsCipherSuites(AES_128);
+            try {
+                scu.connect(remote, echoRQ());
+                fail("TLS handshake with unsupported cipher suite succeeded");
+            } catch (IOException expected) {}
+        } finally {
+            scp.unbindConnections();
+            executor.shutdownNow();
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTLSSessionContext() throws Exception {
+        Device dev = createDevice("test", "AET1");
+        Connection conn = dev.listConnections().get(0);
+        setTLS(dev, conn, AES_128);
+        SSLSessionContext server = dev.sslContext().getServerSessionContext();
+        SSLSessionContext client = dev.sslContext().getClientSessionContext();
+        int defaultCacheSize = server.getSessionCacheSize();
+        int defaultTimeout = server.getSessionTimeout();
+        conn.setTlsSessionCacheSize(100);
+        conn.setTlsSessionTimeout(600);
+        assertEquals(100, server.getSessionCacheSize());
+        assertEquals(100, client.getSessionCacheSize());
+        assertEquals(600, server.getSessionTimeout());
+        assertEquals(600, client.getSessionTimeout());
+        conn.setTlsSessionCacheSize(10);
+        conn.setTlsSessionTimeout(60);
+        assertEquals(10, server.getSessionCacheSize());
+        assertEquals(60, client.getSessionTimeout());
+        conn.setTlsSessionCacheSize(0);
+        conn.setTlsSessionTimeout(0);
+        assertEquals(defaultCacheSize, server.getSessionCacheSize());
+        assertEquals(defaultTimeout, server.getSessionTimeout());
+        conn.setTlsSessionCacheSize(10);
+        assertEquals(10, dev.sslContext().getServerSessionContext().getSessionCacheSize());
+    }
+
+    private static void setTLS(Device dev, Connection conn, String... cipherSuites) {
+        dev.setKeyStoreURL("resource:test-key.jks");
+        dev.setKeyStoreType("JKS");
+        dev.setKeyStorePin("secret");
+        dev.setTrustStoreURL("resource:test-key.jks");
+        dev.setTrustStoreType("JKS");
+        dev.setTrustStorePin("secret");
+        conn.setTlsCipherSuites(cipherSuites);
+    }
+
+    private static Device createSCP(ExecutorService executor, ScheduledExecutorService scheduledExecutor)
+            throws Exception {
+        Device dev = new Device("scp");
+        Connection conn = new Connection("dicom", "127.0.0.1", freePort());
+        dev.addConnection(conn);
+        ApplicationEntity ae = new ApplicationEntity("SCP");
+        dev.addApplicationEntity(ae);
+        ae.addConnection(conn);
+        ae.addTransferCapability(new TransferCapability(null, UID.VerificationSOPClass,
+                TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        dev.setDimseRQHandler(new DicomServiceRegistry());
+        dev.setExecutor(executor);
+        dev.setScheduledExecutor(scheduledExecutor);
+        return dev;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket ss = new ServerSocket(0)) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private static int boundPort(Connection conn) {
+        return ((InetSocketAddress) conn.getListener().getEndPoint()).getPort();
+    }
+
+    private static ApplicationEntity createSCU(ExecutorService executor, ScheduledExecutorService scheduledExecutor) {
+        Device dev = new Device("scu");
+        Connection conn = new Connection("dicom", "127.0.0.1");
+        dev.addConnection(conn);
+        ApplicationEntity ae = new ApplicationEntity("SCU");
+        dev.addApplicationEntity(ae);
+        ae.addConnection(conn);
+        dev.setExecutor(executor);
+        dev.setScheduledExecutor(scheduledExecutor);
+        return ae;
+    }
+
+    private static AAssociateRQ echoRQ() {
+        AAssociateRQ rq = new AAssociateRQ();
+        rq.setCalledAET("SCP");
+        rq.setCallingAET("SCU");
+        rq.addPresentationContext(
+                new PresentationContext(1, UID.VerificationSOPClass, UID.ImplicitVRLittleEndian));
+        return rq;
+    }
+
+    private static void awaitNoAssociationsInitiatedBy(Device dev, String callingAET) throws InterruptedException {
+        for (int i = 0; i < 50 && dev.getNumberOfAssociationsInitiatedBy(callingAET) > 0; i++)
+            Thread.sleep(20);
+        assertEquals(0, dev.getNumberOfAssociationsInitiatedBy(callingAET));
+    }
+
     private Device createDevice(String name, String aet) {
         Device dev = new Device(name);
         Connection conn = new Connection("dicom", "localhost", 11112);
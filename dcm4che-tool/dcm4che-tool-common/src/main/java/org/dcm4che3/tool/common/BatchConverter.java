@@ -0,0 +1,349 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.tool.common;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Converts files from directories or file lists concurrently. Each worker
+ * thread gets its own {@link Converter}, which may keep parser, generator or
+ * transformer instances between files. The number of pending files is limited
+ * by the size of the work queue, so directory trees of any size are processed
+ * in bounded memory.
+ *
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class BatchConverter {
+
+    public interface Converter {
+        void convert(File src, File dest) throws Exception;
+    }
+
+    public interface ConverterFactory {
+        Converter newConverter() throws Exception;
+    }
+
+    private static final File[] END_OF_INPUT = {};
+    private static final long OFFER_TIMEOUT_MS = 1000;
+
+    private final String suffix;
+    private File destDir = new File(".");
+    private File listFile;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueSize = 1000;
+    private PrintStream out = System.out;
+
+    private final AtomicInteger converted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong srcBytes = new AtomicLong();
+    private final AtomicLong destBytes = new AtomicLong();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final Set<File> destInProgress =
+            Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+    public BatchConverter(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public final File getDestinationDirectory() {
+        return destDir;
+    }
+
+    public final void setDestinationDirectory(File destDir) {
+        this.destDir = destDir;
+    }
+
+    public final File getListFile() {
+        return listFile;
+    }
+
+    /**
+     * Set file containing the paths of the files to convert, one per line.
+     * Relative paths are kept relative to the destination directory. Files
+     * with relative paths which would be written outside of the destination
+     * directory - like {@code ../x} - are not converted and counted as
+     * failed.
+     *
+     * @param listFile list file or {@code null}
+     */
+    public final void setListFile(File listFile) {
+        this.listFile = listFile;
+    }
+
+    public final int getThreads() {
+        return threads;
+    }
+
+    public final void setThreads(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads: " + threads);
+        this.threads = threads;
+    }
+
+    public final int getQueueSize() {
+        return queueSize;
+    }
+
+    public final void setQueueSize(int queueSize) {
+        if (queueSize <= 0)
+            throw new IllegalArgumentException("queueSize: " + queueSize);
+        this.queueSize = queueSize;
+    }
+
+    public final void setPrintStream(PrintStream out) {
+        this.out = out;
+    }
+
+    public int getConverted() {
+        return converted.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Converts the specified files and all files in the specified directories
+     * and in the list file, if configured. Files found in a directory are
+     * written to the same relative path in the destination directory, with
+     * their file name extension replaced by the suffix of this converter.
+     * Files which would be written to the same destination file as another
+     * file of the same directory, of the specified files or of the list
+     * file - like {@code a.dcm} and {@code a.xml} - are not converted and
+     * counted as failed.
+     *
+     * @param fnames paths of files or directories to convert
+     * @param factory creates one {@link Converter} per worker thread
+     * @throws Exception if a {@link Converter} could not be created, the
+     *         list file could not be read or any file failed to convert
+     */
+    public void convert(List<String> fnames, ConverterFactory factory)
+            throws Exception {
+        BlockingQueue<File[]> queue = new ArrayBlockingQueue<File[]>(queueSize);
+        Converter[] converters = new Converter[threads];
+        for (int i = 0; i < threads; i++)
+            converters[i] = factory.newConverter();
+        long t1 = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            activeWorkers.set(threads);
+            for (Converter converter : converters)
+                executor.execute(new Worker(converter, queue));
+            try {
+                Set<File> listed = new HashSet<File>();
+                for (String fname : fnames) {
+                    File f = new File(fname);
+                    if (f.isDirectory())
+                        scan(f, destDir, queue);
+                    else
+                        put(queue, f, destFile(destDir, f.getName()), listed);
+                }
+                if (listFile != null)
+                    scanList(queue, listed);
+            } finally {
+                for (int i = 0; i < threads; i++)
+                    while (activeWorkers.get() > 0
+                            && !queue.offer(END_OF_INPUT, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        printSummary(System.nanoTime() - t1);
+        if (failed.get() > 0)
+            throw new IOException(MessageFormat.format(
+                    CLIUtils.rb.getString("batch-failed"),
+                    failed.get(),
+                    converted.get() + failed.get()));
+    }
+
+    private void scan(File dir, File dest, BlockingQueue<File[]> queue)
+            throws IOException, InterruptedException {
+        String[] names = dir.list();
+        if (names == null)
+            return;
+
+        Set<File> siblings = new HashSet<File>();
+        for (String name : names) {
+            File f = new File(dir, name);
+            if (f.isDirectory())
+                scan(f, new File(dest, name), queue);
+            else
+                put(queue, f, destFile(dest, name), siblings);
+        }
+    }
+
+    private void put(BlockingQueue<File[]> queue, File src, File dest, Set<File> dests)
+            throws IOException, InterruptedException {
+        if (!dests.add(dest)) {
+            failed.incrementAndGet();
+            System.err.println("Failed to convert " + src
+                    + ": destination file " + dest + " already used by another file");
+            return;
+        }
+        File[] task = { src, dest };
+        while (!queue.offer(task, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+            if (activeWorkers.get() == 0)
+                throw new IOException("All conversion threads terminated");
+    }
+
+    private void scanList(BlockingQueue<File[]> queue, Set<File> listed)
+            throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(listFile), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty())
+                    continue;
+
+                File f = new File(line);
+                if (f.isAbsolute())
+                    put(queue, f, destFile(destDir, f.getName()), listed);
+                else if (isInDestinationDirectory(line))
+                    put(queue, f, destFile(destDir, line), listed);
+                else {
+                    failed.incrementAndGet();
+                    System.err.println("Failed to convert " + line
+                            + ": outside of destination directory " + destDir);
+                }
+            }
+        } finally {
+            SafeClose.close(reader);
+        }
+    }
+
+    boolean isInDestinationDirectory(String path) {
+        Path dir = destDir.toPath().toAbsolutePath().normalize();
+        Path dest = dir.resolve(path).normalize();
+        return !dest.equals(dir) && dest.startsWith(dir);
+    }
+
+    File destFile(File dir, String path) {
+        int slash = path.lastIndexOf(File.separatorChar);
+        int dot = path.lastIndexOf('.');
+        return new File(dir, (dot > slash + 1 ? path.substring(0, dot) : path)
+                + suffix);
+    }
+
+    private void printSummary(long nanos) {
+        double secs = nanos / 1e9;
+        out.println(MessageFormat.format(CLIUtils.rb.getString("batch-summary"),
+                converted.get(),
+                failed.get(),
+                String.format("%.3f", secs),
+                String.format("%.1f", converted.get() / secs),
+                String.format("%.3f", srcBytes.get() / secs / 1e6),
+                String.format("%.3f", destBytes.get() / secs / 1e6)));
+    }
+
+    private class Worker implements Runnable {
+        private final Converter converter;
+        private final BlockingQueue<File[]> queue;
+
+        Worker(Converter converter, BlockingQueue<File[]> queue) {
+            this.converter = converter;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                File[] task;
+                while ((task = queue.take()) != END_OF_INPUT)
+                    convert(task[0], task[1]);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                activeWorkers.decrementAndGet();
+            }
+        }
+
+        private void convert(File src, File dest) {
+            if (!destInProgress.add(dest.getAbsoluteFile())) {
+                failed.incrementAndGet();
+                System.err.println("Failed to convert " + src
+                        + ": destination file " + dest + " is written by another thread");
+                return;
+            }
+            try {
+                File dir = dest.getParentFile();
+                if (dir != null)
+                    dir.mkdirs();
+                converter.convert(src, dest);
+                converted.incrementAndGet();
+                srcBytes.addAndGet(src.length());
+                destBytes.addAndGet(dest.length());
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                dest.delete();
+                System.err.println("Failed to convert " + src + ": " + e.getMessage());
+            } finally {
+                destInProgress.remove(dest.getAbsoluteFile());
+            }
+        }
+    }
+}
@@ -696,6 +696,48 @@ public class CLIUtils {
         fsInfo.setDescriptorFileCharset(cl.getOptionValue("fs-desc-cs"));
     }
 
+    public static void addBatchOptions(Options opts) {
+        opts.addOption(Option.builder()
+                .longOpt("batch")
+                .hasArg()
+                .argName("directory")
+                .desc(rb.getString("batch"))
+                .build());
+        opts.addOption(Option.builder()
+                .longOpt("batch-list")
+                .hasArg()
+                .argName("file")
+                .desc(rb.getString("batch-list"))
+                .build());
+        opts.addOption(Option.builder()
+                .longOpt("batch-threads")
+                .hasArg()
+                .argName("no")
+                .desc(rb.getString("batch-threads"))
+                .build());
+        opts.addOption(Option.builder()
+                .longOpt("batch-queue")
+                .hasArg()
+                .argName("no")
+                .desc(rb.getString("batch-queue"))
+                .build());
+    }
+
+    public static boolean isBatch(CommandLine cl) {
+        return cl.hasOption("batch");
+    }
+
+    public static void configure(BatchConverter batch, CommandLine cl)
+            throws ParseException {
+        batch.setDestinationDirectory(new File(cl.getOptionValue("batch")));
+        if (cl.hasOption("batch-list"))
+            batch.setListFile(new File(cl.getOptionValue("batch-list")));
+        batch.setThreads(getIntOption(cl, "batch-threads", batch.getThreads()));
+        batch.setQueueSize(getIntOption(cl, "batch-queue", batch.getQueueSize()));
+        if (cl.getArgList().isEmpty() && !cl.hasOption("batch-list"))
+            throw new ParseException(rb.getString("missing-batch-input"));
+    }
+
     public static void addTransferSyntaxOptions(Options opts) {
         OptionGroup group = new OptionGroup();
         group.addOption(Option.builder()
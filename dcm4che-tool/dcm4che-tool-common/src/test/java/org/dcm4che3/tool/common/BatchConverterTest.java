@@ -0,0 +1,230 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.tool.common;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class BatchConverterTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File srcDir;
+    private File destDir;
+    private BatchConverter batch;
+
+    private static final BatchConverter.ConverterFactory COPY =
+            new BatchConverter.ConverterFactory() {
+                @Override
+                public BatchConverter.Converter newConverter() {
+                    return new BatchConverter.Converter() {
+                        @Override
+                        public void convert(File src, File dest) throws Exception {
+                            byte[] b = Files.readAllBytes(src.toPath());
+                            if (new String(b, StandardCharsets.UTF_8).equals("fail"))
+                                throw new IOException("invalid content");
+                            Files.write(dest.toPath(), b);
+                        }
+                    };
+                }
+            };
+
+    @Before
+    public void setUp() throws IOException {
+        srcDir = tmp.newFolder("src");
+        destDir = tmp.newFolder("dest");
+        batch = new BatchConverter(".out");
+        batch.setDestinationDirectory(destDir);
+        batch.setThreads(2);
+        batch.setQueueSize(1);
+        batch.setPrintStream(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testIsInDestinationDirectory() {
+        assertTrue(batch.isInDestinationDirectory("a.dcm"));
+        assertTrue(batch.isInDestinationDirectory("x/a.dcm"));
+        assertTrue(batch.isInDestinationDirectory("x/../a.dcm"));
+        assertFalse(batch.isInDestinationDirectory("../a.dcm"));
+        assertFalse(batch.isInDestinationDirectory("x/../../a.dcm"));
+        assertFalse(batch.isInDestinationDirectory("."));
+    }
+
+    @Test
+    public void testDestFile() {
+        assertEquals(new File(destDir, "a.out"), batch.destFile(destDir, "a.dcm"));
+        assertEquals(new File(destDir, "a.out"), batch.destFile(destDir, "a"));
+        assertEquals(new File(destDir, ".a.out"), batch.destFile(destDir, ".a"));
+    }
+
+    @Test
+    public void testConvertDirectory() throws Exception {
+        write(srcDir, "a.dcm", "A");
+        write(new File(srcDir, "x"), "b.dcm", "B");
+        batch.convert(Collections.singletonList(srcDir.getPath()), COPY);
+        assertEquals(2, batch.getConverted());
+        assertEquals(0, batch.getFailed());
+        assertContent("A", new File(destDir, "a.out"));
+        assertContent("B", new File(destDir, "x/b.out"));
+    }
+
+    @Test
+    public void testConvertListFile() throws Exception {
+        File a = write(srcDir, "a.dcm", "A");
+        File list = write(tmp.getRoot(), "list.txt",
+                a.getAbsolutePath() + "\n\n  batch-test/b.dcm  \n../c.dcm\n");
+        File b = write(new File("batch-test"), "b.dcm", "B");
+        try {
+            batch.setListFile(list);
+            try {
+                batch.convert(Collections.<String>emptyList(), COPY);
+                fail("IOException expected");
+            } catch (IOException expected) {
+            }
+        } finally {
+            b.delete();
+            b.getParentFile().delete();
+        }
+        assertEquals(2, batch.getConverted());
+        assertEquals(1, batch.getFailed());
+        assertContent("A", new File(destDir, "a.out"));
+        assertContent("B", new File(destDir, "batch-test/b.out"));
+        assertFalse(new File(tmp.getRoot(), "c.out").exists());
+    }
+
+    @Test
+    public void testCountFailed() throws Exception {
+        write(srcDir, "a.dcm", "A");
+        write(srcDir, "b.dcm", "fail");
+        write(srcDir, "c.dcm", "fail");
+        try {
+            batch.convert(Collections.singletonList(srcDir.getPath()), COPY);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertEquals("2 of 3 files failed to convert", expected.getMessage());
+        }
+        assertEquals(1, batch.getConverted());
+        assertEquals(2, batch.getFailed());
+        assertContent("A", new File(destDir, "a.out"));
+        assertFalse(new File(destDir, "b.out").exists());
+        assertFalse(new File(destDir, "c.out").exists());
+    }
+
+    @Test
+    public void testDestinationCollision() throws Exception {
+        File a = write(srcDir, "a.dcm", "A");
+        File b = write(srcDir, "a.xml", "B");
+        try {
+            batch.convert(Arrays.asList(a.getPath(), b.getPath()), COPY);
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        assertEquals(1, batch.getConverted());
+        assertEquals(1, batch.getFailed());
+        assertContent("A", new File(destDir, "a.out"));
+    }
+
+    @Test
+    public void testDestinationCollisionInDirectory() throws Exception {
+        write(srcDir, "a.dcm", "A");
+        write(srcDir, "a.xml", "B");
+        try {
+            batch.convert(Collections.singletonList(srcDir.getPath()), COPY);
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        assertEquals(1, batch.getConverted());
+        assertEquals(1, batch.getFailed());
+    }
+
+    @Test(timeout = 10000)
+    public void testWorkersTerminated() throws Exception {
+        for (int i = 0; i < 10; i++)
+            write(srcDir, i + ".dcm", "A");
+        BatchConverter.ConverterFactory dying = new BatchConverter.ConverterFactory() {
+            @Override
+            public BatchConverter.Converter newConverter() {
+                return new BatchConverter.Converter() {
+                    @Override
+                    public void convert(File src, File dest) {
+                        throw new AssertionError("converter died");
+                    }
+                };
+            }
+        };
+        try {
+            batch.convert(Collections.singletonList(srcDir.getPath()), dying);
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        assertEquals(0, batch.getConverted());
+    }
+
+    private static File write(File dir, String name, String content) throws IOException {
+        dir.mkdirs();
+        File f = new File(dir, name);
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    private static void assertContent(String expected, File f) throws IOException {
+        assertEquals(expected, new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8));
+    }
+}
@@ -90,6 +90,7 @@ public class Dcm2Dcm {
     private DicomEncodingOptions encOpts = DicomEncodingOptions.DEFAULT;
     private final List<Property> params = new ArrayList<Property>();
     private int maxThreads = 1;
+    private int fragmentSize;
 
     public final void setTransferSyntax(String uid) {
         this.tsuid = uid;
@@ -126,6 +127,12 @@ public class Dcm2Dcm {
         this.maxThreads = maxThreads;
     }
 
+    public void setFragmentSize(int fragmentSize) {
+        if (fragmentSize < 0 || (fragmentSize & 1) != 0)
+            throw new IllegalArgumentException("fragment-size: " + fragmentSize);
+        this.fragmentSize = fragmentSize;
+    }
+
     private static Object toValue(String s) {
         try {
             return Double.valueOf(s);
@@ -191,6 +198,13 @@ public class Dcm2Dcm {
                 .desc(rb.getString("max-threads"))
                 .longOpt("max-threads")
                 .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("size")
+                .type(PatternOptionBuilder.NUMBER_VALUE)
+                .desc(rb.getString("fragment-size"))
+                .longOpt("fragment-size")
+                .build());
         opts.addOption(Option.builder()
                 .hasArg()
                 .argName("max-error")
@@ -252,6 +266,9 @@ public class Dcm2Dcm {
             if (cl.hasOption("max-threads"))
                 main.setMaxThreads(((Number) cl.getParsedOptionValue("max-threads")).intValue());
 
+            if (cl.hasOption("fragment-size"))
+                main.setFragmentSize(((Number) cl.getParsedOptionValue("fragment-size")).intValue());
+
             if (cl.hasOption("verify"))
                 main.addCompressionParam("maxPixelValueError",
                         cl.getParsedOptionValue("verify"));
@@ -407,6 +424,7 @@ public class Dcm2Dcm {
             transcoder.setEncodingOptions(encOpts);
             transcoder.setDestinationTransferSyntax(tsuid);
             transcoder.setCompressParams(params.toArray(new Property[params.size()]));
+            transcoder.setFragmentSize(fragmentSize);
             transcoder.transcode(new Transcoder.Handler(){
                 @Override
                 public OutputStream newOutputStream(Transcoder transcoder, Attributes dataset) throws IOException {
@@ -41,6 +41,7 @@ package org.dcm4che3.tool.dcm2jpg;
 import org.apache.commons.cli.*;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.image.BufferedImageUtils;
+import org.dcm4che3.image.ImageRenderer;
 import org.dcm4che3.imageio.plugins.dcm.DicomImageReadParam;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.tool.common.CLIUtils;
@@ -48,11 +49,13 @@ import org.dcm4che3.util.SafeClose;
 
 import javax.imageio.*;
 import javax.imageio.stream.ImageInputStream;
-import javax.imageio.stream.ImageOutputStream;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -364,12 +367,8 @@ public class Dcm2Jpg {
         try {
             BufferedImage bi = readImage(iis);
             bi = convert(bi);
-            dest.delete();
-            ImageOutputStream ios = ImageIO.createImageOutputStream(dest);
-            try {
-                writeImage(ios, bi);
-            } finally {
-                try { ios.close(); } catch (IOException ignore) {}
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(dest))) {
+                ImageRenderer.write(bi, imageWriter, imageWriteParam, out);
             }
         } finally {
             try { iis.close(); } catch (IOException ignore) {}
@@ -378,7 +377,7 @@ public class Dcm2Jpg {
 
     private BufferedImage convert(BufferedImage bi) {
         ColorModel cm = bi.getColorModel();
-        return cm.getNumComponents() == 3 ? BufferedImageUtils.convertToIntRGB(bi) : bi;
+        return cm.getNumComponents() == 3 && !ImageRenderer.isRGB(cm) ? BufferedImageUtils.convertToIntRGB(bi) : bi;
     }
 
     private BufferedImage readImage(ImageInputStream iis) throws IOException {
@@ -402,13 +401,6 @@ public class Dcm2Jpg {
         return param;
     }
 
-    private void writeImage(ImageOutputStream ios, BufferedImage bi)
-            throws IOException {
-        imageWriter.setOutput(ios);
-        imageWriter.write(null, new IIOImage(bi, null, null), imageWriteParam);
-    }
-
-
     private String suffix(File src) {
         return src.getName() + '.' + suffix;
     }
@@ -38,13 +38,15 @@
 
 package org.dcm4che3.tool.dcm2json;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.*;
 
 import javax.json.Json;
 import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.OptionGroup;
@@ -55,12 +57,13 @@ import org.dcm4che3.io.BasicBulkDataDescriptor;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
 import org.dcm4che3.json.JSONWriter;
+import org.dcm4che3.tool.common.BatchConverter;
 import org.dcm4che3.tool.common.CLIUtils;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
-public class Dcm2Json {
+public class Dcm2Json implements BatchConverter.ConverterFactory {
 
     private static ResourceBundle rb =
         ResourceBundle.getBundle("org.dcm4che3.tool.dcm2json.messages");
@@ -111,6 +114,7 @@ public class Dcm2Json {
         CLIUtils.addCommonOptions(opts);
         opts.addOption("I", "indent", false, rb.getString("indent"));
         addBulkdataOptions(opts);
+        CLIUtils.addBatchOptions(opts);
 
         return CLIUtils.parseComandLine(args, opts, rb, Dcm2Json.class);
     }
@@ -170,6 +174,12 @@ public class Dcm2Json {
             Dcm2Json main = new Dcm2Json();
             main.setIndent(cl.hasOption("I"));
             configureBulkdata(main, cl);
+            if (CLIUtils.isBatch(cl)) {
+                BatchConverter batch = new BatchConverter(".json");
+                CLIUtils.configure(batch, cl);
+                batch.convert(cl.getArgList(), main);
+                return;
+            }
             String fname = fname(cl.getArgList());
             if (fname.equals("-")) {
                 main.parse(new DicomInputStream(System.in));
@@ -233,24 +243,50 @@ public class Dcm2Json {
     }
 
     public void parse(DicomInputStream dis) throws IOException {
+        JsonGenerator jsonGen = createGeneratorFactory().createGenerator(System.out);
+        parse(dis, jsonGen);
+        jsonGen.flush();
+    }
+
+    private void parse(DicomInputStream dis, JsonGenerator jsonGen)
+            throws IOException {
         dis.setIncludeBulkData(includeBulkData);
         dis.setBulkDataDescriptor(bulkDataDescriptor);
         dis.setBulkDataDirectory(blkDirectory);
         dis.setBulkDataFilePrefix(blkFilePrefix);
         dis.setBulkDataFileSuffix(blkFileSuffix);
         dis.setConcatenateBulkDataFiles(catBlkFiles);
-        JsonGenerator jsonGen = createGenerator(System.out);
         JSONWriter jsonWriter = new JSONWriter(jsonGen);
-        dis.setDicomInputHandler(jsonWriter);
-        dis.readDataset(-1, -1);
-        jsonGen.flush();
+        jsonWriter.write(dis);
     }
 
-    private JsonGenerator createGenerator(OutputStream out) {
+    private JsonGeneratorFactory createGeneratorFactory() {
         Map<String, ?> conf = new HashMap<String, Object>(2);
         if (indent)
             conf.put(JsonGenerator.PRETTY_PRINTING, null);
-        return Json.createGeneratorFactory(conf).createGenerator(out);
+        return Json.createGeneratorFactory(conf);
+    }
+
+    @Override
+    public BatchConverter.Converter newConverter() {
+        final JsonGeneratorFactory factory = createGeneratorFactory();
+        return new BatchConverter.Converter() {
+            @Override
+            public void convert(File src, File dest) throws Exception {
+                DicomInputStream dis = new DicomInputStream(src);
+                try {
+                    JsonGenerator jsonGen = factory.createGenerator(
+                            new BufferedOutputStream(new FileOutputStream(dest)));
+                    try {
+                        parse(dis, jsonGen);
+                    } finally {
+                        jsonGen.close();
+                    }
+                } finally {
+                    dis.close();
+                }
+            }
+        };
     }
 
 }
@@ -38,14 +38,18 @@
 
 package org.dcm4che3.tool.dcm2xml;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
 import java.util.ResourceBundle;
 
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
@@ -61,12 +65,13 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 import org.dcm4che3.io.*;
 import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
+import org.dcm4che3.tool.common.BatchConverter;
 import org.dcm4che3.tool.common.CLIUtils;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
-public class Dcm2Xml {
+public class Dcm2Xml implements BatchConverter.ConverterFactory {
 
     private static final String XML_1_0 = "1.0";
     private static final String XML_1_1 = "1.1";
@@ -85,6 +90,7 @@ public class Dcm2Xml {
     private File blkDirectory;
     private BasicBulkDataDescriptor bulkDataDescriptor = new BasicBulkDataDescriptor();
     private String xmlVersion = XML_1_0;
+    private Templates templates;
 
     public final void setXSLTURL(String xsltURL) {
         this.xsltURL = xsltURL;
@@ -150,6 +156,7 @@ public class Dcm2Xml {
         opts.addOption(null, "xmlns", false, rb.getString("xmlns"));
         opts.addOption(null, "xml11", false, rb.getString("xml11"));
         addBulkdataOptions(opts);
+        CLIUtils.addBatchOptions(opts);
 
         return CLIUtils.parseComandLine(args, opts, rb, Dcm2Xml.class);
     }
@@ -214,6 +221,12 @@ public class Dcm2Xml {
             main.setIncludeNamespaceDeclaration(cl.hasOption("xmlns")); if (cl.hasOption("xml11"))
                 main.setXMLVersion(XML_1_1);
             configureBulkdata(main, cl);
+            if (CLIUtils.isBatch(cl)) {
+                BatchConverter batch = new BatchConverter(".xml");
+                CLIUtils.configure(batch, cl);
+                batch.convert(cl.getArgList(), main);
+                return;
+            }
             String fname = fname(cl.getArgList());
             if (fname.equals("-")) {
                 main.parse(new DicomInputStream(System.in));
@@ -287,25 +300,28 @@ public class Dcm2Xml {
 
     public void parse(DicomInputStream dis) throws IOException,
             TransformerConfigurationException {
+        parse(dis, getTransformerHandler(), System.out);
+    }
+
+    private void parse(DicomInputStream dis, TransformerHandler th,
+            OutputStream out) throws IOException {
         dis.setIncludeBulkData(includeBulkData);
         dis.setBulkDataDescriptor(bulkDataDescriptor);
         dis.setBulkDataDirectory(blkDirectory);
         dis.setBulkDataFilePrefix(blkFilePrefix);
         dis.setBulkDataFileSuffix(blkFileSuffix);
         dis.setConcatenateBulkDataFiles(catBlkFiles);
-        TransformerHandler th = getTransformerHandler();
         Transformer t = th.getTransformer();
         t.setOutputProperty(OutputKeys.INDENT, indent ? "yes" : "no");
         if (indent) {
             t.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
         }
         t.setOutputProperty(OutputKeys.VERSION, xmlVersion);
-        th.setResult(new StreamResult(System.out));
+        th.setResult(new StreamResult(out));
         SAXWriter saxWriter = new SAXWriter(th);
         saxWriter.setIncludeKeyword(includeKeyword);
         saxWriter.setIncludeNamespaceDeclaration(includeNamespaceDeclaration);
-        dis.setDicomInputHandler(saxWriter);
-        dis.readDataset(-1, -1);
+        saxWriter.write(dis);
     }
 
     private TransformerHandler getTransformerHandler()
@@ -319,4 +335,33 @@ public class Dcm2Xml {
                 new StreamSource(xsltURL));
         return th;
     }
+
+    @Override
+    public BatchConverter.Converter newConverter()
+            throws TransformerConfigurationException {
+        final SAXTransformerFactory tf = (SAXTransformerFactory)
+                TransformerFactory.newInstance();
+        if (xsltURL != null && templates == null)
+            templates = tf.newTemplates(new StreamSource(xsltURL));
+        return new BatchConverter.Converter() {
+            @Override
+            public void convert(File src, File dest) throws Exception {
+                TransformerHandler th = templates != null
+                        ? tf.newTransformerHandler(templates)
+                        : tf.newTransformerHandler();
+                DicomInputStream dis = new DicomInputStream(src);
+                try {
+                    OutputStream out = new BufferedOutputStream(
+                            new FileOutputStream(dest));
+                    try {
+                        parse(dis, th, out);
+                    } finally {
+                        out.close();
+                    }
+                } finally {
+                    dis.close();
+                }
+            }
+        };
+    }
 }
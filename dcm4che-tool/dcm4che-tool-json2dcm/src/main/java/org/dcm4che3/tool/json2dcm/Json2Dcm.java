@@ -63,13 +63,16 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.io.*;
 import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
 import org.dcm4che3.json.JSONReader;
+import org.dcm4che3.json.UTF8JSONReader;
+import org.dcm4che3.tool.common.BatchConverter;
 import org.dcm4che3.tool.common.CLIUtils;
+import org.dcm4che3.util.FileChannelCache;
 import org.dcm4che3.util.SafeClose;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
-public class Json2Dcm {
+public class Json2Dcm implements BatchConverter.ConverterFactory {
 
     private static ResourceBundle rb =
         ResourceBundle.getBundle("org.dcm4che3.tool.json2dcm.messages");
@@ -139,8 +142,9 @@ public class Json2Dcm {
         addIOFileNameOptions(opts);
         addBulkdataOptions(opts);
         addFileEncodingOptions(opts);
+        CLIUtils.addBatchOptions(opts);
         CommandLine cl = CLIUtils.parseComandLine(args, opts, rb, Json2Dcm.class);
-        if (!(cl.hasOption("j") || cl.hasOption("i")))
+        if (!(cl.hasOption("j") || cl.hasOption("i") || CLIUtils.isBatch(cl)))
             throw new ParseException(rb.getString("missing-i-j"));
         return cl;
     }
@@ -247,6 +251,11 @@ public class Json2Dcm {
             main.setWithFileMetaInformation(cl.hasOption("f"));
             main.setNoFileMetaInformation(cl.hasOption("F"));
             main.setEncodingOptions(CLIUtils.encodingOptionsOf(cl));
+            BatchConverter batch = null;
+            if (CLIUtils.isBatch(cl)) {
+                batch = new BatchConverter(".dcm");
+                CLIUtils.configure(batch, cl);
+            }
             try {
                 if (cl.hasOption("i")) {
                     String fname = cl.getOptionValue("i");
@@ -263,6 +272,11 @@ public class Json2Dcm {
                     }
                 }
 
+                if (batch != null) {
+                    batch.convert(cl.getArgList(), main);
+                    return;
+                }
+
                 if (cl.hasOption("j"))
                     main.mergeJSON(cl.getOptionValue("j"));
 
@@ -320,6 +334,11 @@ public class Json2Dcm {
     }
 
     public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, fmi, dataset);
+    }
+
+    private void writeTo(OutputStream out, Attributes fmi, Attributes dataset)
+            throws IOException {
         if (nofmi)
             fmi = null;
         else if (fmi == null
@@ -344,8 +363,10 @@ public class Json2Dcm {
 
     public void delBulkDataFiles() {
         if (bulkDataFiles != null)
-            for (File f : bulkDataFiles)
+            for (File f : bulkDataFiles) {
+                FileChannelCache.getDefault().evict(f.toPath());
                 f.delete();
+            }
     }
 
     public void parse(DicomInputStream dis) throws IOException {
@@ -387,4 +408,55 @@ public class Json2Dcm {
         }
     }
 
+    /**
+     * Returns a converter for batch mode. If a DICOM file was loaded by
+     * {@link #parse}, the attributes of each JSON file are merged with a copy
+     * of its data set.
+     */
+    @Override
+    public BatchConverter.Converter newConverter() {
+        return new BatchConverter.Converter() {
+            @Override
+            public void convert(File src, File dest) throws Exception {
+                Attributes merged = copyOfDataset();
+                UTF8JSONReader reader;
+                InputStream in = new FileInputStream(src);
+                try {
+                    reader = new UTF8JSONReader(in);
+                    reader.readDataset(merged);
+                } finally {
+                    SafeClose.close(in);
+                }
+                OutputStream out = new FileOutputStream(dest);
+                try {
+                    writeTo(out, mergeFMI(reader.getFileMetaInformation()), merged);
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the data set loaded by {@link #parse}, to be merged
+     * with the attributes of one converted file, or an empty data set.
+     */
+    private Attributes copyOfDataset() {
+        if (dataset == null)
+            return new Attributes();
+
+        synchronized (dataset) {
+            return new Attributes(dataset);
+        }
+    }
+
+    private Attributes mergeFMI(Attributes fmi2) {
+        if (fmi2 == null || fmi == null)
+            return fmi2 != null ? fmi2 : fmi;
+
+        Attributes merged = new Attributes(fmi);
+        merged.addAll(fmi2);
+        return merged;
+    }
+
 }
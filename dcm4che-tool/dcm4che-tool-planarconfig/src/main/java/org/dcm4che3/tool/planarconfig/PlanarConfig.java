@@ -440,12 +440,11 @@ public class PlanarConfig implements Closeable {
 
             @Override
             int chroma(int[] samples) {
-                float[] ybr = { samples[0] / 255f, samples[1] / 255f, samples[2] / 255f};
-                float[] rgb = YBR.FULL.toRGB(ybr);
+                int rgb = YBR.FULL.toRGB(samples[0], samples[1], samples[2]);
                 return diff3(
-                        (int) (rgb[0] * 255),
-                        (int) (rgb[1] * 255),
-                        (int) (rgb[2] * 255));
+                        (rgb >> 16) & 0xff,
+                        (rgb >> 8) & 0xff,
+                        rgb & 0xff);
             }
         };
         abstract boolean isWhite(int[] samples);
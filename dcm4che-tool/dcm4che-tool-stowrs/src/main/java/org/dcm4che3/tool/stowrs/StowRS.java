@@ -44,6 +44,11 @@ import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import javax.json.Json;
@@ -67,6 +72,7 @@ import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.SAXReader;
 import org.dcm4che3.io.SAXTransformer;
 import org.dcm4che3.json.JSONWriter;
+import org.dcm4che3.mime.MultipartWriter;
 import org.dcm4che3.tool.common.CLIUtils;
 import org.dcm4che3.util.*;
 import org.dcm4che3.util.Base64;
@@ -95,6 +101,10 @@ public class StowRS {
     private static String requestContentType;
     private static String metadataFile;
     private boolean tsuid;
+    private int batchSize;
+    private boolean splitSeries;
+    private int parallel = 1;
+    private final AtomicInteger failures = new AtomicInteger();
     private static final String boundary = "myboundary";
     private static final String APPLN_DICOM = "application/dicom";
     private static final String APPLN_DICOM_XML = "application/dicom+xml";
@@ -160,6 +170,22 @@ public class StowRS {
                 .longOpt("video")
                 .desc(rb.getString("video"))
                 .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("n")
+                .longOpt("batch-size")
+                .desc(rb.getString("batch-size"))
+                .build());
+        opts.addOption(Option.builder()
+                .longOpt("split-series")
+                .desc(rb.getString("split-series"))
+                .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("n")
+                .longOpt("parallel")
+                .desc(rb.getString("parallel"))
+                .build());
         opts.addOption(Option.builder("a")
                 .longOpt("accept")
                 .hasArg()
@@ -222,6 +248,13 @@ public class StowRS {
         bearer = cl.getOptionValue("bearer");
         vlPhotographicImage = cl.hasOption("xc");
         videoPhotographicImage = cl.hasOption("video");
+        batchSize = Integer.parseInt(cl.getOptionValue("batch-size", "0"));
+        splitSeries = cl.hasOption("split-series");
+        parallel = Integer.parseInt(cl.getOptionValue("parallel", "1"));
+        if (batchSize < 0)
+            throw new IllegalArgumentException("batch-size: " + batchSize);
+        if (parallel < 1)
+            throw new IllegalArgumentException("parallel: " + parallel);
         processFileType(files);
         setContentAndAcceptType(cl);
     }
@@ -523,24 +556,113 @@ public class StowRS {
     }
 
     private void stow(List<String> files) throws Exception {
-        URL newUrl = new URL(url);
-        final HttpURLConnection connection = (HttpURLConnection) newUrl.openConnection();
-        connection.setDoOutput(true);
-        connection.setDoInput(true);
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type",
-                "multipart/related; type=\"" + requestContentType + "\"; boundary=" + boundary);
-        connection.setRequestProperty("Accept", requestAccept);
-        logOutgoing(connection);
-        authorize(connection);
-        try (OutputStream out = connection.getOutputStream()) {
-            writeData(files, out);
-            out.write(("\r\n--" + boundary + "--\r\n").getBytes());
-            out.flush();
-            logIncoming(connection);
-            connection.disconnect();
-            LOG.info("STOW successful!");
+        List<List<Path>> batches = batches(files);
+        if (parallel == 1 || batches.size() == 1) {
+            for (List<Path> batch : batches)
+                stow(createMultipart(batch));
+        } else {
+            stowParallel(batches);
+        }
+        if (failures.get() > 0)
+            throw new IOException(failures.get() + " of " + batches.size() + " STOW requests failed");
+    }
+
+    private void stowParallel(List<List<Path>> batches) throws Exception {
+        LOG.info("Sending {} STOW requests with up to {} in flight.", batches.size(), parallel);
+        ExecutorService executor = Executors.newFixedThreadPool(parallel);
+        final Semaphore inFlight = new Semaphore(parallel);
+        List<Future<?>> futures = new ArrayList<>(batches.size());
+        try {
+            for (List<Path> batch : batches) {
+                final MultipartWriter multipart = createMultipart(batch);
+                inFlight.acquire();
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            stow(multipart);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<List<Path>> batches(List<String> files) throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        for (String file : files)
+            applyFunctionToFile(file, new StowRSFileFunction<Path>() {
+                @Override
+                public void apply(Path path) {
+                    paths.add(path);
+                }
+            });
+        List<List<Path>> batches = new ArrayList<>();
+        if (splitSeries && requestContentType.equals(APPLN_DICOM)) {
+            for (List<Path> series : splitSeries(paths))
+                splitBatches(series, batches);
+        } else
+            splitBatches(paths, batches);
+        return batches;
+    }
+
+    private void splitBatches(List<Path> paths, List<List<Path>> batches) {
+        if (batchSize == 0 || paths.size() <= batchSize) {
+            batches.add(paths);
+            return;
+        }
+        for (int i = 0; i < paths.size(); i += batchSize)
+            batches.add(paths.subList(i, Math.min(i + batchSize, paths.size())));
+    }
+
+    private static Collection<List<Path>> splitSeries(List<Path> paths) throws IOException {
+        Map<String, List<Path>> series = new LinkedHashMap<>();
+        for (Path path : paths) {
+            String seriesIUID;
+            try (DicomInputStream dis = new DicomInputStream(path.toFile())) {
+                seriesIUID = dis.readDataset(-1, Tag.PixelData).getString(Tag.SeriesInstanceUID, "");
+            }
+            List<Path> list = series.get(seriesIUID);
+            if (list == null)
+                series.put(seriesIUID, list = new ArrayList<>());
+            list.add(path);
+        }
+        return series.values();
+    }
+
+    private MultipartWriter createMultipart(List<Path> files) throws Exception {
+        MultipartWriter multipart = new MultipartWriter(boundary);
+        addParts(files, multipart);
+        return multipart;
+    }
+
+    private void stow(MultipartWriter multipart) {
+        try {
+            URL newUrl = new URL(url);
+            final HttpURLConnection connection = (HttpURLConnection) newUrl.openConnection();
+            connection.setDoOutput(true);
+            connection.setDoInput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", multipart.getContentType("related", requestContentType));
+            connection.setRequestProperty("Accept", requestAccept);
+            logOutgoing(connection);
+            authorize(connection);
+            try {
+                multipart.writeTo(connection, "related", requestContentType);
+                logIncoming(connection);
+                LOG.info("STOW of {} parts successful!", multipart.getNumberOfParts());
+            } catch (Exception e) {
+                connection.disconnect();
+                throw e;
+            }
         } catch (Exception e) {
+            failures.incrementAndGet();
             LOG.error("Exception : " + e.getMessage());
         }
     }
@@ -596,111 +718,87 @@ public class StowRS {
         }
     }
 
-    private void writeData(List<String> files, final OutputStream out) throws Exception {
+    private void addParts(List<Path> files, MultipartWriter multipart) throws Exception {
         if (!requestContentType.equals(APPLN_DICOM)) {
-            writeMetadataAndBulkData(out, files, createStaticMetadata());
+            addMetadataAndBulkDataParts(multipart, files, createStaticMetadata());
             return;
         }
 
-        for (String file : files) 
-            applyFunctionToFile(file, new StowRSFileFunction<Path>() {
-                @Override
-                public void apply(Path path) throws IOException {
-                    writeDicomFile(out, path);
-                }
-            });
-    }
-
-    private static void writeDicomFile(OutputStream out, Path path) throws IOException {
-        writePartHeaders(out, requestContentType, null);
-        Files.copy(path, out);
+        for (Path path : files)
+            multipart.addPart(requestContentType, MultipartWriter.Body.ofFile(path));
     }
 
-    private void writeMetadataAndBulkData(OutputStream out, List<String> files, final Attributes staticMetadata)
-            throws Exception {
+    private void addMetadataAndBulkDataParts(MultipartWriter multipart, List<Path> files,
+            final Attributes staticMetadata) throws Exception {
         if (requestContentType.equals(APPLN_DICOM_XML))
-            writeXMLMetadataAndBulkdata(out, files, staticMetadata);
+            addXMLMetadataAndBulkdataParts(multipart, files, staticMetadata);
 
         else {
-            try (ByteArrayOutputStream bOut = new ByteArrayOutputStream()) {
-                try (JsonGenerator gen = Json.createGenerator(bOut)) {
-                    gen.writeStartArray();
-                    if (files.isEmpty())
-                        new JSONWriter(gen).write(createMetadata(staticMetadata));
-
-                    for (String file : files)
-                        applyFunctionToFile(file, new StowRSFileFunction<Path>() {
-                            @Override
-                            public void apply(Path path) {
-                                new JSONWriter(gen).write(supplementMetadataFromFile(path, createMetadata(staticMetadata)));
-                            }
-                        });
-                    gen.writeEnd();
-                    gen.flush();
+            final List<Attributes> metadata = new ArrayList<>();
+            if (files.isEmpty())
+                metadata.add(createMetadata(staticMetadata));
+
+            for (Path path : files)
+                metadata.add(supplementMetadataFromFile(path, createMetadata(staticMetadata)));
+            addMetadataPart(multipart, new MultipartWriter.ContentWriter() {
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    try (JsonGenerator gen = Json.createGenerator(out)) {
+                        gen.writeStartArray();
+                        for (Attributes attrs : metadata)
+                            new JSONWriter(gen).write(attrs);
+                        gen.writeEnd();
+                    }
                 }
-                writeMetadata(out, bOut);
+            });
 
-                for (String contentLocation : contentLocBulkdata.keySet())
-                    writeFile(contentLocation, out);
-            }
+            for (String contentLocation : contentLocBulkdata.keySet())
+                addBulkdataPart(multipart, contentLocation);
         }
         contentLocBulkdata.clear();
     }
 
-    private void writeXMLMetadataAndBulkdata(final OutputStream out, List<String> files, final Attributes staticMetadata)
-            throws Exception {
+    private void addXMLMetadataAndBulkdataParts(MultipartWriter multipart, List<Path> files,
+            Attributes staticMetadata) throws Exception {
         if (files.isEmpty())
-            writeXMLMetadata(out, staticMetadata);
+            addXMLMetadataPart(multipart, createMetadata(staticMetadata));
 
-        for (String file : files) 
-            applyFunctionToFile(file, new StowRSFileFunction<Path>() {
-                @Override
-                public void apply(Path path) {
-                    writeXMLMetadataAndBulkdataForEach(out, staticMetadata, path);
-                }
-            });
-    }
-
-    private void writeXMLMetadataAndBulkdataForEach(OutputStream out, Attributes staticMetadata, Path bulkdataFilePath) {
-        try {
-            Attributes metadata = supplementMetadataFromFile(bulkdataFilePath, createMetadata(staticMetadata));
-            try (ByteArrayOutputStream bOut = new ByteArrayOutputStream()) {
-                SAXTransformer.getSAXWriter(new StreamResult(bOut)).write(metadata);
-                writeMetadata(out, bOut);
-            }
-            writeFile(((BulkData) metadata.getValue(fileType.getBulkdataTypeTag())).getURI(), out);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        for (Path path : files) {
+            Attributes metadata = supplementMetadataFromFile(path, createMetadata(staticMetadata));
+            addXMLMetadataPart(multipart, metadata);
+            addBulkdataPart(multipart, ((BulkData) metadata.getValue(fileType.getBulkdataTypeTag())).getURI());
         }
     }
 
-    private void writeXMLMetadata(OutputStream out, Attributes staticMetadata) {
-        Attributes metadata = createMetadata(staticMetadata);
-        try (ByteArrayOutputStream bOut = new ByteArrayOutputStream()) {
-            SAXTransformer.getSAXWriter(new StreamResult(bOut)).write(metadata);
-            writeMetadata(out, bOut);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    private void addXMLMetadataPart(MultipartWriter multipart, final Attributes metadata) throws IOException {
+        addMetadataPart(multipart, new MultipartWriter.ContentWriter() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                try {
+                    SAXTransformer.getSAXWriter(new StreamResult(out)).write(metadata);
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        });
     }
 
-    private void writeMetadata(OutputStream out, ByteArrayOutputStream bOut)
+    private static void addMetadataPart(MultipartWriter multipart, MultipartWriter.ContentWriter writer)
             throws IOException {
         LOG.info("> Metadata Content Type: " + requestContentType);
-        writePartHeaders(out, requestContentType, null);
-        LOG.debug("Metadata being sent is : " + bOut.toString());
-        out.write(bOut.toByteArray());
-    }
+        if (!LOG.isDebugEnabled()) {
+            multipart.addPart(requestContentType, MultipartWriter.Body.ofWriter(writer));
+            return;
+        }
 
-    private static void writePartHeaders(OutputStream out, String contentType, String contentLocation) throws IOException {
-        out.write(("\r\n--" + boundary + "\r\n").getBytes());
-        out.write(("Content-Type: " + contentType + "\r\n").getBytes());
-        if (contentLocation != null)
-            out.write(("Content-Location: " + contentLocation + "\r\n").getBytes());
-        out.write("\r\n".getBytes());
+        // serialize metadata in advance to log it
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        writer.writeTo(bOut);
+        LOG.debug("Metadata being sent is : " + bOut.toString());
+        multipart.addPart(requestContentType, MultipartWriter.Body.of(bOut.toByteArray()));
     }
 
-    private void writeFile(String contentLocation, OutputStream out) throws Exception {
+    private void addBulkdataPart(MultipartWriter multipart, String contentLocation) throws IOException {
         String bulkdataContentType = fileType.getMediaType();
         StowRSBulkdata stowRSBulkdata = contentLocBulkdata.get(contentLocation);
         XPEGParser parser = stowRSBulkdata.getParser();
@@ -709,18 +807,14 @@ public class StowRS {
                     + "; transfer-syntax="
                     + parser.getTransferSyntaxUID();
         LOG.info("> Bulkdata Content Type: " + bulkdataContentType);
-        writePartHeaders(out, bulkdataContentType, contentLocation);
 
-        int offset = 0;
-        int length = (int) stowRSBulkdata.getBulkdataFilePath().toFile().length();
+        Path path = stowRSBulkdata.getBulkdataFilePath();
         long positionAfterAPPSegments = parser != null ? parser.getPositionAfterAPPSegments() : -1L;
-        if (noApp && positionAfterAPPSegments != -1L) {
-            offset = (int) positionAfterAPPSegments;
-            out.write(-1);
-            out.write((byte) JPEG.SOI);
-        }
-        length -= offset;
-        out.write(Files.readAllBytes(stowRSBulkdata.getBulkdataFilePath()), offset, length);
+        multipart.addPart(bulkdataContentType, contentLocation, noApp && positionAfterAPPSegments != -1L
+                ? MultipartWriter.Body.concat(
+                        MultipartWriter.Body.of(new byte[]{ (byte) 0xFF, (byte) JPEG.SOI }),
+                        MultipartWriter.Body.ofFile(path, positionAfterAPPSegments, -1L))
+                : MultipartWriter.Body.ofFile(path));
     }
 
     static class StowRSBulkdata {
@@ -51,9 +51,14 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,6 +76,7 @@ public class WadoRS {
     private static boolean header;
     private String accept = "*";
     private static String outDir;
+    private int parallel = 1;
 
     public WadoRS() {}
 
@@ -79,8 +85,7 @@ public class WadoRS {
             WadoRS wadoRS = new WadoRS();
             CommandLine cl = parseComandLine(args);
             init(cl, wadoRS);
-            for (String url : cl.getArgList())
-                wadoRS.wado(url);
+            wadoRS.wado(cl.getArgList());
         } catch (ParseException e) {
             System.err.println("wadors: " + e.getMessage());
             System.err.println(rb.getString("try"));
@@ -113,6 +118,12 @@ public class WadoRS {
                 .longOpt("header")
                 .desc(rb.getString("header"))
                 .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("n")
+                .longOpt("parallel")
+                .desc(rb.getString("parallel"))
+                .build());
         opts.addOption(Option.builder()
                 .longOpt("out-dir")
                 .hasArg()
@@ -145,6 +156,33 @@ public class WadoRS {
         user = cl.getOptionValue("u");
         bearer = cl.getOptionValue("bearer");
         outDir = cl.getOptionValue("out-dir");
+        wadoRS.parallel = Integer.parseInt(cl.getOptionValue("parallel", "1"));
+        if (wadoRS.parallel < 1)
+            throw new IllegalArgumentException("parallel: " + wadoRS.parallel);
+    }
+
+    private void wado(List<String> urls) throws Exception {
+        if (parallel == 1 || urls.size() == 1) {
+            for (String url : urls)
+                wado(url);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallel, urls.size()));
+        List<Future<?>> futures = new ArrayList<>(urls.size());
+        try {
+            for (final String url : urls)
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        wado(url);
+                        return null;
+                    }
+                }));
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
     }
 
     private void wado(String url) throws Exception {
@@ -162,7 +200,6 @@ public class WadoRS {
         authorize(connection);
         logIncoming(connection);
         unpack(connection, uid);
-        connection.disconnect();
     }
 
     private void authorize(HttpURLConnection connection) {
@@ -215,6 +252,7 @@ public class WadoRS {
     private void unpack(HttpURLConnection connection, final String uid) throws Exception {
         if (connection.getResponseCode() != 200 && connection.getResponseCode() != 206) {
             LOG.info(connection.getResponseMessage() + ": " + connection.getResponseCode());
+            connection.disconnect();
             return;
         }
 
@@ -231,7 +269,7 @@ public class WadoRS {
                 return;
             }
 
-            new MultipartParser(boundary).parse(new BufferedInputStream(is), new MultipartParser.Handler() {
+            new MultipartParser(boundary).parse(is, new MultipartParser.Handler() {
                 @Override
                 public void bodyPart(int partNumber, MultipartInputStream multipartInputStream) throws IOException {
                     Map<String, List<String>> headerParams = multipartInputStream.readHeaderParams();
@@ -274,12 +312,21 @@ public class WadoRS {
     }
 
     private static void write(InputStream in, String fileName) throws IOException {
-        Path path = outDir != null
-                ? Files.createDirectories(Paths.get(outDir)).resolve(fileName)
-                : Paths.get(fileName);
-        try (OutputStream out = Files.newOutputStream(path)) {
+        try (OutputStream out = Files.newOutputStream(path(fileName))) {
             StreamUtils.copy(in, out);
         }
     }
 
+    private static void write(MultipartInputStream in, String fileName) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path(fileName))) {
+            in.transferTo(out);
+        }
+    }
+
+    private static Path path(String fileName) throws IOException {
+        return outDir != null
+                ? Files.createDirectories(Paths.get(outDir)).resolve(fileName)
+                : Paths.get(fileName);
+    }
+
 }
\ No newline at end of file
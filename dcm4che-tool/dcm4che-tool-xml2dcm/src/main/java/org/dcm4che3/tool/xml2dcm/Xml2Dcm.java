@@ -60,12 +60,16 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.io.*;
 import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
+import org.dcm4che3.tool.common.BatchConverter;
 import org.dcm4che3.tool.common.CLIUtils;
+import org.dcm4che3.util.FileChannelCache;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
  */
-public class Xml2Dcm {
+public class Xml2Dcm implements BatchConverter.ConverterFactory {
 
     private static ResourceBundle rb =
         ResourceBundle.getBundle("org.dcm4che3.tool.xml2dcm.messages");
@@ -141,8 +145,9 @@ public class Xml2Dcm {
         addIOFileNameOptions(opts);
         addBulkdataOptions(opts);
         addFileEncodingOptions(opts);
+        CLIUtils.addBatchOptions(opts);
         CommandLine cl = CLIUtils.parseComandLine(args, opts, rb, Xml2Dcm.class);
-        if (!(cl.hasOption("x") || cl.hasOption("i")))
+        if (!(cl.hasOption("x") || cl.hasOption("i") || CLIUtils.isBatch(cl)))
             throw new ParseException(rb.getString("missing-i-x"));
         return cl;
     }
@@ -254,6 +259,29 @@ public class Xml2Dcm {
             main.setWithFileMetaInformation(cl.hasOption("f"));
             main.setNoFileMetaInformation(cl.hasOption("F"));
             main.setEncodingOptions(CLIUtils.encodingOptionsOf(cl));
+            BatchConverter batch = null;
+            if (CLIUtils.isBatch(cl)) {
+                batch = new BatchConverter(".dcm");
+                CLIUtils.configure(batch, cl);
+            }
+            if (batch == null && !cl.hasOption("i") && !cl.hasOption("f")
+                    && StreamingContentHandlerAdapter.isSupported(main.encOpts)) {
+                String fname = cl.getOptionValue("x");
+                OutputStream out = cl.hasOption("o")
+                        ? new FileOutputStream(cl.getOptionValue("o"))
+                        : new FileOutputStream(FileDescriptor.out);
+                boolean streamed;
+                try {
+                    streamed = main.streamXML(fname, out);
+                } finally {
+                    out.close();
+                }
+                if (streamed)
+                    return;
+                if (!cl.hasOption("o") || fname.equals("-"))
+                    throw new IOException("Attributes not in ascending tag order"
+                            + " - cannot convert from standard input or to standard output");
+            }
             try {
                 if (cl.hasOption("i")) {
                     String fname = cl.getOptionValue("i");
@@ -270,6 +298,11 @@ public class Xml2Dcm {
                     }
                 }
 
+                if (batch != null) {
+                    batch.convert(cl.getArgList(), main);
+                    return;
+                }
+
                 if (cl.hasOption("x"))
                     main.mergeXML(cl.getOptionValue("x"));
 
@@ -327,6 +360,11 @@ public class Xml2Dcm {
     }
 
     public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, fmi, dataset);
+    }
+
+    private void writeTo(OutputStream out, Attributes fmi, Attributes dataset)
+            throws IOException {
         if (nofmi)
             fmi = null;
         else if (fmi == null
@@ -350,8 +388,10 @@ public class Xml2Dcm {
 
     public void delBulkDataFiles() {
         if (bulkDataFiles != null)
-            for (File f : bulkDataFiles)
+            for (File f : bulkDataFiles) {
+                FileChannelCache.getDefault().evict(f.toPath());
                 f.delete();
+            }
     }
 
     public void parse(DicomInputStream dis) throws IOException {
@@ -376,6 +416,40 @@ public class Xml2Dcm {
             fmi = fmi2;
     }
 
+    /**
+     * Encodes the attributes parsed from the XML file directly to the output
+     * stream. Requires {@link StreamingContentHandlerAdapter#isSupported
+     * supported} encoding options.
+     *
+     * @param fname XML file name or {@code "-"} for standard input
+     * @param out output stream
+     * @return {@code false} if the attributes are not in ascending tag order,
+     *         so the output is incomplete
+     * @throws Exception if the XML file cannot be parsed or the output
+     *         cannot be written
+     */
+    public boolean streamXML(String fname, OutputStream out) throws Exception {
+        StreamingContentHandlerAdapter ch = streamingContentHandler(out);
+        try {
+            parseXML(fname, ch);
+        } catch (SAXException e) {
+            if (ch.isTagOrderViolated())
+                return false;
+            throw e;
+        }
+        return true;
+    }
+
+    private StreamingContentHandlerAdapter streamingContentHandler(
+            OutputStream out) {
+        StreamingContentHandlerAdapter ch =
+                new StreamingContentHandlerAdapter(new BufferedOutputStream(out), lenient);
+        ch.setTransferSyntax(tsuid);
+        ch.setNoFileMetaInformation(nofmi);
+        ch.setEncodingOptions(encOpts);
+        return ch;
+    }
+
     public static Attributes parseXML(String fname) throws Exception {
         Attributes attrs = new Attributes();
         ContentHandlerAdapter ch = new ContentHandlerAdapter(attrs);
@@ -383,7 +457,7 @@ public class Xml2Dcm {
         return attrs;
     }
 
-    private static void parseXML(String fname, ContentHandlerAdapter ch)
+    private static void parseXML(String fname, DefaultHandler ch)
             throws Exception {
         SAXParserFactory f = SAXParserFactory.newInstance();
         SAXParser p = f.newSAXParser();
@@ -394,4 +468,68 @@ public class Xml2Dcm {
         }
     }
 
+    /**
+     * Returns a copy of the data set loaded by {@link #parse}, to be merged
+     * with the attributes of one converted file, or an empty data set.
+     */
+    private Attributes copyOfDataset() {
+        if (dataset == null)
+            return new Attributes();
+
+        synchronized (dataset) {
+            return new Attributes(dataset);
+        }
+    }
+
+    /**
+     * Returns a converter for batch mode. If a DICOM file was loaded by
+     * {@link #parse}, the attributes of each XML file are merged with a copy
+     * of its data set.
+     */
+    @Override
+    public BatchConverter.Converter newConverter() throws Exception {
+        final SAXParser p = SAXParserFactory.newInstance().newSAXParser();
+        return new BatchConverter.Converter() {
+            @Override
+            public void convert(File src, File dest) throws Exception {
+                if (dataset == null && !withfmi
+                        && StreamingContentHandlerAdapter.isSupported(encOpts)
+                        && stream(src, dest))
+                    return;
+
+                Attributes merged = copyOfDataset();
+                ContentHandlerAdapter ch =
+                        new ContentHandlerAdapter(merged, lenient);
+                try {
+                    p.parse(src, ch);
+                } finally {
+                    p.reset();
+                }
+                Attributes fmi2 = ch.getFileMetaInformation();
+                OutputStream out = new FileOutputStream(dest);
+                try {
+                    writeTo(out, fmi2 != null ? fmi2 : fmi, merged);
+                } finally {
+                    out.close();
+                }
+            }
+
+            private boolean stream(File src, File dest) throws Exception {
+                OutputStream out = new FileOutputStream(dest);
+                StreamingContentHandlerAdapter ch = streamingContentHandler(out);
+                try {
+                    p.parse(src, ch);
+                } catch (SAXException e) {
+                    if (ch.isTagOrderViolated())
+                        return false;
+                    throw e;
+                } finally {
+                    p.reset();
+                    out.close();
+                }
+                return true;
+            }
+        };
+    }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.tool.xml2dcm;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.io.DicomEncodingOptions;
+import org.dcm4che3.io.DicomInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent (agent@local)
+ * @since Oct 2026
+ */
+public class Xml2DcmTest {
+
+    private static final String XML = "<NativeDicomModel>"
+            + "<DicomAttribute tag=\"00080018\" vr=\"UI\"><Value number=\"1\">1.2.3</Value></DicomAttribute>"
+            + "<DicomAttribute tag=\"00100020\" vr=\"LO\"><Value number=\"1\">PID</Value></DicomAttribute>"
+            + "<DicomAttribute tag=\"00400275\" vr=\"SQ\"><Item number=\"1\">"
+            + "<DicomAttribute tag=\"00321060\" vr=\"LO\"><Value number=\"1\">first</Value></DicomAttribute>"
+            + "</Item></DicomAttribute>"
+            + "</NativeDicomModel>";
+
+    private static final String UNSORTED_XML = "<NativeDicomModel>"
+            + "<DicomAttribute tag=\"00100020\" vr=\"LO\"><Value number=\"1\">PID</Value></DicomAttribute>"
+            + "<DicomAttribute tag=\"00080018\" vr=\"UI\"><Value number=\"1\">1.2.3</Value></DicomAttribute>"
+            + "</NativeDicomModel>";
+
+    private static final byte[] SEQUENCE_DELIMITATION_ITEM = { (byte) 0xFE, (byte) 0xFF, (byte) 0xDD, (byte) 0xE0 };
+    private static final byte[] ITEM_DELIMITATION_ITEM = { (byte) 0xFE, (byte) 0xFF, 0x0D, (byte) 0xE0 };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConvert() throws Exception {
+        byte[] b = convert(XML, DicomEncodingOptions.DEFAULT);
+        assertTrue(contains(b, SEQUENCE_DELIMITATION_ITEM));
+        assertTrue(contains(b, ITEM_DELIMITATION_ITEM));
+        assertEquals("first", parse(b).getNestedDataset(Tag.RequestAttributesSequence).getString(Tag.RequestedProcedureDescription));
+    }
+
+    @Test
+    public void testConvertWithExplicitLengthAndGroupLength() throws Exception {
+        byte[] b = convert(XML, new DicomEncodingOptions(true, false, false, false, false));
+        assertFalse(contains(b, SEQUENCE_DELIMITATION_ITEM));
+        assertFalse(contains(b, ITEM_DELIMITATION_ITEM));
+        assertArrayEquals(new byte[] { 0x08, 0, 0, 0 }, Arrays.copyOf(b, 4));
+        assertEquals("first", parse(b).getNestedDataset(Tag.RequestAttributesSequence).getString(Tag.RequestedProcedureDescription));
+    }
+
+    @Test
+    public void testConvertUnsorted() throws Exception {
+        Attributes attrs = parse(convert(UNSORTED_XML, DicomEncodingOptions.DEFAULT));
+        assertEquals("1.2.3", attrs.getString(Tag.SOPInstanceUID));
+        assertEquals("PID", attrs.getString(Tag.PatientID));
+    }
+
+    private byte[] convert(String xml, DicomEncodingOptions encOpts) throws Exception {
+        File src = folder.newFile("src.xml");
+        File dest = new File(folder.getRoot(), "dest.dcm");
+        Files.write(src.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+        Xml2Dcm xml2dcm = new Xml2Dcm();
+        xml2dcm.setTransferSyntax(UID.ExplicitVRLittleEndian);
+        xml2dcm.setNoFileMetaInformation(true);
+        xml2dcm.setEncodingOptions(encOpts);
+        xml2dcm.newConverter().convert(src, dest);
+        return Files.readAllBytes(dest.toPath());
+    }
+
+    private static Attributes parse(byte[] b) throws IOException {
+        try (DicomInputStream dis = new DicomInputStream(
+                new ByteArrayInputStream(b), UID.ExplicitVRLittleEndian)) {
+            return dis.readDataset(-1, -1);
+        }
+    }
+
+    private static boolean contains(byte[] b, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= b.length; i++) {
+            int j = 0;
+            while (j < pattern.length && b[i + j] == pattern[j])
+                j++;
+            if (j == pattern.length)
+                return true;
+        }
+        return false;
+    }
+}